@@ -0,0 +1,2 @@
+java -cp handcoded.jar;lib\xml-apis.jar;lib\xercesimpl.jar demo.com.handcoded.fpml.Benchmark -catalog files-fpml/catalog-fpml-5-8.xml files-fpml/examples/fpml5-8/confirmation
+pause
\ No newline at end of file
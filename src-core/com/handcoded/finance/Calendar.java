@@ -15,6 +15,7 @@ package com.handcoded.finance;
 
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +38,11 @@ import com.handcoded.xml.parser.SAXParser;
  * On first reference this class bootstraps an initial set of <CODE>Calendar
  * </CODE> instance by processing XML file data/calendars.xml contained in the
  * Java archive.
+ * <P>
+ * Business day arithmetic (for example {@link #addBusinessDays(Date, int)})
+ * uses an index built the first time it is needed that records which days
+ * are business days together with a running count of them, so the cost of
+ * each operation does not depend on the distance between the dates.
  *
  * @author	BitWise
  * @version	$Id$
@@ -98,6 +104,77 @@ public abstract class Calendar
 	 */
 	public abstract boolean isBusinessDay (final Date date);
 	
+	/**
+	 * Finds the first business day after the given <CODE>Date</CODE>.
+	 * 
+	 * @param 	date			The starting <CODE>Date</CODE>.
+	 * @return	The next business day.
+	 * @throws	IllegalArgumentException If there is no business day within
+	 * 			the range of supported dates.
+	 * @since	TFP 1.9
+	 */
+	public Date nextBusinessDay (final Date date)
+	{
+		return (addBusinessDays (date, 1));
+	}
+	
+	/**
+	 * Finds the last business day before the given <CODE>Date</CODE>.
+	 * 
+	 * @param 	date			The starting <CODE>Date</CODE>.
+	 * @return	The previous business day.
+	 * @throws	IllegalArgumentException If there is no business day within
+	 * 			the range of supported dates.
+	 * @since	TFP 1.9
+	 */
+	public Date previousBusinessDay (final Date date)
+	{
+		return (addBusinessDays (date, -1));
+	}
+	
+	/**
+	 * Moves a <CODE>Date</CODE> forwards or backwards by a number of
+	 * business days. The starting <CODE>Date</CODE> need not be a business
+	 * day itself. Adding one gives the next business day after it and
+	 * subtracting one gives the last business day before it.
+	 * 
+	 * @param 	date			The starting <CODE>Date</CODE>.
+	 * @param 	days			The number of business days to move by
+	 * 							(negative to move backwards).
+	 * @return	The adjusted <CODE>Date</CODE>, or the original if
+	 * 			<CODE>days</CODE> is zero.
+	 * @throws	IllegalArgumentException If the result would fall outside
+	 * 			the range of supported dates.
+	 * @since	TFP 1.9
+	 */
+	public Date addBusinessDays (final Date date, int days)
+	{
+		if (days == 0) return (date);
+		
+		BusinessDays	index = getBusinessDays ();
+		int				day	  = date.dayNumber ();
+		int				rank  = (days > 0) ? index.rank (day + 1) + days - 1 : index.rank (day) + days;
+		
+		return (date.plusDays (index.select (rank) - day));
+	}
+	
+	/**
+	 * Counts the business days from one <CODE>Date</CODE> (inclusive) up to
+	 * another (exclusive). If the end precedes the start the result is
+	 * negative.
+	 * 
+	 * @param 	start			The first <CODE>Date</CODE> of the period.
+	 * @param 	end				The <CODE>Date</CODE> following the period.
+	 * @return	The number of business days in the period.
+	 * @since	TFP 1.9
+	 */
+	public int businessDaysBetween (final Date start, final Date end)
+	{
+		BusinessDays	index = getBusinessDays ();
+		
+		return (index.rank (end.dayNumber ()) - index.rank (start.dayNumber ()));
+	}
+	
 	/**
 	 * Converts the <CODE>Calendar</CODE> to a string for debugging.
 	 *
@@ -121,6 +198,19 @@ public abstract class Calendar
 			extent.put (name, this);
 	}
 	
+	/**
+	 * Discards the business day index so that it is rebuilt when next
+	 * needed. Subclasses must call this whenever the set of business days
+	 * they define changes.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	protected final synchronized void invalidate ()
+	{
+		businessDays = null;
+		changes.incrementAndGet ();
+	}
+	
 	/**
 	 * Produces a debugging string describing the state of the instance.
 	 *
@@ -285,6 +375,181 @@ public abstract class Calendar
 		}
 	}
 
+	/**
+	 * The <CODE>BusinessDays</CODE> class holds a bitset of the business days
+	 * of a <CODE>Calendar</CODE> indexed by day number together with the
+	 * number of business days preceding each word of the bitset.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	static final class BusinessDays
+	{
+		/**
+		 * Constructs the <CODE>BusinessDays</CODE> for a <CODE>Calendar</CODE>
+		 * by testing every supported date.
+		 * 
+		 * @param 	calendar		The <CODE>Calendar</CODE> to index.
+		 * @since	TFP 1.9
+		 */
+		BusinessDays (final Calendar calendar)
+		{
+			this (scan (calendar));
+		}
+		
+		/**
+		 * Determines if a day is a business day.
+		 * 
+		 * @param 	day				The day number.
+		 * @return	<CODE>true</CODE> if the day is a supported business day.
+		 * @since	TFP 1.9
+		 */
+		boolean contains (int day)
+		{
+			if ((day < 1) || (day > LAST_DAY)) return (false);
+			
+			return ((bits [(day - 1) >> 6] & (1L << (day - 1))) != 0);
+		}
+		
+		/**
+		 * Creates the <CODE>BusinessDays</CODE> holding only the days that are
+		 * business days in both this and another instance.
+		 * 
+		 * @param 	other			The other <CODE>BusinessDays</CODE>.
+		 * @return	The intersection of the two sets of business days.
+		 * @since	TFP 1.9
+		 */
+		BusinessDays intersect (final BusinessDays other)
+		{
+			long []		result = new long [bits.length];
+			
+			for (int word = 0; word < bits.length; ++word)
+				result [word] = bits [word] & other.bits [word];
+			
+			return (new BusinessDays (result));
+		}
+		
+		/**
+		 * Counts the business days before a given day.
+		 * 
+		 * @param 	day				The day number.
+		 * @return	The number of business days with lower day numbers.
+		 * @since	TFP 1.9
+		 */
+		int rank (int day)
+		{
+			if (day <= 1) return (0);
+			if (day > LAST_DAY) return (total);
+			
+			int			offset = day - 1;
+			
+			return (counts [offset >> 6] + Long.bitCount (bits [offset >> 6] & ((1L << offset) - 1)));
+		}
+		
+		/**
+		 * Finds a business day given the number of business days that
+		 * precede it.
+		 * 
+		 * @param 	rank			The number of preceding business days.
+		 * @return	The day number of the business day.
+		 * @throws	IllegalArgumentException If there is no such business day.
+		 * @since	TFP 1.9
+		 */
+		int select (int rank)
+		{
+			if ((rank < 0) || (rank >= total))
+				throw new IllegalArgumentException ("Business day is outside the supported date range");
+			
+			int			lower = 0;
+			int			upper = counts.length - 1;
+			
+			while (lower < upper) {
+				int			middle = (lower + upper + 1) >>> 1;
+				
+				if (counts [middle] <= rank)
+					lower = middle;
+				else
+					upper = middle - 1;
+			}
+			
+			long		word = bits [lower];
+			
+			for (int skip = rank - counts [lower]; skip > 0; --skip)
+				word &= word - 1;
+			
+			return ((lower << 6) + Long.numberOfTrailingZeros (word) + 1);
+		}
+		
+		/**
+		 * The day number of the last supported date.
+		 * @since	TFP 1.9
+		 */
+		private static final int	LAST_DAY	= DateValue.yearOffset (2100);
+		
+		/**
+		 * The number of words needed to hold a bit for each supported day.
+		 * @since	TFP 1.9
+		 */
+		private static final int	WORDS		= (LAST_DAY + 63) >> 6;
+		
+		/**
+		 * A bit for each supported day, set for business days.
+		 * @since	TFP 1.9
+		 */
+		private final long []		bits;
+		
+		/**
+		 * The number of business days preceding each word of the bitset.
+		 * @since	TFP 1.9
+		 */
+		private final int []		counts;
+		
+		/**
+		 * The total number of business days.
+		 * @since	TFP 1.9
+		 */
+		private final int			total;
+		
+		/**
+		 * Constructs a <CODE>BusinessDays</CODE> from a bitset of business
+		 * days, counting the days before each word.
+		 * 
+		 * @param 	bits			The bitset of business days.
+		 * @since	TFP 1.9
+		 */
+		private BusinessDays (final long [] bits)
+		{
+			this.bits	= bits;
+			this.counts = new int [bits.length];
+			
+			int			total = 0;
+			
+			for (int word = 0; word < bits.length; ++word) {
+				counts [word] = total;
+				total += Long.bitCount (bits [word]);
+			}
+			this.total = total;
+		}
+		
+		/**
+		 * Builds a bitset of the business days of a <CODE>Calendar</CODE> by
+		 * testing every supported date.
+		 * 
+		 * @param 	calendar		The <CODE>Calendar</CODE> to test.
+		 * @return	The bitset of business days.
+		 * @since	TFP 1.9
+		 */
+		private static long [] scan (final Calendar calendar)
+		{
+			long []		bits = new long [WORDS];
+			
+			for (int day = 1; day <= LAST_DAY; ++day)
+				if (calendar.isBusinessDay (new Date (new DateValue (day), null)))
+					bits [(day - 1) >> 6] |= 1L << (day - 1);
+			
+			return (bits);
+		}
+	}
+	
 	/**
 	 * A <CODE>Logger</CODE> instance used to report run-time problems.
 	 * @since	TFP 1.0
@@ -299,6 +564,13 @@ public abstract class Calendar
 	private static Hashtable<String, Calendar> extent
 		= new Hashtable<String, Calendar> ();
 	
+	/**
+	 * Counts the changes made to the business days of any
+	 * <CODE>Calendar</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static final AtomicInteger	changes	= new AtomicInteger ();
+	
 	private static final String	DEFAULT_FROM	= "1901";
 	
 	private static final String DEFAULT_UNTIL	= "2099";
@@ -311,6 +583,44 @@ public abstract class Calendar
 	 * @since	TFP 1.0
 	 */
 	private final String		name;
+	
+	/**
+	 * The business day index or <CODE>null</CODE> if it must be built.
+	 * @since	TFP 1.9
+	 */
+	private volatile BusinessDays	businessDays = null;
+	
+	/**
+	 * Provides a count that increases whenever the business days of any
+	 * <CODE>Calendar</CODE> are changed, allowing values derived from them
+	 * to be recognised as stale.
+	 * 
+	 * @return	The current change count.
+	 * @since	TFP 1.9
+	 */
+	static int getChangeCount ()
+	{
+		return (changes.get ());
+	}
+	
+	/**
+	 * Provides the business day index, building it if necessary.
+	 * 
+	 * @return	The <CODE>BusinessDays</CODE> for this <CODE>Calendar</CODE>.
+	 * @since	TFP 1.9
+	 */
+	BusinessDays getBusinessDays ()
+	{
+		BusinessDays	result = businessDays;
+		
+		if (result == null) {
+			synchronized (this) {
+				if ((result = businessDays) == null)
+					businessDays = result = new BusinessDays (this);
+			}
+		}
+		return (result);
+	}
 		
 	/**
 	 * Initialises the <CODE>Calendar</CODE> cache by parsing a standard set of
@@ -13,6 +13,10 @@
 
 package com.handcoded.finance;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Vector;
 
 /**
@@ -21,6 +25,12 @@ import java.util.Vector;
  * <P>
  * A date is only considered a business day if it is business day in all the
  * underlying <CODE>Calendar</CODE> instances.
+ * <P>
+ * The business days of each combination of calendars are worked out once,
+ * by intersecting the business day indexes of its members, and shared by
+ * every <CODE>CalendarSet</CODE> with the same members through a small
+ * cache that discards the least recently used combinations. Testing a date
+ * then costs the same as for a single <CODE>Calendar</CODE>.
  * 
  * @author 	BitWise
  * @version	$Id$
@@ -46,6 +56,7 @@ public final class CalendarSet extends Calendar
 	public void add (Calendar calendar)
 	{
 		calendars.add (calendar);
+		invalidate ();
 	}
 	
 	/**
@@ -60,16 +71,241 @@ public final class CalendarSet extends Calendar
 	@Override
 	public boolean isBusinessDay (final Date date)
 	{
+		Combination		current = combination;
+		
+		if ((current != null) && (current.changes == getChangeCount ()))
+			return (current.businessDays.contains (date.dayNumber ()));
+		
+		if (calendars.size () > 1)
+			return (getBusinessDays ().contains (date.dayNumber ()));
+		
 		for (Calendar calendar : calendars)
 			if (!calendar.isBusinessDay (date))
 				return (false);
 		
 		return (true);
 	}
-
+	
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * The index for a set of two or more calendars is the intersection of
+	 * their indexes, shared with other sets having the same members.
+	 * @since	TFP 1.9
+	 */
+	@Override
+	BusinessDays getBusinessDays ()
+	{
+		Combination		result = combination;
+		
+		if ((result == null) || (result.changes != getChangeCount ())) {
+			Calendar []		members;
+			
+			synchronized (calendars) {
+				members = calendars.toArray (new Calendar [calendars.size ()]);
+			}
+			
+			if (members.length == 0) return (super.getBusinessDays ());
+			if (members.length == 1) return (members [0].getBusinessDays ());
+			
+			combination = result = combine (members);
+		}
+		return (result.businessDays);
+	}
+	
+	/**
+	 * The <CODE>Combination</CODE> class holds the business day index built
+	 * for a particular set of member calendars.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Combination
+	{
+		/**
+		 * Constructs a <CODE>Combination</CODE> by intersecting the indexes
+		 * of its members.
+		 * 
+		 * @param 	members			The member <CODE>Calendar</CODE> instances.
+		 * @param 	changes			The calendar change count when the index
+		 * 							was started.
+		 * @since	TFP 1.9
+		 */
+		Combination (final Calendar [] members, int changes)
+		{
+			BusinessDays	result = members [0].getBusinessDays ();
+			
+			for (int index = 1; index < members.length; ++index)
+				result = result.intersect (members [index].getBusinessDays ());
+			
+			this.businessDays = result;
+			this.changes	  = changes;
+		}
+		
+		/**
+		 * The business days common to all the members.
+		 * @since	TFP 1.9
+		 */
+		final BusinessDays	businessDays;
+		
+		/**
+		 * The calendar change count when the index was built.
+		 * @since	TFP 1.9
+		 */
+		final int			changes;
+	}
+	
+	/**
+	 * The <CODE>Members</CODE> class is the key used to find the
+	 * <CODE>Combination</CODE> for a set of calendars. Its members are
+	 * sorted so that the order in which they were added does not matter.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Members
+	{
+		/**
+		 * Constructs a <CODE>Members</CODE> key.
+		 * 
+		 * @param 	members			The member <CODE>Calendar</CODE> instances
+		 * 							(which will be sorted).
+		 * @since	TFP 1.9
+		 */
+		Members (final Calendar [] members)
+		{
+			Arrays.sort (members, ORDER);
+			
+			int			hash = 0;
+			
+			for (int index = 0; index < members.length; ++index)
+				hash = 31 * hash + System.identityHashCode (members [index]);
+			
+			this.members = members;
+			this.hash	 = hash;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int hashCode ()
+		{
+			return (hash);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public boolean equals (Object other)
+		{
+			if (!(other instanceof Members)) return (false);
+			
+			Calendar []		those = ((Members) other).members;
+			
+			if (those.length != members.length) return (false);
+			for (int index = 0; index < members.length; ++index)
+				if (those [index] != members [index]) return (false);
+			
+			return (true);
+		}
+		
+		/**
+		 * Orders calendars by name, and unnamed or identically named ones
+		 * by identity.
+		 * @since	TFP 1.9
+		 */
+		private static final Comparator<Calendar> ORDER
+			= new Comparator<Calendar> ()
+				{
+					public int compare (Calendar first, Calendar second)
+					{
+						String		name1 = first.getName ();
+						String		name2 = second.getName ();
+						int			order = (name1 == null) ? ((name2 == null) ? 0 : -1)
+											: ((name2 == null) ? 1 : name1.compareTo (name2));
+						
+						if (order == 0)
+							order = Integer.compare (System.identityHashCode (first),
+									System.identityHashCode (second));
+						return (order);
+					}
+				};
+		
+		/**
+		 * The sorted member <CODE>Calendar</CODE> instances.
+		 * @since	TFP 1.9
+		 */
+		private final Calendar []	members;
+		
+		/**
+		 * The hash code derived from the members' identities.
+		 * @since	TFP 1.9
+		 */
+		private final int			hash;
+	}
+	
+	/**
+	 * The maximum number of combinations held in the shared cache.
+	 * @since	TFP 1.9
+	 */
+	private static final int	CACHE_CAPACITY	= 64;
+	
+	/**
+	 * The shared cache of combinations in least recently used order.
+	 * @since	TFP 1.9
+	 */
+	private static final LinkedHashMap<Members, Combination> cache
+		= new LinkedHashMap<Members, Combination> (16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry (Map.Entry<Members, Combination> eldest)
+				{
+					return (size () > CACHE_CAPACITY);
+				}
+			};
+	
 	/**
 	 * The underlying set of <CODE>Calendar</CODE> instances.
 	 * @since	TFP 1.7
 	 */
 	private Vector<Calendar>	calendars = new Vector<Calendar> ();
+	
+	/**
+	 * The <CODE>Combination</CODE> last used by this instance, or
+	 * <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private volatile Combination combination = null;
+	
+	/**
+	 * Finds the <CODE>Combination</CODE> for a set of member calendars in
+	 * the shared cache, building it if it is missing or stale.
+	 * 
+	 * @param 	members			The member <CODE>Calendar</CODE> instances.
+	 * @return	The <CODE>Combination</CODE> for the members.
+	 * @since	TFP 1.9
+	 */
+	private static Combination combine (final Calendar [] members)
+	{
+		Members			key		= new Members (members);
+		int				changes	= getChangeCount ();
+		Combination		result;
+		
+		synchronized (cache) {
+			result = cache.get (key);
+		}
+		
+		if ((result == null) || (result.changes != changes)) {
+			result = new Combination (members, changes);
+			
+			synchronized (cache) {
+				cache.put (key, result);
+			}
+		}
+		return (result);
+	}
 }
\ No newline at end of file
@@ -13,6 +13,7 @@
 
 package com.handcoded.finance;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Calendar;
@@ -654,10 +655,42 @@ public final class DateTime extends TemporalDate
 	 */
 	public String toString ()
 	{
-		if (timeZone != null)
-			return (dateValue.toString() + "T" + timeValue.toString() + timeZone.toString());
-		else
-			return (dateValue.toString() + "T" + timeValue.toString());
+		return (appendTo (new StringBuilder (32)).toString ());
+	}
+	
+	/**
+	 * Appends the ISO format representation of the <CODE>DateTime</CODE> to
+	 * a <CODE>StringBuilder</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>StringBuilder</CODE> to append to.
+	 * @return	The <CODE>StringBuilder</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public StringBuilder appendTo (StringBuilder builder)
+	{
+		dateValue.appendTo (builder).append ('T');
+		timeValue.appendTo (builder);
+		if (timeZone != null) timeZone.appendTo (builder);
+		
+		return (builder);
+	}
+	
+	/**
+	 * Appends the formatted value to an <CODE>Appendable</CODE> such as a
+	 * <CODE>Writer</CODE>.
+	 * 
+	 * @param 	target			The <CODE>Appendable</CODE> to append to.
+	 * @return	The <CODE>Appendable</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	public Appendable appendTo (Appendable target)
+		throws IOException
+	{
+		if (target instanceof StringBuilder)
+			return (appendTo ((StringBuilder) target));
+		
+		return (target.append (toString ()));
 	}
 	
 	/**
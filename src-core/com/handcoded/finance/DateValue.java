@@ -385,23 +385,20 @@ final class DateValue implements ImmutableDate, Comparable<DateValue>, Serializa
 	 */
 	public String toString ()
 	{
-		int				year	= year (); 
-		int				month	= month ();
-		int				day		= dayOfMonth ();
-		
-		synchronized (buffer) {
-			buffer.setLength (0);
-			
-			buffer.append (year);
-			buffer.append ('-');
-			buffer.append ((char)('0' + month / 10));
-			buffer.append ((char)('0' + month % 10));
-			buffer.append ('-');
-			buffer.append ((char)('0' + day / 10));
-			buffer.append ((char)('0' + day % 10));
-			
-			return (buffer.toString ());
-		}
+		return (new String (format ()));
+	}
+	
+	/**
+	 * Appends the ISO format representation of the date (YYYY-MM-DD) to a
+	 * <CODE>StringBuilder</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>StringBuilder</CODE> to append to.
+	 * @return	The <CODE>StringBuilder</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public StringBuilder appendTo (StringBuilder builder)
+	{
+		return (builder.append (format ()));
 	}
 		
 	/**
@@ -559,15 +556,27 @@ final class DateValue implements ImmutableDate, Comparable<DateValue>, Serializa
 	private static final long serialVersionUID = -5790893719145834093L;
 
 	/**
-	 * A static buffer used to produce the <CODE>toString</CODE> value. The
-	 * buffer must be synchronized before use to ensure thread safety.
+	 * The date expressed as the number of days since 1st Jan 1900
 	 * @since	TFP 1.0
 	 */
-	private static final StringBuffer	buffer = new StringBuffer ();
+	private final int			date;
 	
 	/**
-	 * The date expressed as the number of days since 1st Jan 1900
-	 * @since	TFP 1.0
+	 * Formats the date in ISO format (YYYY-MM-DD).
+	 * 
+	 * @return	The characters of the formatted date.
+	 * @since	TFP 1.9
 	 */
-	private final int			date;
+	private char [] format ()
+	{
+		int				year	= year (); 
+		int				month	= month ();
+		int				day		= dayOfMonth ();
+		
+		return (new char [] {
+				(char)('0' + year / 1000), (char)('0' + year / 100 % 10),
+				(char)('0' + year / 10 % 10), (char)('0' + year % 10), '-',
+				(char)('0' + month / 10), (char)('0' + month % 10), '-',
+				(char)('0' + day / 10), (char)('0' + day % 10) });
+	}
 }
\ No newline at end of file
@@ -13,13 +13,18 @@
 
 package com.handcoded.finance;
 
-import java.util.Hashtable;
 import java.util.Vector;
 
 /**
  * A <CODE>RuleBasedCalendar</CODE> uses a set of <CODE>CalendarRule</CODE>
  * instance to derive the dates on which holidays will occur either in the
  * past or future.
+ * <P>
+ * The holidays are compiled into a packed bitset indexed by day number
+ * which initially covers the years 1901 to 2099. The bitset is never
+ * modified once published so lookups need no locking. If a date outside
+ * the covered years is tested a larger copy is built and published in its
+ * place.
  * 
  * @author	BitWise
  * @version	$Id$
@@ -51,28 +56,19 @@ public final class RuleBasedCalendar extends Calendar
 	{
 		if (weekend.isWeekend (date)) return (false);
 		
-		int year = date.year ();
+		int			day		= date.dayNumber ();
+		Holidays	current = holidays;
 		
-		if ((holidays == null) || (year < minYear) || (year > maxYear))
+		if ((current == null) || !current.covers (day)) {
 			synchronized (this) {
-				if (holidays == null) {
-					holidays = new Hashtable<Date, CalendarRule> ();
+				// A rule is testing a date while the holidays are generated
+				if (building != null)
+					return (!building.covers (day) || !building.contains (day));
 				
-					generate (minYear = maxYear = year, year);
-				}
-				else {
-					if (year < minYear) {
-						int oldLimit = minYear;
-						generate (minYear = year, oldLimit - 1);
-					}
-					else if (year > maxYear) {
-						int oldLimit = maxYear;
-						generate (oldLimit + 1, maxYear = year);
-					}
-				}
+				current = extend (date.year ());
 			}
-	
-		return (!holidays.containsKey(date));
+		}
+		return (!current.contains (day));
 	}
 	
 	/**
@@ -82,11 +78,150 @@ public final class RuleBasedCalendar extends Calendar
 	 * @param 	rule			The <CODE>CalendarRule</CODE> to be added.
 	 * @since	TFP 1.0
 	 */
-	public void addRule (final CalendarRule rule)
+	public synchronized void addRule (final CalendarRule rule)
 	{
 		rules.add (rule);
+		holidays = null;
+		invalidate ();
 	}
 	
+	/**
+	 * The <CODE>Holidays</CODE> class holds a packed bitset of the holidays
+	 * in a range of years indexed by day number.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Holidays
+	{
+		/**
+		 * Constructs an empty <CODE>Holidays</CODE> instance for a range of
+		 * years.
+		 * 
+		 * @param 	firstYear		The first year covered.
+		 * @param 	lastYear		The last year covered.
+		 * @since	TFP 1.9
+		 */
+		Holidays (int firstYear, int lastYear)
+		{
+			this.firstYear = firstYear;
+			this.lastYear  = lastYear;
+			
+			firstDay = DateValue.yearOffset (firstYear) + 1;
+			lastDay	 = DateValue.yearOffset (lastYear + 1);
+			bits	 = new long [((lastDay - firstDay) >> 6) + 1];
+		}
+		
+		/**
+		 * Constructs a <CODE>Holidays</CODE> instance for a wider range of
+		 * years containing a copy of the holidays in another.
+		 * 
+		 * @param 	source			The <CODE>Holidays</CODE> to copy.
+		 * @param 	firstYear		The first year covered.
+		 * @param 	lastYear		The last year covered.
+		 * @since	TFP 1.9
+		 */
+		Holidays (final Holidays source, int firstYear, int lastYear)
+		{
+			this (firstYear, lastYear);
+			
+			for (int day = source.firstDay; day <= source.lastDay; ++day)
+				if (source.contains (day)) add (day);
+		}
+		
+		/**
+		 * Determines if a day falls within the years covered.
+		 * 
+		 * @param 	day				The day number to test.
+		 * @return	<CODE>true</CODE> if the day is covered.
+		 * @since	TFP 1.9
+		 */
+		boolean covers (int day)
+		{
+			return ((day >= firstDay) && (day <= lastDay));
+		}
+		
+		/**
+		 * Determines if a year is covered.
+		 * 
+		 * @param 	year			The year to test.
+		 * @return	<CODE>true</CODE> if the year is covered.
+		 * @since	TFP 1.9
+		 */
+		boolean coversYear (int year)
+		{
+			return ((year >= firstYear) && (year <= lastYear));
+		}
+		
+		/**
+		 * Determines if a covered day is a holiday.
+		 * 
+		 * @param 	day				The day number to test.
+		 * @return	<CODE>true</CODE> if the day is a holiday.
+		 * @since	TFP 1.9
+		 */
+		boolean contains (int day)
+		{
+			int			offset = day - firstDay;
+			
+			return ((bits [offset >> 6] & (1L << offset)) != 0);
+		}
+		
+		/**
+		 * Marks a covered day as a holiday.
+		 * 
+		 * @param 	day				The day number of the holiday.
+		 * @since	TFP 1.9
+		 */
+		void add (int day)
+		{
+			int			offset = day - firstDay;
+			
+			bits [offset >> 6] |= 1L << offset;
+		}
+		
+		/**
+		 * The first year covered.
+		 * @since	TFP 1.9
+		 */
+		final int				firstYear;
+		
+		/**
+		 * The last year covered.
+		 * @since	TFP 1.9
+		 */
+		final int				lastYear;
+		
+		/**
+		 * The day number of the first day covered.
+		 * @since	TFP 1.9
+		 */
+		private final int		firstDay;
+		
+		/**
+		 * The day number of the last day covered.
+		 * @since	TFP 1.9
+		 */
+		private final int		lastDay;
+		
+		/**
+		 * A bit for each day covered, set for holidays.
+		 * @since	TFP 1.9
+		 */
+		private final long []	bits;
+	}
+	
+	/**
+	 * The first year for which holidays are generated by default.
+	 * @since	TFP 1.9
+	 */
+	private static final int	DEFAULT_FIRST_YEAR	= 1901;
+	
+	/**
+	 * The last year for which holidays are generated by default.
+	 * @since	TFP 1.9
+	 */
+	private static final int	DEFAULT_LAST_YEAR	= 2099;
+	
 	/**
 	 * The <CODE>Weekend</CODE> instance to use for recurring weekly
 	 * non-business days.
@@ -102,39 +237,71 @@ public final class RuleBasedCalendar extends Calendar
 		= new Vector<CalendarRule> ();
 	
 	/**
-	 * The oldest year for which holiday dates have been calculated.
-	 * @since	TFP 1.0
+	 * The holidays determined so far or <CODE>null</CODE> if they must be
+	 * generated.
+	 * @since	TFP 1.9
 	 */
-	private int					minYear;
+	private volatile Holidays	holidays = null;
 	
 	/**
-	 * The most future year for which holiday dates have been calculated.
-	 * @since	TFP 1.0
+	 * The holidays being generated, which are only visible to the thread
+	 * generating them while it holds the lock.
+	 * @since	TFP 1.9
 	 */
-	private int					maxYear;
-	
+	private Holidays			building = null;
+
 	/**
-	 * The set of all holiday dates determined so far.
-	 * @since	TFP 1.0
+	 * Generates the holidays for a set of years including the one specified
+	 * and publishes them. The caller must hold the lock.
+	 *  
+	 * @param 	year			The year required.
+	 * @return	The <CODE>Holidays</CODE> covering the year.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<Date, CalendarRule> holidays = null;
-
+	private Holidays extend (int year)
+	{
+		Holidays	current = holidays;
+		
+		if ((current != null) && current.coversYear (year)) return (current);
+		
+		Holidays	result;
+		
+		if (current != null)
+			result = new Holidays (current, Math.min (year, current.firstYear),
+					Math.max (year, current.lastYear));
+		else
+			result = new Holidays (Math.min (year, DEFAULT_FIRST_YEAR),
+					Math.max (year, DEFAULT_LAST_YEAR));
+		
+		building = result;
+		try {
+			for (int index = result.firstYear; index <= result.lastYear; ++index)
+				if ((current == null) || !current.coversYear (index))
+					generate (result, index);
+		}
+		finally {
+			building = null;
+		}
+		return (holidays = result);
+	}
+	
 	/**
-	 * Uses the <CODE>CalendarRule</CODE> instances to extend the holiday
-	 * set for the years specified.
+	 * Uses the <CODE>CalendarRule</CODE> instances to add the holidays in a
+	 * given year to a <CODE>Holidays</CODE> instance.
 	 *  
-	 * @param 	min				The first year in the period required.
-	 * @param 	max				The last year in the period required.
-	 * @since	TFP 1.0
+	 * @param 	result			The <CODE>Holidays</CODE> to extend.
+	 * @param 	year			The year to generate.
+	 * @since	TFP 1.9
 	 */
-	private void generate (int min, int max)
+	private void generate (final Holidays result, int year)
 	{
 		for (CalendarRule rule : rules) {
-			int		from  = Math.max (min, rule.getFrom ());
-			int		until = Math.min (max, rule.getUntil ());
-
-			for (int year = from; year <= until; ++year)
-				holidays.put (rule.generate (this, year), rule);
+			if (rule.isApplicable (year)) {
+				Date	date = rule.generate (this, year);
+				
+				if ((date != null) && result.covers (date.dayNumber ()))
+					result.add (date.dayNumber ());
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.finance;
+
+import java.util.Arrays;
+
+/**
+ * A <CODE>Schedule</CODE> is an immutable, ordered set of dates produced by
+ * a <CODE>ScheduleGenerator</CODE>. The dates are held as day numbers so
+ * that testing for membership or iterating over the schedule does not
+ * create any <CODE>Date</CODE> instances. All the dates share the time zone
+ * (if any) of the start date of the schedule.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class Schedule
+{
+	/**
+	 * Creates a <CODE>Schedule</CODE> holding the distinct dates of an array.
+	 * The dates take the time zone of the first array element.
+	 * 
+	 * @param 	dates			The <CODE>Date</CODE> instances.
+	 * @return	A <CODE>Schedule</CODE> holding the dates.
+	 * @since	TFP 1.9
+	 */
+	public static Schedule valueOf (final Date [] dates)
+	{
+		int []		days   = new int [dates.length];
+		int			unique = 0;
+		
+		for (int index = 0; index < dates.length; ++index)
+			days [index] = dates [index].dayNumber ();
+		
+		Arrays.sort (days);
+		for (int index = 0; index < days.length; ++index)
+			if ((unique == 0) || (days [index] != days [unique - 1]))
+				days [unique++] = days [index];
+		
+		return (new Schedule (Arrays.copyOf (days, unique),
+				(dates.length > 0) ? dates [0].getTimeZone () : null));
+	}
+	
+	/**
+	 * Provides the number of dates in the <CODE>Schedule</CODE>.
+	 * 
+	 * @return	The number of dates.
+	 * @since	TFP 1.9
+	 */
+	public int size ()
+	{
+		return (days.length);
+	}
+	
+	/**
+	 * Provides the day number of one of the dates in the
+	 * <CODE>Schedule</CODE>.
+	 * 
+	 * @param 	index			The index of the date (from zero).
+	 * @return	The day number of the indexed date.
+	 * @since	TFP 1.9
+	 */
+	public int getDayNumber (int index)
+	{
+		return (days [index]);
+	}
+	
+	/**
+	 * Creates a <CODE>Date</CODE> for one of the dates in the
+	 * <CODE>Schedule</CODE>.
+	 * 
+	 * @param 	index			The index of the date (from zero).
+	 * @return	The indexed date.
+	 * @since	TFP 1.9
+	 */
+	public Date getDate (int index)
+	{
+		return (new Date (new DateValue (days [index]), timeZone));
+	}
+	
+	/**
+	 * Finds the position of a day number within the <CODE>Schedule</CODE>.
+	 * 
+	 * @param 	dayNumber		The day number to look for.
+	 * @return	The index of the matching date or -1 if it is not present.
+	 * @since	TFP 1.9
+	 */
+	public int indexOf (int dayNumber)
+	{
+		int			index = Arrays.binarySearch (days, dayNumber);
+		
+		return ((index >= 0) ? index : -1);
+	}
+	
+	/**
+	 * Determines if a <CODE>Date</CODE> is part of the <CODE>Schedule</CODE>.
+	 * Dates are matched in the same way as by <CODE>Date.equals</CODE>.
+	 * 
+	 * @param 	date			The <CODE>Date</CODE> to look for.
+	 * @return	<CODE>true</CODE> if the date is present.
+	 * @since	TFP 1.9
+	 */
+	public boolean contains (final Date date)
+	{
+		if (days.length == 0) return (false);
+		
+		TimeZone	zone = date.getTimeZone ();
+		
+		if ((timeZone == null) ? (zone == null) : ((zone != null) && timeZone.equals (zone)))
+			return (Arrays.binarySearch (days, date.dayNumber ()) >= 0);
+		
+		for (int index = 0; index < days.length; ++index)
+			if (getDate (index).equals (date)) return (true);
+		
+		return (false);
+	}
+	
+	/**
+	 * Copies the day numbers of the <CODE>Schedule</CODE> into a caller
+	 * supplied array, allowing it to be reused between schedules. If the
+	 * array is too short only the first dates are copied.
+	 * 
+	 * @param 	target			The array to be filled.
+	 * @return	The number of dates in the <CODE>Schedule</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public int copyInto (int [] target)
+	{
+		System.arraycopy (days, 0, target, 0, Math.min (days.length, target.length));
+		return (days.length);
+	}
+	
+	/**
+	 * Creates an array holding all the dates of the <CODE>Schedule</CODE>.
+	 * 
+	 * @return	An array of <CODE>Date</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	public Date [] toArray ()
+	{
+		Date []		result = new Date [days.length];
+		
+		for (int index = 0; index < days.length; ++index)
+			result [index] = getDate (index);
+		
+		return (result);
+	}
+	
+	/**
+	 * Produces a debugging string describing the <CODE>Schedule</CODE>.
+	 * 
+	 * @return	The dates of the <CODE>Schedule</CODE>.
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public String toString ()
+	{
+		return (getClass ().getName () + " " + Arrays.toString (toArray ()));
+	}
+	
+	/**
+	 * Constructs a <CODE>Schedule</CODE> from an array of day numbers.
+	 * 
+	 * @param 	days			The day numbers in ascending order without
+	 * 							duplicates (not copied).
+	 * @param 	timeZone		The time zone of the dates or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	Schedule (final int [] days, final TimeZone timeZone)
+	{
+		this.days 	  = days;
+		this.timeZone = timeZone;
+	}
+	
+	/**
+	 * The day numbers of the dates in ascending order.
+	 * @since	TFP 1.9
+	 */
+	private final int []		days;
+	
+	/**
+	 * The time zone of the dates or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final TimeZone		timeZone;
+}
\ No newline at end of file
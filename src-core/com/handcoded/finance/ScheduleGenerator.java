@@ -0,0 +1,784 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.finance;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A <CODE>ScheduleGenerator</CODE> calculates the dates of a regular
+ * schedule (for example the calculation periods of a swap) from a start
+ * date, an end date and a frequency, optionally adjusting each date to a
+ * business day with a <CODE>DateRoll</CODE> and <CODE>Calendar</CODE>.
+ * <P>
+ * Dates are normally calculated by stepping the frequency from an anchor
+ * date, so a monthly schedule that starts on the 31st returns to the 31st
+ * after a shorter month. A chained generator instead steps each date from
+ * the previous one (as repeated calls to <CODE>Date.plus</CODE> would) so
+ * that once shortened the day of the month stays shortened. A roll day may
+ * be given to fix the day of the month used by monthly and yearly anchored
+ * schedules (31 is equivalent to an end of month convention).
+ * <P>
+ * Without a roll day each step follows the rules of <CODE>Date.plus</CODE>,
+ * including throwing an <CODE>IllegalArgumentException</CODE> for a yearly
+ * step from the 29th of February to a year that is not a leap year or a
+ * monthly or yearly step beyond 2099.
+ * <P>
+ * The dates of a <CODE>Schedule</CODE> take the time zone of its start
+ * date and end dates are compared in the same way as by
+ * <CODE>Date.compareTo</CODE>.
+ * <P>
+ * All the calculations are performed on day numbers. Business day
+ * adjustments by the standard <CODE>DateRoll</CODE> conventions use the
+ * business day index of the <CODE>Calendar</CODE> rather than testing
+ * individual <CODE>Date</CODE> instances. Completed schedules are held in
+ * a shared cache so that rules that examine the same schedule many times
+ * only calculate it once.
+ * <P>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class ScheduleGenerator
+{
+	/**
+	 * Constructs a <CODE>ScheduleGenerator</CODE> for unadjusted dates with
+	 * the given frequency.
+	 * 
+	 * @param 	frequency		The frequency of the schedule (e.g. 6M).
+	 * @since	TFP 1.9
+	 */
+	public ScheduleGenerator (final Interval frequency)
+	{
+		this (frequency, 0, null, null);
+	}
+	
+	/**
+	 * Constructs a <CODE>ScheduleGenerator</CODE> for dates with the given
+	 * frequency adjusted by a <CODE>DateRoll</CODE>.
+	 * 
+	 * @param 	frequency		The frequency of the schedule (e.g. 6M).
+	 * @param 	roll			The date roll convention or <CODE>null</CODE>.
+	 * @param 	calendar		The holiday calendar or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public ScheduleGenerator (final Interval frequency, final DateRoll roll,
+			final Calendar calendar)
+	{
+		this (frequency, 0, roll, calendar);
+	}
+	
+	/**
+	 * Constructs a <CODE>ScheduleGenerator</CODE> for dates with the given
+	 * frequency and roll day adjusted by a <CODE>DateRoll</CODE>.
+	 * 
+	 * @param 	frequency		The frequency of the schedule (e.g. 6M).
+	 * @param 	rollDay			The day of the month for monthly and yearly
+	 * 							schedules (1-31) or zero to use the day of
+	 * 							the anchor date.
+	 * @param 	roll			The date roll convention or <CODE>null</CODE>.
+	 * @param 	calendar		The holiday calendar or <CODE>null</CODE>.
+	 * @throws	IllegalArgumentException If the roll day is invalid.
+	 * @since	TFP 1.9
+	 */
+	public ScheduleGenerator (final Interval frequency, int rollDay,
+			final DateRoll roll, final Calendar calendar)
+	{
+		this (frequency, rollDay, false, roll, calendar);
+	}
+	
+	/**
+	 * Constructs a <CODE>ScheduleGenerator</CODE> for dates with the given
+	 * frequency adjusted by a <CODE>DateRoll</CODE>, optionally stepping
+	 * each date from the previous one rather than from the anchor date.
+	 * 
+	 * @param 	frequency		The frequency of the schedule (e.g. 6M).
+	 * @param 	chained			<CODE>true</CODE> if each date is stepped
+	 * 							from the previous date.
+	 * @param 	roll			The date roll convention or <CODE>null</CODE>.
+	 * @param 	calendar		The holiday calendar or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public ScheduleGenerator (final Interval frequency, boolean chained,
+			final DateRoll roll, final Calendar calendar)
+	{
+		this (frequency, 0, chained, roll, calendar);
+	}
+	
+	/**
+	 * Provides the frequency of the schedule.
+	 * 
+	 * @return	The frequency <CODE>Interval</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public Interval getFrequency ()
+	{
+		return (frequency);
+	}
+	
+	/**
+	 * Provides the roll day used by monthly and yearly schedules.
+	 * 
+	 * @return	The roll day (1-31) or zero if the anchor date determines it.
+	 * @since	TFP 1.9
+	 */
+	public int getRollDay ()
+	{
+		return (rollDay);
+	}
+	
+	/**
+	 * Determines if each date is stepped from the previous date rather than
+	 * from the anchor date.
+	 * 
+	 * @return	<CODE>true</CODE> if the dates are chained.
+	 * @since	TFP 1.9
+	 */
+	public boolean isChained ()
+	{
+		return (chained);
+	}
+	
+	/**
+	 * Provides the date roll convention used to adjust dates.
+	 * 
+	 * @return	The <CODE>DateRoll</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public DateRoll getDateRoll ()
+	{
+		return (roll);
+	}
+	
+	/**
+	 * Provides the holiday calendar used to adjust dates.
+	 * 
+	 * @return	The <CODE>Calendar</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public Calendar getCalendar ()
+	{
+		return (calendar);
+	}
+	
+	/**
+	 * Generates the regular dates of a schedule, that is the start date and
+	 * each date reached by stepping the frequency from it, up to and
+	 * including the end date. The end date is only included if it falls on
+	 * the schedule.
+	 * <P>
+	 * This matches stepping with <CODE>Date.plus</CODE> while the result
+	 * does not compare after the end date.
+	 * <P>
+	 * A term frequency produces the start and end dates, and a frequency
+	 * that does not advance produces just the start date.
+	 * 
+	 * @param 	start			The start date.
+	 * @param 	end				The end date.
+	 * @return	The <CODE>Schedule</CODE> of (adjusted) dates.
+	 * @since	TFP 1.9
+	 */
+	public Schedule generate (final Date start, final Date end)
+	{
+		int			first = start.dayNumber ();
+		int			last  = lastDay (start, end, true);
+		
+		return (lookup (first, first, last, last, false, start.getTimeZone ()));
+	}
+	
+	/**
+	 * Generates the regular dates of a schedule that fall strictly before
+	 * the end date, that is the start date and each date reached by stepping
+	 * the frequency from it while it compares before the end date.
+	 * 
+	 * @param 	start			The start date.
+	 * @param 	end				The date following the schedule.
+	 * @return	The <CODE>Schedule</CODE> of (adjusted) dates.
+	 * @since	TFP 1.9
+	 */
+	public Schedule generateBefore (final Date start, final Date end)
+	{
+		int			first = start.dayNumber ();
+		int			last  = lastDay (start, end, false);
+		
+		return (lookup (first, first, last, last, false, start.getTimeZone ()));
+	}
+	
+	/**
+	 * Generates the period boundary dates of a schedule that may have an
+	 * initial and/or final stub. The result holds the start date, the dates
+	 * reached by stepping the frequency from the first regular period start
+	 * date up to the last regular period end date, the last regular period
+	 * end date itself and the end date.
+	 * 
+	 * @param 	start			The start date.
+	 * @param 	firstRegular	The start of the first regular period or
+	 * 							<CODE>null</CODE> if there is no initial stub.
+	 * @param 	lastRegular		The end of the last regular period or
+	 * 							<CODE>null</CODE> if there is no final stub.
+	 * @param 	end				The end date.
+	 * @return	The <CODE>Schedule</CODE> of (adjusted) dates.
+	 * @since	TFP 1.9
+	 */
+	public Schedule generate (final Date start, final Date firstRegular,
+			final Date lastRegular, final Date end)
+	{
+		int			first = start.dayNumber ();
+		int			last  = end.dayNumber ();
+		
+		return (lookup (first,
+				(firstRegular != null) ? firstRegular.dayNumber () : first,
+				(lastRegular != null) ? lastRegular.dayNumber () : last,
+				last, true, start.getTimeZone ()));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public int hashCode ()
+	{
+		return ((frequency.hashCode () * 31 + rollDay) * 2 + (chained ? 1 : 0));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public boolean equals (Object other)
+	{
+		if (!(other instanceof ScheduleGenerator)) return (false);
+		
+		ScheduleGenerator	that = (ScheduleGenerator) other;
+		
+		return (frequency.equals (that.frequency) && (rollDay == that.rollDay)
+				&& (chained == that.chained) && (roll == that.roll) && (calendar == that.calendar));
+	}
+	
+	/**
+	 * The <CODE>Key</CODE> class identifies a cached <CODE>Schedule</CODE>.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Key
+	{
+		/**
+		 * Constructs a <CODE>Key</CODE>.
+		 * 
+		 * @param 	generator		The <CODE>ScheduleGenerator</CODE>.
+		 * @param 	start			The start day number.
+		 * @param 	first			The first regular day number.
+		 * @param 	last			The last regular day number.
+		 * @param 	end				The end day number.
+		 * @param 	stubs			Whether stub dates are included.
+		 * @param 	timeZone		The time zone of the dates or <CODE>null</CODE>.
+		 * @param 	changes			The calendar change count.
+		 * @since	TFP 1.9
+		 */
+		Key (final ScheduleGenerator generator, int start, int first, int last,
+				int end, boolean stubs, final TimeZone timeZone, int changes)
+		{
+			this.generator	= generator;
+			this.start		= start;
+			this.first		= first;
+			this.last		= last;
+			this.end		= end;
+			this.stubs		= stubs;
+			this.timeZone	= timeZone;
+			this.changes	= changes;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int hashCode ()
+		{
+			return (((generator.hashCode () * 31 + start) * 31 + end) * 31 + first + last);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public boolean equals (Object other)
+		{
+			if (!(other instanceof Key)) return (false);
+			
+			Key			that = (Key) other;
+			
+			return ((start == that.start) && (first == that.first) && (last == that.last)
+					&& (end == that.end) && (stubs == that.stubs) && (changes == that.changes)
+					&& ((timeZone == null) ? (that.timeZone == null)
+							: ((that.timeZone != null) && timeZone.equals (that.timeZone)))
+					&& generator.equals (that.generator));
+		}
+		
+		/**
+		 * The <CODE>ScheduleGenerator</CODE> that made the schedule.
+		 * @since	TFP 1.9
+		 */
+		private final ScheduleGenerator	generator;
+		
+		/**
+		 * The start day number.
+		 * @since	TFP 1.9
+		 */
+		private final int			start;
+		
+		/**
+		 * The first regular day number.
+		 * @since	TFP 1.9
+		 */
+		private final int			first;
+		
+		/**
+		 * The last regular day number.
+		 * @since	TFP 1.9
+		 */
+		private final int			last;
+		
+		/**
+		 * The end day number.
+		 * @since	TFP 1.9
+		 */
+		private final int			end;
+		
+		/**
+		 * Whether stub dates are included.
+		 * @since	TFP 1.9
+		 */
+		private final boolean		stubs;
+		
+		/**
+		 * The time zone of the dates or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final TimeZone		timeZone;
+		
+		/**
+		 * The calendar change count when the schedule was made.
+		 * @since	TFP 1.9
+		 */
+		private final int			changes;
+	}
+	
+	/**
+	 * The maximum number of schedules held in the shared cache.
+	 * @since	TFP 1.9
+	 */
+	private static final int	CACHE_CAPACITY	= 256;
+	
+	/**
+	 * The shared cache of schedules in least recently used order.
+	 * @since	TFP 1.9
+	 */
+	private static final LinkedHashMap<Key, Schedule> cache
+		= new LinkedHashMap<Key, Schedule> (16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry (Map.Entry<Key, Schedule> eldest)
+				{
+					return (size () > CACHE_CAPACITY);
+				}
+			};
+	
+	/**
+	 * The frequency of the schedule.
+	 * @since	TFP 1.9
+	 */
+	private final Interval		frequency;
+	
+	/**
+	 * The roll day or zero.
+	 * @since	TFP 1.9
+	 */
+	private final int			rollDay;
+	
+	/**
+	 * Whether each date is stepped from the previous date.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		chained;
+	
+	/**
+	 * The date roll convention or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final DateRoll		roll;
+	
+	/**
+	 * The holiday calendar or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final Calendar		calendar;
+	
+	/**
+	 * Constructs a <CODE>ScheduleGenerator</CODE> from all of its settings.
+	 * 
+	 * @param 	frequency		The frequency of the schedule.
+	 * @param 	rollDay			The roll day or zero.
+	 * @param 	chained			Whether each date is stepped from the
+	 * 							previous date.
+	 * @param 	roll			The date roll convention or <CODE>null</CODE>.
+	 * @param 	calendar		The holiday calendar or <CODE>null</CODE>.
+	 * @throws	IllegalArgumentException If the roll day is invalid.
+	 * @since	TFP 1.9
+	 */
+	private ScheduleGenerator (final Interval frequency, int rollDay, boolean chained,
+			final DateRoll roll, final Calendar calendar)
+	{
+		if ((rollDay < 0) || (rollDay > 31))
+			throw new IllegalArgumentException ("Invalid roll day value");
+		
+		this.frequency	= frequency;
+		this.rollDay	= rollDay;
+		this.chained	= chained;
+		this.roll		= roll;
+		this.calendar	= calendar;
+	}
+	
+	/**
+	 * Finds the last day number which, as a date in the time zone of the
+	 * start date, compares before (or equal to) an end date.
+	 * 
+	 * @param 	start			The start date.
+	 * @param 	end				The end date.
+	 * @param 	inclusive		<CODE>true</CODE> if a date equal to the end
+	 * 							date is included.
+	 * @return	The last day number to be included.
+	 * @since	TFP 1.9
+	 */
+	private static int lastDay (final Date start, final Date end, boolean inclusive)
+	{
+		TimeZone	zone = start.getTimeZone ();
+		int			day	 = end.dayNumber ();
+		
+		if ((zone == null) ? (end.getTimeZone () == null)
+				: ((end.getTimeZone () != null) && zone.equals (end.getTimeZone ())))
+			return (inclusive ? day : day - 1);
+		
+		while (!precedes (day, zone, end, inclusive)) --day;
+		while (precedes (day + 1, zone, end, inclusive)) ++day;
+		
+		return (day);
+	}
+	
+	/**
+	 * Determines if a day number, as a date in a given time zone, compares
+	 * before (or equal to) an end date.
+	 * 
+	 * @param 	day				The day number.
+	 * @param 	zone			The time zone or <CODE>null</CODE>.
+	 * @param 	end				The end date.
+	 * @param 	inclusive		<CODE>true</CODE> if equality is allowed.
+	 * @return	<CODE>true</CODE> if the day precedes the end date.
+	 * @since	TFP 1.9
+	 */
+	private static boolean precedes (int day, final TimeZone zone, final Date end, boolean inclusive)
+	{
+		int			order = new Date (new DateValue (day), zone).compareTo (end);
+		
+		return (inclusive ? (order <= 0) : (order < 0));
+	}
+	
+	/**
+	 * Finds a schedule in the shared cache, generating it if necessary.
+	 * 
+	 * @param 	start			The start day number.
+	 * @param 	first			The first regular day number.
+	 * @param 	last			The last regular day number.
+	 * @param 	end				The end day number.
+	 * @param 	stubs			Whether stub dates are included.
+	 * @param 	timeZone		The time zone of the dates or <CODE>null</CODE>.
+	 * @return	The <CODE>Schedule</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private Schedule lookup (int start, int first, int last, int end, boolean stubs,
+			final TimeZone timeZone)
+	{
+		Key			key = new Key (this, start, first, last, end, stubs, timeZone,
+							(calendar != null) ? Calendar.getChangeCount () : 0);
+		Schedule	result;
+		
+		synchronized (cache) {
+			result = cache.get (key);
+		}
+		
+		if (result == null) {
+			result = build (start, first, last, end, stubs, timeZone);
+			
+			synchronized (cache) {
+				cache.put (key, result);
+			}
+		}
+		return (result);
+	}
+	
+	/**
+	 * Calculates the dates of a schedule.
+	 * 
+	 * @param 	start			The start day number.
+	 * @param 	first			The first regular day number.
+	 * @param 	last			The last regular day number.
+	 * @param 	end				The end day number.
+	 * @param 	stubs			Whether stub dates are included.
+	 * @param 	timeZone		The time zone of the dates or <CODE>null</CODE>.
+	 * @return	The new <CODE>Schedule</CODE>.
+	 * @throws	IllegalArgumentException If a step produces an invalid date.
+	 * @since	TFP 1.9
+	 */
+	private Schedule build (int start, int first, int last, int end, boolean stubs,
+			final TimeZone timeZone)
+	{
+		int			multiplier	= frequency.getMultiplier ();
+		Period		period		= frequency.getPeriod ();
+		int []		days		= new int [estimate (first, last) + 4];
+		int			count		= 0;
+		
+		if (stubs) {
+			days [count++] = start;
+			days [count++] = end;
+			if (last <= end) days [count++] = last;
+		}
+		
+		if (first <= last) days [count++] = first;
+		
+		if (period == Period.TERM) {
+			if (first < last) days [count++] = last;
+		}
+		else if ((multiplier > 0) && (first <= last)) {
+			int			step	= (period == Period.WEEK) ? 7 * multiplier : multiplier;
+			int			months	= (period == Period.YEAR) ? 12 * multiplier : multiplier;
+			boolean		monthly	= (period == Period.MONTH) || (period == Period.YEAR);
+			int			year	= yearOf (first);
+			int			month	= monthOf (first, year);
+			int			day		= (rollDay != 0) ? rollDay : first - dayOffset (year, month);
+			
+			int			anchor	= year * 12 + month - 1;
+			
+			for (int index = 1;; ++index) {
+				int			date;
+				
+				if (monthly) {
+					int			target = chained ? (year * 12 + month - 1) + months : anchor + index * months;
+					int			y	   = target / 12;
+					int			m	   = target % 12 + 1;
+					int			length;
+					
+					if (y >= 2100)
+						throw new IllegalArgumentException ("Year value is out of range");
+					
+					length = DateValue.monthLength (m, y);
+					if ((day > length) && (period == Period.YEAR) && (rollDay == 0))
+						throw new IllegalArgumentException ("Invalid day value");
+					
+					date = dayOffset (y, m) + Math.min (day, length);
+					if (chained) {
+						year  = y;
+						month = m;
+						day	  = Math.min (day, length);
+					}
+				}
+				else
+					date = first + index * step;
+				
+				if (date > last) break;
+				
+				if (count == days.length) days = Arrays.copyOf (days, 2 * count);
+				days [count++] = date;
+			}
+		}
+		
+		Calendar.BusinessDays businessDays = ((calendar != null) && (roll != null) && (roll != DateRoll.NONE))
+				? calendar.getBusinessDays () : null;
+		
+		for (int index = 0; index < count; ++index)
+			days [index] = adjust (days [index], businessDays);
+		
+		Arrays.sort (days, 0, count);
+		
+		int			unique = 0;
+		
+		for (int index = 0; index < count; ++index)
+			if ((unique == 0) || (days [index] != days [unique - 1]))
+				days [unique++] = days [index];
+		
+		return (new Schedule (Arrays.copyOf (days, unique), timeZone));
+	}
+	
+	/**
+	 * Estimates the number of regular dates between two day numbers.
+	 * 
+	 * @param 	first			The first regular day number.
+	 * @param 	last			The last regular day number.
+	 * @return	The estimated number of dates.
+	 * @since	TFP 1.9
+	 */
+	private int estimate (int first, int last)
+	{
+		int			multiplier	= frequency.getMultiplier ();
+		Period		period		= frequency.getPeriod ();
+		int			length;
+		
+		if ((multiplier <= 0) || (last <= first)) return (1);
+		
+		if (period == Period.DAY)
+			length = multiplier;
+		else if (period == Period.WEEK)
+			length = 7 * multiplier;
+		else if (period == Period.MONTH)
+			length = 28 * multiplier;
+		else if (period == Period.YEAR)
+			length = 365 * multiplier;
+		else
+			return (2);
+		
+		return ((last - first) / length + 2);
+	}
+	
+	/**
+	 * Adjusts a day number to a business day according to the
+	 * <CODE>DateRoll</CODE> convention.
+	 * 
+	 * @param 	day				The day number to adjust.
+	 * @param 	businessDays	The business day index of the
+	 * 							<CODE>Calendar</CODE> or <CODE>null</CODE>.
+	 * @return	The adjusted day number.
+	 * @since	TFP 1.9
+	 */
+	private int adjust (int day, final Calendar.BusinessDays businessDays)
+	{
+		if ((roll == null) || (roll == DateRoll.NONE)) return (day);
+		
+		if (businessDays != null) {
+			if (businessDays.contains (day)) return (day);
+			
+			if (roll == DateRoll.FOLLOWING)
+				return (following (day, businessDays));
+			if (roll == DateRoll.PRECEDING)
+				return (preceding (day, businessDays));
+			if (roll == DateRoll.MODFOLLOWING) {
+				int			result = following (day, businessDays);
+				
+				return ((sameMonth (day, result)) ? result : preceding (day, businessDays));
+			}
+			if (roll == DateRoll.MODPRECEDING) {
+				int			result = preceding (day, businessDays);
+				
+				return ((sameMonth (day, result)) ? result : following (day, businessDays));
+			}
+		}
+		return (roll.adjust (calendar, new Date (new DateValue (day), null)).dayNumber ());
+	}
+	
+	/**
+	 * Finds the first business day on or after a day number.
+	 * 
+	 * @param 	day				The day number.
+	 * @param 	businessDays	The business day index.
+	 * @return	The day number of the business day.
+	 * @since	TFP 1.9
+	 */
+	private static int following (int day, final Calendar.BusinessDays businessDays)
+	{
+		return (businessDays.select (businessDays.rank (day)));
+	}
+	
+	/**
+	 * Finds the last business day on or before a day number.
+	 * 
+	 * @param 	day				The day number.
+	 * @param 	businessDays	The business day index.
+	 * @return	The day number of the business day.
+	 * @since	TFP 1.9
+	 */
+	private static int preceding (int day, final Calendar.BusinessDays businessDays)
+	{
+		return (businessDays.select (businessDays.rank (day + 1) - 1));
+	}
+	
+	/**
+	 * Determines if two day numbers fall in the same month.
+	 * 
+	 * @param 	first			The first day number.
+	 * @param 	second			The second day number.
+	 * @return	<CODE>true</CODE> if both days are in the same month.
+	 * @since	TFP 1.9
+	 */
+	private static boolean sameMonth (int first, int second)
+	{
+		int			year1 = yearOf (first);
+		int			year2 = yearOf (second);
+		
+		return ((year1 == year2) && (monthOf (first, year1) == monthOf (second, year2)));
+	}
+	
+	/**
+	 * Determines the year containing a day number.
+	 * 
+	 * @param 	day				The day number.
+	 * @return	The year.
+	 * @since	TFP 1.9
+	 */
+	private static int yearOf (int day)
+	{
+		int			year = day / 365 + 1900;
+		
+		if (day <= DateValue.yearOffset (year)) --year;
+		return (year);
+	}
+	
+	/**
+	 * Determines the month containing a day number.
+	 * 
+	 * @param 	day				The day number.
+	 * @param 	year			The year containing the day.
+	 * @return	The month (1-12).
+	 * @since	TFP 1.9
+	 */
+	private static int monthOf (int day, int year)
+	{
+		int			offset	= day - DateValue.yearOffset (year);
+		boolean		leap	= DateValue.isLeapYear (year);
+		int			month	= offset / 30 + 1;
+		
+		while (offset <= DateValue.monthOffset (month, leap)) --month;
+		while ((month < 12) && (offset > DateValue.monthOffset (month + 1, leap))) ++month;
+		
+		return (month);
+	}
+	
+	/**
+	 * Calculates the day number of the day before the first of a month.
+	 * 
+	 * @param 	year			The year.
+	 * @param 	month			The month (1-12).
+	 * @return	The day number preceding the first of the month.
+	 * @since	TFP 1.9
+	 */
+	private static int dayOffset (int year, int month)
+	{
+		return (DateValue.yearOffset (year) + DateValue.monthOffset (month, DateValue.isLeapYear (year)));
+	}
+}
\ No newline at end of file
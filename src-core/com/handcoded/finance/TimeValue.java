@@ -211,33 +211,42 @@ final class TimeValue implements ImmutableTime, Comparable<TimeValue>, Serializa
 	 * @since	TFP 1.0
 	 */
 	public String toString ()
+	{
+		return (appendTo (new StringBuilder (16)).toString ());
+	}
+	
+	/**
+	 * Appends the ISO format representation of the time (HH:MM:SS[.S+]) to
+	 * a <CODE>StringBuilder</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>StringBuilder</CODE> to append to.
+	 * @return	The <CODE>StringBuilder</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public StringBuilder appendTo (StringBuilder builder)
 	{
 		int			secs = seconds.intValue ();
 		BigDecimal	fraction = seconds.remainder (BigDecimal.ONE);
 		
-		synchronized (buffer) {
-			buffer.setLength (0);
-			
-			buffer.append ((char)('0' + hours / 10));
-			buffer.append ((char)('0' + hours % 10));
-			buffer.append (':');
-			buffer.append ((char)('0' + minutes / 10));
-			buffer.append ((char)('0' + minutes % 10));
-			buffer.append (':');
-			buffer.append ((char)('0' + secs / 10));
-			buffer.append ((char)('0' + secs % 10));
-			
-			if (!fraction.equals (BigDecimal.ZERO)) {
-				buffer.append ('.');
-				do {
-					fraction = fraction.movePointRight (1);
-					buffer.append ((char)('0' + fraction.intValue ()));
-					fraction = fraction.remainder(BigDecimal.ONE);
-				} while (!fraction.equals(BigDecimal.ZERO));
-			}
-			
-			return (buffer.toString ());
+		builder.append ((char)('0' + hours / 10));
+		builder.append ((char)('0' + hours % 10));
+		builder.append (':');
+		builder.append ((char)('0' + minutes / 10));
+		builder.append ((char)('0' + minutes % 10));
+		builder.append (':');
+		builder.append ((char)('0' + secs / 10));
+		builder.append ((char)('0' + secs % 10));
+		
+		if (!fraction.equals (BigDecimal.ZERO)) {
+			builder.append ('.');
+			do {
+				fraction = fraction.movePointRight (1);
+				builder.append ((char)('0' + fraction.intValue ()));
+				fraction = fraction.remainder(BigDecimal.ONE);
+			} while (!fraction.equals(BigDecimal.ZERO));
 		}
+		
+		return (builder);
 	}
 	
 	/**
@@ -246,13 +255,6 @@ final class TimeValue implements ImmutableTime, Comparable<TimeValue>, Serializa
 	 */
 	private static final long serialVersionUID = -1173800701254321048L;
 
-	/**
-	 * A static buffer used to produce the <CODE>toString</CODE> value. The
-	 * buffer must be synchronized before use to ensure thread safety.
-	 * @since	TFP 1.0
-	 */
-	private static final StringBuffer	buffer = new StringBuffer ();
-	
 	/**
 	 * The number of hours.
 	 * @since	TFP 1.1
@@ -13,6 +13,7 @@
 
 package com.handcoded.finance;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -104,31 +105,40 @@ public final class TimeZone implements Comparable<TimeZone>, Serializable
 	{
 		if (offset == 0) return ("Z");
 		
-		synchronized (buffer) {
-			int 				value;
-			
-			buffer.setLength (0);
-			
-			if (offset < 0) {
-				buffer.append ('-');
-				value = -offset;
-			}
-			else {
-				buffer.append ('+');
-				value =  offset;
-			}
+		return (new String (format ()));
+	}
+	
+	/**
+	 * Appends the formatted value of the <CODE>TimeZone</CODE> to a
+	 * <CODE>StringBuilder</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>StringBuilder</CODE> to append to.
+	 * @return	The <CODE>StringBuilder</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public StringBuilder appendTo (StringBuilder builder)
+	{
+		if (offset == 0) return (builder.append ('Z'));
+		
+		return (builder.append (format ()));
+	}
+	
+	/**
+	 * Appends the formatted value to an <CODE>Appendable</CODE> such as a
+	 * <CODE>Writer</CODE>.
+	 * 
+	 * @param 	target			The <CODE>Appendable</CODE> to append to.
+	 * @return	The <CODE>Appendable</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	public Appendable appendTo (Appendable target)
+		throws IOException
+	{
+		if (target instanceof StringBuilder)
+			return (appendTo ((StringBuilder) target));
 		
-			int hours 	= value / 60;
-			int minutes = value % 60;
-			
-			buffer.append ((char)('0' + hours / 10));
-			buffer.append ((char)('0' + hours % 10));
-			buffer.append (':');
-			buffer.append ((char)('0' + minutes / 10));
-			buffer.append ((char)('0' + minutes % 10));
-			
-			return (buffer.toString ());
-		}
+		return (target.append (toString ()));
 	}
 	
 	/**
@@ -192,14 +202,25 @@ public final class TimeZone implements Comparable<TimeZone>, Serializable
 	private static final long 	serialVersionUID = -4159662197500707717L;
 
 	/**
-	 * Buffer area used for formatting.
+	 * Represents an offset in minutes from UTC.
 	 * @since	TFP 1.1
 	 */
-	private static StringBuffer	buffer	= new StringBuffer ();
+	private final int			offset;
 	
 	/**
-	 * Represents an offset in minutes from UTC.
-	 * @since	TFP 1.1
+	 * Formats a non-zero offset as '+HH:MM' or '-HH:MM'.
+	 * 
+	 * @return	The characters of the formatted offset.
+	 * @since	TFP 1.9
 	 */
-	private final int			offset;
+	private char [] format ()
+	{
+		int			value	= Math.abs (offset);
+		int			hours	= value / 60;
+		int			minutes	= value % 60;
+		
+		return (new char [] { (offset < 0) ? '-' : '+',
+				(char)('0' + hours / 10), (char)('0' + hours % 10), ':',
+				(char)('0' + minutes / 10), (char)('0' + minutes % 10) });
+	}
 }
\ No newline at end of file
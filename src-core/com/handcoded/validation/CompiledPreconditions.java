@@ -0,0 +1,357 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.validation;
+
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.Vector;
+
+import com.handcoded.xml.NodeIndex;
+
+/**
+ * The <CODE>CompiledPreconditions</CODE> class converts a set of <CODE>
+ * Precondition</CODE> expressions into a flat table of numbered nodes so
+ * that they can be evaluated without the per-document <CODE>Hashtable
+ * </CODE> of boxed results used by <CODE>Precondition.evaluate</CODE>.
+ * <P>
+ * Chains of <CODE>And</CODE> and <CODE>Or</CODE> instances are flattened into
+ * single nodes with a list of operands, evaluated left to right with the
+ * same short circuiting as the original tree. Every other kind of <CODE>
+ * Precondition</CODE> becomes a leaf evaluated through its normal API. The
+ * outcome of each node is recorded in a pair of bitsets held by a <CODE>
+ * State</CODE> so that shared subexpressions are evaluated at most once per
+ * document.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class CompiledPreconditions
+{
+	/**
+	 * The <CODE>State</CODE> class records the nodes evaluated so far for
+	 * a single document.
+	 *
+	 * @since	TFP 1.9
+	 */
+	static final class State
+	{
+		/**
+		 * Constructs a <CODE>State</CODE> with space for the given number
+		 * of nodes.
+		 *
+		 * @param 	nodes			The number of nodes.
+		 * @since	TFP 1.9
+		 */
+		State (int nodes)
+		{
+			known  = new long [(nodes + 63) >>> 6];
+			values = new long [known.length];
+		}
+
+		/**
+		 * A bitset of the nodes that have been evaluated.
+		 * @since	TFP 1.9
+		 */
+		private final long []		known;
+
+		/**
+		 * A bitset of the nodes that evaluated to <CODE>true</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final long []		values;
+
+		/**
+		 * The cache passed to leaf <CODE>Precondition</CODE> instances,
+		 * created when first needed.
+		 * @since	TFP 1.9
+		 */
+		private Hashtable<Precondition, Boolean> cache = null;
+	}
+
+	/**
+	 * Compiles a set of <CODE>Precondition</CODE> expressions.
+	 *
+	 * @param 	conditions		The expressions to compile (which may contain
+	 * 							<CODE>null</CODE> entries).
+	 * @since	TFP 1.9
+	 */
+	CompiledPreconditions (final Precondition [] conditions)
+	{
+		roots = new int [conditions.length];
+		for (int index = 0; index < conditions.length; ++index)
+			roots [index] = (conditions [index] != null) ? compile (conditions [index]) : -1;
+
+		opcodes	 = Arrays.copyOf (opcodes, size);
+		operands = Arrays.copyOf (operands, size);
+		counts	 = Arrays.copyOf (counts, size);
+		leaves	 = Arrays.copyOf (leaves, size);
+		children = Arrays.copyOf (children, used);
+		nodes	 = null;
+	}
+
+	/**
+	 * Creates a new <CODE>State</CODE> for evaluating these expressions
+	 * against a document.
+	 *
+	 * @return	A new <CODE>State</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	State newState ()
+	{
+		return (new State (size));
+	}
+
+	/**
+	 * Evaluates one of the compiled expressions.
+	 *
+	 * @param 	index			The position of the expression in the array
+	 * 							originally compiled.
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of a <CODE>Document</CODE>.
+	 * @param 	state			The <CODE>State</CODE> for the document.
+	 * @return	The outcome of the expression (<CODE>true</CODE> for a
+	 * 			<CODE>null</CODE> entry).
+	 * @since	TFP 1.9
+	 */
+	boolean evaluate (int index, final NodeIndex nodeIndex, State state)
+	{
+		int			root = roots [index];
+
+		return ((root < 0) || evaluateNode (root, nodeIndex, state));
+	}
+
+	/**
+	 * Opcode for a leaf node.
+	 * @since	TFP 1.9
+	 */
+	private static final byte	LEAF	= 0;
+
+	/**
+	 * Opcode for a logical not node.
+	 * @since	TFP 1.9
+	 */
+	private static final byte	NOT		= 1;
+
+	/**
+	 * Opcode for a logical and node.
+	 * @since	TFP 1.9
+	 */
+	private static final byte	AND		= 2;
+
+	/**
+	 * Opcode for a logical or node.
+	 * @since	TFP 1.9
+	 */
+	private static final byte	OR		= 3;
+
+	/**
+	 * The root node of each compiled expression (or -1).
+	 * @since	TFP 1.9
+	 */
+	private final int []		roots;
+
+	/**
+	 * The opcode of each node.
+	 * @since	TFP 1.9
+	 */
+	private byte []				opcodes	 = new byte [16];
+
+	/**
+	 * The operand node of a <CODE>NOT</CODE> or the position of the first
+	 * operand in <CODE>children</CODE> for an <CODE>AND</CODE> or <CODE>OR
+	 * </CODE>.
+	 * @since	TFP 1.9
+	 */
+	private int []				operands = new int [16];
+
+	/**
+	 * The number of operands of an <CODE>AND</CODE> or <CODE>OR</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private int []				counts	 = new int [16];
+
+	/**
+	 * The <CODE>Precondition</CODE> evaluated by each leaf node.
+	 * @since	TFP 1.9
+	 */
+	private Precondition []		leaves	 = new Precondition [16];
+
+	/**
+	 * The operand lists of the <CODE>AND</CODE> and <CODE>OR</CODE> nodes.
+	 * @since	TFP 1.9
+	 */
+	private int []				children = new int [16];
+
+	/**
+	 * The number of nodes.
+	 * @since	TFP 1.9
+	 */
+	private int					size	 = 0;
+
+	/**
+	 * The number of entries used in <CODE>children</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private int					used	 = 0;
+
+	/**
+	 * The node assigned to each <CODE>Precondition</CODE> during
+	 * compilation.
+	 * @since	TFP 1.9
+	 */
+	private Hashtable<Precondition, Integer> nodes
+		= new Hashtable<Precondition, Integer> ();
+
+	/**
+	 * Evaluates a node, using its recorded outcome if it has already been
+	 * evaluated for the document.
+	 *
+	 * @param 	node			The node to evaluate.
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of a <CODE>Document</CODE>.
+	 * @param 	state			The <CODE>State</CODE> for the document.
+	 * @return	The outcome of the node.
+	 * @since	TFP 1.9
+	 */
+	private boolean evaluateNode (int node, final NodeIndex nodeIndex, State state)
+	{
+		int			word = node >>> 6;
+		long		mask = 1L << node;
+
+		if ((state.known [word] & mask) != 0)
+			return ((state.values [word] & mask) != 0);
+
+		boolean		result;
+
+		switch (opcodes [node]) {
+		case LEAF:
+			if (state.cache == null)
+				state.cache = new Hashtable<Precondition, Boolean> ();
+			result = leaves [node].evaluate (nodeIndex, state.cache);
+			break;
+
+		case NOT:
+			result = !evaluateNode (operands [node], nodeIndex, state);
+			break;
+
+		case AND:
+			result = true;
+			for (int index = 0; result && (index < counts [node]); ++index)
+				result = evaluateNode (children [operands [node] + index], nodeIndex, state);
+			break;
+
+		default:
+			result = false;
+			for (int index = 0; !result && (index < counts [node]); ++index)
+				result = evaluateNode (children [operands [node] + index], nodeIndex, state);
+			break;
+		}
+
+		state.known [word] |= mask;
+		if (result) state.values [word] |= mask;
+
+		return (result);
+	}
+
+	/**
+	 * Assigns a node to a <CODE>Precondition</CODE>, compiling any operands
+	 * it has first.
+	 *
+	 * @param 	condition		The <CODE>Precondition</CODE> to compile.
+	 * @return	The node for the <CODE>Precondition</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private int compile (final Precondition condition)
+	{
+		Integer		existing = nodes.get (condition);
+
+		if (existing != null) return (existing);
+
+		byte		opcode;
+		int			operand = 0;
+		int			count	= 0;
+
+		if (condition instanceof Precondition.Not) {
+			opcode	= NOT;
+			operand = compile (((Precondition.Not) condition).pre);
+		}
+		else if ((condition instanceof Precondition.And) || (condition instanceof Precondition.Or)) {
+			Vector<Precondition> terms = new Vector<Precondition> ();
+
+			opcode = (condition instanceof Precondition.And) ? AND : OR;
+			flatten (condition, condition.getClass (), terms);
+
+			// Compile the operands before reserving their slots as they may
+			// add operand lists of their own
+			int []		list = new int [count = terms.size ()];
+
+			for (int index = 0; index < count; ++index)
+				list [index] = compile (terms.get (index));
+
+			operand = used;
+			for (int index = 0; index < count; ++index)
+				addChild (list [index]);
+		}
+		else
+			opcode = LEAF;
+
+		if (size == opcodes.length) {
+			opcodes	 = Arrays.copyOf (opcodes, size * 2);
+			operands = Arrays.copyOf (operands, size * 2);
+			counts	 = Arrays.copyOf (counts, size * 2);
+			leaves	 = Arrays.copyOf (leaves, size * 2);
+		}
+
+		opcodes	 [size] = opcode;
+		operands [size] = operand;
+		counts	 [size] = count;
+		leaves	 [size] = (opcode == LEAF) ? condition : null;
+
+		nodes.put (condition, size);
+		return (size++);
+	}
+
+	/**
+	 * Collects the compiled operands of a chain of binary <CODE>And</CODE>
+	 * or <CODE>Or</CODE> instances in evaluation order.
+	 *
+	 * @param 	condition		The <CODE>Precondition</CODE> being flattened.
+	 * @param 	type			The class of the operator being flattened.
+	 * @param 	terms			The operands collected so far.
+	 * @since	TFP 1.9
+	 */
+	private static void flatten (final Precondition condition, final Class<?> type,
+			Vector<Precondition> terms)
+	{
+		if (condition.getClass () == type) {
+			Precondition.BinaryPrecondition	binary = (Precondition.BinaryPrecondition) condition;
+
+			flatten (binary.lhs, type, terms);
+			flatten (binary.rhs, type, terms);
+		}
+		else
+			terms.add (condition);
+	}
+
+	/**
+	 * Appends a node to the operand lists.
+	 *
+	 * @param 	node			The operand node.
+	 * @since	TFP 1.9
+	 */
+	private void addChild (int node)
+	{
+		if (used == children.length) children = Arrays.copyOf (children, used * 2);
+		children [used++] = node;
+	}
+}
\ No newline at end of file
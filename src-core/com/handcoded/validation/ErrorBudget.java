@@ -0,0 +1,194 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.validation;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.w3c.dom.Node;
+
+/**
+ * An <CODE>ErrorBudget</CODE> applies a set of <CODE>ValidationOptions</CODE>
+ * to a single validation. It counts the errors reported by the rules and
+ * abandons a rule by throwing a {@link Stop} signal from within its call to
+ * the <CODE>ValidationErrorHandler</CODE>, so that existing rules can be
+ * cut short without change.
+ * <P>
+ * The count is shared so that rules executing in parallel draw on the same
+ * budget.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class ErrorBudget
+{
+	/**
+	 * The unchecked signal used to abandon a rule. It carries no stack
+	 * trace so that raising it is cheap.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	static final class Stop extends RuntimeException
+	{
+		/**
+		 * Constructs the <CODE>Stop</CODE> signal.
+		 * @since	TFP 1.9
+		 */
+		private Stop ()
+		{
+			super ("Validation stopped early", null, false, false);
+		}
+		
+		/**
+		 * The serial version identifier.
+		 * @since	TFP 1.9
+		 */
+		private static final long serialVersionUID = 1L;
+	}
+	
+	/**
+	 * Constructs an <CODE>ErrorBudget</CODE> for a validation.
+	 * 
+	 * @param 	options			The <CODE>ValidationOptions</CODE> to apply.
+	 * @since	TFP 1.9
+	 */
+	ErrorBudget (final ValidationOptions options)
+	{
+		maximum		 = options.getMaximumErrors ();
+		firstPerRule = options.isFirstErrorPerRule ();
+	}
+	
+	/**
+	 * Determines if the budget has been used up, in which case no further
+	 * rules should be executed.
+	 * 
+	 * @return	<CODE>true</CODE> if no more errors may be reported.
+	 * @since	TFP 1.9
+	 */
+	boolean isExhausted ()
+	{
+		return (count.get () >= maximum);
+	}
+	
+	/**
+	 * Creates a <CODE>ValidationErrorHandler</CODE> that enforces the budget
+	 * while a rule (or fused group of rules) executes. The caller must catch
+	 * the {@link Stop} signal and treat the step as having failed.
+	 * <P>
+	 * When rules stop at their first error an individual <CODE>Rule</CODE>
+	 * is abandoned immediately, while a fused <CODE>Validator</CODE> runs to
+	 * completion but only passes on the first error reported under each
+	 * rule name.
+	 * 
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> to
+	 * 							receive the errors within the budget.
+	 * @param 	step			The <CODE>Validator</CODE> about to execute.
+	 * @return	The limiting <CODE>ValidationErrorHandler</CODE>.
+	 * @since	TFP 1.9
+	 */
+	ValidationErrorHandler limit (final ValidationErrorHandler errorHandler, final Validator step)
+	{
+		return (new Limiter (errorHandler, step instanceof Rule));
+	}
+	
+	/**
+	 * The <CODE>Limiter</CODE> class passes errors on to another handler
+	 * while enforcing the budget for one step of a validation.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private final class Limiter implements ValidationErrorHandler
+	{
+		/**
+		 * Constructs a <CODE>Limiter</CODE>.
+		 * 
+		 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> to
+		 * 							receive the errors.
+		 * @param 	single			<CODE>true</CODE> if the step is an
+		 * 							individual <CODE>Rule</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Limiter (final ValidationErrorHandler errorHandler, boolean single)
+		{
+			this.errorHandler = errorHandler;
+			this.single		  = single;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		public void error (String code, Node context, String description,
+				String ruleName, String additionalData)
+		{
+			if (firstPerRule && !single) {
+				if (failed == null) failed = new HashSet<String> ();
+				if (!failed.add (ruleName)) return;
+			}
+			
+			int			reported = count.incrementAndGet ();
+			
+			if (reported > maximum) throw STOP;
+			
+			errorHandler.error (code, context, description, ruleName, additionalData);
+			
+			if ((reported == maximum) || (firstPerRule && single)) throw STOP;
+		}
+		
+		/**
+		 * The <CODE>ValidationErrorHandler</CODE> to pass errors to.
+		 * @since	TFP 1.9
+		 */
+		private final ValidationErrorHandler errorHandler;
+		
+		/**
+		 * Indicates that the step is an individual <CODE>Rule</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final boolean		single;
+		
+		/**
+		 * The names of the rules that have already reported an error within
+		 * a fused step.
+		 * @since	TFP 1.9
+		 */
+		private HashSet<String>		failed	= null;
+	}
+	
+	/**
+	 * The shared <CODE>Stop</CODE> signal.
+	 * @since	TFP 1.9
+	 */
+	private static final Stop	STOP	= new Stop ();
+	
+	/**
+	 * The maximum number of errors to be reported.
+	 * @since	TFP 1.9
+	 */
+	private final int			maximum;
+	
+	/**
+	 * Indicates that each rule stops at its first error.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		firstPerRule;
+	
+	/**
+	 * The number of errors reported so far.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicInteger	count	= new AtomicInteger ();
+}
\ No newline at end of file
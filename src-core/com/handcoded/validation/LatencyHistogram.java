@@ -0,0 +1,227 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.validation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The <CODE>LatencyHistogram</CODE> class records the distribution of a set
+ * of durations (in nanoseconds) with low overhead and a bounded relative
+ * error, in the style of an HDR histogram.
+ * <P>
+ * Values below 32 are counted exactly. Larger values are counted in
+ * buckets that divide each power of two into sixteen equal parts, so any
+ * percentile reported is within 1/16th of the true value. Values above
+ * 2<sup>40</sup> nanoseconds (about 18 minutes) are counted in the last
+ * bucket. Recording is lock free and safe from any number of threads.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class LatencyHistogram
+{
+	/**
+	 * Constructs an empty <CODE>LatencyHistogram</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public LatencyHistogram ()
+	{ }
+	
+	/**
+	 * Records a single value.
+	 * 
+	 * @param 	value			The value to record (negative values are
+	 * 							recorded as zero).
+	 * @since	TFP 1.9
+	 */
+	public void record (long value)
+	{
+		if (value < 0) value = 0;
+		
+		counts.incrementAndGet (bucket (value));
+		total.addAndGet (value);
+		
+		for (long current = max.get (); (value > current) && !max.compareAndSet (current, value);)
+			current = max.get ();
+	}
+	
+	/**
+	 * Provides the number of values recorded.
+	 * 
+	 * @return	The number of values recorded.
+	 * @since	TFP 1.9
+	 */
+	public long getCount ()
+	{
+		long		result = 0;
+		
+		for (int index = 0; index < BUCKETS; ++index)
+			result += counts.get (index);
+		
+		return (result);
+	}
+	
+	/**
+	 * Provides the sum of the values recorded.
+	 * 
+	 * @return	The total of all the values.
+	 * @since	TFP 1.9
+	 */
+	public long getTotal ()
+	{
+		return (total.get ());
+	}
+	
+	/**
+	 * Provides the largest value recorded.
+	 * 
+	 * @return	The maximum value or zero if none have been recorded.
+	 * @since	TFP 1.9
+	 */
+	public long getMax ()
+	{
+		return (max.get ());
+	}
+	
+	/**
+	 * Provides the mean of the values recorded.
+	 * 
+	 * @return	The mean value or zero if none have been recorded.
+	 * @since	TFP 1.9
+	 */
+	public double getMean ()
+	{
+		long		count = getCount ();
+		
+		return ((count > 0) ? (double) total.get () / count : 0.0);
+	}
+	
+	/**
+	 * Provides an upper bound for the value below which the given
+	 * percentage of the recorded values fall.
+	 * 
+	 * @param 	percentile		The required percentile (0 to 100).
+	 * @return	The value at the percentile or zero if no values have been
+	 * 			recorded.
+	 * @since	TFP 1.9
+	 */
+	public long getValueAtPercentile (double percentile)
+	{
+		long []		snapshot = new long [BUCKETS];
+		long		count	 = 0;
+		
+		for (int index = 0; index < BUCKETS; ++index)
+			count += snapshot [index] = counts.get (index);
+		
+		if (count == 0) return (0);
+		
+		long		target = Math.max (1, (long) Math.ceil (count * Math.min (percentile, 100.0) / 100.0));
+		
+		for (int index = 0; index < BUCKETS; ++index) {
+			if ((target -= snapshot [index]) <= 0)
+				return (Math.min (upperBound (index), max.get ()));
+		}
+		return (max.get ());
+	}
+	
+	/**
+	 * Discards all the recorded values.
+	 * @since	TFP 1.9
+	 */
+	public void reset ()
+	{
+		for (int index = 0; index < BUCKETS; ++index)
+			counts.set (index, 0);
+		
+		total.set (0);
+		max.set (0);
+	}
+	
+	/**
+	 * The number of bits of each value used to select a bucket within a
+	 * power of two.
+	 * @since	TFP 1.9
+	 */
+	private static final int	SUB_BITS	= 4;
+	
+	/**
+	 * The position of the highest bit of the largest value with a bucket of
+	 * its own.
+	 * @since	TFP 1.9
+	 */
+	private static final int	MAX_BIT		= 40;
+	
+	/**
+	 * The total number of buckets.
+	 * @since	TFP 1.9
+	 */
+	private static final int	BUCKETS		= (2 << SUB_BITS) + (MAX_BIT - SUB_BITS) * (1 << SUB_BITS);
+	
+	/**
+	 * The number of values counted in each bucket.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLongArray	counts	= new AtomicLongArray (BUCKETS);
+	
+	/**
+	 * The sum of all the recorded values.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLong	total		= new AtomicLong ();
+	
+	/**
+	 * The largest recorded value.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLong	max			= new AtomicLong ();
+	
+	/**
+	 * Determines the bucket that counts a value.
+	 * 
+	 * @param 	value			A non-negative value.
+	 * @return	The index of the bucket.
+	 * @since	TFP 1.9
+	 */
+	private static int bucket (long value)
+	{
+		if (value < (2 << SUB_BITS)) return ((int) value);
+		
+		int			bit = 63 - Long.numberOfLeadingZeros (value);
+		
+		if (bit > MAX_BIT) return (BUCKETS - 1);
+		
+		return ((2 << SUB_BITS) + (bit - SUB_BITS - 1) * (1 << SUB_BITS)
+				+ (int)((value >>> (bit - SUB_BITS)) & ((1 << SUB_BITS) - 1)));
+	}
+	
+	/**
+	 * Determines the largest value counted by a bucket.
+	 * 
+	 * @param 	index			The index of the bucket.
+	 * @return	The largest value in the bucket.
+	 * @since	TFP 1.9
+	 */
+	private static long upperBound (int index)
+	{
+		if (index < (2 << SUB_BITS)) return (index);
+		
+		int			bit		 = (index - (2 << SUB_BITS)) / (1 << SUB_BITS) + SUB_BITS + 1;
+		long		mantissa = ((index - (2 << SUB_BITS)) % (1 << SUB_BITS)) + (1 << SUB_BITS);
+		
+		return (((mantissa + 1) << (bit - SUB_BITS)) - 1);
+	}
+}
\ No newline at end of file
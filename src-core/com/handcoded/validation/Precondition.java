@@ -14,8 +14,10 @@
 package com.handcoded.validation;
 
 import java.util.Hashtable;
+import java.util.Vector;
 
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * A <CODE>Precondition</CODE> instance is used to determine the applicability
@@ -45,6 +47,14 @@ public abstract class Precondition
 					return (true);
 				}
 				
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				@Override
+				public void declareRequirements (NodeIndexScope scope)
+				{ }
+				
 				/**
 				 * Returns a <CODE>String</CODE> describing expression this <CODE>Precondition
 				 * evaluates, in this case "true".
@@ -74,9 +84,17 @@ public abstract class Precondition
 			    @Override
 				public boolean evaluate (final NodeIndex nodeIndex, Hashtable<Precondition, Boolean> cache)
 				{
-					return (true);
+					return (false);
 				}
 				
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				@Override
+				public void declareRequirements (NodeIndexScope scope)
+				{ }
+				
 				/**
 				 * Returns a <CODE>String</CODE> describing expression this <CODE>Precondition
 				 * evaluates, in this case "false".
@@ -195,6 +213,47 @@ public abstract class Precondition
 	 */
 	public abstract boolean evaluate (final NodeIndex nodeIndex, Hashtable<Precondition, Boolean> cache);
 
+	/**
+	 * Adds the element names, attribute names and types that this
+	 * <CODE>Precondition</CODE> queries through a <CODE>NodeIndex</CODE> to a
+	 * <CODE>NodeIndexScope</CODE>. The default implementation requests a
+	 * complete index.
+	 * 
+	 * @param 	scope			The <CODE>NodeIndexScope</CODE> to extend.
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeAll ();
+	}
+
+	/**
+	 * Adds any <CODE>Profiler</CODE> instances used by this <CODE>Precondition
+	 * </CODE> (or those it is composed from) to a list.
+	 * 
+	 * @param 	profilers		The list of <CODE>Profiler</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	void collectProfilers (Vector<Profiler> profilers)
+	{ }
+	
+	/**
+	 * Simplifies this <CODE>Precondition</CODE> for documents with the given
+	 * profiles, replacing any part that depends only on them with its
+	 * result.
+	 * 
+	 * @param 	profiles		The profile of a document for each of the
+	 * 							<CODE>Profiler</CODE> instances.
+	 * @return	{@link #ALWAYS} or {@link #NEVER} if the outcome is known,
+	 * 			otherwise a <CODE>Precondition</CODE> that must still be
+	 * 			evaluated against the document's content.
+	 * @since	TFP 1.9
+	 */
+	Precondition specialise (final Hashtable<Profiler, Object> profiles)
+	{
+		return (this);
+	}
+
 	/**
 	 * The <CODE>BinaryPrecondition</CODE> class records the left and right
 	 * hand side arguments for some binary logical operator.
@@ -215,6 +274,26 @@ public abstract class Precondition
 			this.pre = pre;
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		void collectProfilers (Vector<Profiler> profilers)
+		{
+			pre.collectProfilers (profilers);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public void declareRequirements (NodeIndexScope scope)
+		{
+			pre.declareRequirements (scope);
+		}
+
 		/**
 		 * The underlying <CODE>Precondition</CODE>.
 		 * @since	TFP 1.0
@@ -245,6 +324,28 @@ public abstract class Precondition
 			this.rhs = rhs;
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		void collectProfilers (Vector<Profiler> profilers)
+		{
+			lhs.collectProfilers (profilers);
+			rhs.collectProfilers (profilers);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public void declareRequirements (NodeIndexScope scope)
+		{
+			lhs.declareRequirements (scope);
+			rhs.declareRequirements (scope);
+		}
+
 		/**
 		 * The <CODE>Precondition</CODE> defining the left hand side
 		 * @since	TFP 1.0
@@ -292,6 +393,21 @@ public abstract class Precondition
 			return (!preValue);
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		Precondition specialise (final Hashtable<Profiler, Object> profiles)
+		{
+			Precondition	value = pre.specialise (profiles);
+			
+			if (value == ALWAYS) return (NEVER);
+			if (value == NEVER)  return (ALWAYS);
+			
+			return ((value == pre) ? this : new Not (value));
+		}
+
 		/**
 		 * Returns a <CODE>String</CODE> describing expression this <CODE>Precondition
 		 * evaluates, in this case "!(exp)".
@@ -348,6 +464,26 @@ public abstract class Precondition
 			return (true);
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		Precondition specialise (final Hashtable<Profiler, Object> profiles)
+		{
+			Precondition	lhsValue = lhs.specialise (profiles);
+			
+			if (lhsValue == NEVER) return (NEVER);
+			
+			Precondition	rhsValue = rhs.specialise (profiles);
+			
+			if (rhsValue == NEVER)  return (NEVER);
+			if (lhsValue == ALWAYS) return (rhsValue);
+			if (rhsValue == ALWAYS) return (lhsValue);
+			
+			return (((lhsValue == lhs) && (rhsValue == rhs)) ? this : new And (lhsValue, rhsValue));
+		}
+
 		/**
 		 * Returns a <CODE>String</CODE> describing expression this <CODE>Precondition
 		 * evaluates, in this case "(lhs && rhs)".
@@ -403,6 +539,26 @@ public abstract class Precondition
 			
 			return (false);
 		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		Precondition specialise (final Hashtable<Profiler, Object> profiles)
+		{
+			Precondition	lhsValue = lhs.specialise (profiles);
+			
+			if (lhsValue == ALWAYS) return (ALWAYS);
+			
+			Precondition	rhsValue = rhs.specialise (profiles);
+			
+			if (rhsValue == ALWAYS) return (ALWAYS);
+			if (lhsValue == NEVER)  return (rhsValue);
+			if (rhsValue == NEVER)  return (lhsValue);
+			
+			return (((lhsValue == lhs) && (rhsValue == rhs)) ? this : new Or (lhsValue, rhsValue));
+		}
 		
 		/**
 		 * Returns a <CODE>String</CODE> describing expression this <CODE>Precondition
@@ -0,0 +1,122 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.validation;
+
+import java.util.Hashtable;
+import java.util.Vector;
+
+import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
+
+/**
+ * A <CODE>ProfilePrecondition</CODE> is a <CODE>Precondition</CODE> whose
+ * outcome depends only on the profile of a <CODE>Document</CODE> as
+ * determined by a <CODE>Profiler</CODE>, rather than on its detailed
+ * content.
+ * <P>
+ * Because the outcome is the same for every document with the same profile
+ * a <CODE>RuleSet</CODE> can evaluate these preconditions once per distinct
+ * profile and cache the result.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public abstract class ProfilePrecondition extends Precondition
+{
+	/**
+	 * Provides access to the <CODE>Profiler</CODE> that determines the
+	 * profile this <CODE>Precondition</CODE> tests.
+	 *
+	 * @return	The <CODE>Profiler</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	public final Profiler getProfiler ()
+	{
+		return (profiler);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public boolean evaluate (final NodeIndex nodeIndex, Hashtable<Precondition, Boolean> cache)
+	{
+		return (evaluate (profiler.profile (nodeIndex)));
+	}
+
+	/**
+	 * Evaluates this <CODE>Precondition</CODE> against a document profile.
+	 *
+	 * @param 	profile			A profile created by this instance's
+	 * 							<CODE>Profiler</CODE>.
+	 * @return	A <CODE>boolean</CODE> value indicating the applicability of this
+	 * 			<CODE>Precondition</CODE> to documents with the given profile.
+	 * @since	TFP 1.9
+	 */
+	public abstract boolean evaluate (final Object profile);
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		profiler.declareRequirements (scope);
+	}
+
+	/**
+	 * Constructs a <CODE>ProfilePrecondition</CODE> that tests the profiles
+	 * created by the given <CODE>Profiler</CODE>.
+	 *
+	 * @param 	profiler		The <CODE>Profiler</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	protected ProfilePrecondition (final Profiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	void collectProfilers (Vector<Profiler> profilers)
+	{
+		if (!profilers.contains (profiler)) profilers.add (profiler);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	Precondition specialise (final Hashtable<Profiler, Object> profiles)
+	{
+		Object			profile = profiles.get (profiler);
+
+		if (profile == null) return (this);
+
+		return (evaluate (profile) ? ALWAYS : NEVER);
+	}
+
+	/**
+	 * The <CODE>Profiler</CODE> used to determine document profiles.
+	 * @since	TFP 1.9
+	 */
+	private final Profiler		profiler;
+}
\ No newline at end of file
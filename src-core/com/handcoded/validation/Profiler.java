@@ -0,0 +1,53 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.validation;
+
+import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
+
+/**
+ * A <CODE>Profiler</CODE> extracts a small summary of a <CODE>Document</CODE>
+ * (for example its schema version and namespace) that determines the
+ * outcome of one or more <CODE>ProfilePrecondition</CODE> instances.
+ * <P>
+ * A <CODE>RuleSet</CODE> uses the profiles of a document to select a cached
+ * execution plan that already excludes the rules whose preconditions can
+ * never apply to documents with the same profile.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public interface Profiler
+{
+	/**
+	 * Determines the profile of the indexed <CODE>Document</CODE>. The
+	 * result is used as a hash key so it must implement <CODE>equals</CODE>
+	 * and <CODE>hashCode</CODE> consistently and must not be <CODE>null</CODE>.
+	 *
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of a <CODE>Document</CODE>.
+	 * @return	An object describing the document's profile.
+	 * @since	TFP 1.9
+	 */
+	public Object profile (final NodeIndex nodeIndex);
+	
+	/**
+	 * Adds the element names, attribute names and types that the
+	 * <CODE>profile</CODE> method queries to a <CODE>NodeIndexScope</CODE>.
+	 *
+	 * @param 	scope			The <CODE>NodeIndexScope</CODE> to extend.
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope);
+}
\ No newline at end of file
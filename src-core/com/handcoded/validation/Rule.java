@@ -164,6 +164,20 @@ public abstract class Rule extends Validator
 		extent.put (name, this);
 	}
 		
+	/**
+	 * Provides the <CODE>RuleFusion</CODE> that can combine this rule with
+	 * others of the same kind when they are executed by a <CODE>RuleSet
+	 * </CODE>. The default implementation returns <CODE>null</CODE> so that
+	 * the rule is always executed individually.
+	 * 
+	 * @return	The <CODE>RuleFusion</CODE> for this rule or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	protected RuleFusion getFusion ()
+	{
+		return (null);
+	}
+	
 	/**
 	 * Produces a debugging string describing the state of the instance.
 	 *
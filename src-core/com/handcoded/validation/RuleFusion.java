@@ -0,0 +1,43 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.validation;
+
+/**
+ * A <CODE>RuleFusion</CODE> combines a group of similar <CODE>Rule</CODE>
+ * instances into a single <CODE>Validator</CODE> that performs all their
+ * checks together, typically in a single pass over the document.
+ * <P>
+ * When a <CODE>RuleSet</CODE> builds an execution plan it groups the rules
+ * that always apply to the document profile by the <CODE>RuleFusion</CODE>
+ * they return from <CODE>getFusion</CODE> and executes the fused
+ * <CODE>Validator</CODE> in their place. The fused <CODE>Validator</CODE>
+ * must report errors under the names of the original rules.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public interface RuleFusion
+{
+	/**
+	 * Creates a <CODE>Validator</CODE> that performs the checks of all the
+	 * given rules.
+	 *
+	 * @param 	rules			The <CODE>Rule</CODE> instances to combine, all
+	 * 							of which returned this <CODE>RuleFusion</CODE>.
+	 * @return	The fused <CODE>Validator</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public Validator fuse (final Rule [] rules);
+}
\ No newline at end of file
@@ -13,23 +13,57 @@
 
 package com.handcoded.validation;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.w3c.dom.Node;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.helpers.DefaultHandler;
 
 import com.handcoded.framework.Application;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.parser.SAXParser;
 
 /**
  * A <CODE>RuleSet</CODE> instance contains a collection of validation rules
  * that can be tested against a DOM <CODE>Document</CODE> in a single
  * operation. 
+ * <P>
+ * The rules are executed according to a plan built for each distinct
+ * document profile (see <CODE>Profiler</CODE>). Building a plan resolves
+ * every <CODE>ProfilePrecondition</CODE>, so the plan only contains the rules
+ * that can apply to a document with that profile, and only the remaining
+ * content dependent preconditions are evaluated for each document. These
+ * are compiled (see <CODE>CompiledPreconditions</CODE>) so that their
+ * results are recorded in bitsets rather than a <CODE>Hashtable</CODE>.
+ * Rules that always apply and share a <CODE>RuleFusion</CODE> are replaced
+ * in the plan by a single fused <CODE>Validator</CODE>.
+ * <P>
+ * When a <CODE>Document</CODE> is validated directly its <CODE>NodeIndex</CODE>
+ * is restricted to the union of the requirements declared by the rules and
+ * their preconditions (see <CODE>NodeIndexScope</CODE>).
+ * <P>
+ * Per rule execution statistics can be collected by attaching a
+ * <CODE>RuleStatistics</CODE> instance.
+ * <P>
+ * A validation may be asked to stop after a number of errors, or to stop
+ * each rule at its first error, using <CODE>ValidationOptions</CODE>.
+ * <P>
+ * A <CODE>RuleSet</CODE> shared by many threads should be frozen (see
+ * {@link #freeze()}) once it has been built. The frozen snapshot cannot be
+ * modified, so its plans are never rebuilt, and validation through it does
+ * not acquire any locks once a plan exists for each document profile.
  *
  * @author	BitWise
  * @version	$Id$
@@ -44,7 +78,7 @@ public final class RuleSet extends Validator
 	@Deprecated
 	public RuleSet ()
 	{
-		this (null);
+		this ((String) null);
 	}
 	
 	/**
@@ -56,6 +90,7 @@ public final class RuleSet extends Validator
 	public RuleSet (final String name)
 	{
 		if ((this.name = name) != null) extent.put (name, this);
+		frozen = false;
 	}
 	
 	/**
@@ -97,11 +132,15 @@ public final class RuleSet extends Validator
 	 * standard rules with customised ones.
 	 *
 	 * @param 	rule			The <CODE>Rule</CODE> to be added.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
 	 * @since 	TFP 1.0
 	 */
 	public void add (Rule rule)
 	{
+		checkNotFrozen ();
 		rules.put (rule.getName (), rule);
+		plans = null;
 	}
 	
 	/**
@@ -109,6 +148,8 @@ public final class RuleSet extends Validator
 	 * RuleSet</CODE> to this one.
 	 *
 	 * @param 	ruleSet			The <CODE>RuleSet</CODE> to be added.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
 	 * @since 	TFP 1.0
 	 */
 	public void add (RuleSet ruleSet)
@@ -124,11 +165,18 @@ public final class RuleSet extends Validator
 	 * @param 	name			The name of the <CODE>Rule</CODE> to be removed.
 	 * @return 	The <CODE>Rule</CODE> instance removed from the collection
 	 *			or <CODE>null</CODE> if there was no match.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
 	 * @since 	TFP 1.0
 	 */
 	public Rule remove (String name)
 	{
-		return ((Rule) rules.remove (name));
+		checkNotFrozen ();
+		
+		Rule			result = rules.remove (name);
+		
+		plans = null;
+		return (result);
 	}
 	
 	/**
@@ -138,6 +186,8 @@ public final class RuleSet extends Validator
 	 * @param 	rule			The <CODE>Rule</CODE> to be removed.
 	 * @return 	The <CODE>Rule</CODE> instance removed from the collection
 	 *			or <CODE>null</CODE> if there was no match.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
 	 * @since 	TFP 1.0
 	 */
 	public Rule remove (Rule rule)
@@ -156,6 +206,121 @@ public final class RuleSet extends Validator
 		return (rules.size ());
 	}
 	
+	/**
+	 * Creates an immutable snapshot of the <CODE>RuleSet</CODE> that is
+	 * suitable for sharing between many threads. The snapshot holds the
+	 * current rules in an array together with their execution plans, so
+	 * later changes to this <CODE>RuleSet</CODE> do not affect it. It has
+	 * the same name, but is not registered under it (see {@link #forName}),
+	 * and keeps the <CODE>ForkJoinPool</CODE> and <CODE>RuleStatistics</CODE>
+	 * set at the time it was frozen.
+	 * 
+	 * @return	A frozen <CODE>RuleSet</CODE>, or this instance if it is
+	 * 			already frozen.
+	 * @since	TFP 1.9
+	 */
+	public RuleSet freeze ()
+	{
+		return (frozen ? this : new RuleSet (this));
+	}
+	
+	/**
+	 * Determines if the <CODE>RuleSet</CODE> is an immutable snapshot
+	 * created by {@link #freeze()}.
+	 * 
+	 * @return	<CODE>true</CODE> if the rules cannot be changed.
+	 * @since	TFP 1.9
+	 */
+	public boolean isFrozen ()
+	{
+		return (frozen);
+	}
+	
+	/**
+	 * Provides a signature that identifies the rules currently held by the
+	 * <CODE>RuleSet</CODE>. It is derived from the name of the <CODE>RuleSet
+	 * </CODE> and the name and implementing class of each rule, so it is
+	 * stable between runs of the same application and changes whenever a
+	 * rule is added, removed or replaced.
+	 * 
+	 * @return	The signature of the <CODE>RuleSet</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public String getSignature ()
+	{
+		return (getPlans ().signature);
+	}
+	
+	/**
+	 * Provides access to the <CODE>ForkJoinPool</CODE> used to execute
+	 * rules in parallel.
+	 * 
+	 * @return	The <CODE>ForkJoinPool</CODE> or <CODE>null</CODE> if rules
+	 * 			are executed sequentially.
+	 * @since	TFP 1.9
+	 */
+	public ForkJoinPool getPool ()
+	{
+		return (pool);
+	}
+	
+	/**
+	 * Enables or disables parallel rule execution. When a
+	 * <CODE>ForkJoinPool</CODE> is set the preconditions of all the rules are
+	 * evaluated up front and the applicable rules are then divided into
+	 * batches which are executed on the pool's threads. Errors are buffered
+	 * and passed on to the <CODE>ValidationErrorHandler</CODE> in the same
+	 * order as a sequential validation would produce once all the batches
+	 * have completed.
+	 * <P>
+	 * The rules only read the DOM tree, but as the DOM specification does
+	 * not require read access to be thread safe rules should avoid the
+	 * <CODE>NodeList</CODE> returned by <CODE>getChildNodes</CODE> as some
+	 * implementations cache its state in the parent node.
+	 * 
+	 * @param 	pool			The <CODE>ForkJoinPool</CODE> to use or
+	 * 							<CODE>null</CODE> to execute sequentially.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
+	 * @since	TFP 1.9
+	 */
+	public void setPool (ForkJoinPool pool)
+	{
+		checkNotFrozen ();
+		this.pool = pool;
+	}
+	
+	/**
+	 * Provides access to the <CODE>RuleStatistics</CODE> being collected.
+	 * 
+	 * @return	The <CODE>RuleStatistics</CODE> or <CODE>null</CODE> if none
+	 * 			are being collected.
+	 * @since	TFP 1.9
+	 */
+	public RuleStatistics getStatistics ()
+	{
+		return (statistics);
+	}
+	
+	/**
+	 * Starts or stops the collection of per rule statistics. While
+	 * statistics are being collected rules are executed individually rather
+	 * than fused (see <CODE>RuleFusion</CODE>) so that each rule's execution
+	 * time can be measured.
+	 * 
+	 * @param 	statistics		The <CODE>RuleStatistics</CODE> to update or
+	 * 							<CODE>null</CODE> to stop collecting.
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
+	 * @since	TFP 1.9
+	 */
+	public void setStatistics (RuleStatistics statistics)
+	{
+		checkNotFrozen ();
+		this.statistics = statistics;
+		plans = null;
+	}
+	
 	/**
 	 * Converts the <CODE>RuleSet</CODE> to a string for debugging.
 	 *
@@ -175,28 +340,210 @@ public final class RuleSet extends Validator
 	@Override
 	protected boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler)
 	{
+		return (validate (nodeIndex, errorHandler, (ErrorBudget) null));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Rules are abandoned individually, so when each rule stops at its first
+	 * error the remaining applicable rules are still executed. Once the
+	 * error budget has been used up no further rules are started. When
+	 * rules are executed in parallel the errors reported are still limited
+	 * to the budget but may not be the first ones a sequential validation
+	 * would have found.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler,
+			ValidationOptions options)
+	{
+		return (validate (nodeIndex, errorHandler,
+				options.isLimited () ? new ErrorBudget (options) : null));
+	}
+	
+	/**
+	 * Executes the rules that apply to the indexed <CODE>Document</CODE>.
+	 * 
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> instance to examine.
+	 * @param 	errorHandler	An <CODE>ErrorHandler</CODE> instance used to report
+	 *							validation failures.
+	 * @param 	budget			The <CODE>ErrorBudget</CODE> to enforce or
+	 * 							<CODE>null</CODE>.
+	 * @return 	<CODE>false</CODE> if the validation test failed, <CODE>true
+	 *			</CODE> otherwise.
+	 * @since	TFP 1.9
+	 */
+	private boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler,
+			final ErrorBudget budget)
+	{
+		ForkJoinPool	pool	   = this.pool;
+		RuleStatistics	statistics = this.statistics;
+		Plans			plans	   = getPlans ();
+		Plan			plan	   = plans.planFor (nodeIndex);
+		
+		if (statistics != null) {
+			statistics.recordDocument (plans.rules);
+			errorHandler = statistics.wrap (errorHandler);
+		}
+		
+		if (pool != null) return (validate (nodeIndex, errorHandler, plan, pool, statistics, budget));
+		
 		boolean			result = true;
-		Hashtable<Precondition, Boolean> cache = new Hashtable<Precondition, Boolean> ();
+		CompiledPreconditions.State state = plan.newState ();
 	
-		for (Enumeration<String> keys = rules.keys (); keys.hasMoreElements ();) {
-			Rule 			rule = rules.get (keys.nextElement ());
-			Precondition 	condition = rule.getPrecondition ();
-			Boolean			cached = cache.get(condition);
-			boolean 		applies;
+		for (int index = 0; index < plan.steps.length; ++index) {
+			if ((budget != null) && budget.isExhausted ()) return (false);
 			
-			if (cached == null) {
-				applies = condition.evaluate (nodeIndex, cache);
-				cache.put (condition, applies ? Boolean.TRUE : Boolean.FALSE);
-			}
-			else
-				applies = (cached == Boolean.TRUE);
-			
-			if (applies) result &= rule.validate (nodeIndex, errorHandler);
+			if (plan.appliesTo (index, nodeIndex, state))
+				result &= execute (plan.steps [index], nodeIndex, errorHandler, statistics, budget);
 		}
 			
 		return (result);
 	}
+	
+	/**
+	 * Executes a step of a plan, recording its execution time if it is an
+	 * individual rule and statistics are being collected. If an
+	 * <CODE>ErrorBudget</CODE> is being enforced and the step is abandoned
+	 * it is treated as having failed.
+	 * 
+	 * @param 	step			The rule (or fused group of rules) to execute.
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> instance to examine.
+	 * @param 	errorHandler	An <CODE>ErrorHandler</CODE> instance used to report
+	 *							validation failures.
+	 * @param 	statistics		The <CODE>RuleStatistics</CODE> to update or
+	 * 							<CODE>null</CODE>.
+	 * @param 	budget			The <CODE>ErrorBudget</CODE> to enforce or
+	 * 							<CODE>null</CODE>.
+	 * @return 	<CODE>false</CODE> if the validation test failed, <CODE>true
+	 *			</CODE> otherwise.
+	 * @since	TFP 1.9
+	 */
+	private static boolean execute (final Validator step, final NodeIndex nodeIndex,
+			ValidationErrorHandler errorHandler, final RuleStatistics statistics,
+			final ErrorBudget budget)
+	{
+		if (budget != null) {
+			try {
+				return (execute (step, nodeIndex, budget.limit (errorHandler, step), statistics, null));
+			}
+			catch (ErrorBudget.Stop signal) {
+				return (false);
+			}
+		}
 		
+		if ((statistics != null) && (step instanceof Rule))
+			return (statistics.execute ((Rule) step, nodeIndex, errorHandler));
+		
+		return (step.validate (nodeIndex, errorHandler));
+	}
+		
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected NodeIndexScope getScope ()
+	{
+		return (getPlans ().scope);
+	}
+	
+	/**
+	 * Determines which rules apply to the indexed <CODE>Document</CODE> and
+	 * executes them in batches on the given <CODE>ForkJoinPool</CODE>.
+	 * 
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> instance to examine.
+	 * @param 	errorHandler	An <CODE>ErrorHandler</CODE> instance used to report
+	 *							validation failures.
+	 * @param 	plan			The <CODE>Plan</CODE> for the document's profile.
+	 * @param 	pool			The <CODE>ForkJoinPool</CODE> to execute on.
+	 * @param 	statistics		The <CODE>RuleStatistics</CODE> to update or
+	 * 							<CODE>null</CODE>.
+	 * @param 	budget			The <CODE>ErrorBudget</CODE> to enforce or
+	 * 							<CODE>null</CODE>.
+	 * @return 	<CODE>false</CODE> if the validation test failed, <CODE>true
+	 *			</CODE> otherwise.
+	 * @since	TFP 1.9
+	 */
+	private boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler,
+			Plan plan, ForkJoinPool pool, RuleStatistics statistics, ErrorBudget budget)
+	{
+		CompiledPreconditions.State state = plan.newState ();
+		Validator []	applicable = plan.steps;
+		int				count = 0;
+		
+		if (state != null) {
+			applicable = new Validator [plan.steps.length];
+			for (int index = 0; index < plan.steps.length; ++index)
+				if (plan.appliesTo (index, nodeIndex, state))
+					applicable [count++] = plan.steps [index];
+		}
+		else
+			count = applicable.length;
+		
+		ErrorBuffer []	buffers = new ErrorBuffer [(count + BATCH_SIZE - 1) / BATCH_SIZE];
+		boolean			result	= pool.invoke (new Batch (applicable, 0, count, nodeIndex, buffers, statistics, budget));
+		
+		for (ErrorBuffer buffer : buffers)
+			if (buffer != null) buffer.replay (errorHandler);
+		
+		return (result);
+	}
+	
+	/**
+	 * Constructs a frozen snapshot of another <CODE>RuleSet</CODE>.
+	 * 
+	 * @param 	source			The <CODE>RuleSet</CODE> to copy.
+	 * @since	TFP 1.9
+	 */
+	private RuleSet (final RuleSet source)
+	{
+		name   = source.name;
+		frozen = true;
+		
+		synchronized (source.rules) {
+			rules.putAll (source.rules);
+		}
+		pool	   = source.pool;
+		statistics = source.statistics;
+		plans	   = new Plans (name, rules, statistics == null);
+	}
+	
+	/**
+	 * Ensures that the <CODE>RuleSet</CODE> may be modified.
+	 * 
+	 * @throws	UnsupportedOperationException If the <CODE>RuleSet</CODE> is
+	 * 			frozen.
+	 * @since	TFP 1.9
+	 */
+	private void checkNotFrozen ()
+	{
+		if (frozen)
+			throw new UnsupportedOperationException ("The RuleSet '" + name + "' is frozen");
+	}
+	
+	/**
+	 * Provides the plan cache for the current set of rules, creating it if
+	 * the rules have changed since it was last used.
+	 * 
+	 * @return	The <CODE>Plans</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	private Plans getPlans ()
+	{
+		Plans			result = plans;
+		
+		if (result == null) {
+			synchronized (rules) {
+				if ((result = plans) == null)
+					plans = result = new Plans (name, rules, statistics == null);
+			}
+		}
+		return (result);
+	}
+	
 	/**
 	 * Produces a debugging string describing the state of the rule
 	 * collection.
@@ -318,6 +665,474 @@ public final class RuleSet extends Validator
 		private RuleSet		ruleSet = null;
 	}
 
+	/**
+	 * The <CODE>Plans</CODE> class holds a snapshot of the rules in a
+	 * <CODE>RuleSet</CODE> together with the <CODE>Plan</CODE> built for each
+	 * document profile seen so far.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Plans
+	{
+		/**
+		 * Constructs a <CODE>Plans</CODE> instance for the given rules.
+		 * 
+		 * @param 	name			The name of the <CODE>RuleSet</CODE>.
+		 * @param 	rules			The rules indexed by name.
+		 * @param 	fusion			<CODE>true</CODE> if rules may be fused.
+		 * @since	TFP 1.9
+		 */
+		Plans (final String name, final Hashtable<String, Rule> rules, boolean fusion)
+		{
+			this.fusion = fusion;
+			
+			Vector<Profiler>	found = new Vector<Profiler> ();
+			int					count = 0;
+			
+			this.rules = new Rule [rules.size ()];
+			for (Enumeration<Rule> cursor = rules.elements (); cursor.hasMoreElements ();) {
+				Rule			rule = cursor.nextElement ();
+				
+				rule.getPrecondition ().collectProfilers (found);
+				this.rules [count++] = rule;
+			}
+			profilers = found.toArray (new Profiler [found.size ()]);
+			
+			scope = new NodeIndexScope ();
+			for (Rule rule : this.rules) {
+				rule.getPrecondition ().declareRequirements (scope);
+				rule.declareRequirements (scope);
+			}
+			
+			String []		names = rules.keySet ().toArray (new String [rules.size ()]);
+			long			hash  = 0xCBF29CE484222325L;
+			
+			Arrays.sort (names);
+			for (String key : names) {
+				String		text = key + '=' + rules.get (key).getClass ().getName () + ';';
+				
+				for (int index = 0; index < text.length (); ++index)
+					hash = (hash ^ text.charAt (index)) * 0x100000001B3L;
+			}
+			signature = name + '#' + names.length + '#' + Long.toHexString (hash);
+		}
+		
+		/**
+		 * Finds the <CODE>Plan</CODE> for an indexed <CODE>Document</CODE>,
+		 * building it if its profile has not been seen before.
+		 * 
+		 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of the
+		 * 							<CODE>Document</CODE>.
+		 * @return	The <CODE>Plan</CODE> to execute.
+		 * @since	TFP 1.9
+		 */
+		Plan planFor (final NodeIndex nodeIndex)
+		{
+			Object []		values = new Object [profilers.length];
+			
+			for (int index = 0; index < profilers.length; ++index)
+				values [index] = profilers [index].profile (nodeIndex);
+			
+			List<Object>	key	 = Arrays.asList (values);
+			Plan			plan = cache.get (key);
+			
+			if (plan == null) {
+				Hashtable<Profiler, Object> profiles = new Hashtable<Profiler, Object> ();
+				
+				for (int index = 0; index < profilers.length; ++index)
+					profiles.put (profilers [index], values [index]);
+				
+				plan = new Plan (rules, profiles, fusion);
+				if (cache.size () >= MAX_PLANS) cache.clear ();
+				
+				Plan		other = cache.putIfAbsent (key, plan);
+				
+				if (other != null) plan = other;
+			}
+			return (plan);
+		}
+		
+		/**
+		 * The maximum number of plans retained.
+		 * @since	TFP 1.9
+		 */
+		private static final int	MAX_PLANS	= 64;
+		
+		/**
+		 * All the rules in their normal execution order.
+		 * @since	TFP 1.9
+		 */
+		private final Rule []		rules;
+		
+		/**
+		 * The <CODE>Profiler</CODE> instances used by the rules' preconditions.
+		 * @since	TFP 1.9
+		 */
+		private final Profiler []	profilers;
+		
+		/**
+		 * Indicates whether the plans may fuse rules.
+		 * @since	TFP 1.9
+		 */
+		private final boolean		fusion;
+		
+		/**
+		 * The union of the requirements declared by the rules.
+		 * @since	TFP 1.9
+		 */
+		final NodeIndexScope		scope;
+		
+		/**
+		 * The signature of the rules.
+		 * @since	TFP 1.9
+		 */
+		final String				signature;
+		
+		/**
+		 * The <CODE>Plan</CODE> for each combination of profiles. Lookups
+		 * do not lock so that concurrent validations do not contend.
+		 * @since	TFP 1.9
+		 */
+		private final ConcurrentHashMap<List<Object>, Plan> cache
+			= new ConcurrentHashMap<List<Object>, Plan> ();
+	}
+	
+	/**
+	 * A <CODE>Plan</CODE> lists the rules that may apply to documents with a
+	 * particular profile together with any preconditions that must still be
+	 * evaluated against each document's content.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Plan
+	{
+		/**
+		 * Constructs a <CODE>Plan</CODE> by simplifying the preconditions of
+		 * the given rules using a set of document profiles and then, if
+		 * allowed, fusing any rules that always apply and can be combined.
+		 * 
+		 * @param 	candidates		The rules in execution order.
+		 * @param 	profiles		The document profiles.
+		 * @param 	fusion			<CODE>true</CODE> if rules may be fused.
+		 * @since	TFP 1.9
+		 */
+		Plan (final Rule [] candidates, final Hashtable<Profiler, Object> profiles,
+				boolean fusion)
+		{
+			Hashtable<Precondition, Precondition> simplified
+				= new Hashtable<Precondition, Precondition> ();
+			Rule []			selected  = new Rule [candidates.length];
+			Precondition []	remaining = new Precondition [candidates.length];
+			int				count	  = 0;
+			boolean			dynamic	  = false;
+			
+			for (Rule rule : candidates) {
+				Precondition	condition = rule.getPrecondition ();
+				Precondition	residual  = simplified.get (condition);
+				
+				if (residual == null)
+					simplified.put (condition, residual = condition.specialise (profiles));
+				
+				if (residual != Precondition.NEVER) {
+					selected [count] = rule;
+					if (residual != Precondition.ALWAYS) {
+						remaining [count] = residual;
+						dynamic = true;
+					}
+					++count;
+				}
+			}
+			
+			Validator []	fused = fusion ? fuse (selected, remaining, count) : null;
+			
+			if (fused != null) {
+				int			kept = 0;
+				
+				for (int index = 0; index < count; ++index) {
+					if (fused [index] != null) {
+						fused [kept]	 = fused [index];
+						remaining [kept] = remaining [index];
+						++kept;
+					}
+				}
+				steps = Arrays.copyOf (fused, count = kept);
+			}
+			else
+				steps = Arrays.copyOf (selected, count, Validator [].class);
+			
+			conditions = dynamic
+				? new CompiledPreconditions (Arrays.copyOf (remaining, count)) : null;
+		}
+		
+		/**
+		 * Groups the unconditional rules in a plan by their <CODE>RuleFusion
+		 * </CODE> and replaces each group with the fused <CODE>Validator</CODE>,
+		 * placed at the position of the group's first rule.
+		 * 
+		 * @param 	selected		The rules selected for the plan.
+		 * @param 	remaining		The remaining precondition for each rule.
+		 * @param 	count			The number of rules selected.
+		 * @return	The validators for the plan with <CODE>null</CODE> entries
+		 * 			for the rules absorbed into a fused <CODE>Validator</CODE>, or
+		 * 			<CODE>null</CODE> if no rules were fused.
+		 * @since	TFP 1.9
+		 */
+		private static Validator [] fuse (final Rule [] selected, final Precondition [] remaining,
+				int count)
+		{
+			Hashtable<RuleFusion, Vector<Rule>> groups = new Hashtable<RuleFusion, Vector<Rule>> ();
+			Hashtable<RuleFusion, Integer>		first  = new Hashtable<RuleFusion, Integer> ();
+			
+			for (int index = 0; index < count; ++index) {
+				RuleFusion		fusion;
+				
+				if ((remaining [index] == null) && ((fusion = selected [index].getFusion ()) != null)) {
+					Vector<Rule>	group = groups.get (fusion);
+					
+					if (group == null) {
+						groups.put (fusion, group = new Vector<Rule> ());
+						first.put (fusion, index);
+					}
+					group.add (selected [index]);
+				}
+			}
+			
+			Validator []	result = null;
+			
+			for (Enumeration<RuleFusion> cursor = groups.keys (); cursor.hasMoreElements ();) {
+				RuleFusion		fusion = cursor.nextElement ();
+				Vector<Rule>	group  = groups.get (fusion);
+				
+				if (group.size () < 2) continue;
+				
+				if (result == null)
+					result = Arrays.copyOf (selected, count, Validator [].class);
+				
+				for (int index = 0; index < count; ++index)
+					if (group.contains (selected [index])) result [index] = null;
+				
+				result [first.get (fusion)] = fusion.fuse (group.toArray (new Rule [group.size ()]));
+			}
+			return (result);
+		}
+		
+		/**
+		 * Creates the state needed to evaluate the plan's preconditions
+		 * against a document.
+		 * 
+		 * @return	A new <CODE>State</CODE> or <CODE>null</CODE> if every
+		 * 			rule in the plan applies.
+		 * @since	TFP 1.9
+		 */
+		CompiledPreconditions.State newState ()
+		{
+			return ((conditions != null) ? conditions.newState () : null);
+		}
+		
+		/**
+		 * Determines if a rule in the plan applies to the indexed
+		 * <CODE>Document</CODE>.
+		 * 
+		 * @param 	index			The position of the rule in the plan.
+		 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of the
+		 * 							<CODE>Document</CODE>.
+		 * @param 	state			The precondition <CODE>State</CODE> for the
+		 * 							<CODE>Document</CODE>.
+		 * @return	<CODE>true</CODE> if the rule should be executed.
+		 * @since	TFP 1.9
+		 */
+		boolean appliesTo (int index, final NodeIndex nodeIndex,
+				CompiledPreconditions.State state)
+		{
+			return ((conditions == null) || conditions.evaluate (index, nodeIndex, state));
+		}
+		
+		/**
+		 * The rules (or fused groups of rules) that may apply in execution
+		 * order.
+		 * @since	TFP 1.9
+		 */
+		final Validator []		steps;
+		
+		/**
+		 * The compiled preconditions still to be evaluated for each rule or
+		 * <CODE>null</CODE> if every rule applies.
+		 * @since	TFP 1.9
+		 */
+		final CompiledPreconditions	conditions;
+	}
+
+	/**
+	 * The <CODE>ErrorBuffer</CODE> class captures the errors reported by a
+	 * batch of rules executing in parallel so that they can be passed on in
+	 * a deterministic order.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class ErrorBuffer implements ValidationErrorHandler
+	{
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		public void error (String code, Node context, String description,
+				String ruleName, String additionalData)
+		{
+			details.add (code);
+			details.add (context);
+			details.add (description);
+			details.add (ruleName);
+			details.add (additionalData);
+		}
+		
+		/**
+		 * Passes the captured errors on to another handler in the order
+		 * they were reported.
+		 * 
+		 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> to
+		 * 							receive the errors.
+		 * @since	TFP 1.9
+		 */
+		void replay (ValidationErrorHandler errorHandler)
+		{
+			for (int index = 0; index < details.size (); index += 5)
+				errorHandler.error ((String) details.get (index), (Node) details.get (index + 1),
+						(String) details.get (index + 2), (String) details.get (index + 3),
+						(String) details.get (index + 4));
+		}
+		
+		/**
+		 * The arguments of each reported error, five per error.
+		 * @since	TFP 1.9
+		 */
+		private final ArrayList<Object> details = new ArrayList<Object> ();
+	}
+	
+	/**
+	 * The <CODE>Batch</CODE> class is a fork/join task that executes a range
+	 * of applicable rules, splitting itself until each part holds at most
+	 * {@link #BATCH_SIZE} rules.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Batch extends RecursiveTask<Boolean>
+	{
+		/**
+		 * Constructs a <CODE>Batch</CODE> for a range of rules.
+		 * 
+		 * @param 	rules			The applicable rules.
+		 * @param 	start			The index of the first rule to execute.
+		 * @param 	end				The index after the last rule to execute.
+		 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> instance to examine.
+		 * @param 	buffers			The <CODE>ErrorBuffer</CODE> for each group of
+		 * 							{@link #BATCH_SIZE} rules.
+		 * @param 	statistics		The <CODE>RuleStatistics</CODE> to update or
+		 * 							<CODE>null</CODE>.
+		 * @param 	budget			The <CODE>ErrorBudget</CODE> to enforce or
+		 * 							<CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Batch (final Validator [] rules, int start, int end, final NodeIndex nodeIndex,
+				ErrorBuffer [] buffers, final RuleStatistics statistics, final ErrorBudget budget)
+		{
+			this.rules		= rules;
+			this.start		= start;
+			this.end		= end;
+			this.nodeIndex	= nodeIndex;
+			this.buffers	= buffers;
+			this.statistics	= statistics;
+			this.budget		= budget;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		protected Boolean compute ()
+		{
+			int				batches = (end - start + BATCH_SIZE - 1) / BATCH_SIZE;
+			
+			if (batches > 1) {
+				int			middle = start + (batches / 2) * BATCH_SIZE;
+				Batch		lhs = new Batch (rules, start, middle, nodeIndex, buffers, statistics, budget);
+				Batch		rhs = new Batch (rules, middle, end, nodeIndex, buffers, statistics, budget);
+				
+				invokeAll (lhs, rhs);
+				return (lhs.join () & rhs.join ());
+			}
+			
+			ErrorBuffer		buffer = new ErrorBuffer ();
+			boolean			result = true;
+			
+			for (int index = start; index < end; ++index) {
+				if ((budget != null) && budget.isExhausted ()) {
+					result = false;
+					break;
+				}
+				result &= execute (rules [index], nodeIndex, buffer, statistics, budget);
+			}
+			
+			buffers [start / BATCH_SIZE] = buffer;
+			return (result);
+		}
+		
+		/**
+		 * The applicable rules.
+		 * @since	TFP 1.9
+		 */
+		private final Validator []	rules;
+		
+		/**
+		 * The index of the first rule to execute.
+		 * @since	TFP 1.9
+		 */
+		private final int			start;
+		
+		/**
+		 * The index after the last rule to execute.
+		 * @since	TFP 1.9
+		 */
+		private final int			end;
+		
+		/**
+		 * The <CODE>NodeIndex</CODE> instance to examine.
+		 * @since	TFP 1.9
+		 */
+		private final NodeIndex		nodeIndex;
+		
+		/**
+		 * The <CODE>ErrorBuffer</CODE> for each group of rules.
+		 * @since	TFP 1.9
+		 */
+		private final ErrorBuffer []	buffers;
+		
+		/**
+		 * The <CODE>RuleStatistics</CODE> to update or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final RuleStatistics	statistics;
+		
+		/**
+		 * The <CODE>ErrorBudget</CODE> to enforce or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final ErrorBudget		budget;
+		
+		/**
+		 * Serialization UID
+		 * @since	TFP 1.9
+		 */
+		private static final long serialVersionUID = 4621057891763412458L;
+	}
+	
+	/**
+	 * The maximum number of rules executed together as a single parallel
+	 * task.
+	 * @since	TFP 1.9
+	 */
+	private static final int	BATCH_SIZE	= 8;
+	
 	/**
 	 * A <CODE>Logger</CODE> instance used to report run-time problems.
 	 * @since	TFP 1.0
@@ -339,12 +1154,38 @@ public final class RuleSet extends Validator
 	 */
 	private final String	name;
 	
+	/**
+	 * Indicates that the <CODE>RuleSet</CODE> is an immutable snapshot.
+	 * @since	TFP 1.9
+	 */
+	private final boolean	frozen;
+	
 	/**
 	 * The underlying collection of rules indexed by name.
 	 * @since 	TFP 1.0
 	 */
 	private Hashtable<String, Rule>	rules
 		= new Hashtable<String, Rule> ();
+	
+	/**
+	 * The <CODE>ForkJoinPool</CODE> used for parallel rule execution or
+	 * <CODE>null</CODE> for sequential execution.
+	 * @since	TFP 1.9
+	 */
+	private volatile ForkJoinPool	pool	= null;
+	
+	/**
+	 * The execution plans for the current rules or <CODE>null</CODE> if
+	 * they must be rebuilt.
+	 * @since	TFP 1.9
+	 */
+	private volatile Plans			plans	= null;
+	
+	/**
+	 * The <CODE>RuleStatistics</CODE> being collected or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private volatile RuleStatistics	statistics	= null;
 
 	/**
 	 * Causes the <CODE>RuleSet</CODE> class to try and bootstrap the business
@@ -0,0 +1,476 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.validation;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.w3c.dom.Node;
+
+import com.handcoded.xml.NodeIndex;
+
+/**
+ * A <CODE>RuleStatistics</CODE> instance records how often each rule in a
+ * <CODE>RuleSet</CODE> is considered, how often it applies, how many errors
+ * it raises and how long it takes to execute.
+ * <P>
+ * Statistics are only collected while an instance is attached to a
+ * <CODE>RuleSet</CODE> with {@link RuleSet#setStatistics(RuleStatistics)}.
+ * Rules are not fused while statistics are being collected so that the
+ * time spent in each rule can be measured separately. The same instance
+ * may be shared by several <CODE>RuleSet</CODE> instances and updated by
+ * any number of threads.
+ * <P>
+ * The statistics can be read through the methods of this class, printed
+ * as a report or published through JMX using {@link #register(String)}.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class RuleStatistics implements RuleStatisticsMBean
+{
+	/**
+	 * An <CODE>Entry</CODE> holds the statistics for a single rule.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	public static final class Entry
+	{
+		/**
+		 * Provides the name of the rule.
+		 * 
+		 * @return	The rule name.
+		 * @since	TFP 1.9
+		 */
+		public String getName ()
+		{
+			return (name);
+		}
+		
+		/**
+		 * Provides the number of documents for which the rule was
+		 * considered.
+		 * 
+		 * @return	The invocation count.
+		 * @since	TFP 1.9
+		 */
+		public long getInvocations ()
+		{
+			return (invocations.get ());
+		}
+		
+		/**
+		 * Provides the number of documents to which the rule applied
+		 * (i.e. its precondition was satisfied and it was executed).
+		 * 
+		 * @return	The application count.
+		 * @since	TFP 1.9
+		 */
+		public long getApplications ()
+		{
+			return (latency.getCount ());
+		}
+		
+		/**
+		 * Provides the number of errors raised by the rule.
+		 * 
+		 * @return	The error count.
+		 * @since	TFP 1.9
+		 */
+		public long getErrors ()
+		{
+			return (errors.get ());
+		}
+		
+		/**
+		 * Provides the distribution of the rule's execution times in
+		 * nanoseconds.
+		 * 
+		 * @return	The <CODE>LatencyHistogram</CODE> for the rule.
+		 * @since	TFP 1.9
+		 */
+		public LatencyHistogram getLatency ()
+		{
+			return (latency);
+		}
+		
+		/**
+		 * Constructs an <CODE>Entry</CODE> for the named rule.
+		 * 
+		 * @param 	name			The rule name.
+		 * @since	TFP 1.9
+		 */
+		Entry (final String name)
+		{
+			this.name = name;
+		}
+		
+		/**
+		 * Discards the recorded statistics.
+		 * @since	TFP 1.9
+		 */
+		void reset ()
+		{
+			invocations.set (0);
+			errors.set (0);
+			latency.reset ();
+		}
+		
+		/**
+		 * The name of the rule.
+		 * @since	TFP 1.9
+		 */
+		private final String			name;
+		
+		/**
+		 * The number of documents for which the rule was considered.
+		 * @since	TFP 1.9
+		 */
+		final AtomicLong				invocations	= new AtomicLong ();
+		
+		/**
+		 * The number of errors raised by the rule.
+		 * @since	TFP 1.9
+		 */
+		final AtomicLong				errors		= new AtomicLong ();
+		
+		/**
+		 * The execution times of the rule.
+		 * @since	TFP 1.9
+		 */
+		final LatencyHistogram			latency		= new LatencyHistogram ();
+	}
+	
+	/**
+	 * Constructs an empty <CODE>RuleStatistics</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	public RuleStatistics ()
+	{ }
+	
+	/**
+	 * Provides the statistics for a rule.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @return	The corresponding <CODE>Entry</CODE> or <CODE>null</CODE> if
+	 * 			no statistics have been recorded for it.
+	 * @since	TFP 1.9
+	 */
+	public Entry getEntry (final String name)
+	{
+		return (entries.get (name));
+	}
+	
+	/**
+	 * Provides the statistics for every rule, ordered by decreasing total
+	 * execution time so that the most expensive rules are listed first.
+	 * 
+	 * @return	An array of <CODE>Entry</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	public Entry [] getEntries ()
+	{
+		Entry []	result = entries.values ().toArray (new Entry [0]);
+		
+		Arrays.sort (result, BY_TOTAL_LATENCY);
+		return (result);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getDocuments ()
+	{
+		return (documents.get ());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public String [] getRuleNames ()
+	{
+		Entry []	sorted = getEntries ();
+		String []	result = new String [sorted.length];
+		
+		for (int index = 0; index < sorted.length; ++index)
+			result [index] = sorted [index].getName ();
+		
+		return (result);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getInvocations (final String name)
+	{
+		Entry		entry = entries.get (name);
+		
+		return ((entry != null) ? entry.getInvocations () : 0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getApplications (final String name)
+	{
+		Entry		entry = entries.get (name);
+		
+		return ((entry != null) ? entry.getApplications () : 0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getErrors (final String name)
+	{
+		Entry		entry = entries.get (name);
+		
+		return ((entry != null) ? entry.getErrors () : 0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getTotalLatency (final String name)
+	{
+		Entry		entry = entries.get (name);
+		
+		return ((entry != null) ? entry.latency.getTotal () : 0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public long getLatencyAtPercentile (final String name, double percentile)
+	{
+		Entry		entry = entries.get (name);
+		
+		return ((entry != null) ? entry.latency.getValueAtPercentile (percentile) : 0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public String report ()
+	{
+		StringBuffer	buffer = new StringBuffer ();
+		
+		buffer.append (String.format ("%d documents%n", documents.get ()));
+		buffer.append (String.format ("%-24s %10s %10s %8s %12s %10s %10s %10s%n",
+				"Rule", "Invoked", "Applied", "Errors", "Total(us)", "Mean(us)", "P99(us)", "Max(us)"));
+		
+		for (Entry entry : getEntries ()) {
+			LatencyHistogram	latency = entry.latency;
+			
+			buffer.append (String.format ("%-24s %10d %10d %8d %12.1f %10.2f %10.2f %10.2f%n",
+					entry.getName (), entry.getInvocations (), latency.getCount (),
+					entry.getErrors (), latency.getTotal () / 1000.0, latency.getMean () / 1000.0,
+					latency.getValueAtPercentile (99.0) / 1000.0, latency.getMax () / 1000.0));
+		}
+		return (buffer.toString ());
+	}
+	
+	/**
+	 * Prints a text report of the statistics for every rule.
+	 * 
+	 * @param 	stream			The <CODE>PrintStream</CODE> to write to.
+	 * @since	TFP 1.9
+	 */
+	public void dump (PrintStream stream)
+	{
+		stream.print (report ());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public void reset ()
+	{
+		documents.set (0);
+		for (Entry entry : entries.values ())
+			entry.reset ();
+	}
+	
+	/**
+	 * Publishes this instance through the platform MBean server.
+	 * 
+	 * @param 	name			The name used to distinguish this instance
+	 * 							in its JMX <CODE>ObjectName</CODE>.
+	 * @return	<CODE>true</CODE> if the instance was registered.
+	 * @since	TFP 1.9
+	 */
+	public boolean register (final String name)
+	{
+		try {
+			ManagementFactory.getPlatformMBeanServer ().registerMBean (this,
+					new ObjectName ("com.handcoded.validation:type=RuleStatistics,name="
+							+ ObjectName.quote (name)));
+			return (true);
+		}
+		catch (JMException error) {
+			logger.log (Level.WARNING, "Failed to register rule statistics '" + name + "'", error);
+			return (false);
+		}
+	}
+	
+	/**
+	 * Records that a document was considered by a set of rules.
+	 * 
+	 * @param 	rules			The rules considered.
+	 * @since	TFP 1.9
+	 */
+	void recordDocument (final Rule [] rules)
+	{
+		documents.incrementAndGet ();
+		for (Rule rule : rules)
+			entryFor (rule).invocations.incrementAndGet ();
+	}
+	
+	/**
+	 * Executes a rule against a document, recording its execution time.
+	 * 
+	 * @param 	rule			The <CODE>Rule</CODE> to execute.
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of the document.
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> used
+	 * 							to report errors.
+	 * @return	The result of the rule.
+	 * @since	TFP 1.9
+	 */
+	boolean execute (final Rule rule, final NodeIndex nodeIndex,
+			ValidationErrorHandler errorHandler)
+	{
+		Entry		entry = entryFor (rule);
+		long		start = System.nanoTime ();
+		
+		try {
+			return (rule.validate (nodeIndex, errorHandler));
+		}
+		finally {
+			entry.latency.record (System.nanoTime () - start);
+		}
+	}
+	
+	/**
+	 * Creates a <CODE>ValidationErrorHandler</CODE> that counts the errors
+	 * raised by each rule before passing them on.
+	 * 
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> to
+	 * 							receive the errors.
+	 * @return	The counting <CODE>ValidationErrorHandler</CODE>.
+	 * @since	TFP 1.9
+	 */
+	ValidationErrorHandler wrap (final ValidationErrorHandler errorHandler)
+	{
+		return (new ValidationErrorHandler ()
+			{
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				public void error (String code, Node context, String description,
+						String ruleName, String additionalData)
+				{
+					Entry		entry = (ruleName != null) ? byDisplayName.get (ruleName) : null;
+					
+					if (entry != null) entry.errors.incrementAndGet ();
+					
+					errorHandler.error (code, context, description, ruleName, additionalData);
+				}
+			});
+	}
+	
+	/**
+	 * Orders entries by decreasing total execution time.
+	 * @since	TFP 1.9
+	 */
+	private static final Comparator<Entry> BY_TOTAL_LATENCY
+		= new Comparator<Entry> ()
+			{
+				public int compare (Entry first, Entry second)
+				{
+					return (Long.compare (second.latency.getTotal (), first.latency.getTotal ()));
+				}
+			};
+	
+	/**
+	 * <CODE>Logger</CODE> instance used to report problems.
+	 * @since	TFP 1.9
+	 */
+	private static Logger		logger
+		= Logger.getLogger ("com.handcoded.validation.RuleStatistics");
+	
+	/**
+	 * The number of documents validated.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLong	documents	= new AtomicLong ();
+	
+	/**
+	 * The <CODE>Entry</CODE> for each rule indexed by rule name.
+	 * @since	TFP 1.9
+	 */
+	private final Hashtable<String, Entry>	entries
+		= new Hashtable<String, Entry> ();
+	
+	/**
+	 * The <CODE>Entry</CODE> for each rule indexed by the name it reports
+	 * errors with.
+	 * @since	TFP 1.9
+	 */
+	private final Hashtable<String, Entry>	byDisplayName
+		= new Hashtable<String, Entry> ();
+	
+	/**
+	 * Finds or creates the <CODE>Entry</CODE> for a rule.
+	 * 
+	 * @param 	rule			The <CODE>Rule</CODE>.
+	 * @return	The corresponding <CODE>Entry</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private Entry entryFor (final Rule rule)
+	{
+		Entry		entry = entries.get (rule.getName ());
+		
+		if (entry == null) {
+			synchronized (entries) {
+				if ((entry = entries.get (rule.getName ())) == null)
+					entries.put (rule.getName (), entry = new Entry (rule.getName ()));
+			}
+		}
+		if (!byDisplayName.containsKey (rule.getDisplayName ()))
+			byDisplayName.put (rule.getDisplayName (), entry);
+		
+		return (entry);
+	}
+}
\ No newline at end of file
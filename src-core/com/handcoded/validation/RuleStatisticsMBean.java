@@ -0,0 +1,104 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.validation;
+
+/**
+ * The <CODE>RuleStatisticsMBean</CODE> interface defines the management
+ * view of a {@link RuleStatistics} instance exposed through JMX. All the
+ * latencies are in nanoseconds.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public interface RuleStatisticsMBean
+{
+	/**
+	 * Provides the number of documents validated.
+	 * 
+	 * @return	The number of documents.
+	 * @since	TFP 1.9
+	 */
+	public long getDocuments ();
+	
+	/**
+	 * Provides the names of the rules with recorded statistics, ordered
+	 * by decreasing total execution time.
+	 * 
+	 * @return	An array of rule names.
+	 * @since	TFP 1.9
+	 */
+	public String [] getRuleNames ();
+	
+	/**
+	 * Provides the number of documents for which a rule was considered.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @return	The invocation count.
+	 * @since	TFP 1.9
+	 */
+	public long getInvocations (String name);
+	
+	/**
+	 * Provides the number of documents to which a rule applied.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @return	The number of times the rule was executed.
+	 * @since	TFP 1.9
+	 */
+	public long getApplications (String name);
+	
+	/**
+	 * Provides the number of errors raised by a rule.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @return	The error count.
+	 * @since	TFP 1.9
+	 */
+	public long getErrors (String name);
+	
+	/**
+	 * Provides the total execution time of a rule.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @return	The total latency.
+	 * @since	TFP 1.9
+	 */
+	public long getTotalLatency (String name);
+	
+	/**
+	 * Provides a percentile of the execution time of a rule.
+	 * 
+	 * @param 	name			The name of the rule.
+	 * @param 	percentile		The required percentile (0 to 100).
+	 * @return	The latency at the percentile.
+	 * @since	TFP 1.9
+	 */
+	public long getLatencyAtPercentile (String name, double percentile);
+	
+	/**
+	 * Produces a text report of the statistics for every rule.
+	 * 
+	 * @return	The report.
+	 * @since	TFP 1.9
+	 */
+	public String report ();
+	
+	/**
+	 * Discards all the recorded statistics.
+	 * @since	TFP 1.9
+	 */
+	public void reset ();
+}
\ No newline at end of file
@@ -172,17 +172,19 @@ public class ValidationError
 	
 	/**
 	 * Constructs a <CODE>ValidationError</CODE> instance from the details
-	 * provided.
+	 * provided, for example when restoring a previously recorded error.
 	 * 
-	 * @param code
-	 * @param context
-	 * @param lexical
-	 * @param description
-	 * @param ruleName
-	 * @param additionalData
+	 * @param	code			The FpML defined reason code associated with the error.
+	 * @param	context			The location of the error as a line and column
+	 * 							or an XPath expression.
+	 * @param	lexical			<CODE>true</CODE> if the context is a line and
+	 * 							column.
+	 * @param	description		A textual description of the problem detected.
+	 * @param	ruleName		The code for the FpML validation rule that has failed.
+	 * @param	additionalData	Any additional data that may assist in problem solving.
 	 * @since	TFP 1.0
 	 */
-	private ValidationError (final String code, final String context, boolean lexical,
+	public ValidationError (final String code, final String context, boolean lexical,
 			final String description,	final String ruleName, final String additionalData)
 	{
 		this.code 			= code;
@@ -0,0 +1,145 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.validation;
+
+/**
+ * A <CODE>ValidationOptions</CODE> instance controls how much work a
+ * <CODE>Validator</CODE> does once it has found errors in a document. By
+ * default every applicable rule is run to completion and every error is
+ * reported, but an application that only needs to know if a document is
+ * valid, or only wants to see the first few problems, can ask for
+ * validation to stop early.
+ * <P>
+ * An error budget limits the total number of errors reported. When the
+ * budget is used up the rule that reported the last error is abandoned and
+ * no further rules are executed. Independently, each rule may be stopped
+ * as soon as it has reported its first error so that rules that examine a
+ * list of nodes do not go on to check the rest of it.
+ * <P>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class ValidationOptions
+{
+	/**
+	 * Indicates that there is no limit on the number of errors reported.
+	 * @since	TFP 1.9
+	 */
+	public static final int		UNLIMITED	= Integer.MAX_VALUE;
+	
+	/**
+	 * The options for a complete validation reporting every error.
+	 * @since	TFP 1.9
+	 */
+	public static final ValidationOptions	ALL_ERRORS
+		= new ValidationOptions (UNLIMITED, false);
+	
+	/**
+	 * The options for a validation that stops at the first error, useful
+	 * when only the validity of a document is of interest.
+	 * @since	TFP 1.9
+	 */
+	public static final ValidationOptions	FIRST_ERROR
+		= new ValidationOptions (1, true);
+	
+	/**
+	 * The options for a validation that reports at most one error for each
+	 * rule but still executes every applicable rule.
+	 * @since	TFP 1.9
+	 */
+	public static final ValidationOptions	FIRST_ERROR_PER_RULE
+		= new ValidationOptions (UNLIMITED, true);
+	
+	/**
+	 * Constructs a <CODE>ValidationOptions</CODE> instance.
+	 * 
+	 * @param 	maximumErrors	The maximum number of errors to report (or
+	 * 							{@link #UNLIMITED}).
+	 * @param 	firstErrorPerRule <CODE>true</CODE> if each rule should stop
+	 * 							at its first error.
+	 * @throws	IllegalArgumentException If the maximum is not positive.
+	 * @since	TFP 1.9
+	 */
+	public ValidationOptions (int maximumErrors, boolean firstErrorPerRule)
+	{
+		if (maximumErrors <= 0)
+			throw new IllegalArgumentException ("The maximum number of errors must be >= 1");
+		
+		this.maximumErrors	   = maximumErrors;
+		this.firstErrorPerRule = firstErrorPerRule;
+	}
+	
+	/**
+	 * Provides the maximum number of errors to be reported.
+	 * 
+	 * @return	The error budget or {@link #UNLIMITED}.
+	 * @since	TFP 1.9
+	 */
+	public int getMaximumErrors ()
+	{
+		return (maximumErrors);
+	}
+	
+	/**
+	 * Determines if each rule should stop at its first error.
+	 * 
+	 * @return	<CODE>true</CODE> if rules are short-circuited.
+	 * @since	TFP 1.9
+	 */
+	public boolean isFirstErrorPerRule ()
+	{
+		return (firstErrorPerRule);
+	}
+	
+	/**
+	 * Determines if these options allow a validation to stop early.
+	 * 
+	 * @return	<CODE>true</CODE> if validation may stop before every
+	 * 			applicable rule has run to completion.
+	 * @since	TFP 1.9
+	 */
+	public boolean isLimited ()
+	{
+		return ((maximumErrors != UNLIMITED) || firstErrorPerRule);
+	}
+	
+	/**
+	 * Converts the <CODE>ValidationOptions</CODE> to a string for debugging.
+	 *
+	 * @return 	A text description of the instance.
+	 * @since 	TFP 1.9
+	 */
+	@Override
+	public String toString ()
+	{
+		return (getClass ().getName () + " [maximumErrors=" + maximumErrors
+				+ ",firstErrorPerRule=" + firstErrorPerRule + "]");
+	}
+	
+	/**
+	 * The maximum number of errors to be reported.
+	 * @since	TFP 1.9
+	 */
+	private final int			maximumErrors;
+	
+	/**
+	 * Indicates that each rule stops at its first error.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		firstErrorPerRule;
+}
\ No newline at end of file
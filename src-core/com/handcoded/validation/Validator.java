@@ -16,6 +16,7 @@ package com.handcoded.validation;
 import org.w3c.dom.Document;
 
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>Validator</CODE> class defines a standard API for requesting
@@ -46,7 +47,29 @@ public abstract class Validator
 	 */
 	public boolean validate (Document document, ValidationErrorHandler errorHandler)
 	{
-		return (validate (new NodeIndex (document), errorHandler));
+		return (validate (new NodeIndex (document, getScope ()), errorHandler));
+	}
+	
+	/**
+	 * Determines if the given DOM <CODE>Document</CODE> instance's business
+	 * data content passes a validation test, stopping early if the
+	 * <CODE>ValidationOptions</CODE> allow it. Once validation has stopped
+	 * the result is <CODE>false</CODE> but some errors may not have been
+	 * reported.
+	 *
+	 * @param 	document		The DOM <CODE>Document</CODE> instance to examine.
+	 * @param 	errorHandler	An <CODE>ErrorHandler</CODE> instance used to report
+	 *							validation failures.
+	 * @param	options			The <CODE>ValidationOptions</CODE> controlling
+	 * 							how many errors are reported.
+	 * @return 	<CODE>false</CODE> if the validation test failed, <CODE>true
+	 *			</CODE> otherwise. 
+	 * @since	TFP 1.9
+	 */
+	public boolean validate (Document document, ValidationErrorHandler errorHandler,
+			ValidationOptions options)
+	{
+		return (validate (new NodeIndex (document, getScope ()), errorHandler, options));
 	}
 	
 	/**
@@ -57,6 +80,38 @@ public abstract class Validator
 	protected Validator ()
 	{ }
 	
+	/**
+	 * Provides a <CODE>NodeIndexScope</CODE> describing the parts of a
+	 * document that this <CODE>Validator</CODE> queries through its
+	 * <CODE>NodeIndex</CODE>. The default implementation builds a new scope
+	 * using <CODE>declareRequirements</CODE>.
+	 * 
+	 * @return	The <CODE>NodeIndexScope</CODE> for this <CODE>Validator</CODE>.
+	 * @since	TFP 1.9
+	 */
+	protected NodeIndexScope getScope ()
+	{
+		NodeIndexScope	scope = new NodeIndexScope ();
+		
+		declareRequirements (scope);
+		return (scope);
+	}
+	
+	/**
+	 * Adds the element names, attribute names and types that this
+	 * <CODE>Validator</CODE> queries through a <CODE>NodeIndex</CODE> to a
+	 * <CODE>NodeIndexScope</CODE>. The default implementation requests a
+	 * complete index. A subclass that overrides this method must declare
+	 * everything its <CODE>validate</CODE> method looks up.
+	 * 
+	 * @param 	scope			The <CODE>NodeIndexScope</CODE> to extend.
+	 * @since	TFP 1.9
+	 */
+	protected void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeAll ();
+	}
+	
 	/**
 	 * Determines if the DOM <CODE>Document</CODE> instance indexed by the
 	 * provided <CODE>NodeIndex</CODE> has business data content that passes a
@@ -75,4 +130,33 @@ public abstract class Validator
 	 * @since	TFP 1.0
 	 */
 	protected abstract boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler);
+	
+	/**
+	 * Determines if the DOM <CODE>Document</CODE> instance indexed by the
+	 * provided <CODE>NodeIndex</CODE> has business data content that passes a
+	 * validation test, stopping early if the <CODE>ValidationOptions</CODE>
+	 * allow it. The default implementation abandons the whole test when it
+	 * is cut short.
+	 *
+	 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> instance to examine.
+	 * @param 	errorHandler	An <CODE>ErrorHandler</CODE> instance used to report
+	 *							validation failures.
+	 * @param	options			The <CODE>ValidationOptions</CODE> controlling
+	 * 							how many errors are reported.
+	 * @return 	<CODE>false</CODE> if the validation test failed, <CODE>true
+	 *			</CODE> otherwise. 
+	 * @since	TFP 1.9
+	 */
+	protected boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler,
+			ValidationOptions options)
+	{
+		if (!options.isLimited ()) return (validate (nodeIndex, errorHandler));
+		
+		try {
+			return (validate (nodeIndex, new ErrorBudget (options).limit (errorHandler, this)));
+		}
+		catch (ErrorBudget.Stop signal) {
+			return (false);
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * The <CODE>IndexedNodeList</CODE> class provides an immutable
+ * <CODE>NodeList</CODE> view of a range of positions within an array of
+ * <CODE>Node</CODE> instances held by a <CODE>NodeIndex</CODE>.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class IndexedNodeList implements NodeList
+{
+	/**
+	 * Constructs an <CODE>IndexedNodeList</CODE> that presents the nodes
+	 * referenced by the given range of positions.
+	 *
+	 * @param 	nodes			The indexed <CODE>Node</CODE> instances.
+	 * @param 	positions		An array of positions within <CODE>nodes</CODE>.
+	 * @param 	start			The first position to use.
+	 * @param 	end				The position after the last one to use.
+	 * @since	TFP 1.9
+	 */
+	IndexedNodeList (final Node [] nodes, final int [] positions, int start, int end)
+	{
+		this.nodes		= nodes;
+		this.positions	= positions;
+		this.start		= start;
+		this.length		= end - start;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public int getLength ()
+	{
+		return (length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public Node item (int index)
+	{
+		return (((index >= 0) && (index < length)) ? nodes [positions [start + index]] : null);
+	}
+
+	/**
+	 * The indexed <CODE>Node</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	private final Node []		nodes;
+
+	/**
+	 * The positions within <CODE>nodes</CODE> that make up the list.
+	 * @since	TFP 1.9
+	 */
+	private final int []		positions;
+
+	/**
+	 * The offset of the first position used.
+	 * @since	TFP 1.9
+	 */
+	private final int			start;
+
+	/**
+	 * The number of nodes in the list.
+	 * @since	TFP 1.9
+	 */
+	private final int			length;
+}
\ No newline at end of file
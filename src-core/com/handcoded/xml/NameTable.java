@@ -0,0 +1,187 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml;
+
+/**
+ * The <CODE>NameTable</CODE> class interns strings to small consecutive
+ * integer identifiers using an unsynchronized open addressing hash table.
+ * <P>
+ * XML parsers usually intern element and attribute names so the table tries
+ * an identity comparison before falling back to <CODE>equals</CODE>.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class NameTable
+{
+	/**
+	 * Constructs an empty <CODE>NameTable</CODE>.
+	 * @since	TFP 1.9
+	 */
+	NameTable ()
+	{
+		this (16);
+	}
+
+	/**
+	 * Constructs an empty <CODE>NameTable</CODE> sized to hold the given
+	 * number of names without growing.
+	 *
+	 * @param 	expected		The expected number of names.
+	 * @since	TFP 1.9
+	 */
+	NameTable (int expected)
+	{
+		int			capacity = 16;
+
+		while (capacity < expected * 2) capacity <<= 1;
+
+		slots = new int [capacity];
+		names = new String [capacity / 2];
+	}
+
+	/**
+	 * Provides the number of names held in the table.
+	 *
+	 * @return	The number of interned names.
+	 * @since	TFP 1.9
+	 */
+	int size ()
+	{
+		return (count);
+	}
+
+	/**
+	 * Provides the name associated with an identifier.
+	 *
+	 * @param 	id				The identifier of an interned name.
+	 * @return	The corresponding name <CODE>String</CODE>.
+	 * @since	TFP 1.9
+	 */
+	String nameOf (int id)
+	{
+		return (names [id]);
+	}
+
+	/**
+	 * Finds the identifier of a previously interned name.
+	 *
+	 * @param 	name			The name to look for.
+	 * @return	The identifier for the name or -1 if it has not been interned.
+	 * @since	TFP 1.9
+	 */
+	int lookup (final String name)
+	{
+		int			mask = slots.length - 1;
+
+		for (int slot = hash (name) & mask;; slot = (slot + 1) & mask) {
+			int			entry = slots [slot];
+
+			if (entry == 0) return (-1);
+
+			String		other = names [entry - 1];
+			if ((other == name) || other.equals (name)) return (entry - 1);
+		}
+	}
+
+	/**
+	 * Interns a name, allocating it the next free identifier if it has not
+	 * been seen before.
+	 *
+	 * @param 	name			The name to be interned.
+	 * @return	The identifier for the name.
+	 * @since	TFP 1.9
+	 */
+	int intern (final String name)
+	{
+		int			mask = slots.length - 1;
+		int			slot;
+
+		for (slot = hash (name) & mask;; slot = (slot + 1) & mask) {
+			int			entry = slots [slot];
+
+			if (entry == 0) break;
+
+			String		other = names [entry - 1];
+			if ((other == name) || other.equals (name)) return (entry - 1);
+		}
+
+		if (count == names.length) {
+			String []	extended = new String [names.length * 2];
+			System.arraycopy (names, 0, extended, 0, count);
+			names = extended;
+
+			rehash (slots.length * 2);
+			return (intern (name));
+		}
+
+		names [count] = name;
+		slots [slot] = ++count;
+		return (count - 1);
+	}
+
+	/**
+	 * A hash table of slots holding name identifiers plus one, so that
+	 * zero marks an empty slot. The table is never more than half full.
+	 * @since	TFP 1.9
+	 */
+	private int []			slots;
+
+	/**
+	 * The interned names indexed by identifier.
+	 * @since	TFP 1.9
+	 */
+	private String []		names;
+
+	/**
+	 * The number of names interned so far.
+	 * @since	TFP 1.9
+	 */
+	private int				count	= 0;
+
+	/**
+	 * Spreads the bits of a string's hash code so that the low bits used to
+	 * select a slot are well distributed.
+	 *
+	 * @param 	name			The name to be hashed.
+	 * @return	The spread hash code.
+	 * @since	TFP 1.9
+	 */
+	private static int hash (final String name)
+	{
+		int			code = name.hashCode () * 0x9E3779B9;
+
+		return (code ^ (code >>> 16));
+	}
+
+	/**
+	 * Rebuilds the slot table at a new size.
+	 *
+	 * @param 	capacity		The new (power of two) table size.
+	 * @since	TFP 1.9
+	 */
+	private void rehash (int capacity)
+	{
+		int			mask = capacity - 1;
+
+		slots = new int [capacity];
+		for (int id = 0; id < count; ++id) {
+			int			slot = hash (names [id]) & mask;
+
+			while (slots [slot] != 0) slot = (slot + 1) & mask;
+			slots [slot] = id + 1;
+		}
+	}
+}
\ No newline at end of file
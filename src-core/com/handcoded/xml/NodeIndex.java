@@ -13,9 +13,8 @@
 
 package com.handcoded.xml;
 
-import java.util.Enumeration;
+import java.util.Arrays;
 import java.util.Hashtable;
-import java.util.Vector;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
@@ -39,8 +38,23 @@ import org.w3c.dom.TypeInfo;
  * <P>
  * Since TFP 1.2 the <CODE>NodeIndex</CODE> also attempts to capture schema
  * type information for the DOM <CODE>Document</CODE> as it explores it.
- * Derivation relationships between types are determined and cached as calls
- * to <CODE>getElementsByType</CODE> are made.
+ * Derivation relationships between types are determined as calls to
+ * <CODE>getElementsByType</CODE> are made and cached in a
+ * {@link TypeCompatibility} table shared by all the instances for documents
+ * validated against the same schema.
+ * <P>
+ * Since TFP 1.9 the index is built in a single non-recursive pass. Element,
+ * attribute and type names are interned to small integers and the nodes for
+ * each name are held as ranges of positions in shared arrays, so very few
+ * objects are allocated regardless of the size of the document. The
+ * <CODE>NodeList</CODE> instances returned are immutable views onto these
+ * arrays and list nodes in document order.
+ * <P>
+ * A <CODE>NodeIndex</CODE> may also be restricted to a {@link NodeIndexScope}
+ * describing the element names, attribute names and types that will be
+ * queried. Only those nodes are then recorded, which reduces the time and
+ * memory needed to index large documents. A query outside the scope causes
+ * a complete index to be built the first time it is needed.
  *
  * @author	BitWise
  * @version	$Id$
@@ -57,6 +71,24 @@ public final class NodeIndex
 	 */
 	public NodeIndex (Document document)
 	{
+		this (document, null);
+	}
+	
+	/**
+	 * Constructs a <CODE>NodeIndex</CODE> that indexes the parts of the given
+	 * document described by a <CODE>NodeIndexScope</CODE>.
+	 *
+	 * @param	document		The DOM <CODE>Document</CODE> to be indexed.
+	 * @param	scope			The <CODE>NodeIndexScope</CODE> describing the
+	 * 							nodes to be indexed or <CODE>null</CODE> to
+	 * 							index the complete document.
+	 * @since	TFP 1.9
+	 */
+	public NodeIndex (Document document, NodeIndexScope scope)
+	{
+		this.scope = ((scope != null) && !scope.isComplete ()) ? scope : null;
+		compatibility = TypeCompatibility.forDocument (document);
+		
 		indexNodes (this.document = document);
 	}
 	
@@ -82,7 +114,7 @@ public final class NodeIndex
 	 */
 	public boolean hasTypeInformation ()
 	{
-		return (!typesByName.isEmpty ());
+		return (typeCount != 0);
 	}
 	
 	/**
@@ -95,9 +127,15 @@ public final class NodeIndex
 	 */
 	public NodeList getElementsByName (final String name)
 	{
-		NodeList list = elementsByName.get (name);
+		if ((scope != null) && !scope.hasElement (name))
+			return (complete ().getElementsByName (name));
+		
+		int			id = elementNames.lookup (name);
+		
+		if (id < 0) return (EMPTY);
 		
-		return ((list != null) ? list : EMPTY);
+		return (new IndexedNodeList (elements, elementsByName,
+				elementsByNameStart [id], elementsByNameStart [id + 1]));
 	}
 	
 	/**
@@ -129,52 +167,40 @@ public final class NodeIndex
 	 */
 	public NodeList getElementsByType (final String ns, final String type)
 	{
-		Vector<TypeInfo>	matches = compatibleTypes.get (type);
-		
-		if (matches == null) {
-			compatibleTypes.put (type, matches = new Vector<TypeInfo> ());
-			
-//			System.err.println ("%% Looking for " + ns + ":" + type);
-			
-			Enumeration<String> cursor = typesByName.keys ();
-			while (cursor.hasMoreElements ()) {
-				String key  = (String) cursor.nextElement ();
-				Vector<TypeInfo> types = typesByName.get (key);
-				
-				for (int index = 0; index < types.size (); ++index) {
-					TypeInfo info = types.elementAt (index);
-					
-					if (type.equals (info.getTypeName ()) || info.isDerivedFrom (ns, type,
-							TypeInfo.DERIVATION_EXTENSION | TypeInfo.DERIVATION_RESTRICTION)) {
-						matches.add (info);
-//						System.err.println ("%% Found: " + info.getTypeName ());
-					}
-				}
-			}
-		}
+		if (!hasType (ns, type)) return (complete ().getElementsByType (ns, type));
 		
-		MutableNodeList		result = new MutableNodeList ();
+		int []		matches = compatibility.compatibleTypes (ns, type, globalTypeIds, types, typeCount);
 		
-		for (int index = 0; index < matches.size (); ++index) {
-			TypeInfo info  = matches.elementAt (index);
-			NodeList nodes = elementsByType.get (info.getTypeName ());
+		switch (matches.length) {
+		case 0:
+			return (EMPTY);
 			
-//			System.err.println ("-- Matching elements of type: " + info.getTypeName ());
+		case 1:
+			return (new IndexedNodeList (elements, elementsByType,
+					elementsByTypeStart [matches [0]], elementsByTypeStart [matches [0] + 1]));
 			
-			for (int count = 0; count < nodes.getLength (); ++count) {
-				Element  element  = (Element) nodes.item (count);
-				TypeInfo typeInfo = element.getSchemaTypeInfo ();
+		default:
+			{
+				int			length = 0;
+				
+				for (int index = 0; index < matches.length; ++index)
+					length += elementsByTypeStart [matches [index] + 1] - elementsByTypeStart [matches [index]];
 				
-				if (typeInfo.getTypeName().equals (info.getTypeName ()) &&
-					typeInfo.getTypeNamespace().equals (info.getTypeNamespace ())) {
-					result.add (element);
+				int []		positions = new int [length];
+				
+				length = 0;
+				for (int index = 0; index < matches.length; ++index) {
+					int		start = elementsByTypeStart [matches [index]];
+					int		count = elementsByTypeStart [matches [index] + 1] - start;
 					
-//					System.err.println ("-- Matched: " + element.getLocalName ());
+					System.arraycopy (elementsByType, start, positions, length, count);
+					length += count;
 				}
+				Arrays.sort (positions);
+				
+				return (new IndexedNodeList (elements, positions, 0, length));
 			}
 		}
-		
-		return (result);
 	}
 	
 	/**
@@ -188,7 +214,70 @@ public final class NodeIndex
 	 */
 	public Element getElementById (final String id)
 	{
-		return ((Element) elementsById.get(id));
+		if ((scope != null) && !scope.hasIds ()) return (complete ().getElementById (id));
+		
+		int			index = ids.lookup (id);
+		
+		return ((index >= 0) ? elements [elementsById [elementsByIdStart [index + 1] - 1]] : null);
+	}
+	
+	/**
+	 * Returns the first <CODE>Element</CODE> in the indexed document that
+	 * has an id attribute with the given value and is of the given type (or
+	 * a derived sub-type).
+	 * 
+	 * @param 	id				The required id attribute value.
+	 * @param	ns				The required namespace URI.
+	 * @param	type			The required type name.
+	 * @return	The matching <CODE>Element</CODE> or <CODE>null</CODE> if
+	 * 			none. 
+	 * @since	TFP 1.9
+	 */
+	public Element getElementById (final String id, final String ns, final String type)
+	{
+		if ((scope != null) && !scope.hasIds ()) return (complete ().getElementById (id, ns, type));
+		
+		int			index = ids.lookup (id);
+		
+		if (index < 0) return (null);
+		
+		boolean []	compatible = compatibleTypes (ns, type);
+		
+		for (int offset = elementsByIdStart [index]; offset < elementsByIdStart [index + 1]; ++offset) {
+			int			typeId = elementTypeIds [elementsById [offset]];
+			
+			if ((typeId >= 0) && compatible [typeId])
+				return (elements [elementsById [offset]]);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Returns the first <CODE>Element</CODE> in the indexed document that
+	 * has an id attribute with the given value and one of the given names.
+	 * 
+	 * @param 	id				The required id attribute value.
+	 * @param	names			An array of name strings for elements.
+	 * @return	The matching <CODE>Element</CODE> or <CODE>null</CODE> if
+	 * 			none. 
+	 * @since	TFP 1.9
+	 */
+	public Element getElementById (final String id, final String [] names)
+	{
+		if ((scope != null) && !scope.hasIds ()) return (complete ().getElementById (id, names));
+		
+		int			index = ids.lookup (id);
+		
+		if (index < 0) return (null);
+		
+		for (int offset = elementsByIdStart [index]; offset < elementsByIdStart [index + 1]; ++offset) {
+			int			nameId = elementNameIds [elementsById [offset]];
+			
+			for (int count = 0; count < names.length; ++count)
+				if (elementNames.lookup (names [count]) == nameId)
+					return (elements [elementsById [offset]]);
+		}
+		return (null);
 	}
 	
 	/**
@@ -201,9 +290,15 @@ public final class NodeIndex
 	 */
 	public NodeList getAttributesByName (final String name)
 	{
-		NodeList list = (NodeList) attributesByName.get (name);
+		if ((scope != null) && !scope.hasAttribute (name))
+			return (complete ().getAttributesByName (name));
+		
+		int			id = attributeNames.lookup (name);
+		
+		if (id < 0) return (EMPTY);
 		
-		return ((list != null) ? list : EMPTY);
+		return (new IndexedNodeList (attributes, attributesByName,
+				attributesByNameStart [id], attributesByNameStart [id + 1]));
 	}
 	
 	/**
@@ -213,6 +308,12 @@ public final class NodeIndex
 	 */
 	private static final NodeList EMPTY 	= new MutableNodeList ();
 	
+	/**
+	 * The initial size of the growable node arrays.
+	 * @since	TFP 1.9
+	 */
+	private static final int	INITIAL_SIZE	= 256;
+	
 	/**
 	 * The DOM <CODE>Document</CODE> from which this index is derived.
 	 * @since	TFP 1.0
@@ -220,125 +321,436 @@ public final class NodeIndex
 	private Document		document;
 	
 	/**
-	 * A <CODE>Hashtable</CODE> containing <CODE>MutableNodeList</CODE>
-	 * instances indexed by element name.
-	 * @since	TFP 1.0
+	 * The <CODE>NodeIndexScope</CODE> restricting the nodes indexed or
+	 * <CODE>null</CODE> if the index is complete.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, MutableNodeList> elementsByName
-		= new Hashtable<String, MutableNodeList> ();
+	private final NodeIndexScope	scope;
 	
 	/**
-	 * A <CODE>Hashtable</CODE> containing <CODE>MutableNodeList</CODE>
-	 * instances indexed by element type.
-	 * @since	TFP 1.1
+	 * The namespace in which the scope's type names are resolved.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, MutableNodeList> elementsByType
-		= new Hashtable<String, MutableNodeList> ();
+	private String			scopeNamespace	= null;
 	
 	/**
-	 * A <CODE>Hashtable</CODE> containing <CODE>Element</CODE>
-	 * instances indexed by id value.
-	 * @since	TFP 1.0
+	 * The type names in the scope.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, Node> elementsById
-		= new Hashtable<String, Node> ();
+	private String []		scopeTypes		= null;
 	
 	/**
-	 * A <CODE>Hashtable</CODE> containing <CODE>TypeInfo</CODE>
-	 * instances indexed by name.
-	 * @since	TFP 1.2
+	 * Indicates for each type identifier whether the type is compatible
+	 * with a type in the scope.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, Vector<TypeInfo>>	typesByName
-		= new Hashtable<String, Vector<TypeInfo>> ();
+	private boolean []		scopedTypes		= new boolean [16];
 	
 	/**
-	 * For each explored type <CODE>compatibleType</CODE> contains a
-	 * <CODE>Vector</CODE> of types derived by extension or restriction.
-	 * @since	TFP 1.2
+	 * The complete index built when a query falls outside the scope.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, Vector<TypeInfo>> compatibleTypes
-		= new Hashtable<String, Vector<TypeInfo>> ();
+	private volatile NodeIndex	complete	= null;
 	
 	/**
-	 * A <CODE>Hashtable</CODE> containing <CODE>MutableNodeList</CODE>
-	 * instances indexed by attribute name.
-	 * @since	TFP 1.5
+	 * All the elements of the document in document order.
+	 * @since	TFP 1.9
+	 */
+	private Element []		elements	= new Element [INITIAL_SIZE];
+	
+	/**
+	 * The number of elements in the document.
+	 * @since	TFP 1.9
+	 */
+	private int				elementCount	= 0;
+	
+	/**
+	 * All the attributes of the document in document order.
+	 * @since	TFP 1.9
+	 */
+	private Attr []			attributes	= new Attr [INITIAL_SIZE];
+	
+	/**
+	 * The number of attributes in the document.
+	 * @since	TFP 1.9
+	 */
+	private int				attributeCount	= 0;
+	
+	/**
+	 * Interned element local names.
+	 * @since	TFP 1.9
+	 */
+	private NameTable		elementNames	= new NameTable ();
+	
+	/**
+	 * The positions of elements in <CODE>elements</CODE> grouped by
+	 * element name.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementsByName;
+	
+	/**
+	 * The offset in <CODE>elementsByName</CODE> of the group for each
+	 * element name identifier.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementsByNameStart;
+	
+	/**
+	 * Interned attribute names.
+	 * @since	TFP 1.9
+	 */
+	private NameTable		attributeNames	= new NameTable ();
+	
+	/**
+	 * The positions of attributes in <CODE>attributes</CODE> grouped by
+	 * attribute name.
+	 * @since	TFP 1.9
+	 */
+	private int []			attributesByName;
+	
+	/**
+	 * The offset in <CODE>attributesByName</CODE> of the group for each
+	 * attribute name identifier.
+	 * @since	TFP 1.9
+	 */
+	private int []			attributesByNameStart;
+	
+	/**
+	 * Interned id attribute values.
+	 * @since	TFP 1.9
+	 */
+	private NameTable		ids			= new NameTable ();
+	
+	/**
+	 * The positions of elements in <CODE>elements</CODE> grouped by id
+	 * value.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementsById;
+	
+	/**
+	 * The offset in <CODE>elementsById</CODE> of the group for each
+	 * interned id value.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementsByIdStart;
+	
+	/**
+	 * The element name identifier of each element.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementNameIds	= new int [INITIAL_SIZE];
+	
+	/**
+	 * The type identifier of each element or -1 if it has no named type.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementTypeIds	= new int [INITIAL_SIZE];
+	
+	/**
+	 * The set of compatible type identifiers for each type queried by
+	 * id, indexed by namespace and type name.
+	 * @since	TFP 1.9
+	 */
+	private final Hashtable<String, boolean []> compatibleTypes
+		= new Hashtable<String, boolean []> ();
+	
+	/**
+	 * Interned schema type names.
+	 * @since	TFP 1.9
+	 */
+	private NameTable		typeNames	= new NameTable ();
+	
+	/**
+	 * A representative <CODE>TypeInfo</CODE> for each distinct type (i.e.
+	 * name and namespace) seen in the document.
+	 * @since	TFP 1.9
+	 */
+	private TypeInfo []		types		= new TypeInfo [16];
+	
+	/**
+	 * The number of distinct types seen in the document.
+	 * @since	TFP 1.9
+	 */
+	private int				typeCount	= 0;
+	
+	/**
+	 * The first type identifier for each interned type name.
+	 * @since	TFP 1.9
+	 */
+	private int []			firstTypeForName	= new int [16];
+	
+	/**
+	 * The next type identifier with the same name (but a different
+	 * namespace) for each type, or -1.
+	 * @since	TFP 1.9
+	 */
+	private int []			nextTypeWithName	= new int [16];
+	
+	/**
+	 * The positions of elements in <CODE>elements</CODE> grouped by type.
+	 * @since	TFP 1.9
+	 */
+	private int []			elementsByType;
+	
+	/**
+	 * The offset in <CODE>elementsByType</CODE> of the group for each
+	 * type identifier.
+	 * @since	TFP 1.9
 	 */
-	private Hashtable<String, MutableNodeList> attributesByName
-		= new Hashtable<String, MutableNodeList> ();
+	private int []			elementsByTypeStart;
 	
 	/**
-	 * Recursively walks a DOM tree creating an index of the elements by
-	 * their local name.
+	 * The <CODE>TypeCompatibility</CODE> table for the document's schema
+	 * used to resolve type queries.
+	 * @since	TFP 1.9
+	 */
+	private final TypeCompatibility	compatibility;
+	
+	/**
+	 * The global identifier of each distinct type seen in the document.
+	 * @since	TFP 1.9
+	 */
+	private int []			globalTypeIds	= new int [16];
+	
+	/**
+	 * Walks a DOM tree without recursion recording each element, its
+	 * attributes and type and then groups the recorded nodes by name
+	 * and type.
 	 *
-	 * @param	node 			The next node to be indexed.
+	 * @param	document		The DOM <CODE>Document</CODE> to be indexed.
 	 * @since	TFP 1.0
 	 */
-	private void indexNodes (Node node)
+	private void indexNodes (Document document)
 	{
-		switch (node.getNodeType ()) {
-		case Node.DOCUMENT_NODE:
-				indexNodes (((Document) node).getDocumentElement ());
-				break;
-				
-		case Node.ELEMENT_NODE:
-			{
-				String name = ((Element) node).getLocalName ();
-				
-				MutableNodeList list = (MutableNodeList) elementsByName.get (name);
+		Node		root = document.getDocumentElement ();
+		int []		elementIdIds	 = new int [INITIAL_SIZE];
+		int []		attributeNameIds = new int [INITIAL_SIZE];
+		String []	scopeAttributes	 = null;
+		
+		if (scope != null) {
+			scopeNamespace	= ((Element) root).getNamespaceURI ();
+			scopeTypes		= scope.getTypeNames ();
+			scopeAttributes	= scope.getAttributeNames ();
+		}
+		
+		for (Node node = root; node != null;) {
+			Element		element = (Element) node;
+			String		name	= element.getLocalName ();
+			int			typeId	= indexType (element.getSchemaTypeInfo ());
+			Attr		id		= ((scope == null) || scope.hasIds ()) ? element.getAttributeNode ("id") : null;
 			
-				if (list == null)
-					elementsByName.put (name, list = new MutableNodeList ());
-					
-				list.add (node);
-								
-				TypeInfo typeInfo = ((Element) node).getSchemaTypeInfo ();
-				if ((typeInfo != null) && ((name = typeInfo.getTypeName ()) != null)) {
-					Vector<TypeInfo> types = typesByName.get (name);
-					int		index;
-					
-					if (types == null)
-						typesByName.put(name, types = new Vector<TypeInfo> ());
-					
-					for (index = 0; index < types.size (); ++index) {
-						TypeInfo info = (TypeInfo) types.elementAt (index);
-						
-						if (typeInfo.getTypeNamespace ().equals (info.getTypeNamespace ())) break;
-					}
-					if (index == types.size ()) types.add (typeInfo);
-					
-					list = (MutableNodeList) elementsByType.get (name);
-					
-					if (list == null)
-						elementsByType.put (name, list = new MutableNodeList ());
-						
-					list.add (node);
+			if (name == null) name = element.getNodeName ();
+			
+			if ((scope == null) || scope.hasElement (name) || (id != null)
+					|| ((typeId >= 0) && scopedTypes [typeId])) {
+				if (elementCount == elements.length) {
+					elements 		= Arrays.copyOf (elements, elementCount * 2);
+					elementNameIds	= Arrays.copyOf (elementNameIds, elementCount * 2);
+					elementTypeIds	= Arrays.copyOf (elementTypeIds, elementCount * 2);
+					elementIdIds	= Arrays.copyOf (elementIdIds, elementCount * 2);
 				}
 				
-				Attr id = ((Element) node).getAttributeNode ("id");
+				elements [elementCount] = element;
+				elementNameIds [elementCount] = elementNames.intern (name);
+				elementTypeIds [elementCount] = typeId;
+				elementIdIds [elementCount++] = (id != null) ? ids.intern (id.getValue ()) : -1;
+			}
+			
+			// Only the attributes named in the scope are fetched from a partial index
+			NamedNodeMap map	= (scope == null) ? element.getAttributes () : null;
+			int			 length	= (map != null) ? map.getLength () : scopeAttributes.length;
+			
+			for (int index = 0; index < length; ++index) {
+				Attr		attr = (map != null) ? (Attr) map.item (index)
+												 : element.getAttributeNode (scopeAttributes [index]);
 				
-				if (id != null) elementsById.put (id.getValue (), node);
+				if (attr == null) continue;
 				
-				NamedNodeMap map = ((Element) node).getAttributes ();
-				for (int index = 0; index < map.getLength (); ++index) {
-					Attr attr = (Attr) map.item (index);
-					
-					list = (MutableNodeList) attributesByName.get (attr.getName ());
-					
-					if (list == null)
-						attributesByName.put (attr.getName (), list = new MutableNodeList ());
-					
-					list.add (attr);					
+				if (attributeCount == attributes.length) {
+					attributes		 = Arrays.copyOf (attributes, attributeCount * 2);
+					attributeNameIds = Arrays.copyOf (attributeNameIds, attributeCount * 2);
 				}
+				attributes [attributeCount] = attr;
+				attributeNameIds [attributeCount++] = attributeNames.intern (attr.getName ());
+			}
+			
+			// Move to the next element in document order
+			Node next = firstElement (node.getFirstChild ());
+			while ((next == null) && (node != root)) {
+				if ((next = firstElement (node.getNextSibling ())) == null)
+					node = node.getParentNode ();
+			}
+			node = next;
+		}
+		
+		elementsByNameStart		= new int [elementNames.size () + 1];
+		elementsByName			= group (elementNameIds, elementCount, elementsByNameStart);
+		
+		attributesByNameStart	= new int [attributeNames.size () + 1];
+		attributesByName		= group (attributeNameIds, attributeCount, attributesByNameStart);
+		
+		elementsByTypeStart		= new int [typeCount + 1];
+		elementsByType			= group (elementTypeIds, elementCount, elementsByTypeStart);
+		
+		elementsByIdStart		= new int [ids.size () + 1];
+		elementsById			= group (elementIdIds, elementCount, elementsByIdStart);
+	}
+	
+	/**
+	 * Determines if all the elements compatible with a type have been
+	 * indexed.
+	 * 
+	 * @param	ns				The required namespace URI.
+	 * @param	type			The required type name.
+	 * @return	<CODE>true</CODE> if the type is within the scope of the index.
+	 * @since	TFP 1.9
+	 */
+	private boolean hasType (final String ns, final String type)
+	{
+		return ((scope == null) || (scope.hasType (type)
+				&& ((ns != null) ? ns.equals (scopeNamespace) : (scopeNamespace == null))));
+	}
+	
+	/**
+	 * Provides a complete index of the document, building it the first
+	 * time a query falls outside the scope of this index.
+	 * 
+	 * @return	The complete <CODE>NodeIndex</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private NodeIndex complete ()
+	{
+		NodeIndex		result = complete;
+		
+		if (result == null) {
+			synchronized (this) {
+				if ((result = complete) == null)
+					complete = result = new NodeIndex (document);
+			}
+		}
+		return (result);
+	}
+	
+	/**
+	 * Determines which of the types seen in the document are compatible
+	 * with the given type, caching the result for subsequent queries.
+	 * 
+	 * @param	ns				The required namespace URI.
+	 * @param	type			The required type name.
+	 * @return	A flag for each type identifier indicating compatibility.
+	 * @since	TFP 1.9
+	 */
+	private boolean [] compatibleTypes (final String ns, final String type)
+	{
+		String		key		= "{" + ((ns != null) ? ns : "") + "}" + type;
+		boolean []	result	= compatibleTypes.get (key);
+		
+		if (result == null) {
+			int []		matches = compatibility.compatibleTypes (ns, type, globalTypeIds, types, typeCount);
+			
+			result = new boolean [typeCount];
+			for (int index = 0; index < matches.length; ++index)
+				result [matches [index]] = true;
+			
+			compatibleTypes.put (key, result);
+		}
+		return (result);
+	}
+	
+	/**
+	 * Finds or allocates the type identifier for an element's schema type.
+	 * 
+	 * @param 	typeInfo		The <CODE>TypeInfo</CODE> for an element.
+	 * @return	The type identifier or -1 if the element has no named type.
+	 * @since	TFP 1.9
+	 */
+	private int indexType (TypeInfo typeInfo)
+	{
+		String		name;
+		
+		if ((typeInfo == null) || ((name = typeInfo.getTypeName ()) == null)) return (-1);
+		
+		String		ns = typeInfo.getTypeNamespace ();
+		int			nameId = typeNames.intern (name);
+		
+		if (nameId == firstTypeForName.length)
+			firstTypeForName = Arrays.copyOf (firstTypeForName, nameId * 2);
+		
+		if (nameId < typeNames.size () - 1) {
+			for (int type = firstTypeForName [nameId]; type >= 0; type = nextTypeWithName [type]) {
+				String		other = types [type].getTypeNamespace ();
 				
-				for (Node child = node.getFirstChild (); child != null;) {
-					if (child.getNodeType () == Node.ELEMENT_NODE)
-						indexNodes (child);
-						
-					child = child.getNextSibling ();
-				}
-				break;
+				if ((other == ns) || ((other != null) && other.equals (ns))) return (type);
 			}
 		}
+		else
+			firstTypeForName [nameId] = -1;
+		
+		if (typeCount == types.length) {
+			types				= Arrays.copyOf (types, typeCount * 2);
+			globalTypeIds		= Arrays.copyOf (globalTypeIds, typeCount * 2);
+			nextTypeWithName	= Arrays.copyOf (nextTypeWithName, typeCount * 2);
+			scopedTypes			= Arrays.copyOf (scopedTypes, typeCount * 2);
+		}
+		types [typeCount] = typeInfo;
+		globalTypeIds [typeCount] = compatibility.typeId (ns, name);
+		
+		if (scope != null) {
+			int []		global = { globalTypeIds [typeCount] };
+			TypeInfo []	infos = { typeInfo };
+			
+			for (int index = 0; !scopedTypes [typeCount] && (index < scopeTypes.length); ++index)
+				scopedTypes [typeCount] = compatibility.compatibleTypes (
+						scopeNamespace, scopeTypes [index], global, infos, 1).length > 0;
+		}
+		nextTypeWithName [typeCount] = firstTypeForName [nameId];
+		firstTypeForName [nameId] = typeCount;
+		
+		return (typeCount++);
+	}
+	
+	/**
+	 * Groups a set of positions by an associated key using a counting sort
+	 * so that the positions within each group remain in document order.
+	 * 
+	 * @param 	keys			The key for each position or -1 to exclude it.
+	 * @param 	length			The number of positions.
+	 * @param 	start			Filled with the offset of each key's group, with
+	 * 							an extra trailing entry marking the end.
+	 * @return	The grouped positions.
+	 * @since	TFP 1.9
+	 */
+	private static int [] group (final int [] keys, int length, int [] start)
+	{
+		for (int index = 0; index < length; ++index)
+			if (keys [index] >= 0) ++start [keys [index] + 1];
+		
+		for (int index = 1; index < start.length; ++index)
+			start [index] += start [index - 1];
+		
+		int []		next	  = Arrays.copyOf (start, start.length - 1);
+		int []		positions = new int [start [start.length - 1]];
+		
+		for (int index = 0; index < length; ++index)
+			if (keys [index] >= 0) positions [next [keys [index]]++] = index;
+		
+		return (positions);
+	}
+	
+	/**
+	 * Finds the first element node in a chain of siblings.
+	 * 
+	 * @param 	node			The first sibling to consider or <CODE>null</CODE>.
+	 * @return	The first <CODE>Element</CODE> or <CODE>null</CODE> if none.
+	 * @since	TFP 1.9
+	 */
+	private static Node firstElement (Node node)
+	{
+		while ((node != null) && (node.getNodeType () != Node.ELEMENT_NODE))
+			node = node.getNextSibling ();
+		
+		return (node);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.xml;
+
+import java.util.HashSet;
+
+/**
+ * A <CODE>NodeIndexScope</CODE> describes the parts of a document that the
+ * consumers of a <CODE>NodeIndex</CODE> will query, allowing a partial index
+ * to be built that holds only those element names, attribute names and
+ * types (and optionally the id attributes).
+ * <P>
+ * Type names are matched against the namespace of the document element, as
+ * is the convention for the FpML rule sets. Queries made against a partial
+ * <CODE>NodeIndex</CODE> for anything outside its scope are still answered
+ * correctly but cause the complete index to be built on demand.
+ * <P>
+ * A scope must not be modified once it has been used to construct a
+ * <CODE>NodeIndex</CODE>.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class NodeIndexScope
+{
+	/**
+	 * Constructs an empty <CODE>NodeIndexScope</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public NodeIndexScope ()
+	{ }
+	
+	/**
+	 * Marks the scope as requiring the complete document to be indexed.
+	 * This is used by consumers that cannot describe their queries.
+	 * @since	TFP 1.9
+	 */
+	public void includeAll ()
+	{
+		complete = true;
+	}
+	
+	/**
+	 * Determines if the scope requires the complete document to be indexed.
+	 * 
+	 * @return	<CODE>true</CODE> if a complete index is required.
+	 * @since	TFP 1.9
+	 */
+	public boolean isComplete ()
+	{
+		return (complete);
+	}
+	
+	/**
+	 * Adds an element name to the scope.
+	 * 
+	 * @param 	name			The local name of an element.
+	 * @since	TFP 1.9
+	 */
+	public void includeElement (final String name)
+	{
+		if (name != null) elementNames.add (name);
+	}
+	
+	/**
+	 * Adds a set of element names to the scope.
+	 * 
+	 * @param 	names			An array of local element names (or
+	 * 							<CODE>null</CODE>).
+	 * @since	TFP 1.9
+	 */
+	public void includeElements (final String [] names)
+	{
+		if (names != null)
+			for (int index = 0; index < names.length; ++index)
+				includeElement (names [index]);
+	}
+	
+	/**
+	 * Adds an attribute name to the scope.
+	 * 
+	 * @param 	name			The name of an attribute.
+	 * @since	TFP 1.9
+	 */
+	public void includeAttribute (final String name)
+	{
+		if (name != null) attributeNames.add (name);
+	}
+	
+	/**
+	 * Adds a schema type name to the scope. Elements of the type or any type
+	 * derived from it will be indexed.
+	 * 
+	 * @param 	name			The name of a type in the document's namespace.
+	 * @since	TFP 1.9
+	 */
+	public void includeType (final String name)
+	{
+		if (name != null) typeNames.add (name);
+	}
+	
+	/**
+	 * Adds a set of schema type names to the scope.
+	 * 
+	 * @param 	names			An array of type names (or <CODE>null</CODE>).
+	 * @since	TFP 1.9
+	 */
+	public void includeTypes (final String [] names)
+	{
+		if (names != null)
+			for (int index = 0; index < names.length; ++index)
+				includeType (names [index]);
+	}
+	
+	/**
+	 * Adds the elements with 'id' attributes to the scope.
+	 * @since	TFP 1.9
+	 */
+	public void includeIds ()
+	{
+		ids = true;
+	}
+	
+	/**
+	 * Determines if an element name is within the scope.
+	 * 
+	 * @param 	name			The local name of an element.
+	 * @return	<CODE>true</CODE> if elements with the name are indexed.
+	 * @since	TFP 1.9
+	 */
+	boolean hasElement (final String name)
+	{
+		return (complete || elementNames.contains (name));
+	}
+	
+	/**
+	 * Determines if an attribute name is within the scope.
+	 * 
+	 * @param 	name			The name of an attribute.
+	 * @return	<CODE>true</CODE> if attributes with the name are indexed.
+	 * @since	TFP 1.9
+	 */
+	boolean hasAttribute (final String name)
+	{
+		return (complete || attributeNames.contains (name));
+	}
+	
+	/**
+	 * Determines if a type name is within the scope.
+	 * 
+	 * @param 	name			The name of a type.
+	 * @return	<CODE>true</CODE> if elements of the type are indexed.
+	 * @since	TFP 1.9
+	 */
+	boolean hasType (final String name)
+	{
+		return (complete || typeNames.contains (name));
+	}
+	
+	/**
+	 * Determines if elements with 'id' attributes are within the scope.
+	 * 
+	 * @return	<CODE>true</CODE> if the id attributes are indexed.
+	 * @since	TFP 1.9
+	 */
+	boolean hasIds ()
+	{
+		return (complete || ids);
+	}
+	
+	/**
+	 * Provides the attribute names in the scope.
+	 * 
+	 * @return	An array of attribute names.
+	 * @since	TFP 1.9
+	 */
+	String [] getAttributeNames ()
+	{
+		return (attributeNames.toArray (new String [attributeNames.size ()]));
+	}
+	
+	/**
+	 * Provides the type names in the scope.
+	 * 
+	 * @return	An array of type names.
+	 * @since	TFP 1.9
+	 */
+	String [] getTypeNames ()
+	{
+		return (typeNames.toArray (new String [typeNames.size ()]));
+	}
+	
+	/**
+	 * The element names in the scope.
+	 * @since	TFP 1.9
+	 */
+	private final HashSet<String>	elementNames	= new HashSet<String> ();
+	
+	/**
+	 * The attribute names in the scope.
+	 * @since	TFP 1.9
+	 */
+	private final HashSet<String>	attributeNames	= new HashSet<String> ();
+	
+	/**
+	 * The type names in the scope.
+	 * @since	TFP 1.9
+	 */
+	private final HashSet<String>	typeNames		= new HashSet<String> ();
+	
+	/**
+	 * Indicates that elements with id attributes are in the scope.
+	 * @since	TFP 1.9
+	 */
+	private boolean					ids				= false;
+	
+	/**
+	 * Indicates that the complete document must be indexed.
+	 * @since	TFP 1.9
+	 */
+	private boolean					complete		= false;
+}
\ No newline at end of file
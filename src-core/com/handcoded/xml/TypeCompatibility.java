@@ -0,0 +1,335 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.validation.Schema;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.TypeInfo;
+
+/**
+ * The <CODE>TypeCompatibility</CODE> class records which schema types are
+ * derived from (or the same as) others so that the result can be shared by
+ * every <CODE>NodeIndex</CODE> for documents validated against the same
+ * compiled <CODE>Schema</CODE> instead of being worked out again for each
+ * document.
+ * <P>
+ * A separate table is held for each <CODE>Schema</CODE>, as different
+ * schemas may hold different type definitions for the same namespace. The
+ * parsing methods of <CODE>XmlUtility</CODE> and <CODE>DOMParser</CODE>
+ * record the <CODE>Schema</CODE> used to validate each document (see
+ * {@link #recordSchema(Document, Schema)}). A document whose schema is not
+ * known is given a table of its own.
+ * <P>
+ * Each distinct type (i.e. namespace and name) seen is given a global
+ * identifier. For each type queried through <CODE>getElementsByType</CODE>
+ * a pair of bit sets records which candidate types have been tested and
+ * which of those were compatible. A type is only tested the first time it
+ * is found in a document, after which every lookup is a simple bit test
+ * performed without locking.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class TypeCompatibility
+{
+	/**
+	 * Provides the table shared by all documents validated against a
+	 * compiled <CODE>Schema</CODE>, creating it if necessary. The table is
+	 * discarded once the <CODE>Schema</CODE> is no longer referenced.
+	 *
+	 * @param 	schema			The compiled <CODE>Schema</CODE>.
+	 * @return	The <CODE>TypeCompatibility</CODE> instance for the schema.
+	 * @since	TFP 1.9
+	 */
+	public static TypeCompatibility forSchema (final Schema schema)
+	{
+		synchronized (tables) {
+			TypeCompatibility	result = tables.get (schema);
+			
+			if (result == null)
+				tables.put (schema, result = new TypeCompatibility ());
+			
+			return (result);
+		}
+	}
+
+	/**
+	 * Records the compiled <CODE>Schema</CODE> that was used to validate a
+	 * <CODE>Document</CODE> so that indexes built for it share the table for
+	 * that schema.
+	 *
+	 * @param 	document		The validated <CODE>Document</CODE>.
+	 * @param 	schema			The compiled <CODE>Schema</CODE> or
+	 * 							<CODE>null</CODE> if it is not known.
+	 * @since	TFP 1.9
+	 */
+	public static void recordSchema (final Document document, final Schema schema)
+	{
+		if (document != null) document.setUserData (SCHEMA_KEY, schema, null);
+	}
+
+	/**
+	 * Provides the table to be used for a <CODE>Document</CODE>, which is
+	 * either the one for the <CODE>Schema</CODE> that validated it or a new
+	 * table if the schema is not known.
+	 *
+	 * @param 	document		The <CODE>Document</CODE> being indexed.
+	 * @return	The <CODE>TypeCompatibility</CODE> instance to use.
+	 * @since	TFP 1.9
+	 */
+	static TypeCompatibility forDocument (final Document document)
+	{
+		Object			schema = document.getUserData (SCHEMA_KEY);
+		
+		return ((schema instanceof Schema) ? forSchema ((Schema) schema) : new TypeCompatibility ());
+	}
+
+	/**
+	 * Provides the global identifier for a type, allocating one if the
+	 * type has not been seen before.
+	 *
+	 * @param 	ns				The type's namespace URI (or <CODE>null</CODE>).
+	 * @param 	name			The type's name.
+	 * @return	The global type identifier.
+	 * @since	TFP 1.9
+	 */
+	int typeId (final String ns, final String name)
+	{
+		ConcurrentHashMap<String, Integer> names = typeIds.get ((ns != null) ? ns : "");
+
+		if (names == null) {
+			ConcurrentHashMap<String, Integer> created = new ConcurrentHashMap<String, Integer> ();
+
+			if ((names = typeIds.putIfAbsent ((ns != null) ? ns : "", created)) == null)
+				names = created;
+		}
+
+		Integer		id = names.get (name);
+
+		if (id == null) {
+			Integer		created = nextTypeId.getAndIncrement ();
+
+			if ((id = names.putIfAbsent (name, created)) == null)
+				id = created;
+		}
+		return (id);
+	}
+
+	/**
+	 * Determines which of the types found in a document are the same as, or
+	 * derived by extension or restriction from, the indicated type.
+	 *
+	 * @param 	ns				The required namespace URI.
+	 * @param 	type			The required type name.
+	 * @param 	ids				The global identifiers of the document's types.
+	 * @param 	infos			A <CODE>TypeInfo</CODE> for each of the
+	 * 							document's types.
+	 * @param 	count			The number of types in the document.
+	 * @return	The (local) indexes of the compatible types.
+	 * @since	TFP 1.9
+	 */
+	int [] compatibleTypes (final String ns, final String type, final int [] ids,
+			final TypeInfo [] infos, int count)
+	{
+		Target		target	= target (ns, type);
+		Relation	relation = target.relation;
+		int []		matches	= new int [count];
+		int			length	= 0;
+
+		for (int index = 0; index < count; ++index) {
+			int			id = ids [index];
+
+			if (!relation.isTested (id)) {
+				TypeInfo	info = infos [index];
+
+				relation = target.record (id, type.equals (info.getTypeName ())
+						|| info.isDerivedFrom (ns, type,
+							TypeInfo.DERIVATION_EXTENSION | TypeInfo.DERIVATION_RESTRICTION));
+			}
+			if (relation.isCompatible (id)) matches [length++] = index;
+		}
+		return ((length == count) ? matches : Arrays.copyOf (matches, length));
+	}
+
+	/**
+	 * An immutable snapshot of the types tested against a target type and
+	 * which were found to be compatible.
+	 * @since	TFP 1.9
+	 */
+	private static final class Relation
+	{
+		/**
+		 * Constructs a <CODE>Relation</CODE> from its bit sets.
+		 *
+		 * @param 	tested			The set of tested type identifiers.
+		 * @param 	compatible		The set of compatible type identifiers.
+		 * @since	TFP 1.9
+		 */
+		Relation (final long [] tested, final long [] compatible)
+		{
+			this.tested		= tested;
+			this.compatible	= compatible;
+		}
+
+		/**
+		 * Determines if a type has already been tested.
+		 *
+		 * @param 	id				The global type identifier.
+		 * @return	<CODE>true</CODE> if the type has been tested.
+		 * @since	TFP 1.9
+		 */
+		boolean isTested (int id)
+		{
+			return (((id >> 6) < tested.length) && ((tested [id >> 6] & (1L << id)) != 0));
+		}
+
+		/**
+		 * Determines if a tested type was found to be compatible.
+		 *
+		 * @param 	id				The global type identifier.
+		 * @return	<CODE>true</CODE> if the type is compatible.
+		 * @since	TFP 1.9
+		 */
+		boolean isCompatible (int id)
+		{
+			return (((id >> 6) < compatible.length) && ((compatible [id >> 6] & (1L << id)) != 0));
+		}
+
+		/**
+		 * The set of tested type identifiers.
+		 * @since	TFP 1.9
+		 */
+		final long []		tested;
+
+		/**
+		 * The set of compatible type identifiers.
+		 * @since	TFP 1.9
+		 */
+		final long []		compatible;
+	}
+
+	/**
+	 * Holds the current <CODE>Relation</CODE> for a target type.
+	 * @since	TFP 1.9
+	 */
+	private static final class Target
+	{
+		/**
+		 * Records the result of testing a type, publishing a new
+		 * <CODE>Relation</CODE> snapshot.
+		 *
+		 * @param 	id				The global type identifier.
+		 * @param 	isCompatible	The result of the test.
+		 * @return	The updated <CODE>Relation</CODE>.
+		 * @since	TFP 1.9
+		 */
+		synchronized Relation record (int id, boolean isCompatible)
+		{
+			int			words = Math.max (relation.tested.length, (id >> 6) + 1);
+			long []		tested	   = Arrays.copyOf (relation.tested, words);
+			long []		compatible = Arrays.copyOf (relation.compatible, words);
+
+			tested [id >> 6] |= 1L << id;
+			if (isCompatible) compatible [id >> 6] |= 1L << id;
+
+			return (relation = new Relation (tested, compatible));
+		}
+
+		/**
+		 * The latest snapshot of tested and compatible types.
+		 * @since	TFP 1.9
+		 */
+		volatile Relation	relation = new Relation (new long [0], new long [0]);
+	}
+
+	/**
+	 * The <CODE>Document</CODE> user data key used to record its
+	 * <CODE>Schema</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static final String		SCHEMA_KEY	= "com.handcoded.xml.TypeCompatibility.schema";
+
+	/**
+	 * The table for each compiled <CODE>Schema</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static final Map<Schema, TypeCompatibility> tables
+		= new WeakHashMap<Schema, TypeCompatibility> ();
+
+	/**
+	 * Global type identifiers indexed by namespace and type name.
+	 * @since	TFP 1.9
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> typeIds
+		= new ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> ();
+
+	/**
+	 * The next global type identifier to allocate.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicInteger		nextTypeId	= new AtomicInteger ();
+
+	/**
+	 * The <CODE>Target</CODE> for each queried type indexed by namespace
+	 * and type name.
+	 * @since	TFP 1.9
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, Target>> targets
+		= new ConcurrentHashMap<String, ConcurrentHashMap<String, Target>> ();
+
+	/**
+	 * Constructs an empty <CODE>TypeCompatibility</CODE> table.
+	 * @since	TFP 1.9
+	 */
+	private TypeCompatibility ()
+	{ }
+
+	/**
+	 * Finds or creates the <CODE>Target</CODE> for a queried type.
+	 *
+	 * @param 	ns				The required namespace URI.
+	 * @param 	type			The required type name.
+	 * @return	The corresponding <CODE>Target</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private Target target (final String ns, final String type)
+	{
+		ConcurrentHashMap<String, Target> types = targets.get ((ns != null) ? ns : "");
+
+		if (types == null) {
+			ConcurrentHashMap<String, Target> created = new ConcurrentHashMap<String, Target> ();
+
+			if ((types = targets.putIfAbsent ((ns != null) ? ns : "", created)) == null)
+				types = created;
+		}
+
+		Target		target = types.get (type);
+
+		if (target == null) {
+			Target		created = new Target ();
+
+			if ((target = types.putIfAbsent (type, created)) == null)
+				target = created;
+		}
+		return (target);
+	}
+}
\ No newline at end of file
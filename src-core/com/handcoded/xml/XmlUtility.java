@@ -13,10 +13,20 @@
 
 package com.handcoded.xml;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +57,7 @@ import com.handcoded.meta.Release;
 import com.handcoded.meta.SchemaRelease;
 import com.handcoded.meta.Specification;
 import com.handcoded.xml.parser.DOMParser;
+import com.handcoded.xml.parser.ParserPool;
 import com.handcoded.xml.resolver.Catalog;
 
 /**
@@ -54,11 +65,14 @@ import com.handcoded.xml.resolver.Catalog;
  * <P>
  * The new Java APIs for XML parsing and validation require that you know in
  * advance whether a file is DTD or schema based. If you don't know if
- * which kind of document you have then the safest approach seems to be
- * to do a non-validating parse and check for the presence of a DOCTYPE
- * node. Obviously this means that the validation is slower (as you do
- * it twice) and it also means that the input source must be reprocessable
- * (e.g. either a file or a string but not a stream). 
+ * which kind of document you have then the prolog of the document is
+ * scanned for a DOCTYPE declaration before the root element and the
+ * result used to select the type of validation applied by a single
+ * parse. If the prolog cannot be understood (e.g. an unusual character
+ * encoding) then the older approach of doing a non-validating parse and
+ * checking for the presence of a DOCTYPE node is used instead. In either
+ * case the input source must be reprocessable (e.g. either a file or a
+ * string but not a stream). 
  *	 
  * @author	BitWise
  * @version	$Id$
@@ -70,6 +84,7 @@ public final class XmlUtility
 	 * A constant value indicating that only DTD based documents are expected.
 	 * @see #validatingParse(int, File, Schema, EntityResolver, ErrorHandler)
 	 * @see #validatingParse(int, String, Schema, EntityResolver, ErrorHandler)
+	 * @see #validatingParse(int, InputSource, Schema, EntityResolver, ErrorHandler)
 	 */
 	public static final int	DTD_ONLY		= 1;
 	
@@ -77,6 +92,7 @@ public final class XmlUtility
 	 * A constant value indicating that only schema based documents are expected.
 	 * @see #validatingParse(int, File, Schema, EntityResolver, ErrorHandler)
 	 * @see #validatingParse(int, String, Schema, EntityResolver, ErrorHandler)
+	 * @see #validatingParse(int, InputSource, Schema, EntityResolver, ErrorHandler)
 	 */
 	public static final int	SCHEMA_ONLY		= 2;
 	
@@ -85,6 +101,7 @@ public final class XmlUtility
 	 * could be provided.
 	 * @see #validatingParse(int, File, Schema, EntityResolver, ErrorHandler)
 	 * @see #validatingParse(int, String, Schema, EntityResolver, ErrorHandler)
+	 * @see #validatingParse(int, InputSource, Schema, EntityResolver, ErrorHandler)
 	 */
 	public static final int DTD_OR_SCHEMA	= 3;
 	
@@ -352,8 +369,9 @@ public final class XmlUtility
 	/**
 	 * Performs a validating parse of the indicated XML <CODE>String</CODE> using the
 	 * most optimal technique given the mode. If the type of grammar is unknown
-	 * then a non-validating parse is done first and the document inspected to
-	 * see if it references a DOCTYPE.
+	 * then the prolog is scanned for a DOCTYPE and the document parsed and
+	 * validated in a single pass. A non-validating parse is only done first
+	 * if the prolog could not be scanned.
 	 * 
 	 * @param 	grammar			Indicates the type of grammar used by the document. 
 	 * @param 	xml				The XML <CODE>String</CODE> to be processed.
@@ -370,6 +388,14 @@ public final class XmlUtility
 		Document	document	= null;
 		
 		if (grammar != DTD_ONLY) {
+			switch (detectGrammar (xml)) {
+			case DTD_ONLY:
+				return (dtdValidatingParse (xml, entityResolver, errorHandler));
+				
+			case SCHEMA_ONLY:
+				return (schemaValidatingParse (xml, schema, entityResolver, errorHandler));
+			}
+			
 			if ((document = nonValidatingParse (xml, entityResolver, errorHandler)) == null)
 				return (null);
 			
@@ -377,11 +403,19 @@ public final class XmlUtility
 				try {
 					DOMResult		result	= new DOMResult ();
 					
-					Validator validator = schema.newValidator ();
-					validator.setErrorHandler (errorHandler);
-					validator.validate (new DOMSource (document), result);
+					Validator validator = ParserPool.acquireValidator (schema);
+					try {
+						validator.setErrorHandler (errorHandler);
+						validator.validate (new DOMSource (document), result);
+					}
+					finally {
+						ParserPool.releaseValidator (schema, validator);
+					}
+					
+					Document	validated = (Document) result.getNode ();
 					
-					return ((Document) result.getNode ());
+					TypeCompatibility.recordSchema (validated, schema);
+					return (validated);
 				}
 				catch (SAXException error) {
 					logger.log (Level.SEVERE, "Unexpected SAX Exception", error);
@@ -393,23 +427,15 @@ public final class XmlUtility
 		}
 		
 		// Handle DTD based documents
-		try {
-			document = new DOMParser (true, true, false, null, entityResolver, errorHandler).parse (xml);
-		}
-		catch (ParserConfigurationException error) {
-			logger.severe ("JAXP failed to provided a XML parser");
-		}
-		catch (IOException error) {
-			logger.log (Level.SEVERE, "Unexpected I/O error", error);
-		}
-		return (document);
+		return (dtdValidatingParse (xml, entityResolver, errorHandler));
 	}
 	
 	/**
 	 * Performs a validating parse of the indicated <CODE>File</CODE> using the
 	 * most optimal technique given the mode. If the type of grammar is unknown
-	 * then a non-validating parse is done first and the document inspected to
-	 * see if it references a DOCTYPE.
+	 * then the prolog is scanned for a DOCTYPE and the document parsed and
+	 * validated in a single pass. A non-validating parse is only done first
+	 * if the prolog could not be scanned.
 	 * 
 	 * @param 	grammar			Indicates the type of grammar used by the document. 
 	 * @param 	file			The <CODE>File</CODE> to be processed.
@@ -426,6 +452,14 @@ public final class XmlUtility
 		Document	document	= null;
 		
 		if (grammar != DTD_ONLY) {
+			switch (detectGrammar (file)) {
+			case DTD_ONLY:
+				return (dtdValidatingParse (file, entityResolver, errorHandler));
+				
+			case SCHEMA_ONLY:
+				return (schemaValidatingParse (file, schema, entityResolver, errorHandler));
+			}
+			
 			if ((document = nonValidatingParse (file, entityResolver, errorHandler)) == null)
 				return (null);
 			
@@ -433,11 +467,19 @@ public final class XmlUtility
 				try {
 					DOMResult		result	= new DOMResult ();
 					
-					Validator validator = schema.newValidator ();
-					validator.setErrorHandler (errorHandler);
-					validator.validate (new DOMSource (document), result);
+					Validator validator = ParserPool.acquireValidator (schema);
+					try {
+						validator.setErrorHandler (errorHandler);
+						validator.validate (new DOMSource (document), result);
+					}
+					finally {
+						ParserPool.releaseValidator (schema, validator);
+					}
+					
+					Document	validated = (Document) result.getNode ();
 					
-					return ((Document) result.getNode ());
+					TypeCompatibility.recordSchema (validated, schema);
+					return (validated);
 				}
 				catch (SAXException error) {
 					logger.log (Level.SEVERE, "Unexpected SAX Exception", error);
@@ -449,16 +491,118 @@ public final class XmlUtility
 		}
 		
 		// Handle DTD based documents
+		return (dtdValidatingParse (file, entityResolver, errorHandler));
+	}
+	
+	/**
+	 * Performs a validating parse of the indicated <CODE>InputSource</CODE>
+	 * using the most optimal technique given the mode. The content of the
+	 * source is read into memory first so that its prolog can be scanned
+	 * for a DOCTYPE before the document is parsed and validated in a single
+	 * pass. A non-validating parse is only done first if the prolog could
+	 * not be scanned.
+	 * 
+	 * @param 	grammar			Indicates the type of grammar used by the document. 
+	 * @param 	source			The <CODE>InputSource</CODE> to be processed.
+	 * @param 	schema			A compiled <CODE>Schema</CODE> collection.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @throws	IllegalArgumentException If the <CODE>InputSource</CODE> has
+	 * 			no character stream, byte stream or system identifier.
+	 * @since	TFP 1.9
+	 */
+	public static Document validatingParse (int grammar, InputSource source, Schema schema,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		if ((source.getCharacterStream () == null) && (source.getByteStream () == null)
+				&& (source.getSystemId () == null))
+			throw new IllegalArgumentException ("The InputSource has no stream or system identifier");
+		
+		String		text	= null;
+		byte []		bytes	= null;
+		
 		try {
-			document = new DOMParser (true, true, false, null, entityResolver, errorHandler).parse (file);
-		}
-		catch (ParserConfigurationException error) {
-			logger.severe ("JAXP failed to provided a XML parser");
+			if (source.getCharacterStream () != null)
+				text = readFully (source.getCharacterStream ());
+			else if (source.getByteStream () != null)
+				bytes = readFully (source.getByteStream ());
+			else {
+				InputStream		stream;
+				
+				try {
+					stream = new URL (source.getSystemId ()).openStream ();
+				}
+				catch (MalformedURLException error) {
+					stream = new FileInputStream (source.getSystemId ());
+				}
+				try {
+					bytes = readFully (stream);
+				}
+				finally {
+					stream.close ();
+				}
+			}
 		}
 		catch (IOException error) {
 			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+			return (null);
 		}
-		return (document);
+		
+		Document	document	= null;
+		
+		if (grammar != DTD_ONLY) {
+			int			detected;
+			
+			try {
+				detected = (text != null) ? detectGrammar (new StringReader (text))
+						: detectGrammar (new ByteArrayInputStream (bytes));
+			}
+			catch (IOException error) {
+				detected = DTD_OR_SCHEMA;
+			}
+			
+			switch (detected) {
+			case DTD_ONLY:
+				return (dtdValidatingParse (copyOf (source, text, bytes), entityResolver, errorHandler));
+				
+			case SCHEMA_ONLY:
+				return (schemaValidatingParse (copyOf (source, text, bytes), schema, entityResolver, errorHandler));
+			}
+			
+			if ((document = nonValidatingParse (copyOf (source, text, bytes), entityResolver, errorHandler)) == null)
+				return (null);
+			
+			if (document.getDoctype () == null) {
+				try {
+					DOMResult		result	= new DOMResult ();
+					
+					Validator validator = ParserPool.acquireValidator (schema);
+					try {
+						validator.setErrorHandler (errorHandler);
+						validator.validate (new DOMSource (document), result);
+					}
+					finally {
+						ParserPool.releaseValidator (schema, validator);
+					}
+					
+					Document	validated = (Document) result.getNode ();
+					
+					TypeCompatibility.recordSchema (validated, schema);
+					return (validated);
+				}
+				catch (SAXException error) {
+					logger.log (Level.SEVERE, "Unexpected SAX Exception", error);
+				}
+				catch (IOException error) {
+					logger.log (Level.SEVERE, "Unexpected I/O error", error);
+				}
+			}
+		}
+		
+		// Handle DTD based documents
+		return (dtdValidatingParse (copyOf (source, text, bytes), entityResolver, errorHandler));
 	}
 	
 	/**
@@ -510,6 +654,12 @@ public final class XmlUtility
 	private static Logger	logger
 		= Logger.getLogger ("com.handcoded.xml.XmlUtility");
 
+	/**
+	 * The keyword that follows the '&lt;' of a document type declaration.
+	 * @since	TFP 1.9
+	 */
+	private static final String	DOCTYPE		= "!DOCTYPE";
+
 	/**
 	 * The default catalog used to resolve DTD and schema references.
 	 * @since	TFP 1.0
@@ -547,6 +697,401 @@ public final class XmlUtility
 				{  }
 			};
 	
+	/**
+	 * Performs a DTD validating parse of the indicated XML <CODE>String</CODE>.
+	 * 
+	 * @param 	xml				The XML <CODE>String</CODE> to be processed.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document dtdValidatingParse (final String xml,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (true, true, false, null, entityResolver, errorHandler).parse (xml));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Performs a DTD validating parse of the indicated <CODE>File</CODE>.
+	 * 
+	 * @param 	file			The <CODE>File</CODE> to be processed.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document dtdValidatingParse (File file,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (true, true, false, null, entityResolver, errorHandler).parse (file));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Performs a schema validating parse of the indicated XML <CODE>String</CODE>
+	 * building the DOM tree as the document is validated.
+	 * 
+	 * @param 	xml				The XML <CODE>String</CODE> to be processed.
+	 * @param 	schema			A compiled <CODE>Schema</CODE> collection.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document schemaValidatingParse (final String xml, Schema schema,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (false, true, false, schema, entityResolver, errorHandler).parse (xml));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Performs a schema validating parse of the indicated <CODE>File</CODE>
+	 * building the DOM tree as the document is validated.
+	 * 
+	 * @param 	file			The <CODE>File</CODE> to be processed.
+	 * @param 	schema			A compiled <CODE>Schema</CODE> collection.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document schemaValidatingParse (File file, Schema schema,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (false, true, false, schema, entityResolver, errorHandler).parse (file));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Performs a DTD validating parse of the indicated <CODE>InputSource</CODE>.
+	 * 
+	 * @param 	source			The <CODE>InputSource</CODE> to be processed.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document dtdValidatingParse (InputSource source,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (true, true, false, null, entityResolver, errorHandler).parse (source));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Performs a schema validating parse of the indicated <CODE>InputSource</CODE>
+	 * building the DOM tree as the document is validated.
+	 * 
+	 * @param 	source			The <CODE>InputSource</CODE> to be processed.
+	 * @param 	schema			A compiled <CODE>Schema</CODE> collection.
+	 * @param 	entityResolver	The <CODE>EntityResolver</CODE>.
+	 * @param 	errorHandler	The users <CODE>ErrorHandler</CODE>.
+	 * @return	A <CODE>Document</CODE> instance if the parse succeeded or
+	 * 			<CODE>null</CODE> if it failed.
+	 * @since	TFP 1.9
+	 */
+	private static Document schemaValidatingParse (InputSource source, Schema schema,
+			EntityResolver entityResolver, ErrorHandler errorHandler)
+	{
+		try {
+			return (new DOMParser (false, true, false, schema, entityResolver, errorHandler).parse (source));
+		}
+		catch (ParserConfigurationException error) {
+			logger.severe ("JAXP failed to provided a XML parser");
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Unexpected I/O error", error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Creates a new <CODE>InputSource</CODE> with the same identifiers and
+	 * encoding as another that reads from buffered content.
+	 * 
+	 * @param 	source			The original <CODE>InputSource</CODE>.
+	 * @param 	text			The buffered character content or <CODE>null</CODE>.
+	 * @param 	bytes			The buffered byte content (if <CODE>text</CODE>
+	 * 							is <CODE>null</CODE>).
+	 * @return	A new <CODE>InputSource</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	private static InputSource copyOf (InputSource source, final String text, final byte [] bytes)
+	{
+		InputSource		result = (text != null)
+			? new InputSource (new StringReader (text))
+			: new InputSource (new ByteArrayInputStream (bytes));
+		
+		result.setPublicId (source.getPublicId ());
+		result.setSystemId (source.getSystemId ());
+		result.setEncoding (source.getEncoding ());
+		return (result);
+	}
+	
+	/**
+	 * Reads the entire content of a character stream.
+	 * 
+	 * @param 	reader			The <CODE>Reader</CODE> to be consumed.
+	 * @return	The content as a <CODE>String</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static String readFully (Reader reader)
+		throws IOException
+	{
+		StringBuilder	buffer = new StringBuilder ();
+		char []			chars  = new char [8192];
+		int				length;
+		
+		while ((length = reader.read (chars)) != -1)
+			buffer.append (chars, 0, length);
+		
+		return (buffer.toString ());
+	}
+	
+	/**
+	 * Reads the entire content of a byte stream.
+	 * 
+	 * @param 	stream			The <CODE>InputStream</CODE> to be consumed.
+	 * @return	The content as a <CODE>byte</CODE> array.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static byte [] readFully (InputStream stream)
+		throws IOException
+	{
+		ByteArrayOutputStream	buffer = new ByteArrayOutputStream ();
+		byte []					bytes  = new byte [8192];
+		int						length;
+		
+		while ((length = stream.read (bytes)) != -1)
+			buffer.write (bytes, 0, length);
+		
+		return (buffer.toByteArray ());
+	}
+	
+	/**
+	 * Scans the prolog of an XML <CODE>String</CODE> to determine if it
+	 * contains a DOCTYPE declaration.
+	 * 
+	 * @param 	xml				The XML <CODE>String</CODE> to be examined.
+	 * @return	{@link #DTD_ONLY} if a DOCTYPE was found, {@link #SCHEMA_ONLY}
+	 * 			if the root element was reached without one or
+	 * 			{@link #DTD_OR_SCHEMA} if the prolog could not be understood.
+	 * @since	TFP 1.9
+	 */
+	private static int detectGrammar (final String xml)
+	{
+		try {
+			return (detectGrammar (new StringReader (xml)));
+		}
+		catch (IOException error) {
+			return (DTD_OR_SCHEMA);
+		}
+	}
+	
+	/**
+	 * Scans the prolog of an XML <CODE>File</CODE> to determine if it
+	 * contains a DOCTYPE declaration. Only the bytes up to the start of the
+	 * root element are read.
+	 * 
+	 * @param 	file			The <CODE>File</CODE> to be examined.
+	 * @return	{@link #DTD_ONLY} if a DOCTYPE was found, {@link #SCHEMA_ONLY}
+	 * 			if the root element was reached without one or
+	 * 			{@link #DTD_OR_SCHEMA} if the prolog could not be understood.
+	 * @since	TFP 1.9
+	 */
+	private static int detectGrammar (File file)
+	{
+		InputStream	stream = null;
+		
+		try {
+			return (detectGrammar (stream = new BufferedInputStream (new FileInputStream (file))));
+		}
+		catch (IOException error) {
+			return (DTD_OR_SCHEMA);
+		}
+		finally {
+			if (stream != null) {
+				try {
+					stream.close ();
+				}
+				catch (IOException error) {
+					// Ignore
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Scans the prolog of an XML byte stream to determine if it contains a
+	 * DOCTYPE declaration. Byte order marks for UTF-8 and UTF-16 are
+	 * recognised, other encodings are assumed to be ASCII compatible.
+	 * 
+	 * @param 	stream			An <CODE>InputStream</CODE> that supports
+	 * 							<CODE>mark</CODE> positioned at the start
+	 * 							of the document.
+	 * @return	{@link #DTD_ONLY} if a DOCTYPE was found, {@link #SCHEMA_ONLY}
+	 * 			if the root element was reached without one or
+	 * 			{@link #DTD_OR_SCHEMA} if the prolog could not be understood.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static int detectGrammar (InputStream stream)
+		throws IOException
+	{
+		stream.mark (4);
+		
+		int first	= stream.read ();
+		int	second	= stream.read ();
+		int third	= stream.read ();
+		String encoding;
+		
+		stream.reset ();
+		if ((first == 0xFE) && (second == 0xFF)) {
+			stream.skip (2);
+			encoding = "UTF-16BE";
+		}
+		else if ((first == 0xFF) && (second == 0xFE)) {
+			stream.skip (2);
+			encoding = "UTF-16LE";
+		}
+		else if ((first == 0x00) && (second == '<'))
+			encoding = "UTF-16BE";
+		else if ((first == '<') && (second == 0x00))
+			encoding = "UTF-16LE";
+		else if ((first == 0xEF) && (second == 0xBB) && (third == 0xBF)) {
+			stream.skip (3);
+			encoding = "ISO-8859-1";
+		}
+		else
+			encoding = "ISO-8859-1";
+		
+		return (detectGrammar (new InputStreamReader (stream, encoding)));
+	}
+	
+	/**
+	 * Scans the prolog of an XML document skipping over any processing
+	 * instructions, comments and whitespace until either a DOCTYPE
+	 * declaration or the root element is found.
+	 * 
+	 * @param 	reader			The <CODE>Reader</CODE> to take characters from.
+	 * @return	{@link #DTD_ONLY} if a DOCTYPE was found, {@link #SCHEMA_ONLY}
+	 * 			if the root element was reached without one or
+	 * 			{@link #DTD_OR_SCHEMA} if the prolog could not be understood.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static int detectGrammar (Reader reader)
+		throws IOException
+	{
+		int			ch;
+		
+		for (;;) {
+			do {
+				ch = reader.read ();
+			} while ((ch == ' ') || (ch == '\t') || (ch == '\r') || (ch == '\n'));
+			
+			if (ch != '<') return (DTD_OR_SCHEMA);
+			
+			switch (ch = reader.read ()) {
+			case '?':
+				if (!skipPast (reader, "?>")) return (DTD_OR_SCHEMA);
+				break;
+				
+			case '!':
+				if ((ch = reader.read ()) == '-') {
+					if ((reader.read () != '-') || !skipPast (reader, "-->"))
+						return (DTD_OR_SCHEMA);
+					break;
+				}
+				for (int index = 1; index < DOCTYPE.length (); ++index, ch = reader.read ())
+					if (ch != DOCTYPE.charAt (index)) return (DTD_OR_SCHEMA);
+				return (DTD_ONLY);
+				
+			default:
+				return ((ch == -1) ? DTD_OR_SCHEMA : SCHEMA_ONLY);
+			}
+		}
+	}
+	
+	/**
+	 * Consumes characters from a <CODE>Reader</CODE> until the indicated
+	 * terminating sequence has been read.
+	 * 
+	 * @param 	reader			The <CODE>Reader</CODE> to take characters from.
+	 * @param 	terminator		The sequence to find.
+	 * @return	<CODE>true</CODE> if the terminator was found, <CODE>false</CODE>
+	 * 			if the end of the input was reached first.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static boolean skipPast (Reader reader, final String terminator)
+		throws IOException
+	{
+		char []		window = new char [terminator.length ()];
+		int			ch;
+		
+		while ((ch = reader.read ()) != -1) {
+			System.arraycopy (window, 1, window, 0, window.length - 1);
+			window [window.length - 1] = (char) ch;
+			
+			int index = 0;
+			while ((index < window.length) && (window [index] == terminator.charAt (index)))
+				++index;
+			if (index == window.length) return (true);
+		}
+		return (false);
+	}
+	
 	/**
 	 * Performs the actual recursive dumping of a DOM tree to a given
 	 * <CODE>PrintStream</CODE>. Note that dump is intended to be a detailed
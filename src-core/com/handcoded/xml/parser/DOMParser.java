@@ -31,9 +31,15 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+import com.handcoded.xml.TypeCompatibility;
+
 /**
  * The <CODE>DOMParser</CODE> class provides a wrapper around the JAXP interface
  * allowing various types of DOM parser instances to be created with less code.
+ * <P>
+ * The underlying <CODE>DocumentBuilder</CODE> instances are held in a
+ * {@link ParserPool} between parses so creating a <CODE>DOMParser</CODE> for
+ * each document is cheap.
  *
  * @author	BitWise
  * @version	$Id$
@@ -60,29 +66,20 @@ public final class DOMParser
 			EntityResolver entityResolver, ErrorHandler	errorHandler)
 		throws ParserConfigurationException
 	{
-		DocumentBuilderFactory		factory	= DocumentBuilderFactory.newInstance ();
-		
-		factory.setAttribute("http://apache.org/xml/features/validation/schema", 
-			    (schemaAware || (schema != null) ? Boolean.TRUE : Boolean.FALSE));
-		factory.setValidating (validating && (schema == null));	
-		factory.setNamespaceAware (namespaceAware || schemaAware || xincludeAware || (schema != null));
-		factory.setXIncludeAware (xincludeAware);
-		factory.setSchema (schema);
+		this.validating		= validating;
+		this.namespaceAware	= namespaceAware;
+		this.schemaAware	= schemaAware;
+		this.xincludeAware	= xincludeAware;
+		this.schema			= schema;
+		this.entityResolver	= entityResolver;
+		this.errorHandler	= errorHandler;
 		
-		try {
-			factory.setFeature(Feature.DEFER_NODE_EXPANSION_FEATURE_ID, false);
-		}
-		catch (ParserConfigurationException error) {
-			logger.info ("Installed XML Parser does not support deferred node expansion feature.");
-		}
-
-		builder = factory.newDocumentBuilder ();
-
-		if (entityResolver != null)
-			builder.setEntityResolver (entityResolver);
+		key = new ParserPool.Key (ParserPool.DOCUMENT_BUILDER,
+				(validating ? 1 : 0) | (namespaceAware ? 2 : 0)
+				| (schemaAware ? 4 : 0) | (xincludeAware ? 8 : 0), schema);
 		
-		if (errorHandler != null)
-			builder.setErrorHandler (errorHandler);
+		// Ensure the configuration is supported and prime the pool
+		releaseBuilder (acquireBuilder ());
 	}
 	
 	/**
@@ -138,8 +135,15 @@ public final class DOMParser
 	InputSource		source)
 		throws IOException
 	{
+		DocumentBuilder		builder = null;
+		
 		try {
-			return (builder.parse (source));
+			builder = acquireBuilder ();
+			return (recordSchema (builder.parse (source)));
+		}
+		catch (ParserConfigurationException error) {
+			logger.log (Level.SEVERE, "JAXP failed to provided a XML parser", error);
+			return (null);
 		}
 		catch (SAXParseException error) {
 			return (null);
@@ -148,6 +152,9 @@ public final class DOMParser
 			logger.log (Level.WARNING, "Unhandled SAX Exception", error);
 			return (null);
 		}
+		finally {
+			if (builder != null) releaseBuilder (builder);
+		}
 	}
 
 	/**
@@ -163,8 +170,15 @@ public final class DOMParser
 	File			file)
 		throws IOException
 	{
+		DocumentBuilder		builder = null;
+		
 		try {
-			return (builder.parse (file));
+			builder = acquireBuilder ();
+			return (recordSchema (builder.parse (file)));
+		}
+		catch (ParserConfigurationException error) {
+			logger.log (Level.SEVERE, "JAXP failed to provided a XML parser", error);
+			return (null);
 		}
 		catch (SAXParseException error) {
 			return (null);
@@ -172,6 +186,9 @@ public final class DOMParser
 		catch (SAXException error) {
 			logger.log (Level.WARNING, "Unhandled SAX Exception", error);
 			return (null);
+		}
+		finally {
+			if (builder != null) releaseBuilder (builder);
 		}		
 	}
 
@@ -199,7 +216,20 @@ public final class DOMParser
 	 */
 	public Document newDocument ()
 	{
-		return (builder.newDocument ());
+		try {
+			DocumentBuilder		builder = acquireBuilder ();
+			
+			try {
+				return (builder.newDocument ());
+			}
+			finally {
+				releaseBuilder (builder);
+			}
+		}
+		catch (ParserConfigurationException error) {
+			logger.log (Level.SEVERE, "JAXP failed to provided a XML parser", error);
+			return (null);
+		}
 	}
 
 	/**
@@ -210,10 +240,125 @@ public final class DOMParser
 		= Logger.getLogger ("com.handcoded.xml.parser.DOMParser");
 	
 	/**
-	 * The <CODE>DocumentBuilder</CODE> associated with this instance.
-	 * @since	TFP 1.0	
+	 * Determines if validation is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean			validating;
+	
+	/**
+	 * Determines if namespace processing is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean			namespaceAware;
+	
+	/**
+	 * Determines if schema processing is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean			schemaAware;
+	
+	/**
+	 * Determines if XInclude processing is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean			xincludeAware;
+	
+	/**
+	 * The <CODE>Schema</CODE> used for validation or <CODE>null</CODE>.
+	 * @since	TFP 1.9
 	 */
-	private DocumentBuilder			builder;
+	private final Schema			schema;
+	
+	/**
+	 * The <CODE>EntityResolver</CODE> instance or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final EntityResolver	entityResolver;
+	
+	/**
+	 * The <CODE>ErrorHandler</CODE> instance or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final ErrorHandler		errorHandler;
+	
+	/**
+	 * The <CODE>ParserPool</CODE> key for this configuration.
+	 * @since	TFP 1.9
+	 */
+	private final ParserPool.Key	key;
+	
+	/**
+	 * Records the <CODE>Schema</CODE> (if any) that validated a parsed
+	 * <CODE>Document</CODE> so that its type information is interpreted
+	 * against the right definitions.
+	 * 
+	 * @param 	document		The parsed <CODE>Document</CODE>.
+	 * @return	The same <CODE>Document</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private Document recordSchema (final Document document)
+	{
+		if (schema != null) TypeCompatibility.recordSchema (document, schema);
+		return (document);
+	}
+	
+	/**
+	 * Obtains a <CODE>DocumentBuilder</CODE> matching this instance's
+	 * configuration, reusing an idle one from the <CODE>ParserPool</CODE>
+	 * if possible.
+	 * 
+	 * @return	A <CODE>DocumentBuilder</CODE> ready for use.
+	 * @throws	ParserConfigurationException If JAXP cannot provide a suitable parser.	
+	 * @since	TFP 1.9
+	 */
+	private DocumentBuilder acquireBuilder ()
+		throws ParserConfigurationException
+	{
+		DocumentBuilder		builder = (DocumentBuilder) ParserPool.acquire (key);
+		
+		if (builder == null) {
+			DocumentBuilderFactory		factory	= DocumentBuilderFactory.newInstance ();
+			
+			// A supplied Schema does its own validation so the parser's built-in
+			// schema support must stay off or documents are validated twice.
+			factory.setAttribute("http://apache.org/xml/features/validation/schema", 
+				    (schemaAware && (schema == null) ? Boolean.TRUE : Boolean.FALSE));
+			factory.setValidating (validating && (schema == null));	
+			factory.setNamespaceAware (namespaceAware || schemaAware || xincludeAware || (schema != null));
+			factory.setXIncludeAware (xincludeAware);
+			factory.setSchema (schema);
+			
+			try {
+				factory.setFeature(Feature.DEFER_NODE_EXPANSION_FEATURE_ID, false);
+			}
+			catch (ParserConfigurationException error) {
+				logger.info ("Installed XML Parser does not support deferred node expansion feature.");
+			}
+	
+			builder = factory.newDocumentBuilder ();
+		}
+		
+		if (entityResolver != null)
+			builder.setEntityResolver (entityResolver);
+		
+		if (errorHandler != null)
+			builder.setErrorHandler (errorHandler);
+		
+		return (builder);
+	}
+	
+	/**
+	 * Resets a <CODE>DocumentBuilder</CODE> and returns it to the
+	 * <CODE>ParserPool</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>DocumentBuilder</CODE> to be released.
+	 * @since	TFP 1.9
+	 */
+	private void releaseBuilder (DocumentBuilder builder)
+	{
+		builder.reset ();
+		ParserPool.release (key, builder);
+	}
 	
 	/**
 	 * Encourage Xerces to cache grammars as it parses.
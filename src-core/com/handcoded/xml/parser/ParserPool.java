@@ -0,0 +1,314 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml.parser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+/**
+ * The <CODE>ParserPool</CODE> class holds idle JAXP parser and validator
+ * instances so that they can be reused rather than being recreated for
+ * every document.
+ * <P>
+ * Each thread has its own pool, so no locking is needed, and instances are
+ * taken out of the pool while in use so a parse started from within another
+ * parse (e.g. while loading a catalog) will never share an instance. Pooled
+ * instances are keyed by their configuration and must be reset before they
+ * are returned.
+ * <P>
+ * Each thread's pool holds instances for at most {@link #MAX_CONFIGURATIONS}
+ * configurations, discarding those for the least recently used one when
+ * another is added, so a thread that validates against many different
+ * <CODE>Schema</CODE> instances does not keep them all reachable. Calling
+ * {@link #clear()} discards all the idle instances held by every thread.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class ParserPool
+{
+	/**
+	 * The maximum number of idle instances held for each configuration on
+	 * each thread.
+	 * @since	TFP 1.9
+	 */
+	public static final int		MAX_IDLE	= 4;
+
+	/**
+	 * The maximum number of configurations for which idle instances are
+	 * held on each thread.
+	 * @since	TFP 1.9
+	 */
+	public static final int		MAX_CONFIGURATIONS	= 16;
+
+	/**
+	 * Obtains a <CODE>Validator</CODE> for the given <CODE>Schema</CODE>,
+	 * reusing an idle one if possible.
+	 *
+	 * @param 	schema			The <CODE>Schema</CODE> to validate against.
+	 * @return	A <CODE>Validator</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	public static Validator acquireValidator (Schema schema)
+	{
+		Validator validator = (Validator) acquire (new Key (VALIDATOR, 0, schema));
+
+		return ((validator != null) ? validator : schema.newValidator ());
+	}
+
+	/**
+	 * Resets a <CODE>Validator</CODE> previously obtained from
+	 * {@link #acquireValidator(Schema)} and returns it to the pool.
+	 *
+	 * @param 	schema			The <CODE>Schema</CODE> the <CODE>Validator</CODE>
+	 * 							was created for.
+	 * @param 	validator		The <CODE>Validator</CODE> to be released.
+	 * @since	TFP 1.9
+	 */
+	public static void releaseValidator (Schema schema, Validator validator)
+	{
+		validator.reset ();
+		release (new Key (VALIDATOR, 0, schema), validator);
+	}
+
+	/**
+	 * Discards the idle instances held by every thread, for example so that
+	 * a <CODE>Schema</CODE> that is no longer used can be garbage collected.
+	 * The current thread's pool is emptied immediately and each other
+	 * thread's pool is emptied the next time it is used. Instances that are
+	 * in use when this method is called may still be released to the pool.
+	 *
+	 * @since	TFP 1.9
+	 */
+	public static void clear ()
+	{
+		generation.incrementAndGet ();
+		pools.remove ();
+	}
+
+	/**
+	 * The kind of key used for <CODE>DocumentBuilder</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	static final int			DOCUMENT_BUILDER	= 1;
+
+	/**
+	 * The kind of key used for JAXP <CODE>SAXParser</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	static final int			SAX_PARSER			= 2;
+
+	/**
+	 * The kind of key used for <CODE>Validator</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	static final int			VALIDATOR			= 3;
+
+	/**
+	 * Identifies a particular parser or validator configuration.
+	 * @since	TFP 1.9
+	 */
+	static final class Key
+	{
+		/**
+		 * Constructs a <CODE>Key</CODE> instance.
+		 *
+		 * @param 	kind			The kind of object being pooled.
+		 * @param 	options			A bit mask of configuration flags.
+		 * @param 	schema			The <CODE>Schema</CODE> used or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Key (int kind, int options, Schema schema)
+		{
+			this.kind		= kind;
+			this.options	= options;
+			this.schema		= schema;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int hashCode ()
+		{
+			return ((kind * 31 + options) * 31 + System.identityHashCode (schema));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public boolean equals (Object other)
+		{
+			if (other instanceof Key) {
+				Key		key = (Key) other;
+
+				return ((kind == key.kind) && (options == key.options) && (schema == key.schema));
+			}
+			return (false);
+		}
+
+		/**
+		 * The kind of object being pooled.
+		 * @since	TFP 1.9
+		 */
+		private final int		kind;
+
+		/**
+		 * A bit mask of configuration flags.
+		 * @since	TFP 1.9
+		 */
+		private final int		options;
+
+		/**
+		 * The <CODE>Schema</CODE> used or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final Schema	schema;
+	}
+
+	/**
+	 * Removes an idle instance with the given configuration from the current
+	 * thread's pool.
+	 *
+	 * @param 	key				The configuration <CODE>Key</CODE>.
+	 * @return	An idle instance or <CODE>null</CODE> if none is available.
+	 * @since	TFP 1.9
+	 */
+	static Object acquire (Key key)
+	{
+		ArrayList<Object>	idle = pool ().get (key);
+
+		if ((idle == null) || idle.isEmpty ()) return (null);
+
+		return (idle.remove (idle.size () - 1));
+	}
+
+	/**
+	 * Returns a reset instance to the current thread's pool. If the pool
+	 * already holds {@link #MAX_IDLE} instances for the configuration then
+	 * the instance is discarded.
+	 *
+	 * @param 	key				The configuration <CODE>Key</CODE>.
+	 * @param 	value			The instance to be pooled.
+	 * @since	TFP 1.9
+	 */
+	static void release (Key key, Object value)
+	{
+		Pool				pool = pool ();
+		ArrayList<Object>	idle = pool.get (key);
+
+		if (idle == null) pool.put (key, idle = new ArrayList<Object> (MAX_IDLE));
+
+		if (idle.size () < MAX_IDLE) idle.add (value);
+	}
+
+	/**
+	 * A <CODE>Pool</CODE> holds the idle instances for a single thread in
+	 * least recently used order.
+	 * @since	TFP 1.9
+	 */
+	private static final class Pool extends LinkedHashMap<Key, ArrayList<Object>>
+	{
+		/**
+		 * Constructs an empty <CODE>Pool</CODE> instance.
+		 *
+		 * @param 	generation		The value of the clear generation when
+		 * 							the pool was created.
+		 * @since	TFP 1.9
+		 */
+		Pool (int generation)
+		{
+			super (MAX_CONFIGURATIONS, 0.75f, true);
+
+			this.generation = generation;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		protected boolean removeEldestEntry (Map.Entry<Key, ArrayList<Object>> eldest)
+		{
+			return (size () > MAX_CONFIGURATIONS);
+		}
+
+		/**
+		 * The value of the clear generation when the pool was created.
+		 * @since	TFP 1.9
+		 */
+		final int				generation;
+
+		/**
+		 * Serialization UID
+		 * @since	TFP 1.9
+		 */
+		private static final long serialVersionUID = -1532505165501561662L;
+	}
+
+	/**
+	 * Counts the calls to {@link #clear()} so that pools created before
+	 * the most recent call can be recognised and discarded.
+	 * @since	TFP 1.9
+	 */
+	private static final AtomicInteger	generation = new AtomicInteger ();
+
+	/**
+	 * The idle instances held for each thread.
+	 * @since	TFP 1.9
+	 */
+	private static ThreadLocal<Pool> pools
+		= new ThreadLocal<Pool> ()
+			{
+				@Override
+				protected Pool initialValue ()
+				{
+					return (new Pool (generation.get ()));
+				}
+			};
+
+	/**
+	 * Provides the current thread's pool, replacing it if {@link #clear()}
+	 * has been called since it was created.
+	 *
+	 * @return	The current thread's <CODE>Pool</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static Pool pool ()
+	{
+		Pool				pool = pools.get ();
+
+		if (pool.generation != generation.get ()) {
+			pools.remove ();
+			pool = pools.get ();
+		}
+		return (pool);
+	}
+
+	/**
+	 * Ensures no instances can be constructed.
+	 * @since	TFP 1.9
+	 */
+	private ParserPool ()
+	{ }
+}
\ No newline at end of file
@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -32,6 +33,9 @@ import org.xml.sax.XMLReader;
 /**
  * The <CODE>SaxParser</CODE> class provides a wrapper around the JAXP interface
  * allowing various types of SAX parser instances to be created with less code.
+ * <P>
+ * The underlying JAXP parser instances are held in a {@link ParserPool}
+ * between parses.
  * 
  * @author	BitWise
  * @version	$Id$
@@ -61,43 +65,19 @@ public final class SAXParser
 	ErrorHandler	errorHandler)
 		throws ParserConfigurationException, SAXException
 	{
-		synchronized (factory) {
-			try {
-				factory.setFeature (Feature.NAMESPACES_FEATURE_ID, namespaceAware);
-			}
-			catch (Exception error) {
-				factory.setNamespaceAware (namespaceAware);
-			}
-			
-			try {
-				factory.setFeature (Feature.VALIDATION_FEATURE_ID, validating);
-			}
-			catch (Exception error) {
-				factory.setValidating (validating);
-			}
-			
-			try {
-				factory.setFeature (Feature.SCHEMA_VALIDATION_FEATURE_ID, schemaValidating);
-			}
-			catch (Exception error) {
-				logger.severe ("JAXP implementation does not support schema validation");
-			}
-
-			try {
-				factory.setFeature (Feature.SCHEMA_FULL_CHECKING_FEATURE_ID, fullSchemaChecks);
-			}
-			catch (IllegalArgumentException error) {
-				logger.severe ("JAXP implementation does not suppoty full schema checking");
-			}
-
-			reader = factory.newSAXParser ().getXMLReader ();
-		}
-
-		if (entityResolver != null)
-			reader.setEntityResolver (entityResolver);
-
-		if (errorHandler != null)
-			reader.setErrorHandler (errorHandler);
+		this.validating			= validating;
+		this.namespaceAware		= namespaceAware;
+		this.schemaValidating	= schemaValidating;
+		this.fullSchemaChecks	= fullSchemaChecks;
+		this.entityResolver		= entityResolver;
+		this.errorHandler		= errorHandler;
+		
+		key = new ParserPool.Key (ParserPool.SAX_PARSER,
+				(validating ? 1 : 0) | (namespaceAware ? 2 : 0)
+				| (schemaValidating ? 4 : 0) | (fullSchemaChecks ? 8 : 0), null);
+		
+		// Ensure the configuration is supported and prime the pool
+		releaseParser (acquireParser ());
 	}
 
 	/**
@@ -114,15 +94,28 @@ public final class SAXParser
 	ContentHandler	contentHandler)
 		throws IOException
 	{
+		javax.xml.parsers.SAXParser	parser = null;
+		
 		try {
+			parser = acquireParser ();
+			
+			XMLReader reader = parser.getXMLReader ();
+			
 			reader.setContentHandler (contentHandler);
 			reader.parse (source);
 			return (true);
 		}
+		catch (ParserConfigurationException error) {
+			logger.log (Level.SEVERE, "JAXP failed to provided a XML parser", error);
+			return (false);
+		}
 		catch (SAXException error) {
 			System.out.println ("Error: "+error);
 			return (false);
 		}
+		finally {
+			if (parser != null) releaseParser (parser);
+		}
 	}
 
 	/**
@@ -174,8 +167,117 @@ public final class SAXParser
 		= SAXParserFactory.newInstance ();
 
 	/**
-	 * The <CODE>XMLReader</CODE> associated with this instance.
-	 * @since	TFP 1.0	
+	 * Determines if validation is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		validating;
+	
+	/**
+	 * Determines if namespace processing is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		namespaceAware;
+	
+	/**
+	 * Determines if schema support is required.
+	 * @since	TFP 1.9
+	 */
+	private final boolean		schemaValidating;
+	
+	/**
+	 * Determines if full schema checks are required.
+	 * @since	TFP 1.9
 	 */
-	private XMLReader			reader;
+	private final boolean		fullSchemaChecks;
+	
+	/**
+	 * The <CODE>EntityResolver</CODE> instance or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final EntityResolver	entityResolver;
+	
+	/**
+	 * The <CODE>ErrorHandler</CODE> instance or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final ErrorHandler	errorHandler;
+	
+	/**
+	 * The <CODE>ParserPool</CODE> key for this configuration.
+	 * @since	TFP 1.9
+	 */
+	private final ParserPool.Key	key;
+	
+	/**
+	 * Obtains a JAXP <CODE>SAXParser</CODE> matching this instance's
+	 * configuration, reusing an idle one from the <CODE>ParserPool</CODE>
+	 * if possible.
+	 * 
+	 * @return	A JAXP <CODE>SAXParser</CODE> ready for use.
+	 * @throws	ParserConfigurationException If JAXP cannot provide a suitable parser.	
+	 * @throws	SAXException If the parser cannot be configured.
+	 * @since	TFP 1.9
+	 */
+	private javax.xml.parsers.SAXParser acquireParser ()
+		throws ParserConfigurationException, SAXException
+	{
+		javax.xml.parsers.SAXParser	parser = (javax.xml.parsers.SAXParser) ParserPool.acquire (key);
+		
+		if (parser == null) {
+			synchronized (factory) {
+				try {
+					factory.setFeature (Feature.NAMESPACES_FEATURE_ID, namespaceAware);
+				}
+				catch (Exception error) {
+					factory.setNamespaceAware (namespaceAware);
+				}
+				
+				try {
+					factory.setFeature (Feature.VALIDATION_FEATURE_ID, validating);
+				}
+				catch (Exception error) {
+					factory.setValidating (validating);
+				}
+				
+				try {
+					factory.setFeature (Feature.SCHEMA_VALIDATION_FEATURE_ID, schemaValidating);
+				}
+				catch (Exception error) {
+					logger.severe ("JAXP implementation does not support schema validation");
+				}
+	
+				try {
+					factory.setFeature (Feature.SCHEMA_FULL_CHECKING_FEATURE_ID, fullSchemaChecks);
+				}
+				catch (IllegalArgumentException error) {
+					logger.severe ("JAXP implementation does not suppoty full schema checking");
+				}
+	
+				parser = factory.newSAXParser ();
+			}
+		}
+		
+		XMLReader reader = parser.getXMLReader ();
+		
+		if (entityResolver != null)
+			reader.setEntityResolver (entityResolver);
+
+		if (errorHandler != null)
+			reader.setErrorHandler (errorHandler);
+		
+		return (parser);
+	}
+	
+	/**
+	 * Resets a JAXP <CODE>SAXParser</CODE> and returns it to the
+	 * <CODE>ParserPool</CODE>.
+	 * 
+	 * @param 	parser			The JAXP <CODE>SAXParser</CODE> to be released.
+	 * @since	TFP 1.9
+	 */
+	private void releaseParser (javax.xml.parsers.SAXParser parser)
+	{
+		parser.reset ();
+		ParserPool.release (key, parser);
+	}
 }
\ No newline at end of file
@@ -14,7 +14,6 @@
 package com.handcoded.xml.resolver;
 
 import java.io.IOException;
-import java.util.Stack;
 import java.util.logging.Logger;
 
 import javax.xml.transform.stream.StreamSource;
@@ -23,11 +22,12 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.ext.EntityResolver2;
 
-import com.handcoded.framework.Application;
-
 /**
  * The <CODE>Catalog</CODE> provides a configurable <CODE>EntityResolver
  * </CODE> for a SAX or DOM based XML parser.
+ * <P>
+ * The content of resolved resources is held in the shared
+ * <CODE>EntityCache</CODE> so that each is only read once.
  *
  * @author	BitWise
  * @version	$Id$
@@ -67,12 +67,12 @@ public final class Catalog implements EntityResolver2
 //		logger.info ("\npublicId = " + ((publicId != null) ? publicId : "null") +
 //					 "\nsystemId = " + ((systemId != null) ? systemId : "null"));
 
-		String				result = definition.applyRules (publicId, systemId, new Stack<GroupEntry> ());
+		String				result = definition.applyRules (publicId, systemId, null);
 		
 //		logger.info ("\nresult   = " + ((result   != null) ? result   : "null"));
 
 		if (result != null) {
-			return (new InputSource (Application.openStream (result)));
+			return (new InputSource (EntityCache.getDefault ().openStream (result)));
 		}
 		
 		return (null);
@@ -89,12 +89,12 @@ public final class Catalog implements EntityResolver2
 //				     "\nbaseUri = " + ((baseUri != null) ? baseUri : "null") +
 //				     "\nsystemId = " + ((systemId != null) ? systemId : "null"));
 
-		String				result = definition.applyRules (publicId, systemId, new Stack<GroupEntry> ());
+		String				result = definition.applyRules (publicId, systemId, null);
 		
 //		logger.info ("\nresult   = " + ((result   != null) ? result   : "null"));
 
 		if (result != null) {
-			return (new InputSource (Application.openStream (result)));
+			return (new InputSource (EntityCache.getDefault ().openStream (result)));
 		}
 
 		return (null);
@@ -124,7 +124,7 @@ public final class Catalog implements EntityResolver2
 		String				result = resolve (uri);
 		
 		if (result != null) {
-			return new StreamSource (Application.openStream (uri), uri);
+			return new StreamSource (EntityCache.getDefault ().openStream (uri), uri);
 		}
 		return (null);	
 	}
@@ -141,7 +141,7 @@ public final class Catalog implements EntityResolver2
 	{
 //		logger.info ("\nuri    = " + ((uri != null) ? uri : "null"));
 
-		String				result = definition.applyRules (uri, new Stack<GroupEntry> ());
+		String				result = definition.applyRules (uri, null);
 
 //		logger.info ("\nresult = " + ((result != null) ? result   : "null"));
 		return (result);	
@@ -47,7 +47,7 @@ final class CatalogEntry extends GroupEntry
 	{
 		GroupEntry		result = new GroupEntry (this, prefer, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -0,0 +1,498 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml.resolver;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Stack;
+
+import org.xml.sax.SAXException;
+
+/**
+ * The <CODE>CatalogIndex</CODE> class holds the rules of a
+ * <CODE>GroupEntry</CODE> (including those in nested groups) compiled into
+ * lookup structures so that resolution does not need to scan every entry.
+ * <P>
+ * Exact system, public and URI entries are held in hash tables keyed by
+ * their normalised <CODE>URI</CODE>. Rewrite and delegate entries are held
+ * in prefix tries so that the longest matching prefix is found directly, and
+ * delegates are tried from the longest prefix to the shortest as the OASIS
+ * specification requires. Where several entries match equally the first in
+ * document order is used.
+ * <P>
+ * An index is immutable once built and may be shared between threads.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class CatalogIndex
+{
+	/**
+	 * Compiles the rules held by a <CODE>GroupEntry</CODE> and any groups
+	 * nested within it.
+	 *
+	 * @param 	group			The <CODE>GroupEntry</CODE> to be indexed.
+	 * @since	TFP 1.9
+	 */
+	CatalogIndex (final GroupEntry group)
+	{
+		this.group = group;
+
+		compile (group, new HashMap<String, ExactIndex> ());
+	}
+
+	/**
+	 * Implements the OASIS search rules for entity resources.
+	 *
+	 * @param	publicId		The public identifier of the external entity
+	 *							being referenced, or null if none was supplied.
+	 * @param	systemId		The system identifier of the external entity
+	 *							being referenced.
+	 * @param	catalogs		A stack of catalogs being processed used to
+	 *							detect circular dependency or <CODE>null</CODE>
+	 *							if none has been created yet.
+	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
+	 * @throws	SAXException If an error occurs during processing.
+	 * @since	TFP 1.9
+	 */
+	String applyRules (final String publicId, final String systemId,
+			Stack<GroupEntry> catalogs)
+		throws SAXException
+	{
+		String				result;
+
+		// If a system identifier is provided then try to match it explicitly
+		// or through a rewriting rule or delegation.
+		if ((systemId != null) && (systemId.length () > 0)) {
+			if (!systems.isEmpty ()) {
+				int			position = systems.lookup (SystemEntry.targetUri (systemId));
+
+				if (position != NONE)
+					return (systemEntries.get (position).getTarget ());
+			}
+
+			RewriteSystemEntry	rewrite = rewriteSystems.longestMatch (systemId);
+
+			if (rewrite != null)
+				return (rewrite.applyTo (publicId, systemId, catalogs));
+
+			if (!delegateSystems.isEmpty ()) {
+				ArrayList<DelegateSystemEntry> delegates = delegateSystems.matches (systemId);
+
+				for (int index = 0; index < delegates.size (); ++index) {
+					catalogs = stack (catalogs);
+					if ((result = delegates.get (index).applyTo (publicId, systemId, catalogs)) != null)
+						return (result);
+				}
+			}
+		}
+
+		// If a public identifier is provided then try to match it explicitly
+		// or through delegation.
+		if ((publicId != null) && (publicId.length () > 0)) {
+			if (!publics.isEmpty ()) {
+				int			position = publics.lookup (PublicEntry.targetUri (publicId));
+
+				if (position != NONE)
+					return (publicEntries.get (position).getTarget ());
+			}
+
+			if (!delegatePublics.isEmpty ()) {
+				ArrayList<DelegatePublicEntry> delegates = delegatePublics.matches (publicId);
+
+				for (int index = 0; index < delegates.size (); ++index) {
+					catalogs = stack (catalogs);
+					if ((result = delegates.get (index).applyTo (publicId, systemId, catalogs)) != null)
+						return (result);
+				}
+			}
+		}
+
+		// Finally try any other chained catalogs
+		for (int index = 0; index < nextCatalogs.size (); ++index) {
+			catalogs = stack (catalogs);
+			if ((result = nextCatalogs.get (index).applyTo (publicId, systemId, catalogs)) != null)
+				return (result);
+		}
+
+		return (null);
+	}
+
+	/**
+	 * Implements OASIS search rules for URI based resources.
+	 *
+	 * @param 	uri				The URI of the required resource.
+	 * @param	catalogs		A stack of catalogs being processed used to
+	 *							detect circular dependency or <CODE>null</CODE>
+	 *							if none has been created yet.
+	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
+	 * @throws	SAXException If an error occurs during processing.
+	 * @since	TFP 1.9
+	 */
+	String applyRules (final String uri, Stack<GroupEntry> catalogs)
+		throws SAXException
+	{
+		String				result;
+
+		if ((uri != null) && (uri.length () > 0)) {
+			if (!uriBases.isEmpty ()) {
+				int			position = NONE;
+				SAXException failure = null;
+
+				// Each distinct xml:base gives a different target URI
+				for (int index = 0; index < uriBases.size (); ++index) {
+					ExactIndex	exact = uriBases.get (index);
+
+					if (exact.first >= position) continue;
+
+					try {
+						int			found = exact.find (uriEntries.get (exact.first).targetUri (uri));
+
+						if (found < position) {
+							position = found;
+							failure  = (found == exact.failedAt) ? exact.failure : null;
+						}
+					}
+					catch (SAXException error) {
+						position = exact.first;
+						failure  = error;
+					}
+				}
+
+				if (failure != null) throw failure;
+				if (position != NONE)
+					return (uriEntries.get (position).getTarget ());
+			}
+
+			RewriteUriEntry		rewrite = rewriteUris.longestMatch (uri);
+
+			if (rewrite != null)
+				return (rewrite.applyTo (uri, catalogs));
+
+			if (!delegateUris.isEmpty ()) {
+				ArrayList<DelegateUriEntry> delegates = delegateUris.matches (uri);
+
+				for (int index = 0; index < delegates.size (); ++index) {
+					catalogs = stack (catalogs);
+					if ((result = delegates.get (index).applyTo (uri, catalogs)) != null)
+						return (result);
+				}
+			}
+		}
+
+		// Finally try any other chained catalogs
+		for (int index = 0; index < nextCatalogs.size (); ++index) {
+			catalogs = stack (catalogs);
+			if ((result = nextCatalogs.get (index).applyTo (uri, catalogs)) != null)
+				return (result);
+		}
+
+		return (null);
+	}
+
+	/**
+	 * The position value used to indicate no match.
+	 * @since	TFP 1.9
+	 */
+	private static final int	NONE	= Integer.MAX_VALUE;
+
+	/**
+	 * Maps normalised <CODE>URI</CODE> keys to the position of the first
+	 * entry (in document order) that defines them. If an entry's key could
+	 * not be normalised the error is recorded so that it can be reported if
+	 * the search reaches that entry.
+	 * @since	TFP 1.9
+	 */
+	private static final class ExactIndex
+	{
+		/**
+		 * Determines if the index holds any entries.
+		 *
+		 * @return	<CODE>true</CODE> if no entries have been added.
+		 * @since	TFP 1.9
+		 */
+		boolean isEmpty ()
+		{
+			return (first == NONE);
+		}
+
+		/**
+		 * Adds the key for an entry.
+		 *
+		 * @param 	key				The normalised <CODE>URI</CODE> key.
+		 * @param 	position		The document order position of the entry.
+		 * @since	TFP 1.9
+		 */
+		void add (final URI key, int position)
+		{
+			if (first == NONE) first = position;
+			if (!positions.containsKey (key)) positions.put (key, position);
+		}
+
+		/**
+		 * Records an entry whose key could not be normalised.
+		 *
+		 * @param 	error			The <CODE>SAXException</CODE> raised.
+		 * @param 	position		The document order position of the entry.
+		 * @since	TFP 1.9
+		 */
+		void fail (final SAXException error, int position)
+		{
+			if (first == NONE) first = position;
+			if (failure == null) {
+				failure  = error;
+				failedAt = position;
+			}
+		}
+
+		/**
+		 * Finds the first entry matching a key or the first invalid entry,
+		 * whichever comes first.
+		 *
+		 * @param 	target			The normalised <CODE>URI</CODE> to match.
+		 * @return	The position of the entry or {@link #NONE}.
+		 * @since	TFP 1.9
+		 */
+		int find (final URI target)
+		{
+			Integer		position = positions.get (target);
+
+			return (Math.min ((position != null) ? position : NONE, failedAt));
+		}
+
+		/**
+		 * Finds the first entry matching a key, reporting any invalid entry
+		 * that would be reached before it.
+		 *
+		 * @param 	target			The normalised <CODE>URI</CODE> to match.
+		 * @return	The position of the entry or {@link #NONE}.
+		 * @throws	SAXException If an invalid entry is reached first.
+		 * @since	TFP 1.9
+		 */
+		int lookup (final URI target)
+			throws SAXException
+		{
+			int			position = find (target);
+
+			if ((position != NONE) && (position == failedAt)) throw failure;
+			return (position);
+		}
+
+		/**
+		 * The position of the first entry added.
+		 * @since	TFP 1.9
+		 */
+		int							first		= NONE;
+
+		/**
+		 * The position of the first invalid entry.
+		 * @since	TFP 1.9
+		 */
+		int							failedAt	= NONE;
+
+		/**
+		 * The error raised by the first invalid entry.
+		 * @since	TFP 1.9
+		 */
+		SAXException				failure		= null;
+
+		/**
+		 * The position of the first entry for each key.
+		 * @since	TFP 1.9
+		 */
+		private final HashMap<URI, Integer> positions = new HashMap<URI, Integer> ();
+	}
+
+	/**
+	 * The <CODE>GroupEntry</CODE> that was indexed.
+	 * @since	TFP 1.9
+	 */
+	private final GroupEntry	group;
+
+	/**
+	 * The <CODE>SystemEntry</CODE> rules in document order.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayList<SystemEntry> systemEntries = new ArrayList<SystemEntry> ();
+
+	/**
+	 * The index of system identifiers.
+	 * @since	TFP 1.9
+	 */
+	private final ExactIndex	systems	= new ExactIndex ();
+
+	/**
+	 * The <CODE>RewriteSystemEntry</CODE> rules by prefix.
+	 * @since	TFP 1.9
+	 */
+	private final PrefixTrie<RewriteSystemEntry> rewriteSystems = new PrefixTrie<RewriteSystemEntry> ();
+
+	/**
+	 * The <CODE>DelegateSystemEntry</CODE> rules by prefix.
+	 * @since	TFP 1.9
+	 */
+	private final PrefixTrie<DelegateSystemEntry> delegateSystems = new PrefixTrie<DelegateSystemEntry> ();
+
+	/**
+	 * The <CODE>PublicEntry</CODE> rules in document order.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayList<PublicEntry> publicEntries = new ArrayList<PublicEntry> ();
+
+	/**
+	 * The index of public identifiers.
+	 * @since	TFP 1.9
+	 */
+	private final ExactIndex	publics	= new ExactIndex ();
+
+	/**
+	 * The <CODE>DelegatePublicEntry</CODE> rules by prefix.
+	 * @since	TFP 1.9
+	 */
+	private final PrefixTrie<DelegatePublicEntry> delegatePublics = new PrefixTrie<DelegatePublicEntry> ();
+
+	/**
+	 * The <CODE>UriEntry</CODE> rules in document order.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayList<UriEntry> uriEntries = new ArrayList<UriEntry> ();
+
+	/**
+	 * An index of URI names for each distinct <CODE>xml:base</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayList<ExactIndex> uriBases = new ArrayList<ExactIndex> ();
+
+	/**
+	 * The <CODE>RewriteUriEntry</CODE> rules by prefix.
+	 * @since	TFP 1.9
+	 */
+	private final PrefixTrie<RewriteUriEntry> rewriteUris = new PrefixTrie<RewriteUriEntry> ();
+
+	/**
+	 * The <CODE>DelegateUriEntry</CODE> rules by prefix.
+	 * @since	TFP 1.9
+	 */
+	private final PrefixTrie<DelegateUriEntry> delegateUris = new PrefixTrie<DelegateUriEntry> ();
+
+	/**
+	 * The <CODE>NextCatalogEntry</CODE> rules in document order.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayList<NextCatalogEntry> nextCatalogs = new ArrayList<NextCatalogEntry> ();
+
+	/**
+	 * Adds the rules of a <CODE>GroupEntry</CODE> to the index, recursing
+	 * into any nested groups.
+	 *
+	 * @param 	entry			The <CODE>GroupEntry</CODE> to process.
+	 * @param 	bases			The URI name index for each <CODE>xml:base</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private void compile (final GroupEntry entry, HashMap<String, ExactIndex> bases)
+	{
+		for (int index = 0; index < entry.rules.size (); ++index) {
+			CatalogComponent	rule = entry.rules.elementAt (index);
+
+			if (rule instanceof SystemEntry) {
+				SystemEntry	system = (SystemEntry) rule;
+
+				try {
+					systems.add (system.getSystemUri (), systemEntries.size ());
+				}
+				catch (SAXException error) {
+					systems.fail (error, systemEntries.size ());
+				}
+				systemEntries.add (system);
+			}
+			else if (rule instanceof RewriteSystemEntry) {
+				RewriteSystemEntry rewrite = (RewriteSystemEntry) rule;
+
+				rewriteSystems.add (rewrite.getPrefix (), rewrite);
+			}
+			else if (rule instanceof DelegateSystemEntry) {
+				DelegateSystemEntry	delegate = (DelegateSystemEntry) rule;
+
+				delegateSystems.add (delegate.getPrefix (), delegate);
+			}
+			else if (rule instanceof PublicEntry) {
+				PublicEntry	pub = (PublicEntry) rule;
+
+				try {
+					publics.add (pub.getPublicUri (), publicEntries.size ());
+				}
+				catch (SAXException error) {
+					publics.fail (error, publicEntries.size ());
+				}
+				publicEntries.add (pub);
+			}
+			else if (rule instanceof DelegatePublicEntry) {
+				DelegatePublicEntry	delegate = (DelegatePublicEntry) rule;
+
+				delegatePublics.add (delegate.getPrefix (), delegate);
+			}
+			else if (rule instanceof UriEntry) {
+				UriEntry	uri = (UriEntry) rule;
+				ExactIndex	exact = bases.get (uri.getXmlBase ());
+
+				if (exact == null) {
+					bases.put (uri.getXmlBase (), exact = new ExactIndex ());
+					uriBases.add (exact);
+				}
+
+				try {
+					exact.add (uri.getNameUri (), uriEntries.size ());
+				}
+				catch (SAXException error) {
+					exact.fail (error, uriEntries.size ());
+				}
+				uriEntries.add (uri);
+			}
+			else if (rule instanceof RewriteUriEntry) {
+				RewriteUriEntry	rewrite = (RewriteUriEntry) rule;
+
+				rewriteUris.add (rewrite.getStartString (), rewrite);
+			}
+			else if (rule instanceof DelegateUriEntry) {
+				DelegateUriEntry delegate = (DelegateUriEntry) rule;
+
+				delegateUris.add (delegate.getStartString (), delegate);
+			}
+			else if (rule instanceof NextCatalogEntry)
+				nextCatalogs.add ((NextCatalogEntry) rule);
+			else if (rule instanceof GroupEntry)
+				compile ((GroupEntry) rule, bases);
+		}
+	}
+
+	/**
+	 * Ensures that a stack of catalogs exists before control passes to
+	 * another catalog, creating one that holds the indexed group if
+	 * necessary.
+	 *
+	 * @param 	catalogs		The current stack of catalogs or <CODE>null</CODE>.
+	 * @return	A stack of catalogs containing the indexed group.
+	 * @since	TFP 1.9
+	 */
+	private Stack<GroupEntry> stack (Stack<GroupEntry> catalogs)
+	{
+		if (catalogs == null) {
+			catalogs = new Stack<GroupEntry> ();
+			catalogs.push (group);
+		}
+		return (catalogs);
+	}
+}
\ No newline at end of file
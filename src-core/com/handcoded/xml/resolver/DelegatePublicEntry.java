@@ -59,6 +59,17 @@ final class DelegatePublicEntry extends RelativeEntry implements EntityRule
 		return (null);
 	}
 
+	/**
+	 * Provides the public identifier prefix matched by this entry.
+	 *
+	 * @return	The prefix to match against.
+	 * @since	TFP 1.9
+	 */
+	String getPrefix ()
+	{
+		return (prefix);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @since	TFP 1.0
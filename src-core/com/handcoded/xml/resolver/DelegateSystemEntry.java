@@ -60,6 +60,17 @@ final class DelegateSystemEntry extends RelativeEntry implements EntityRule
 		return (null);
 	}
 
+	/**
+	 * Provides the system identifier prefix matched by this entry.
+	 *
+	 * @return	The prefix to match against.
+	 * @since	TFP 1.9
+	 */
+	String getPrefix ()
+	{
+		return (prefix);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @since	TFP 1.0
@@ -48,6 +48,17 @@ final class DelegateUriEntry extends RelativeEntry implements UriRule
 		return (null);
 	}
 
+	/**
+	 * Provides the URI prefix matched by this entry.
+	 *
+	 * @return	The prefix to match against.
+	 * @since	TFP 1.9
+	 */
+	String getStartString ()
+	{
+		return (startString);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @since	TFP 1.0
@@ -0,0 +1,380 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml.resolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.handcoded.framework.Application;
+
+/**
+ * The <CODE>EntityCache</CODE> class holds the content of resources
+ * resolved through a <CODE>Catalog</CODE> so that the DTD modules and
+ * schema files used by each document are read from the file system (or an
+ * application JAR) only once.
+ * <P>
+ * Entries are keyed by the resolved URI and the least recently used are
+ * discarded when the total size exceeds the cache's capacity. Resources
+ * larger than the capacity are never cached. Local files above the mapping
+ * threshold may optionally be memory mapped rather than copied onto the
+ * heap.
+ * <P>
+ * The cache assumes that resolved resources do not change while the
+ * application is running. Call {@link #clear()} if they do.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class EntityCache
+{
+	/**
+	 * The default capacity of the shared cache in bytes.
+	 * @since	TFP 1.9
+	 */
+	public static final long	DEFAULT_CAPACITY	= 16 * 1024 * 1024;
+
+	/**
+	 * Provides access to the cache shared by all <CODE>Catalog</CODE>
+	 * instances.
+	 *
+	 * @return	The shared <CODE>EntityCache</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public static EntityCache getDefault ()
+	{
+		return (defaultCache);
+	}
+
+	/**
+	 * Constructs an empty <CODE>EntityCache</CODE> with the given capacity.
+	 *
+	 * @param 	capacity		The maximum total size of the cached
+	 * 							resources in bytes (zero to disable caching).
+	 * @since	TFP 1.9
+	 */
+	public EntityCache (long capacity)
+	{
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Provides the maximum total size of the cached resources.
+	 *
+	 * @return	The capacity in bytes.
+	 * @since	TFP 1.9
+	 */
+	public synchronized long getCapacity ()
+	{
+		return (capacity);
+	}
+
+	/**
+	 * Changes the maximum total size of the cached resources, discarding
+	 * entries if necessary.
+	 *
+	 * @param 	capacity		The new capacity in bytes (zero to disable
+	 * 							caching).
+	 * @since	TFP 1.9
+	 */
+	public synchronized void setCapacity (long capacity)
+	{
+		this.capacity = capacity;
+		trim ();
+	}
+
+	/**
+	 * Provides the size above which local files are memory mapped.
+	 *
+	 * @return	The threshold in bytes or zero if mapping is disabled.
+	 * @since	TFP 1.9
+	 */
+	public synchronized long getMappingThreshold ()
+	{
+		return (mappingThreshold);
+	}
+
+	/**
+	 * Sets the size above which local files are memory mapped instead of
+	 * being copied onto the heap.
+	 *
+	 * @param 	threshold		The threshold in bytes or zero to disable
+	 * 							memory mapping.
+	 * @since	TFP 1.9
+	 */
+	public synchronized void setMappingThreshold (long threshold)
+	{
+		mappingThreshold = threshold;
+	}
+
+	/**
+	 * Provides the total size of the resources currently cached.
+	 *
+	 * @return	The size in bytes.
+	 * @since	TFP 1.9
+	 */
+	public synchronized long size ()
+	{
+		return (size);
+	}
+
+	/**
+	 * Discards all the cached resources.
+	 * @since	TFP 1.9
+	 */
+	public synchronized void clear ()
+	{
+		entries.clear ();
+		size = 0;
+	}
+
+	/**
+	 * Opens a stream to read the content of a resolved resource, serving it
+	 * from memory if it has been read before.
+	 *
+	 * @param 	uri				The resolved URI of the resource.
+	 * @return	An <CODE>InputStream</CODE> attached to the resource's content
+	 * 			or <CODE>null</CODE> if it could not be opened.
+	 * @since	TFP 1.9
+	 */
+	public InputStream openStream (final String uri)
+	{
+		ByteBuffer		content;
+		long			threshold;
+
+		synchronized (this) {
+			if (capacity <= 0) return (Application.openStream (uri));
+
+			if ((content = entries.get (uri)) != null)
+				return (open (content));
+
+			threshold = mappingThreshold;
+		}
+
+		try {
+			if ((content = load (uri, threshold)) == null) return (null);
+		}
+		catch (IOException error) {
+			logger.log (Level.SEVERE, "Failed to read resource '" + uri + "'", error);
+			return (null);
+		}
+
+		synchronized (this) {
+			if ((content.capacity () <= capacity) && !entries.containsKey (uri)) {
+				entries.put (uri, content);
+				size += content.capacity ();
+				trim ();
+			}
+		}
+		return (open (content));
+	}
+
+	/**
+	 * The <CODE>InputStream</CODE> used to read memory mapped content.
+	 * @since	TFP 1.9
+	 */
+	private static final class BufferInputStream extends InputStream
+	{
+		/**
+		 * Constructs a <CODE>BufferInputStream</CODE> that reads the content
+		 * of a <CODE>ByteBuffer</CODE>.
+		 *
+		 * @param 	buffer			The <CODE>ByteBuffer</CODE> to read (which
+		 * 							must not be shared).
+		 * @since	TFP 1.9
+		 */
+		BufferInputStream (final ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int read ()
+		{
+			return (buffer.hasRemaining () ? (buffer.get () & 0xFF) : -1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int read (byte [] bytes, int offset, int length)
+		{
+			if (length == 0) return (0);
+			if (!buffer.hasRemaining ()) return (-1);
+
+			length = Math.min (length, buffer.remaining ());
+			buffer.get (bytes, offset, length);
+			return (length);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int available ()
+		{
+			return (buffer.remaining ());
+		}
+
+		/**
+		 * The buffer being read.
+		 * @since	TFP 1.9
+		 */
+		private final ByteBuffer	buffer;
+	}
+
+	/**
+	 * <CODE>Logger</CODE> instance used to report problems.
+	 * @since	TFP 1.9
+	 */
+	private static Logger		logger
+		= Logger.getLogger ("com.handcoded.xml.resolver.EntityCache");
+
+	/**
+	 * The cache shared by all <CODE>Catalog</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	private static EntityCache	defaultCache
+		= new EntityCache (DEFAULT_CAPACITY);
+
+	/**
+	 * The cached content indexed by URI in least recently used order.
+	 * @since	TFP 1.9
+	 */
+	private final LinkedHashMap<String, ByteBuffer> entries
+		= new LinkedHashMap<String, ByteBuffer> (16, 0.75f, true);
+
+	/**
+	 * The maximum total size of the cached content.
+	 * @since	TFP 1.9
+	 */
+	private long				capacity;
+
+	/**
+	 * The size above which local files are memory mapped (or zero).
+	 * @since	TFP 1.9
+	 */
+	private long				mappingThreshold	= 0;
+
+	/**
+	 * The total size of the cached content.
+	 * @since	TFP 1.9
+	 */
+	private long				size				= 0;
+
+	/**
+	 * Creates an <CODE>InputStream</CODE> that reads the content of a cached
+	 * buffer.
+	 *
+	 * @param 	content			The cached content.
+	 * @return	A new <CODE>InputStream</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static InputStream open (final ByteBuffer content)
+	{
+		if (content.hasArray ())
+			return (new ByteArrayInputStream (content.array (),
+					content.arrayOffset (), content.capacity ()));
+
+		return (new BufferInputStream (content.duplicate ()));
+	}
+
+	/**
+	 * Reads the content of a resource.
+	 *
+	 * @param 	uri				The resolved URI of the resource.
+	 * @param 	threshold		The size above which local files are mapped.
+	 * @return	The content or <CODE>null</CODE> if the resource could not be
+	 * 			opened.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static ByteBuffer load (final String uri, long threshold)
+		throws IOException
+	{
+		if ((threshold > 0) && uri.startsWith ("file:")) {
+			File		file;
+
+			try {
+				file = new File (new URI (uri));
+			}
+			catch (Exception error) {
+				file = null;
+			}
+
+			if ((file != null) && file.isFile () && (file.length () > threshold)) {
+				RandomAccessFile	access = new RandomAccessFile (file, "r");
+
+				try {
+					return (access.getChannel ().map (FileChannel.MapMode.READ_ONLY, 0, access.length ()));
+				}
+				finally {
+					access.close ();
+				}
+			}
+		}
+
+		InputStream		stream = Application.openStream (uri);
+
+		if (stream == null) return (null);
+
+		try {
+			ByteArrayOutputStream	buffer = new ByteArrayOutputStream ();
+			byte []					bytes  = new byte [8192];
+			int						length;
+
+			while ((length = stream.read (bytes)) != -1)
+				buffer.write (bytes, 0, length);
+
+			return (ByteBuffer.wrap (buffer.toByteArray ()));
+		}
+		finally {
+			stream.close ();
+		}
+	}
+
+	/**
+	 * Discards the least recently used entries until the total size is
+	 * within the capacity.
+	 * @since	TFP 1.9
+	 */
+	private void trim ()
+	{
+		Iterator<Map.Entry<String, ByteBuffer>> cursor = entries.entrySet ().iterator ();
+
+		while ((size > capacity) && cursor.hasNext ()) {
+			size -= cursor.next ().getValue ().capacity ();
+			cursor.remove ();
+		}
+	}
+}
\ No newline at end of file
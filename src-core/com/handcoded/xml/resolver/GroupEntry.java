@@ -75,7 +75,7 @@ class GroupEntry extends RelativeEntry
 	{
 		PublicEntry		result = new PublicEntry (this, publicId, uri, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 	
@@ -107,7 +107,7 @@ class GroupEntry extends RelativeEntry
 	{
 		SystemEntry		result = new SystemEntry (this, systemId, uri, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -138,7 +138,7 @@ class GroupEntry extends RelativeEntry
 	{
 		RewriteSystemEntry	result = new RewriteSystemEntry (this, startString, rewritePrefix);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -158,7 +158,7 @@ class GroupEntry extends RelativeEntry
 	{
 		DelegateSystemEntry	result  = new DelegateSystemEntry (this, startString, catalog, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -193,7 +193,7 @@ class GroupEntry extends RelativeEntry
 	{
 		DelegatePublicEntry	result  = new DelegatePublicEntry (this, startString, catalog, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -226,7 +226,7 @@ class GroupEntry extends RelativeEntry
 	{
 		UriEntry	result  = new UriEntry (this, name, uri, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 	
@@ -256,7 +256,7 @@ class GroupEntry extends RelativeEntry
 	{
 		RewriteUriEntry		result = new RewriteUriEntry (this, startString, rewritePrefix);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 	
@@ -274,7 +274,7 @@ class GroupEntry extends RelativeEntry
 	{
 		DelegateUriEntry	result = new DelegateUriEntry (this, startString, catalog, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 	
@@ -307,7 +307,7 @@ class GroupEntry extends RelativeEntry
 	{
 		NextCatalogEntry	result = new NextCatalogEntry (this, catalog, xmlbase);
 		
-		rules.add (result);
+		addRule (result);
 		return (result);
 	}
 
@@ -362,7 +362,8 @@ class GroupEntry extends RelativeEntry
 	 * @param	systemId		The system identifier of the external entity
 	 *							being referenced.
 	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
+	 *							detect circular dependency or <CODE>null</CODE>
+	 *							if this is the first catalog searched.
 	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
 	 * @throws	SAXException If an error occurs during processing.
 	 * @since	TFP 1.0
@@ -371,54 +372,19 @@ class GroupEntry extends RelativeEntry
 			Stack<GroupEntry> catalogs)
 		throws SAXException
 	{
-		String				result = null;
-
+		if (catalogs == null)
+			return (getIndex ().applyRules (publicId, systemId, null));
+		
 		if (catalogs.contains (this))
 			throw new SAXException ("Circular dependency in the XML Catalogs");
 
 		catalogs.push (this);
-
-		// If a system identifier is provided then try to match it explicitly
-		// or through a rewriting rule or delegation.
-		if ((systemId != null) && (systemId.length () > 0)) {
-			if ((result = applySystemEntries (publicId, systemId, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-			
-			if ((result = applyRewriteSystemEntries (publicId, systemId, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-			
-			if ((result = applyDelegateSystemEntries (publicId, systemId, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
+		try {
+			return (getIndex ().applyRules (publicId, systemId, catalogs));
 		}
-
-		// If a public identifier is provided then try to match it explicitly
-		// or through delegation.
-		if ((publicId != null) && (publicId.length () > 0)) {
-			if ((result = applyPublicEntries (publicId, systemId, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-			
-			if ((result = applyDelegatePublicEntries (publicId, systemId, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-		}
-
-		// Finally try any other chained catalogs
-		if ((result = applyNextCatalogEntries (publicId, systemId, catalogs)) != null) {
+		finally {
 			catalogs.pop ();
-			return (result);
 		}
-
-		catalogs.pop ();
-		return (null);
 	}
 
 	/**
@@ -426,414 +392,68 @@ class GroupEntry extends RelativeEntry
 	 * 
 	 * @param 	uri				The URI of the required resource.
 	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
+	 *							detect circular dependency or <CODE>null</CODE>
+	 *							if this is the first catalog searched.
 	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
 	 * @throws	SAXException If an error occurs during processing.
 	 */
 	protected String applyRules (final String uri, Stack<GroupEntry> catalogs)
 		throws SAXException
 	{
-		String				result = null;
-
+		if (catalogs == null)
+			return (getIndex ().applyRules (uri, null));
+		
 		if (catalogs.contains (this))
 			throw new SAXException ("Circular dependency in the XML Catalogs");
 
 		catalogs.push (this);
-
-		if ((uri != null) && (uri.length () > 0)) {
-			if ((result = applyUriEntries (uri, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-			
-			if ((result = applyRewriteUriEntries (uri, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
-			
-			if ((result = applyDelegateUriEntries (uri, catalogs)) != null) {
-				catalogs.pop ();
-				return (result);
-			}
+		try {
+			return (getIndex ().applyRules (uri, catalogs));
 		}
-
-		// Finally try any other chained catalogs
-		if ((result = applyNextCatalogEntries (uri, catalogs)) != null) {
+		finally {
 			catalogs.pop ();
-			return (result);
 		}
-
-		catalogs.pop ();
-		return (null);
 	}
 
 	/**
-	 * The value of the prefer attribute.
-	 * @since	TFP 1.1
-	 */
-	private final String		prefer;
-	
-	/**
-	 * Applies all the <CODE>SystemEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
+	 * Adds a rule to this group and discards any index built for it or
+	 * the groups that contain it.
 	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
+	 * @param 	rule			The <CODE>CatalogComponent</CODE> to add.
+	 * @since	TFP 1.9
 	 */
-	private String applySystemEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
+	protected final void addRule (final CatalogComponent rule)
 	{
-		String		result = null;
+		rules.add (rule);
 		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof SystemEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applySystemEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
+		for (GroupEntry entry = this; entry != null; entry = entry.getParent ())
+			entry.index = null;
 	}
 
 	/**
-	 * Applies all the <CODE>RewriteSystemEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyRewriteSystemEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof RewriteSystemEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyRewriteSystemEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>DelegateSystemEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyDelegateSystemEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof DelegateSystemEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyDelegateSystemEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>PublicEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyPublicEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof PublicEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyPublicEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>DelegatePublicEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyDelegatePublicEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof DelegatePublicEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyDelegatePublicEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>NextCatalog</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param	publicId		The public identifier of the external entity
-	 *							being referenced, or null if none was supplied.
-	 * @param	systemId		The system identifier of the external entity
-	 *							being referenced.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws 	SAXException	If an occur was detected during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyNextCatalogEntries (final String publicId, final String systemId,
-			Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof NextCatalogEntry) {
-				if ((result = ((EntityRule) rule)
-						.applyTo (publicId, systemId, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyNextCatalogEntries (publicId, systemId, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>UriEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param 	uri				The URI of the required resource.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws	SAXException If an error occurs during processing.
-	 * @since	TFP 1.0 
+	 * The value of the prefer attribute.
+	 * @since	TFP 1.1
 	 */
-	private String applyUriEntries (final String uri, Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof UriEntry) {
-				if ((result = ((UriRule) rule)
-						.applyTo (uri, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyUriEntries (uri, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
+	private final String		prefer;
 	
 	/**
-	 * Applies all the <CODE>RewriteUriEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param 	uri				The URI of the required resource.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws	SAXException If an error occurs during processing.
-	 * @since	TFP 1.0 
+	 * The compiled form of the rules or <CODE>null</CODE> if it has not
+	 * been built yet.
+	 * @since	TFP 1.9
 	 */
-	private String applyRewriteUriEntries (final String uri, Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof RewriteUriEntry) {
-				if ((result = ((UriRule) rule)
-						.applyTo (uri, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyRewriteUriEntries (uri, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
+	private volatile CatalogIndex	index	= null;
 	
 	/**
-	 * Applies all the <CODE>DelegateUriEntry</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
-	 * 
-	 * @param 	uri				The URI of the required resource.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws	SAXException If an error occurs during processing.
-	 * @since	TFP 1.0 
-	 */
-	private String applyDelegateUriEntries (final String uri, Stack<GroupEntry> catalogs)
-		throws SAXException
-	{
-		String		result = null;
-		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof DelegateUriEntry) {
-				if ((result = ((UriRule) rule)
-						.applyTo (uri, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyDelegateUriEntries (uri, catalogs)) != null)
-					break;
-			}
-		}
-		return (result);
-	}
-
-	/**
-	 * Applies all the <CODE>NextCatalog</CODE> rules in the current
-	 * catalog recursing into <CODE>Group</CODE> definitions.
+	 * Provides the compiled form of the rules, building it when first used.
 	 * 
-	 * @param 	uri				The URI of the required resource.
-	 * @param	catalogs		A stack of catalogs being processed used to
-	 *							detect circular dependency.
-	 * @return  The URI of the resolved entity or <CODE>null</CODE>.
-	 * @throws	SAXException If an error occurs during processing.
-	 * @since	TFP 1.0 
+	 * @return	The <CODE>CatalogIndex</CODE> for this group.
+	 * @since	TFP 1.9
 	 */
-	private String applyNextCatalogEntries (final String uri, Stack<GroupEntry> catalogs)
-		throws SAXException
+	private CatalogIndex getIndex ()
 	{
-		String		result = null;
+		CatalogIndex	result = index;
 		
-		for (int index = 0; index < rules.size (); ++index) {
-			CatalogComponent	rule = (CatalogComponent) rules.elementAt (index);
-			
-			if (rule instanceof NextCatalogEntry) {
-				if ((result = ((UriRule) rule)
-						.applyTo (uri, catalogs)) != null)
-					break;
-			}
-			
-			if (rule instanceof GroupEntry) {
-				if ((result = ((GroupEntry) rule)
-						.applyNextCatalogEntries (uri, catalogs)) != null)
-					break;
-			}
-		}
+		if (result == null) index = result = new CatalogIndex (this);
 		return (result);
 	}
 }
\ No newline at end of file
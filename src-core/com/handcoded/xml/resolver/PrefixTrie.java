@@ -0,0 +1,186 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.xml.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The <CODE>PrefixTrie</CODE> class maps string prefixes to values so that
+ * all the prefixes of a given key can be found with a single walk down the
+ * trie. Values added with the same prefix are kept in the order they were
+ * added.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class PrefixTrie<T>
+{
+	/**
+	 * Determines if the trie contains any values.
+	 *
+	 * @return	<CODE>true</CODE> if no values have been added.
+	 * @since	TFP 1.9
+	 */
+	boolean isEmpty ()
+	{
+		return (size == 0);
+	}
+
+	/**
+	 * Adds a value for the given prefix.
+	 *
+	 * @param 	prefix			The prefix to be matched.
+	 * @param 	value			The associated value.
+	 * @since	TFP 1.9
+	 */
+	void add (final String prefix, final T value)
+	{
+		Node<T>		node = root;
+
+		for (int index = 0; index < prefix.length (); ++index)
+			node = node.child (prefix.charAt (index), true);
+
+		if (node.values == null) node.values = new ArrayList<T> (1);
+		node.values.add (value);
+		++size;
+	}
+
+	/**
+	 * Finds the first value added for the longest prefix of the key.
+	 *
+	 * @param 	key				The string to be matched.
+	 * @return	The matching value or <CODE>null</CODE> if no prefix matches.
+	 * @since	TFP 1.9
+	 */
+	T longestMatch (final String key)
+	{
+		Node<T>		node   = root;
+		T			result = null;
+
+		for (int index = 0;; ++index) {
+			if (node.values != null) result = node.values.get (0);
+
+			if ((index == key.length ())
+					|| ((node = node.child (key.charAt (index), false)) == null))
+				return (result);
+		}
+	}
+
+	/**
+	 * Finds all the values whose prefix matches the key, longest prefix
+	 * first.
+	 *
+	 * @param 	key				The string to be matched.
+	 * @return	The matching values (possibly empty).
+	 * @since	TFP 1.9
+	 */
+	ArrayList<T> matches (final String key)
+	{
+		ArrayList<ArrayList<T>>	found = new ArrayList<ArrayList<T>> ();
+		Node<T>		node  = root;
+
+		for (int index = 0;; ++index) {
+			if (node.values != null) found.add (node.values);
+
+			if ((index == key.length ())
+					|| ((node = node.child (key.charAt (index), false)) == null))
+				break;
+		}
+
+		ArrayList<T> result = new ArrayList<T> ();
+
+		for (int index = found.size (); index-- > 0;)
+			result.addAll (found.get (index));
+
+		return (result);
+	}
+
+	/**
+	 * A node within the trie.
+	 * @since	TFP 1.9
+	 */
+	private static final class Node<T>
+	{
+		/**
+		 * Finds (and optionally creates) the child node for a character.
+		 *
+		 * @param 	ch				The next character of the key.
+		 * @param 	create			Indicates if a missing node should be created.
+		 * @return	The child <CODE>Node</CODE> or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		@SuppressWarnings("unchecked")
+		Node<T> child (char ch, boolean create)
+		{
+			int			index = Arrays.binarySearch (keys, 0, count, ch);
+
+			if (index >= 0) return ((Node<T>) children [index]);
+			if (!create) return (null);
+
+			if (count == keys.length) {
+				keys	 = Arrays.copyOf (keys, Math.max (2, count * 2));
+				children = Arrays.copyOf (children, keys.length);
+			}
+
+			index = -(index + 1);
+			System.arraycopy (keys, index, keys, index + 1, count - index);
+			System.arraycopy (children, index, children, index + 1, count - index);
+			++count;
+
+			Node<T>		node = new Node<T> ();
+
+			keys [index]	 = ch;
+			children [index] = node;
+			return (node);
+		}
+
+		/**
+		 * The characters leading to each child in ascending order.
+		 * @since	TFP 1.9
+		 */
+		private char []			keys		= new char [0];
+
+		/**
+		 * The child nodes in the same order as <CODE>keys</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private Object []		children	= new Object [0];
+
+		/**
+		 * The number of children.
+		 * @since	TFP 1.9
+		 */
+		private int				count		= 0;
+
+		/**
+		 * The values whose prefix ends at this node or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		ArrayList<T>			values		= null;
+	}
+
+	/**
+	 * The root node, matching the empty prefix.
+	 * @since	TFP 1.9
+	 */
+	private final Node<T>		root	= new Node<T> ();
+
+	/**
+	 * The number of values held.
+	 * @since	TFP 1.9
+	 */
+	private int					size	= 0;
+}
\ No newline at end of file
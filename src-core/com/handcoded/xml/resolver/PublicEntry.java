@@ -57,39 +57,71 @@ final class PublicEntry extends RelativeEntry implements EntityRule
 			Stack<GroupEntry> catalogs)
 		throws SAXException
 	{
-		URI					targetUri;
-		URI					publicUri;
-		
-		// Convert the target PublicId value to a URI
+		// If they match then replace with the catalog URI
+		if (getPublicUri ().equals (targetUri (publicId)))
+			return (getTarget ());
+
+		return (null);
+	}
+	
+	/**
+	 * Converts a public identifier being resolved into a <CODE>URI</CODE>
+	 * that can be compared with those held in catalog entries.
+	 *
+	 * @param 	publicId		The public identifier being resolved.
+	 * @return	The equivalent <CODE>URI</CODE>.
+	 * @throws	SAXException If the identifier is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	static URI targetUri (final String publicId)
+		throws SAXException
+	{
 		try {
 			if (publicId.startsWith ("file:"))
-				targetUri = new File (publicId.substring (5)).toURI ();
+				return (new File (publicId.substring (5)).toURI ());
 			else
-				targetUri = new URI (unwrap (publicId));
+				return (new URI (unwrap (publicId)));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise targetId", error);
 		}
-	
-		// Convert the catalog PublicId value to a URI
+	}
+
+	/**
+	 * Converts the catalog public identifier value into a <CODE>URI</CODE>
+	 * resolved against the <CODE>xml:base</CODE>.
+	 *
+	 * @return	The <CODE>URI</CODE> to match against.
+	 * @throws	SAXException If the identifier is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	URI getPublicUri ()
+		throws SAXException
+	{
 		try {
-			publicUri = baseAsUri ().resolve (new URI (unwrap (this.publicId)));
+			return (baseAsUri ().resolve (new URI (unwrap (this.publicId))));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise publicId", error);
 		}
-		
-		// If they match then replace with the catalog URI
-		if (publicUri.equals (targetUri)) {
-			try {
-				return (baseAsUri ().resolve (new URI (uri)).toString ());
-			}
-			catch (URISyntaxException error) {
-				throw new SAXException ("Failed to resolve target URI", error);
-			}
-		}
+	}
 
-		return (null);
+	/**
+	 * Resolves the replacement URI against the <CODE>xml:base</CODE>.
+	 *
+	 * @return	The URI of the resolved entity.
+	 * @throws	SAXException If the URI cannot be resolved.
+	 * @since	TFP 1.9
+	 */
+	String getTarget ()
+		throws SAXException
+	{
+		try {
+			return (baseAsUri ().resolve (new URI (uri)).toString ());
+		}
+		catch (URISyntaxException error) {
+			throw new SAXException ("Failed to resolve target URI", error);
+		}
 	}
 	
 	/**
@@ -128,7 +160,7 @@ final class PublicEntry extends RelativeEntry implements EntityRule
 	 * 			a new URI constructed by the unwrapping process.
 	 * @since	TFP 1.0
 	 */
-	private String unwrap (String name)
+	private static String unwrap (String name)
 	{
 		if (name.indexOf ("//") != -1) {
 			StringBuffer buffer = new StringBuffer ();
@@ -59,6 +59,17 @@ final class RewriteSystemEntry extends CatalogComponent implements EntityRule
 		return (null);
 	}
 
+	/**
+	 * Provides the system identifier prefix matched by this entry.
+	 *
+	 * @return	The prefix to match against.
+	 * @since	TFP 1.9
+	 */
+	String getPrefix ()
+	{
+		return (oldPrefix);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @since	TFP 1.0
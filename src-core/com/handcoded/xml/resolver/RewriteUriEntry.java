@@ -55,6 +55,17 @@ final class RewriteUriEntry extends CatalogComponent implements UriRule
 		return (null);
 	}
 
+	/**
+	 * Provides the URI prefix matched by this entry.
+	 *
+	 * @return	The prefix to match against.
+	 * @since	TFP 1.9
+	 */
+	String getStartString ()
+	{
+		return (startString);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @since	TFP 1.0
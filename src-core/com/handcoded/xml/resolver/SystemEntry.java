@@ -57,39 +57,70 @@ final class SystemEntry extends RelativeEntry implements EntityRule
 			Stack<GroupEntry> catalogs)
 		throws SAXException
 	{
-		URI					targetUri;
-		URI					systemUri;
-		
-		// Convert the target SystemId value to a URI
+		// If they match then replace with the catalog URI
+		if (getSystemUri ().equals (targetUri (systemId)))
+			return (getTarget ());
+
+		return (null);
+	}
+
+	/**
+	 * Converts a system identifier being resolved into a <CODE>URI</CODE>
+	 * that can be compared with those held in catalog entries.
+	 *
+	 * @param 	systemId		The system identifier being resolved.
+	 * @return	The equivalent <CODE>URI</CODE>.
+	 * @throws	SAXException If the identifier is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	static URI targetUri (final String systemId)
+		throws SAXException
+	{
 		try {
 			if (systemId.startsWith ("file:"))
-				targetUri = new File (systemId.substring (5)).toURI ();
+				return (new File (systemId.substring (5)).toURI ());
 			else
-				targetUri = new URI (systemId);
+				return (new URI (systemId));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise targetId", error);
 		}
-	
-		// Convert the catalog SystemId value to a URI
+	}
+
+	/**
+	 * Converts the catalog system identifier value into a <CODE>URI</CODE>.
+	 *
+	 * @return	The <CODE>URI</CODE> to match against.
+	 * @throws	SAXException If the identifier is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	URI getSystemUri ()
+		throws SAXException
+	{
 		try {
-			systemUri = new URI (this.systemId);
+			return (new URI (this.systemId));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise systemId", error);
 		}
-		
-		// If they match then replace with the catalog URI
-		if (systemUri.equals (targetUri)) {
-			try {
-				return (baseAsUri ().resolve (new URI (uri)).toString ());
-			}
-			catch (URISyntaxException error) {
-				throw new SAXException ("Failed to resolve target URI", error);
-			}
-		}
+	}
 
-		return (null);
+	/**
+	 * Resolves the replacement URI against the <CODE>xml:base</CODE>.
+	 *
+	 * @return	The URI of the resolved entity.
+	 * @throws	SAXException If the URI cannot be resolved.
+	 * @since	TFP 1.9
+	 */
+	String getTarget ()
+		throws SAXException
+	{
+		try {
+			return (baseAsUri ().resolve (new URI (uri)).toString ());
+		}
+		catch (URISyntaxException error) {
+			throw new SAXException ("Failed to resolve target URI", error);
+		}
 	}
 
 	/**
@@ -55,47 +55,79 @@ final class UriEntry extends RelativeEntry implements UriRule
 	public String applyTo (final String uri, Stack<GroupEntry> catalogs)
 		throws SAXException
 	{
-		URI					targetUri;
-		URI					systemUri;
-		
-		// Convert the target uri value to a URI
+		// If they match then replace with the catalog URI
+		if (getNameUri ().equals (targetUri (uri)))
+			return (getTarget ());
+
+		return (null);
+	}
+
+	/**
+	 * Converts a URI being resolved into a <CODE>URI</CODE> relative to this
+	 * entry's <CODE>xml:base</CODE> that can be compared with its name.
+	 *
+	 * @param 	uri				The URI being resolved.
+	 * @return	The equivalent <CODE>URI</CODE>.
+	 * @throws	SAXException If the value is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	URI targetUri (final String uri)
+		throws SAXException
+	{
 		try {
 			if (uri.startsWith ("file:"))
-				targetUri = new File (uri.substring (5)).toURI ();
+				return (new File (uri.substring (5)).toURI ());
 			else
-				targetUri = baseAsUri ().resolve (new URI (uri));
+				return (baseAsUri ().resolve (new URI (uri)));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise target URI", error);
 		}
-	
-		// Convert the catalog name value to a URI
+	}
+
+	/**
+	 * Converts the catalog name value into a <CODE>URI</CODE> resolved
+	 * against the <CODE>xml:base</CODE>.
+	 *
+	 * @return	The <CODE>URI</CODE> to match against.
+	 * @throws	SAXException If the name is not a valid URI.
+	 * @since	TFP 1.9
+	 */
+	URI getNameUri ()
+		throws SAXException
+	{
 		try {
-			systemUri = baseAsUri ().resolve (new URI (name));
+			return (baseAsUri ().resolve (new URI (name)));
 		}
 		catch (URISyntaxException error) {
 			throw new SAXException ("Failed to normalise name", error);
 		}
-		
-		// If they match then replace with the catalog URI
-		if (systemUri.equals (targetUri)) {
-			try {
-				URI base = baseAsUri ();
-				
-				// Resolve JAR URI references the hard way 
-				if (base.getScheme () != null && base.getScheme ().equals ("jar")) {
-					String [] parts = base.toString().split ("!");
-					return (parts [0] + "!" + new URI (parts [1]).resolve (new URI (this.uri)).toString ());
-				}
-				else
-					return (base.resolve (new URI (this.uri)).toString ());
-			}
-			catch (URISyntaxException error) {
-				throw new SAXException ("Failed to resolve new URI", error);
+	}
+
+	/**
+	 * Resolves the replacement URI against the <CODE>xml:base</CODE>.
+	 *
+	 * @return	The URI of the resolved resource.
+	 * @throws	SAXException If the URI cannot be resolved.
+	 * @since	TFP 1.9
+	 */
+	String getTarget ()
+		throws SAXException
+	{
+		try {
+			URI base = baseAsUri ();
+			
+			// Resolve JAR URI references the hard way 
+			if (base.getScheme () != null && base.getScheme ().equals ("jar")) {
+				String [] parts = base.toString().split ("!");
+				return (parts [0] + "!" + new URI (parts [1]).resolve (new URI (this.uri)).toString ());
 			}
+			else
+				return (base.resolve (new URI (this.uri)).toString ());
+		}
+		catch (URISyntaxException error) {
+			throw new SAXException ("Failed to resolve new URI", error);
 		}
-
-		return (null);
 	}
 
 	/**
@@ -17,10 +17,12 @@ import java.io.File;
 
 import org.w3c.dom.Document;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 
 import com.handcoded.fpml.validation.AllRules;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
+import com.handcoded.validation.ValidationOptions;
 import com.handcoded.xml.XmlUtility;
 
 /**
@@ -103,6 +105,29 @@ public final class FpMLUtility
 				XmlUtility.getDefaultCatalog (), errorHandler));
 	}
 
+	/**
+	 * Parses an XML document from the given <CODE>InputSource</CODE> passing
+	 * any reported errors to the <CODE>ErrorHandler</CODE> instance. The
+	 * <CODE>schemaOnly</CODE> argument indicates if both DTD and schema,
+	 * or just schema documents should be supported.
+	 *
+	 * @param	schemaOnly		Indicates only schema based documents to be processed. 
+	 * @param	source			The <CODE>InputSource</CODE> to process XML from.
+	 * @param	errorHandler	The <CODE>ErrorHandler</CODE> instance or <CODE>null</CODE>
+	 * @return	A <CODE>Document</CODE> instance constructed from the XML document.
+	 * @throws	IllegalArgumentException If the <CODE>InputSource</CODE> has
+	 * 			no character stream, byte stream or system identifier.
+	 * @since	TFP 1.9
+	 */
+	public static Document parse (boolean schemaOnly, InputSource source, ErrorHandler errorHandler)
+	{
+		return (
+			XmlUtility.validatingParse (
+				(schemaOnly ? XmlUtility.SCHEMA_ONLY : XmlUtility.DTD_OR_SCHEMA), source,
+				XmlUtility.getDefaultSchemaSet ().getSchema (),
+				XmlUtility.getDefaultCatalog (), errorHandler));
+	}
+
 	/**
 	 * Uses the given <CODE>RuleSet</CODE> to perform a semantic validation of
 	 * the DOM <CODE>Document</CODE> and reports errors (if any).
@@ -120,6 +145,27 @@ public final class FpMLUtility
 		return (rules.validate (document, validationErrorHandler));
 	}
 
+	/**
+	 * Uses the given <CODE>RuleSet</CODE> to perform a semantic validation of
+	 * the DOM <CODE>Document</CODE> and reports errors (if any), stopping
+	 * early if the <CODE>ValidationOptions</CODE> allow it.
+	 *
+	 * @param 	document		The <CODE>Document</CODE> to be validated.
+	 * @param 	rules			The <CODE>RuleSet</CODE> to use.
+	 * @param 	validationErrorHandler	The <CODE>ValidationErrorHandler</CODE> used to report issues.
+	 * @param	options			The <CODE>ValidationOptions</CODE> controlling
+	 * 							how many errors are reported.
+	 * @return	<CODE>true</CODE> if the <CODE>Document</CODE> successfully passed
+	 * 			all applicable rules, <CODE>false</CODE> if one or more rules
+	 * 			failed.
+	 * @since	TFP 1.9
+	 */
+	public static boolean validate (final Document document, final RuleSet rules,
+			final ValidationErrorHandler validationErrorHandler, final ValidationOptions options)
+	{
+		return (rules.validate (document, validationErrorHandler, options));
+	}
+
 	/**
 	 * Uses the default FpML  <CODE>RuleSet</CODE> to perform a semantic validation of
 	 * the DOM <CODE>Document</CODE> and reports errors (if any).
@@ -250,6 +296,28 @@ public final class FpMLUtility
 		return ((document != null) ? rules.validate (document, validationErrorHandler) : false);
 	}
 	
+	/**
+	 * Attempts to parse an XML document from the indicated <CODE>InputSource</CODE>
+	 * and then pass it through the specified validation rule set.
+	 * <P>
+	 * This function does not provide any access to the DOM <CODE>Document</CODE>
+	 * created during the parsing process.
+	 * 
+	 * @param	schemaOnly		Indicates only schema based documents to be processed. 
+	 * @param	source			The <CODE>InputSource</CODE> to be parsed.
+	 * @param 	rules			The <CODE>RuleSet</CODE> used for validation.
+	 * @param 	errorHandler	The <CODE>ErrorHandler</CODE> used to report parser errors.
+	 * @param 	validationErrorHandler	The <CODE>ValidationErrorHandler</CODE> used to semantic report issues.
+	 * @since	TFP 1.9
+	 */
+	public static boolean parseAndValidate (boolean schemaOnly, InputSource source,
+			RuleSet rules, ErrorHandler errorHandler, ValidationErrorHandler validationErrorHandler)
+	{
+		Document		document = parse (schemaOnly, source, errorHandler);
+
+		return ((document != null) ? rules.validate (document, validationErrorHandler) : false);
+	}
+	
 	/**
 	 * Attempts to parse an XML document from a string and then pass it through
 	 * the default FpML validation rule set.
@@ -0,0 +1,940 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.fpml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.handcoded.framework.Application;
+import com.handcoded.validation.RuleSet;
+import com.handcoded.validation.ValidationError;
+import com.handcoded.validation.ValidationErrorSet;
+import com.handcoded.validation.ValidationErrorSetAdapter;
+import com.handcoded.xml.XmlUtility;
+import com.handcoded.xml.resolver.Catalog;
+
+/**
+ * The <CODE>ValidationCache</CODE> class remembers the outcome of parsing
+ * and validating FpML documents so that a byte for byte identical copy of
+ * a document (for example a retried or replayed message) is not parsed and
+ * validated again.
+ * <P>
+ * Outcomes are keyed by a SHA-256 digest of the raw content together with
+ * the schema mode, the system identifier used to resolve relative
+ * references, the URL of the default <CODE>Catalog</CODE> and the
+ * signature of the <CODE>RuleSet</CODE> (see <CODE>RuleSet.getSignature
+ * </CODE>), so changing any of these causes documents to be checked afresh.
+ * The parser and rule errors are held in a <CODE>ValidationErrorSet</CODE>
+ * which records the location of each error as a line and column or an
+ * XPath expression rather than a DOM <CODE>Node</CODE>.
+ * <P>
+ * The least recently used outcomes are discarded when the number held
+ * exceeds the cache's capacity, and outcomes older than the cache's time
+ * to live are never returned. If a store <CODE>File</CODE> is given the
+ * cache is loaded from it when constructed and written back to it by
+ * {@link #save()}.
+ * <P>
+ * A store records a stamp of the toolkit build (the implementation version
+ * and the modification time and length of the toolkit class files) and is
+ * discarded when loaded by a different build. It also records a stamp of
+ * the files held alongside each catalog (the schemas and scheme files it
+ * resolves to) and the outcomes for a catalog are discarded the first time
+ * it is used if its stamp has changed. Rules held in application classes
+ * are only identified by their names and classes so a store should be
+ * deleted if their implementations are changed.
+ * <P>
+ * A <CODE>ValidationCache</CODE> may be shared between threads.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class ValidationCache
+{
+	/**
+	 * The <CODE>Result</CODE> class holds the recorded outcome of processing
+	 * a document.
+	 *
+	 * @since	TFP 1.9
+	 */
+	public static final class Result
+	{
+		/**
+		 * Determines if the document parsed without error and passed all
+		 * the applicable rules.
+		 *
+		 * @return	<CODE>true</CODE> if the document is valid.
+		 * @since	TFP 1.9
+		 */
+		public boolean isValid ()
+		{
+			return (valid);
+		}
+		
+		/**
+		 * Provides the parser and rule errors reported for the document.
+		 * Each call returns a new <CODE>ValidationErrorSet</CODE> so the
+		 * caller may modify it freely.
+		 *
+		 * @return	A <CODE>ValidationErrorSet</CODE> of reported errors.
+		 * @since	TFP 1.9
+		 */
+		public ValidationErrorSet getErrors ()
+		{
+			ValidationErrorSet	result = new ValidationErrorSet ();
+			
+			for (ValidationError error : errors)
+				result.addError (error);
+			
+			return (result);
+		}
+		
+		/**
+		 * Provides the time at which the document was processed.
+		 * 
+		 * @return	The time in milliseconds since the epoch.
+		 * @since	TFP 1.9
+		 */
+		public long getTimestamp ()
+		{
+			return (timestamp);
+		}
+		
+		/**
+		 * Indicates if the document is valid.
+		 * @since	TFP 1.9
+		 */
+		private final boolean				valid;
+		
+		/**
+		 * The errors reported during processing.
+		 * @since	TFP 1.9
+		 */
+		private final ValidationError []	errors;
+		
+		/**
+		 * The time at which the document was processed.
+		 * @since	TFP 1.9
+		 */
+		private final long					timestamp;
+		
+		/**
+		 * Constructs a <CODE>Result</CODE> instance.
+		 *
+		 * @param 	valid			Indicates if the document is valid.
+		 * @param 	errors			The errors reported during processing.
+		 * @param 	timestamp		The time at which the document was processed.
+		 * @since	TFP 1.9
+		 */
+		private Result (boolean valid, final ValidationError [] errors, long timestamp)
+		{
+			this.valid	   = valid;
+			this.errors	   = errors;
+			this.timestamp = timestamp;
+		}
+	}
+	
+	/**
+	 * Constructs an in-memory <CODE>ValidationCache</CODE>.
+	 * 
+	 * @param 	capacity		The maximum number of outcomes held.
+	 * @param 	timeToLive		The time in milliseconds for which an outcome
+	 * 							may be reused.
+	 * @throws	IllegalArgumentException If the capacity or time to live is
+	 * 			less than one.
+	 * @since	TFP 1.9
+	 */
+	public ValidationCache (int capacity, long timeToLive)
+	{
+		this (capacity, timeToLive, null);
+	}
+	
+	/**
+	 * Constructs a <CODE>ValidationCache</CODE> that is persisted in a file.
+	 * Any unexpired outcomes held in the file are loaded immediately.
+	 * 
+	 * @param 	capacity		The maximum number of outcomes held.
+	 * @param 	timeToLive		The time in milliseconds for which an outcome
+	 * 							may be reused.
+	 * @param 	store			The <CODE>File</CODE> used to persist the cache
+	 * 							or <CODE>null</CODE>.
+	 * @throws	IllegalArgumentException If the capacity or time to live is
+	 * 			less than one.
+	 * @since	TFP 1.9
+	 */
+	public ValidationCache (int capacity, long timeToLive, final File store)
+	{
+		if ((capacity < 1) || (timeToLive < 1))
+			throw new IllegalArgumentException ("The capacity and time to live must be >= 1");
+		
+		this.capacity	= capacity;
+		this.timeToLive	= timeToLive;
+		this.store		= store;
+		
+		if ((store != null) && store.isFile ()) load ();
+	}
+	
+	/**
+	 * Parses and validates a document held in memory, or returns the
+	 * recorded outcome for an identical document processed earlier.
+	 * 
+	 * @param 	schemaOnly		Indicates only schema based documents to be processed.
+	 * @param 	content			The raw bytes of the document.
+	 * @param 	systemId		The system identifier used to resolve relative
+	 * 							references in the document or <CODE>null</CODE>.
+	 * @param 	rules			The <CODE>RuleSet</CODE> used for validation.
+	 * @return	The <CODE>Result</CODE> of processing the document.
+	 * @since	TFP 1.9
+	 */
+	public Result parseAndValidate (boolean schemaOnly, final byte [] content,
+			final String systemId, final RuleSet rules)
+	{
+		Catalog			catalog = XmlUtility.getDefaultCatalog ();
+		String			url		= (catalog != null) ? catalog.getUrl () : "";
+		
+		check (url);
+		
+		Key				key		= new Key (digest (content), url, (schemaOnly ? "S|" : "D|")
+				+ rules.getSignature () + '|' + ((systemId != null) ? systemId : ""));
+		Result			result	= get (key);
+		
+		if (result != null) {
+			hits.incrementAndGet ();
+			return (result);
+		}
+		misses.incrementAndGet ();
+		
+		ValidationErrorSet			errors	= new ValidationErrorSet ();
+		ValidationErrorSetAdapter	adapter	= new ValidationErrorSetAdapter (errors);
+		InputSource					source	= new InputSource (new ByteArrayInputStream (content));
+		
+		source.setSystemId (systemId);
+		
+		Document	document = FpMLUtility.parse (schemaOnly, source, adapter);
+		boolean		valid	 = (document != null) && rules.validate (document, adapter);
+		
+		ValidationError [] details = new ValidationError [errors.count ()];
+		
+		for (int index = 0; index < details.length; ++index)
+			details [index] = errors.getItem (index);
+		
+		result = new Result (valid && (details.length == 0), details, System.currentTimeMillis ());
+		
+		synchronized (this) {
+			entries.put (key, result);
+			trim ();
+		}
+		return (result);
+	}
+	
+	/**
+	 * Provides the number of outcomes currently held.
+	 * 
+	 * @return	The number of cached outcomes.
+	 * @since	TFP 1.9
+	 */
+	public synchronized int size ()
+	{
+		return (entries.size ());
+	}
+	
+	/**
+	 * Provides the number of documents whose outcome was found in the cache.
+	 * 
+	 * @return	The number of cache hits.
+	 * @since	TFP 1.9
+	 */
+	public long getHits ()
+	{
+		return (hits.get ());
+	}
+	
+	/**
+	 * Provides the number of documents that had to be parsed and validated.
+	 * 
+	 * @return	The number of cache misses.
+	 * @since	TFP 1.9
+	 */
+	public long getMisses ()
+	{
+		return (misses.get ());
+	}
+	
+	/**
+	 * Discards all the cached outcomes.
+	 * @since	TFP 1.9
+	 */
+	public synchronized void clear ()
+	{
+		entries.clear ();
+	}
+	
+	/**
+	 * Writes the unexpired outcomes to the store <CODE>File</CODE>, if one
+	 * was given. The data is written to a temporary file first and then
+	 * renamed so that a partially written store is never read.
+	 * 
+	 * @throws	IOException If the store could not be written.
+	 * @since	TFP 1.9
+	 */
+	public void save ()
+		throws IOException
+	{
+		if (store == null) return;
+		
+		Key []		keys;
+		Result []	results;
+		HashMap<String, String>	catalogs;
+		
+		synchronized (this) {
+			purge ();
+			keys	 = entries.keySet ().toArray (new Key [entries.size ()]);
+			results	 = entries.values ().toArray (new Result [entries.size ()]);
+			catalogs = new HashMap<String, String> (stamps);
+		}
+		
+		File		temp = new File (store.getPath () + ".tmp");
+		
+		if (store.getAbsoluteFile ().getParentFile () != null)
+			store.getAbsoluteFile ().getParentFile ().mkdirs ();
+		
+		DataOutputStream	stream = new DataOutputStream (
+				new BufferedOutputStream (new FileOutputStream (temp)));
+		
+		try {
+			stream.writeInt (MAGIC);
+			stream.writeInt (VERSION);
+			writeString (stream, TOOLKIT);
+			stream.writeInt (catalogs.size ());
+			
+			for (Map.Entry<String, String> entry : catalogs.entrySet ()) {
+				writeString (stream, entry.getKey ());
+				writeString (stream, entry.getValue ());
+			}
+			
+			stream.writeInt (keys.length);
+			
+			for (int index = 0; index < keys.length; ++index) {
+				stream.write (keys [index].digest);
+				writeString (stream, keys [index].catalog);
+				writeString (stream, keys [index].context);
+				stream.writeLong (results [index].timestamp);
+				stream.writeBoolean (results [index].valid);
+				stream.writeInt (results [index].errors.length);
+				
+				for (ValidationError error : results [index].errors) {
+					writeString (stream, error.getCode ());
+					writeString (stream, error.getContext ());
+					stream.writeBoolean (error.isLexical ());
+					writeString (stream, error.getDescription ());
+					writeString (stream, error.getRuleName ());
+					writeString (stream, error.getAdditionalData ());
+				}
+			}
+		}
+		catch (IOException error) {
+			stream.close ();
+			temp.delete ();
+			throw error;
+		}
+		stream.close ();
+		
+		if (!temp.renameTo (store)) {
+			store.delete ();
+			if (!temp.renameTo (store)) {
+				temp.delete ();
+				throw new IOException ("Unable to rename " + temp);
+			}
+		}
+	}
+	
+	/**
+	 * The <CODE>Key</CODE> class identifies a document's content and the
+	 * configuration used to process it.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static final class Key
+	{
+		/**
+		 * Constructs a <CODE>Key</CODE> instance.
+		 * 
+		 * @param 	digest			The digest of the content.
+		 * @param 	catalog			The URL of the <CODE>Catalog</CODE> or an
+		 * 							empty string.
+		 * @param 	context			Describes the processing configuration.
+		 * @since	TFP 1.9
+		 */
+		Key (final byte [] digest, final String catalog, final String context)
+		{
+			this.digest	 = digest;
+			this.catalog = catalog;
+			this.context = context;
+			
+			hash = ((digest [0] & 0xFF) | (digest [1] & 0xFF) << 8
+					| (digest [2] & 0xFF) << 16 | (digest [3] & 0xFF) << 24)
+					^ (31 * catalog.hashCode () + context.hashCode ());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int hashCode ()
+		{
+			return (hash);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public boolean equals (Object other)
+		{
+			return ((other instanceof Key)
+					&& Arrays.equals (digest, ((Key) other).digest)
+					&& catalog.equals (((Key) other).catalog)
+					&& context.equals (((Key) other).context));
+		}
+		
+		/**
+		 * The digest of the content.
+		 * @since	TFP 1.9
+		 */
+		final byte []			digest;
+		
+		/**
+		 * The URL of the <CODE>Catalog</CODE> or an empty string.
+		 * @since	TFP 1.9
+		 */
+		final String			catalog;
+		
+		/**
+		 * Describes the processing configuration.
+		 * @since	TFP 1.9
+		 */
+		final String			context;
+		
+		/**
+		 * The cached hash code.
+		 * @since	TFP 1.9
+		 */
+		private final int		hash;
+	}
+	
+	/**
+	 * Identifies a validation cache file.
+	 * @since	TFP 1.9
+	 */
+	private static final int	MAGIC	= 0x46564348;
+	
+	/**
+	 * The version of the store format.
+	 * @since	TFP 1.9
+	 */
+	private static final int	VERSION	= 2;
+	
+	/**
+	 * The length of a SHA-256 digest in bytes.
+	 * @since	TFP 1.9
+	 */
+	private static final int	DIGEST_LENGTH = 32;
+	
+	/**
+	 * The character set used to encode strings.
+	 * @since	TFP 1.9
+	 */
+	private static final Charset	UTF8	= Charset.forName ("UTF-8");
+	
+	/**
+	 * <CODE>Logger</CODE> instance used to record problems.
+	 * @since	TFP 1.9
+	 */
+	private static Logger		logger
+		= Logger.getLogger ("com.handcoded.fpml.ValidationCache");
+	
+	/**
+	 * Identifies the build of the toolkit classes.
+	 * @since	TFP 1.9
+	 */
+	private static final String	TOOLKIT	= toolkitStamp ();
+	
+	/**
+	 * The maximum number of outcomes held.
+	 * @since	TFP 1.9
+	 */
+	private final int			capacity;
+	
+	/**
+	 * The time in milliseconds for which an outcome may be reused.
+	 * @since	TFP 1.9
+	 */
+	private final long			timeToLive;
+	
+	/**
+	 * The <CODE>File</CODE> used to persist the cache or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final File			store;
+	
+	/**
+	 * The cached outcomes in least recently used order.
+	 * @since	TFP 1.9
+	 */
+	private final LinkedHashMap<Key, Result> entries
+		= new LinkedHashMap<Key, Result> (16, 0.75f, true);
+	
+	/**
+	 * The number of cache hits.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLong	hits	= new AtomicLong ();
+	
+	/**
+	 * The number of cache misses.
+	 * @since	TFP 1.9
+	 */
+	private final AtomicLong	misses	= new AtomicLong ();
+	
+	/**
+	 * The stamps of the catalogs used to produce the cached outcomes,
+	 * indexed by catalog URL.
+	 * @since	TFP 1.9
+	 */
+	private final HashMap<String, String> stamps
+		= new HashMap<String, String> ();
+	
+	/**
+	 * The URLs of the catalogs whose stamp has been checked.
+	 * @since	TFP 1.9
+	 */
+	private final HashSet<String> checked
+		= new HashSet<String> ();
+	
+	/**
+	 * Compares the current stamp of a catalog with the one recorded for
+	 * the cached outcomes the first time it is used and discards those
+	 * outcomes if it has changed, or if it cannot be determined.
+	 * 
+	 * @param 	url				The URL of the <CODE>Catalog</CODE> or an
+	 * 							empty string.
+	 * @since	TFP 1.9
+	 */
+	private synchronized void check (final String url)
+	{
+		if (checked.contains (url)) return;
+		
+		String			stamp = (url.length () > 0) ? catalogStamp (url) : "";
+		
+		if ((stamp == null) || !stamp.equals (stamps.get (url))) {
+			for (Iterator<Key> cursor = entries.keySet ().iterator (); cursor.hasNext ();)
+				if (cursor.next ().catalog.equals (url)) cursor.remove ();
+		}
+		stamps.put (url, stamp);
+		checked.add (url);
+	}
+	
+	/**
+	 * Finds an unexpired outcome in the cache.
+	 * 
+	 * @param 	key				The <CODE>Key</CODE> to look for.
+	 * @return	The cached <CODE>Result</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private synchronized Result get (final Key key)
+	{
+		Result			result = entries.get (key);
+		
+		if ((result != null) && isExpired (result, System.currentTimeMillis ())) {
+			entries.remove (key);
+			return (null);
+		}
+		return (result);
+	}
+	
+	/**
+	 * Determines if an outcome is too old to be reused.
+	 * 
+	 * @param 	result			The <CODE>Result</CODE> to check.
+	 * @param 	now				The current time.
+	 * @return	<CODE>true</CODE> if the outcome has expired.
+	 * @since	TFP 1.9
+	 */
+	private boolean isExpired (final Result result, long now)
+	{
+		return (now - result.timestamp >= timeToLive);
+	}
+	
+	/**
+	 * Discards the least recently used outcomes until the number held is
+	 * within the capacity. The caller must hold the lock.
+	 * @since	TFP 1.9
+	 */
+	private void trim ()
+	{
+		Iterator<Result>	cursor = entries.values ().iterator ();
+		
+		while ((entries.size () > capacity) && cursor.hasNext ()) {
+			cursor.next ();
+			cursor.remove ();
+		}
+	}
+	
+	/**
+	 * Discards all the expired outcomes. The caller must hold the lock.
+	 * @since	TFP 1.9
+	 */
+	private void purge ()
+	{
+		long			now	= System.currentTimeMillis ();
+		
+		for (Iterator<Result> cursor = entries.values ().iterator (); cursor.hasNext ();)
+			if (isExpired (cursor.next (), now)) cursor.remove ();
+	}
+	
+	/**
+	 * Loads the unexpired outcomes held in the store <CODE>File</CODE>.
+	 * A store that cannot be read is ignored. This is only called during
+	 * construction so no locking is needed.
+	 * @since	TFP 1.9
+	 */
+	private void load ()
+	{
+		try {
+			DataInputStream	stream = new DataInputStream (
+					new BufferedInputStream (new FileInputStream (store)));
+			
+			try {
+				if ((stream.readInt () != MAGIC) || (stream.readInt () != VERSION)) {
+					logger.warning ("Ignoring unrecognised validation cache " + store);
+					return;
+				}
+				
+				if (!TOOLKIT.equals (readString (stream))) {
+					logger.info ("Discarding validation cache " + store + " created by a different toolkit build");
+					return;
+				}
+				
+				for (int count = stream.readInt (); count > 0; --count)
+					stamps.put (readString (stream), readString (stream));
+				
+				long		now = System.currentTimeMillis ();
+				
+				for (int count = stream.readInt (); count > 0; --count) {
+					byte []		digest	  = new byte [DIGEST_LENGTH];
+					
+					stream.readFully (digest);
+					
+					String		catalog	  = readString (stream);
+					String		context	  = readString (stream);
+					long		timestamp = stream.readLong ();
+					boolean		valid	  = stream.readBoolean ();
+					ValidationError [] errors = new ValidationError [stream.readInt ()];
+					
+					for (int index = 0; index < errors.length; ++index) {
+						String		code		= readString (stream);
+						String		location	= readString (stream);
+						boolean		lexical		= stream.readBoolean ();
+						
+						errors [index] = new ValidationError (code, location, lexical,
+								readString (stream), readString (stream), readString (stream));
+					}
+					
+					Result		result = new Result (valid, errors, timestamp);
+					
+					if (!isExpired (result, now))
+						entries.put (new Key (digest, catalog, context), result);
+				}
+				trim ();
+			}
+			finally {
+				stream.close ();
+			}
+		}
+		catch (EOFException error) {
+			logger.warning ("Truncated validation cache " + store);
+		}
+		catch (IOException error) {
+			logger.log (Level.WARNING, "Failed to read validation cache " + store, error);
+		}
+		catch (RuntimeException error) {
+			logger.warning ("Corrupt validation cache " + store);
+		}
+	}
+	
+	/**
+	 * Calculates a stamp identifying the build of the toolkit classes from
+	 * the implementation version and the class files of the core and FpML
+	 * packages.
+	 * 
+	 * @return	The stamp of the toolkit build.
+	 * @since	TFP 1.9
+	 */
+	private static String toolkitStamp ()
+	{
+		StringBuilder	buffer = new StringBuilder ();
+		
+		for (Class<?> type : new Class<?> [] { RuleSet.class, ValidationCache.class }) {
+			Package		owner  = type.getPackage ();
+			CodeSource	source = type.getProtectionDomain ().getCodeSource ();
+			File		file   = (source != null) ? locate (source.getLocation ()) : null;
+			
+			buffer.append ((owner != null) ? owner.getImplementationVersion () : null);
+			buffer.append ('|');
+			buffer.append ((file != null) ? stamp (file) : source);
+			buffer.append ('|');
+		}
+		return (buffer.toString ());
+	}
+	
+	/**
+	 * Calculates a stamp for the content of a catalog. For a catalog held
+	 * in a local directory this covers every file in that directory and
+	 * its subdirectories, for one held in a JAR it covers the JAR file and
+	 * otherwise it covers the catalog file itself.
+	 * 
+	 * @param 	url				The URL of the <CODE>Catalog</CODE>.
+	 * @return	The stamp of the catalog or <CODE>null</CODE> if it could not
+	 * 			be determined.
+	 * @since	TFP 1.9
+	 */
+	private static String catalogStamp (final String url)
+	{
+		try {
+			URL			location;
+			
+			// Locate the catalog in the same way as the CatalogManager
+			try {
+				location = new URL (url);
+			}
+			catch (MalformedURLException error) {
+				if ((location = Application.class.getResource ("/" + url)) == null)
+					location = new File (url).toURI ().toURL ();
+			}
+			
+			File		file = locate (location);
+			
+			if (file != null)
+				return (stamp ("file".equals (location.getProtocol ())
+						? file.getAbsoluteFile ().getParentFile () : file));
+			
+			MessageDigest	digest = MessageDigest.getInstance ("SHA-256");
+			InputStream		stream = location.openStream ();
+			
+			try {
+				byte []		buffer = new byte [8192];
+				int			length;
+				
+				while ((length = stream.read (buffer)) > 0)
+					digest.update (buffer, 0, length);
+			}
+			finally {
+				stream.close ();
+			}
+			return (hex (digest.digest ()));
+		}
+		catch (IOException error) {
+			logger.log (Level.WARNING, "Unable to stamp catalog " + url, error);
+		}
+		catch (NoSuchAlgorithmException error) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException (error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Finds the local <CODE>File</CODE> holding a resource identified by a
+	 * <CODE>file</CODE> URL, or the JAR file for a <CODE>jar</CODE> URL.
+	 * 
+	 * @param 	location		The <CODE>URL</CODE> of the resource.
+	 * @return	The <CODE>File</CODE> or <CODE>null</CODE> if the resource is
+	 * 			not held locally.
+	 * @since	TFP 1.9
+	 */
+	private static File locate (URL location)
+	{
+		try {
+			if ("jar".equals (location.getProtocol ()))
+				location = ((JarURLConnection) location.openConnection ()).getJarFileURL ();
+			
+			if ("file".equals (location.getProtocol ()))
+				return (new File (location.toURI ()));
+		}
+		catch (IOException error) {
+			logger.log (Level.WARNING, "Unable to locate " + location, error);
+		}
+		catch (URISyntaxException error) {
+			logger.log (Level.WARNING, "Unable to locate " + location, error);
+		}
+		catch (IllegalArgumentException error) {
+			logger.log (Level.WARNING, "Unable to locate " + location, error);
+		}
+		return (null);
+	}
+	
+	/**
+	 * Calculates a stamp from the names, modification times and lengths
+	 * of a file or of all the files in a directory and its subdirectories.
+	 * 
+	 * @param 	file			The <CODE>File</CODE> or directory to stamp.
+	 * @return	The stamp.
+	 * @since	TFP 1.9
+	 */
+	private static String stamp (final File file)
+	{
+		try {
+			MessageDigest	digest = MessageDigest.getInstance ("SHA-256");
+			
+			stamp (file, file.getName (), digest);
+			return (hex (digest.digest ()));
+		}
+		catch (NoSuchAlgorithmException error) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException (error);
+		}
+	}
+	
+	/**
+	 * Adds the name, modification time and length of a file, or of the
+	 * files within a directory, to a digest.
+	 * 
+	 * @param 	file			The <CODE>File</CODE> or directory to stamp.
+	 * @param 	path			The path of the file relative to the stamped
+	 * 							directory.
+	 * @param 	digest			The <CODE>MessageDigest</CODE> to update.
+	 * @since	TFP 1.9
+	 */
+	private static void stamp (final File file, final String path, MessageDigest digest)
+	{
+		String []		names = file.list ();
+		
+		if (names != null) {
+			Arrays.sort (names);
+			for (String name : names)
+				stamp (new File (file, name), path + '/' + name, digest);
+		}
+		else
+			digest.update ((path + '|' + file.lastModified () + '|' + file.length () + '\n').getBytes (UTF8));
+	}
+	
+	/**
+	 * Converts a digest into a hexadecimal string.
+	 * 
+	 * @param 	digest			The digest bytes.
+	 * @return	The hexadecimal representation of the digest.
+	 * @since	TFP 1.9
+	 */
+	private static String hex (final byte [] digest)
+	{
+		StringBuilder	buffer = new StringBuilder (2 * digest.length);
+		
+		for (byte value : digest)
+			buffer.append (Character.forDigit ((value >> 4) & 0xF, 16)).append (Character.forDigit (value & 0xF, 16));
+		
+		return (buffer.toString ());
+	}
+	
+	/**
+	 * Calculates the SHA-256 digest of a document's content.
+	 * 
+	 * @param 	content			The raw bytes of the document.
+	 * @return	The digest.
+	 * @since	TFP 1.9
+	 */
+	private static byte [] digest (final byte [] content)
+	{
+		try {
+			return (MessageDigest.getInstance ("SHA-256").digest (content));
+		}
+		catch (NoSuchAlgorithmException error) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException (error);
+		}
+	}
+	
+	/**
+	 * Writes a length prefixed UTF-8 string that may be <CODE>null</CODE>.
+	 * 
+	 * @param 	stream			The <CODE>DataOutputStream</CODE> to write to.
+	 * @param 	value			The string to write or <CODE>null</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static void writeString (DataOutputStream stream, final String value)
+		throws IOException
+	{
+		if (value != null) {
+			byte []		bytes = value.getBytes (UTF8);
+			
+			stream.writeInt (bytes.length);
+			stream.write (bytes);
+		}
+		else
+			stream.writeInt (-1);
+	}
+	
+	/**
+	 * Reads a length prefixed UTF-8 string that may be <CODE>null</CODE>.
+	 * 
+	 * @param 	stream			The <CODE>DataInputStream</CODE> to read from.
+	 * @return	The string read or <CODE>null</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static String readString (DataInputStream stream)
+		throws IOException
+	{
+		int			length = stream.readInt ();
+		
+		if (length < 0) return (null);
+		
+		byte []		bytes = new byte [length];
+		
+		stream.readFully (bytes);
+		return (new String (bytes, UTF8));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,492 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.fpml;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.handcoded.fpml.validation.AllRules;
+import com.handcoded.validation.RuleSet;
+import com.handcoded.validation.ValidationErrorSet;
+import com.handcoded.validation.ValidationErrorSetAdapter;
+import com.handcoded.xml.XmlUtility;
+
+/**
+ * The <CODE>ValidationService</CODE> class parses and validates batches of
+ * FpML documents using a fixed number of worker threads.
+ * <P>
+ * At most <CODE>capacity</CODE> documents may be in flight at any time.
+ * Once this limit is reached <CODE>submit</CODE> blocks until the oldest
+ * result has been taken, so a large batch cannot run ahead of its consumer
+ * and exhaust memory. Results are always delivered in the order that the
+ * documents were submitted, whatever order the workers finish them in.
+ * <P>
+ * The DOM tree for each document is discarded once it has been validated.
+ * Parser and rule errors are captured in a <CODE>ValidationErrorSet</CODE>
+ * so only the outcome is retained until the result is taken.
+ * <P>
+ * If a <CODE>ValidationCache</CODE> is attached, documents submitted as
+ * <CODE>File</CODE> instances are looked up in it before being parsed.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class ValidationService
+{
+	/**
+	 * The <CODE>Result</CODE> class holds the outcome of processing a single
+	 * document.
+	 *
+	 * @since	TFP 1.9
+	 */
+	public static final class Result
+	{
+		/**
+		 * Provides the object (i.e. a <CODE>File</CODE> or an
+		 * <CODE>InputSource</CODE>) that was submitted.
+		 *
+		 * @return	The submitted document source.
+		 * @since	TFP 1.9
+		 */
+		public Object getSource ()
+		{
+			return (source);
+		}
+
+		/**
+		 * Determines if the document parsed without error and passed all
+		 * the applicable rules.
+		 *
+		 * @return	<CODE>true</CODE> if the document is valid.
+		 * @since	TFP 1.9
+		 */
+		public boolean isValid ()
+		{
+			return (valid);
+		}
+
+		/**
+		 * Provides the parser and rule errors reported for the document.
+		 *
+		 * @return	The <CODE>ValidationErrorSet</CODE> of reported errors.
+		 * @since	TFP 1.9
+		 */
+		public ValidationErrorSet getErrors ()
+		{
+			return (errors);
+		}
+
+		/**
+		 * Provides the exception that prevented the document from being
+		 * processed, if any.
+		 *
+		 * @return	The unexpected <CODE>Throwable</CODE> or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		public Throwable getException ()
+		{
+			return (exception);
+		}
+
+		/**
+		 * The submitted document source.
+		 * @since	TFP 1.9
+		 */
+		private final Object				source;
+
+		/**
+		 * Indicates if the document is valid.
+		 * @since	TFP 1.9
+		 */
+		private final boolean				valid;
+
+		/**
+		 * The errors reported during processing.
+		 * @since	TFP 1.9
+		 */
+		private final ValidationErrorSet	errors;
+
+		/**
+		 * Any unexpected exception raised during processing.
+		 * @since	TFP 1.9
+		 */
+		private final Throwable				exception;
+
+		/**
+		 * Constructs a <CODE>Result</CODE> instance.
+		 *
+		 * @param 	source			The submitted document source.
+		 * @param 	valid			Indicates if the document is valid.
+		 * @param 	errors			The errors reported during processing.
+		 * @param 	exception		Any unexpected exception or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private Result (final Object source, boolean valid, final ValidationErrorSet errors,
+				final Throwable exception)
+		{
+			this.source		= source;
+			this.valid		= valid;
+			this.errors		= errors;
+			this.exception	= exception;
+		}
+	}
+
+	/**
+	 * The <CODE>ResultHandler</CODE> interface is implemented by objects
+	 * that consume the results of a batch passed to
+	 * {@link ValidationService#validate(Iterator, ResultHandler)}.
+	 *
+	 * @since	TFP 1.9
+	 */
+	public interface ResultHandler
+	{
+		/**
+		 * Processes the result for the next document in the batch.
+		 *
+		 * @param 	result			The <CODE>Result</CODE> to be processed.
+		 * @since	TFP 1.9
+		 */
+		public void handle (Result result);
+	}
+
+	/**
+	 * Constructs a <CODE>ValidationService</CODE> that checks documents
+	 * against the default FpML rule set.
+	 *
+	 * @param 	workers			The number of worker threads.
+	 * @param 	capacity		The maximum number of documents in flight.
+	 * @since	TFP 1.9
+	 */
+	public ValidationService (int workers, int capacity)
+	{
+		this (workers, capacity, AllRules.getRules (), false);
+	}
+
+	/**
+	 * Constructs a <CODE>ValidationService</CODE> that checks documents
+	 * against the given <CODE>RuleSet</CODE>.
+	 *
+	 * @param 	workers			The number of worker threads.
+	 * @param 	capacity		The maximum number of documents in flight.
+	 * @param 	rules			The <CODE>RuleSet</CODE> used for validation.
+	 * @param 	schemaOnly		Indicates only schema based documents to be processed.
+	 * @throws	IllegalArgumentException If <CODE>workers</CODE> or
+	 * 			<CODE>capacity</CODE> is less than one.
+	 * @since	TFP 1.9
+	 */
+	public ValidationService (int workers, int capacity, final RuleSet rules, boolean schemaOnly)
+	{
+		if ((workers < 1) || (capacity < 1))
+			throw new IllegalArgumentException ("The worker count and capacity must be >= 1");
+
+		this.rules		= rules;
+		this.schemaOnly	= schemaOnly;
+
+		pending  = new ArrayBlockingQueue<Future<Result>> (capacity);
+		executor = Executors.newFixedThreadPool (workers, new ThreadFactory ()
+			{
+				public Thread newThread (Runnable runnable)
+				{
+					Thread thread = new Thread (runnable, "ValidationService-" + threadCount.incrementAndGet ());
+
+					thread.setDaemon (true);
+					return (thread);
+				}
+			});
+
+		// Compile the schemas before any work starts
+		XmlUtility.getDefaultSchemaSet ().getSchema ();
+	}
+
+	/**
+	 * Queues a document held in a <CODE>File</CODE> for processing, blocking
+	 * if the service is already at capacity.
+	 *
+	 * @param 	file			The <CODE>File</CODE> to be processed.
+	 * @throws	InterruptedException If the calling thread is interrupted
+	 * 			while waiting.
+	 * @since	TFP 1.9
+	 */
+	public void submit (final File file)
+		throws InterruptedException
+	{
+		InputSource		source = new InputSource (file.toURI ().toString ());
+
+		enqueue (new Task (file, source));
+	}
+
+	/**
+	 * Queues a document read from an <CODE>InputSource</CODE> for processing,
+	 * blocking if the service is already at capacity.
+	 *
+	 * @param 	source			The <CODE>InputSource</CODE> to be processed.
+	 * @throws	InterruptedException If the calling thread is interrupted
+	 * 			while waiting.
+	 * @since	TFP 1.9
+	 */
+	public void submit (final InputSource source)
+		throws InterruptedException
+	{
+		enqueue (new Task (source, source));
+	}
+
+	/**
+	 * Provides access to the <CODE>ValidationCache</CODE> being used.
+	 * 
+	 * @return	The <CODE>ValidationCache</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public ValidationCache getCache ()
+	{
+		return (cache);
+	}
+	
+	/**
+	 * Attaches a <CODE>ValidationCache</CODE> so that the outcome of
+	 * processing an identical file is reused rather than recalculated.
+	 * 
+	 * @param 	cache			The <CODE>ValidationCache</CODE> to use or
+	 * 							<CODE>null</CODE> to process every document.
+	 * @since	TFP 1.9
+	 */
+	public void setCache (ValidationCache cache)
+	{
+		this.cache = cache;
+	}
+	
+	/**
+	 * Provides the number of documents submitted whose results have not yet
+	 * been taken.
+	 *
+	 * @return	The number of documents in flight.
+	 * @since	TFP 1.9
+	 */
+	public int pending ()
+	{
+		return (pending.size ());
+	}
+
+	/**
+	 * Waits for and returns the result for the oldest document still in
+	 * flight.
+	 *
+	 * @return	The next <CODE>Result</CODE> in submission order or
+	 * 			<CODE>null</CODE> if no documents are in flight.
+	 * @throws	InterruptedException If the calling thread is interrupted
+	 * 			while waiting.
+	 * @since	TFP 1.9
+	 */
+	public Result take ()
+		throws InterruptedException
+	{
+		Future<Result>	future = pending.poll ();
+
+		if (future == null) return (null);
+
+		try {
+			return (future.get ());
+		}
+		catch (ExecutionException error) {
+			// Task.call traps everything so this should never happen
+			return (new Result (null, false, new ValidationErrorSet (), error.getCause ()));
+		}
+	}
+
+	/**
+	 * Processes a batch of documents, passing each result to the
+	 * <CODE>ResultHandler</CODE> in the order the documents were supplied.
+	 * Results are handled as soon as they are available so no more than
+	 * <CODE>capacity</CODE> documents are ever held in flight.
+	 * <P>
+	 * The <CODE>Iterator</CODE> may supply <CODE>File</CODE> or
+	 * <CODE>InputSource</CODE> instances.
+	 *
+	 * @param 	sources			An <CODE>Iterator</CODE> over the documents.
+	 * @param 	handler			The <CODE>ResultHandler</CODE> to pass results to.
+	 * @throws	InterruptedException If the calling thread is interrupted
+	 * 			while waiting.
+	 * @since	TFP 1.9
+	 */
+	public void validate (Iterator<?> sources, ResultHandler handler)
+		throws InterruptedException
+	{
+		while (sources.hasNext ()) {
+			Object		source = sources.next ();
+
+			while (pending.remainingCapacity () == 0)
+				handler.handle (take ());
+
+			if (source instanceof File)
+				submit ((File) source);
+			else
+				submit ((InputSource) source);
+		}
+
+		Result		result;
+
+		while ((result = take ()) != null)
+			handler.handle (result);
+	}
+
+	/**
+	 * Stops the worker threads once any documents in flight have been
+	 * processed. No more documents may be submitted.
+	 * @since	TFP 1.9
+	 */
+	public void shutdown ()
+	{
+		executor.shutdown ();
+	}
+
+	/**
+	 * Reserves a place for a <CODE>Task</CODE> in the queue of documents in
+	 * flight, blocking until one is free, and only then hands it to the
+	 * worker threads.
+	 *
+	 * @param 	task			The <CODE>Task</CODE> to be executed.
+	 * @throws	InterruptedException If the calling thread is interrupted
+	 * 			while waiting.
+	 * @throws	RejectedExecutionException If the service has been shut down.
+	 * @since	TFP 1.9
+	 */
+	private void enqueue (final Task task)
+		throws InterruptedException
+	{
+		FutureTask<Result>	future = new FutureTask<Result> (task);
+
+		pending.put (future);
+		try {
+			executor.execute (future);
+		}
+		catch (RejectedExecutionException error) {
+			pending.remove (future);
+			throw error;
+		}
+	}
+
+	/**
+	 * The <CODE>Task</CODE> class parses and validates a single document on
+	 * a worker thread.
+	 * @since	TFP 1.9
+	 */
+	private final class Task implements Callable<Result>
+	{
+		/**
+		 * Constructs a <CODE>Task</CODE> instance.
+		 *
+		 * @param 	origin			The submitted document source.
+		 * @param 	source			The <CODE>InputSource</CODE> to parse.
+		 * @since	TFP 1.9
+		 */
+		Task (final Object origin, final InputSource source)
+		{
+			this.origin = origin;
+			this.source = source;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		public Result call ()
+		{
+			ValidationErrorSet			errors	= new ValidationErrorSet ();
+			ValidationErrorSetAdapter	adapter	= new ValidationErrorSetAdapter (errors);
+
+			try {
+				ValidationCache	cache = ValidationService.this.cache;
+				
+				if ((cache != null) && (origin instanceof File)) {
+					File			file   = (File) origin;
+					ValidationCache.Result result = cache.parseAndValidate (schemaOnly,
+							Files.readAllBytes (file.toPath ()), source.getSystemId (), rules);
+					
+					return (new Result (origin, result.isValid (), result.getErrors (), null));
+				}
+				
+				Document	document = FpMLUtility.parse (schemaOnly, source, adapter);
+				boolean		valid	 = (document != null) && rules.validate (document, adapter);
+
+				return (new Result (origin, valid && (errors.count () == 0), errors, null));
+			}
+			catch (Throwable error) {
+				return (new Result (origin, false, errors, error));
+			}
+		}
+
+		/**
+		 * The submitted document source.
+		 * @since	TFP 1.9
+		 */
+		private final Object		origin;
+
+		/**
+		 * The <CODE>InputSource</CODE> to parse.
+		 * @since	TFP 1.9
+		 */
+		private final InputSource	source;
+	}
+
+	/**
+	 * A counter used to give each worker thread a unique name.
+	 * @since	TFP 1.9
+	 */
+	private static AtomicInteger	threadCount	= new AtomicInteger ();
+
+	/**
+	 * The <CODE>RuleSet</CODE> used for validation.
+	 * @since	TFP 1.9
+	 */
+	private final RuleSet			rules;
+
+	/**
+	 * Indicates only schema based documents to be processed.
+	 * @since	TFP 1.9
+	 */
+	private final boolean			schemaOnly;
+
+	/**
+	 * The results of the documents in flight in submission order. The queue's
+	 * capacity bounds the amount of outstanding work.
+	 * @since	TFP 1.9
+	 */
+	private final ArrayBlockingQueue<Future<Result>> pending;
+
+	/**
+	 * The <CODE>ExecutorService</CODE> running the worker threads.
+	 * @since	TFP 1.9
+	 */
+	private final ExecutorService	executor;
+	
+	/**
+	 * The <CODE>ValidationCache</CODE> used for files or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private volatile ValidationCache cache	= null;
+}
\ No newline at end of file
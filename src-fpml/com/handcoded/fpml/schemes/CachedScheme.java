@@ -57,7 +57,21 @@ public class CachedScheme extends Scheme
 	@Override
 	public boolean isValid (final String code)
 	{
-		return (values.containsKey (code));
+		return (getTable ().get (code) != null);
+	}
+	
+	/**
+	 * Determines if the given code is defined in this scheme ignoring any
+	 * differences in case.
+	 *
+	 * @param	code			The code value to be tested.
+	 * @return	<CODE>true</CODE> if the code is defined in the scheme
+	 * 			ignoring case, <CODE>false</CODE> otherwise.
+	 * @since	TFP 1.9
+	 */
+	public boolean isValidIgnoreCase (final String code)
+	{
+		return (getTable ().getIgnoreCase (code) != null);
 	}
 	
 	/**
@@ -80,6 +94,35 @@ public class CachedScheme extends Scheme
 	 */
 	protected final Value add (Value value)
 	{
-		return (values.put (value.getCode (), value));
+		Value			result = values.put (value.getCode (), value);
+
+		table = null;
+		return (result);
 	}
+
+	/**
+	 * Provides an immutable lookup table for the current code values,
+	 * building it the first time it is needed after a change.
+	 *
+	 * @return	The <CODE>CodeTable</CODE> for this scheme.
+	 * @since	TFP 1.9
+	 */
+	final CodeTable getTable ()
+	{
+		CodeTable		result = table;
+		
+		if (result == null) {
+			synchronized (values) {
+				table = result = new CodeTable (values.values ());
+			}
+		}
+		return (result);
+	}
+
+	/**
+	 * The lookup table built from <CODE>values</CODE> or <CODE>null</CODE>
+	 * if it needs to be rebuilt.
+	 * @since	TFP 1.9
+	 */
+	private volatile CodeTable			table	= null;
 }
\ No newline at end of file
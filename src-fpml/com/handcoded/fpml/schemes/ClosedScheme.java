@@ -14,7 +14,7 @@
 package com.handcoded.fpml.schemes;
 
 import java.util.Vector;
-import java.util.Enumeration;
+import java.util.regex.Pattern;
 
 /**
  * The <CODE>ClosedScheme</CODE> class provides an extended implementation of
@@ -58,10 +58,7 @@ public class ClosedScheme extends CachedScheme implements Enumerable, Matchable
 	 */
 	public final Value [] values ()
 	{
-		Value 			result [] = new Value [values.size ()];
-		
-		values.values ().toArray (result);
-		return (result);
+		return (getTable ().values ());
 	}
 	
 	/**
@@ -70,12 +67,14 @@ public class ClosedScheme extends CachedScheme implements Enumerable, Matchable
 	 */
 	public final Value [] values (final String pattern)
 	{
+		Pattern			regex	= Pattern.compile (pattern);
+		Value []		codes	= getTable ().values ();
 		Vector<Value>	matches = new Vector<Value> ();
 		
-		for (Enumeration<Value> cursor = values.elements (); cursor.hasMoreElements ();) {
-			Value		value = cursor.nextElement ();
+		for (int index = 0; index < codes.length; ++index) {
+			Value		value = codes [index];
 			
-			if (value.getCode ().matches (pattern)) matches.add (value);
+			if (regex.matcher (value.getCode ()).matches ()) matches.add (value);
 		}
 		
 		Value			result [] = new Value [matches.size ()];
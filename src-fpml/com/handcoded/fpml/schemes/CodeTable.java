@@ -0,0 +1,206 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.fpml.schemes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * The <CODE>CodeTable</CODE> class is an immutable lookup structure for the
+ * codes of a <CODE>CachedScheme</CODE>. Once built it is safe to use from
+ * any number of threads without locking.
+ * <P>
+ * The values are held in an array sorted by code. Exact lookups use a
+ * compact open addressing hash table of positions within that array, with
+ * each code's hash cached so that most failed probes never touch the
+ * string. Case-insensitive lookups use a binary search over a second
+ * ordering of the same values.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class CodeTable
+{
+	/**
+	 * Constructs a <CODE>CodeTable</CODE> holding the given values.
+	 *
+	 * @param 	source			The <CODE>Value</CODE> instances (with
+	 * 							distinct codes) to be held.
+	 * @since	TFP 1.9
+	 */
+	CodeTable (final Collection<Value> source)
+	{
+		values = source.toArray (new Value [source.size ()]);
+		Arrays.sort (values, BY_CODE);
+
+		int			capacity = 4;
+
+		while (capacity < values.length * 2) capacity <<= 1;
+
+		slots  = new int [capacity];
+		hashes = new int [values.length];
+
+		for (int index = 0; index < values.length; ++index) {
+			int			hash = hash (values [index].getCode ());
+			int			slot = hash & (capacity - 1);
+
+			while (slots [slot] != 0) slot = (slot + 1) & (capacity - 1);
+
+			slots [slot]	= index + 1;
+			hashes [index]	= hash;
+		}
+
+		folded = values.clone ();
+		Arrays.sort (folded, BY_FOLDED_CODE);
+	}
+
+	/**
+	 * Provides the number of codes held.
+	 *
+	 * @return	The number of codes.
+	 * @since	TFP 1.9
+	 */
+	int size ()
+	{
+		return (values.length);
+	}
+
+	/**
+	 * Finds the <CODE>Value</CODE> for a code.
+	 *
+	 * @param 	code			The code to look for.
+	 * @return	The matching <CODE>Value</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	Value get (final String code)
+	{
+		int			hash = hash (code);
+		int			mask = slots.length - 1;
+
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int			entry = slots [slot];
+
+			if (entry == 0) return (null);
+
+			Value		value = values [entry - 1];
+			if ((hashes [entry - 1] == hash) && value.getCode ().equals (code))
+				return (value);
+		}
+	}
+
+	/**
+	 * Finds the <CODE>Value</CODE> for a code ignoring differences in case.
+	 *
+	 * @param 	code			The code to look for.
+	 * @return	A matching <CODE>Value</CODE> or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	Value getIgnoreCase (final String code)
+	{
+		int			lower = 0;
+		int			upper = folded.length - 1;
+
+		while (lower <= upper) {
+			int			middle = (lower + upper) >>> 1;
+			int			order  = String.CASE_INSENSITIVE_ORDER.compare (folded [middle].getCode (), code);
+
+			if (order < 0)
+				lower = middle + 1;
+			else if (order > 0)
+				upper = middle - 1;
+			else
+				return (folded [middle]);
+		}
+		return (null);
+	}
+
+	/**
+	 * Provides a copy of the values held, sorted by code.
+	 *
+	 * @return	An array of <CODE>Value</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	Value [] values ()
+	{
+		return (values.clone ());
+	}
+
+	/**
+	 * Orders values by their code.
+	 * @since	TFP 1.9
+	 */
+	private static final Comparator<Value>	BY_CODE
+		= new Comparator<Value> ()
+			{
+				public int compare (Value first, Value second)
+				{
+					return (first.getCode ().compareTo (second.getCode ()));
+				}
+			};
+
+	/**
+	 * Orders values by their code ignoring case.
+	 * @since	TFP 1.9
+	 */
+	private static final Comparator<Value>	BY_FOLDED_CODE
+		= new Comparator<Value> ()
+			{
+				public int compare (Value first, Value second)
+				{
+					return (String.CASE_INSENSITIVE_ORDER.compare (first.getCode (), second.getCode ()));
+				}
+			};
+
+	/**
+	 * The values sorted by code.
+	 * @since	TFP 1.9
+	 */
+	private final Value []		values;
+
+	/**
+	 * The values sorted by code ignoring case.
+	 * @since	TFP 1.9
+	 */
+	private final Value []		folded;
+
+	/**
+	 * A hash table holding positions within <CODE>values</CODE> plus one,
+	 * so that zero marks an empty slot.
+	 * @since	TFP 1.9
+	 */
+	private final int []		slots;
+
+	/**
+	 * The hash of each code in <CODE>values</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private final int []		hashes;
+
+	/**
+	 * Spreads the bits of a code's hash so that the low bits used to select
+	 * a slot are well distributed.
+	 *
+	 * @param 	code			The code to be hashed.
+	 * @return	The spread hash code.
+	 * @since	TFP 1.9
+	 */
+	private static int hash (final String code)
+	{
+		int			hash = code.hashCode () * 0x9E3779B9;
+
+		return (hash ^ (hash >>> 16));
+	}
+}
\ No newline at end of file
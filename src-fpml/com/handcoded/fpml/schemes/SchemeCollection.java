@@ -13,6 +13,8 @@
 
 package com.handcoded.fpml.schemes;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -49,20 +51,62 @@ public final class SchemeCollection
 	public SchemeCollection ()
 	{ }
 	
+	/**
+	 * Provides the directory in which compiled scheme snapshots are held.
+	 * 
+	 * @return	The snapshot directory or <CODE>null</CODE> if snapshots
+	 * 			are disabled.
+	 * @since	TFP 1.9
+	 */
+	public static File getSnapshotDirectory ()
+	{
+		return (snapshotDirectory);
+	}
+	
+	/**
+	 * Sets the directory in which compiled scheme snapshots are held. When
+	 * set, {@link #parse(String)} loads a definition file from its snapshot
+	 * if one exists and is up to date, and otherwise parses the XML and
+	 * writes a new snapshot for next time. A build can therefore populate
+	 * the directory in advance by parsing each definition file once.
+	 * 
+	 * @param 	directory		The snapshot directory or <CODE>null</CODE> to
+	 * 							disable snapshots.
+	 * @since	TFP 1.9
+	 */
+	public static void setSnapshotDirectory (File directory)
+	{
+		snapshotDirectory = directory;
+	}
+	
 	/**
 	 * Parses the scheme definition in the indicated file and adds them to
-	 * this collection.
+	 * this collection. If a snapshot directory has been set then the
+	 * definitions are loaded from a compiled snapshot when possible.
 	 * 
 	 * @param 	uri			The URI of the source XML document.
 	 * @since	TFP 1.0
 	 */
 	public void parse (String uri)
 	{
+		File		directory = snapshotDirectory;
+		File		snapshot  = null;
+		long []		stamp	  = null;
+		
+		if ((directory != null) && ((stamp = SchemeSnapshot.stamp (uri)) != null)) {
+			snapshot = new File (directory, uri.replaceAll ("[^A-Za-z0-9.-]", "_") + ".bin");
+			if (SchemeSnapshot.load (snapshot, uri, stamp, this)) return;
+		}
+		
 		try {
 			SAXParser parser = new SAXParser (false, true, false, false, null, null);
+			BootStrap handler = new BootStrap ();
 			
 			try {
-				parser.parse (new InputSource (Application.openStream (uri)), new BootStrap ());
+				parser.parse (new InputSource (Application.openStream (uri)), handler);
+				
+				if (snapshot != null)
+					SchemeSnapshot.save (snapshot, uri, stamp, handler.schemes);
 			}
 			catch (Exception error) {
 				logger.log (Level.SEVERE, "Unable to load standard FpML schemes", error);	
@@ -171,6 +215,8 @@ public final class SchemeCollection
 														attributes.getValue (index2)));
 					else
 						add (scheme = new ClosedScheme (attributes.getValue (index)));
+					
+					schemes.add ((ClosedScheme) scheme);
 				}
 				else {
 					logger.warning ("uri attribute missing from scheme in bootstrap definitions");
@@ -226,6 +272,12 @@ public final class SchemeCollection
 			text = new String (ch, start, length);	
 		}
 		
+		/**
+		 * The schemes created in the order they were defined.
+		 * @since	TFP 1.9
+		 */
+		final ArrayList<ClosedScheme> schemes = new ArrayList<ClosedScheme> ();
+		
 		/**
 		 * Reference to the <CODE>Scheme</CODE> instance under construction.
 		 * @since	TFP 1.0
@@ -264,6 +316,12 @@ public final class SchemeCollection
 	private static Logger		logger
 		= Logger.getLogger ("com.handcoded.fpml.schemes.SchemeCollection");
 		
+	/**
+	 * The directory holding compiled scheme snapshots or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static volatile File	snapshotDirectory	= null;
+	
 	/**
 	 * The extent set of all currently defined <CODE>Scheme</CODE> instances.
 	 * @since	TFP 1.0
@@ -0,0 +1,372 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.fpml.schemes;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.handcoded.framework.Application;
+
+/**
+ * The <CODE>SchemeSnapshot</CODE> class reads and writes a compiled binary
+ * form of the schemes defined in a scheme definition file.
+ * <P>
+ * A snapshot starts with a header recording the URI of the definition file
+ * and its last modification time and length, so that a snapshot made from
+ * an older version of the file is detected and ignored. The header is
+ * followed by a table of every distinct string used (codes, sources,
+ * descriptions and URIs), each stored once in UTF-8, and then the schemes
+ * themselves as arrays of indexes into that table.
+ * <P>
+ * Snapshots are memory mapped when read.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class SchemeSnapshot
+{
+	/**
+	 * Determines the modification time and length of a scheme definition
+	 * file, locating it in the same way as <CODE>Application.openStream</CODE>.
+	 *
+	 * @param 	uri				The URI of the scheme definition file.
+	 * @return	An array holding the modification time and length or
+	 * 			<CODE>null</CODE> if they cannot be determined.
+	 * @since	TFP 1.9
+	 */
+	static long [] stamp (final String uri)
+	{
+		URL			url;
+
+		try {
+			url = new URL (uri);
+		}
+		catch (MalformedURLException error) {
+			url = Application.class.getResource ("/" + uri);
+		}
+
+		try {
+			if (url != null) {
+				if (url.getProtocol ().equals ("file"))
+					return (stamp (new File (url.toURI ())));
+
+				URLConnection connection = url.openConnection ();
+				long []		result = { connection.getLastModified (), connection.getContentLengthLong () };
+
+				connection.getInputStream ().close ();
+				return (((result [0] != 0) && (result [1] >= 0)) ? result : null);
+			}
+			return (stamp (new File (uri)));
+		}
+		catch (Exception error) {
+			return (null);
+		}
+	}
+
+	/**
+	 * Attempts to load the schemes held in a snapshot into a
+	 * <CODE>SchemeCollection</CODE>.
+	 *
+	 * @param 	file			The snapshot <CODE>File</CODE>.
+	 * @param 	uri				The URI of the scheme definition file.
+	 * @param 	stamp			The current modification time and length of
+	 * 							the scheme definition file.
+	 * @param 	collection		The <CODE>SchemeCollection</CODE> to populate.
+	 * @return	<CODE>true</CODE> if the snapshot was loaded, <CODE>false</CODE>
+	 * 			if it was missing, stale or unreadable.
+	 * @since	TFP 1.9
+	 */
+	static boolean load (final File file, final String uri, final long [] stamp,
+			final SchemeCollection collection)
+	{
+		if (!file.isFile ()) return (false);
+
+		ByteBuffer		buffer;
+
+		try {
+			RandomAccessFile	access = new RandomAccessFile (file, "r");
+
+			try {
+				buffer = access.getChannel ().map (FileChannel.MapMode.READ_ONLY, 0, access.length ());
+			}
+			finally {
+				access.close ();
+			}
+		}
+		catch (IOException error) {
+			logger.log (Level.WARNING, "Failed to open scheme snapshot " + file, error);
+			return (false);
+		}
+
+		try {
+			if ((buffer.getInt () != MAGIC) || (buffer.getInt () != VERSION)) return (false);
+
+			byte []		bytes	= new byte [256];
+
+			if (!uri.equals (readString (buffer, bytes))
+					|| (buffer.getLong () != stamp [0]) || (buffer.getLong () != stamp [1]))
+				return (false);
+
+			String []	strings = new String [buffer.getInt ()];
+
+			for (int index = 0; index < strings.length; ++index) {
+				strings [index] = readString (buffer, bytes);
+			}
+
+			ArrayList<ClosedScheme> schemes = new ArrayList<ClosedScheme> ();
+
+			for (int count = buffer.getInt (); count > 0; --count) {
+				String		schemeUri	 = string (strings, buffer.getInt ());
+				String		canonicalUri = string (strings, buffer.getInt ());
+				ClosedScheme scheme		 = (canonicalUri != null)
+						? new ClosedScheme (schemeUri, canonicalUri) : new ClosedScheme (schemeUri);
+
+				for (int values = buffer.getInt (); values > 0; --values) {
+					String		code		= string (strings, buffer.getInt ());
+					String		source		= string (strings, buffer.getInt ());
+					String		description = string (strings, buffer.getInt ());
+
+					scheme.add (new Value (code, source, description));
+				}
+				schemes.add (scheme);
+			}
+
+			// Only publish the schemes once the whole snapshot has been read
+			for (int index = 0; index < schemes.size (); ++index)
+				collection.add (schemes.get (index));
+
+			return (true);
+		}
+		catch (BufferUnderflowException error) {
+			logger.warning ("Truncated scheme snapshot " + file);
+		}
+		catch (RuntimeException error) {
+			logger.warning ("Corrupt scheme snapshot " + file);
+		}
+		return (false);
+	}
+
+	/**
+	 * Writes a snapshot of the schemes read from a scheme definition file.
+	 * The snapshot is written to a temporary file first and then renamed
+	 * so that other processes never see a partial snapshot.
+	 *
+	 * @param 	file			The snapshot <CODE>File</CODE>.
+	 * @param 	uri				The URI of the scheme definition file.
+	 * @param 	stamp			The modification time and length of the
+	 * 							scheme definition file.
+	 * @param 	schemes			The schemes read from the file.
+	 * @since	TFP 1.9
+	 */
+	static void save (final File file, final String uri, final long [] stamp,
+			final ArrayList<ClosedScheme> schemes)
+	{
+		HashMap<String, Integer>	indexes = new HashMap<String, Integer> ();
+		ArrayList<String>			strings = new ArrayList<String> ();
+		ArrayList<int []>			tables	= new ArrayList<int []> ();
+
+		for (int index = 0; index < schemes.size (); ++index) {
+			ClosedScheme	scheme	= schemes.get (index);
+			int []			table	= new int [3 + 3 * scheme.values.size ()];
+			int				offset	= 0;
+
+			table [offset++] = intern (scheme.getUri (), indexes, strings);
+			table [offset++] = intern (scheme.getCanonicalUri (), indexes, strings);
+			table [offset++] = scheme.values.size ();
+
+			for (Enumeration<Value> cursor = scheme.values.elements (); cursor.hasMoreElements ();) {
+				Value		value = cursor.nextElement ();
+
+				table [offset++] = intern (value.getCode (), indexes, strings);
+				table [offset++] = intern (value.getSource (), indexes, strings);
+				table [offset++] = intern (value.getDescription (), indexes, strings);
+			}
+			tables.add (table);
+		}
+
+		File			temp = new File (file.getPath () + ".tmp");
+
+		try {
+			file.getParentFile ().mkdirs ();
+
+			DataOutputStream	stream = new DataOutputStream (
+					new BufferedOutputStream (new FileOutputStream (temp)));
+
+			try {
+				stream.writeInt (MAGIC);
+				stream.writeInt (VERSION);
+				writeString (stream, uri);
+				stream.writeLong (stamp [0]);
+				stream.writeLong (stamp [1]);
+
+				stream.writeInt (strings.size ());
+				for (int index = 0; index < strings.size (); ++index)
+					writeString (stream, strings.get (index));
+
+				stream.writeInt (tables.size ());
+				for (int index = 0; index < tables.size (); ++index) {
+					int []		table = tables.get (index);
+
+					for (int offset = 0; offset < table.length; ++offset)
+						stream.writeInt (table [offset]);
+				}
+			}
+			finally {
+				stream.close ();
+			}
+
+			if (!temp.renameTo (file)) {
+				file.delete ();
+				if (!temp.renameTo (file))
+					throw new IOException ("Unable to rename " + temp);
+			}
+		}
+		catch (IOException error) {
+			logger.log (Level.WARNING, "Failed to write scheme snapshot " + file, error);
+			temp.delete ();
+		}
+	}
+
+	/**
+	 * Identifies a scheme snapshot file.
+	 * @since	TFP 1.9
+	 */
+	private static final int		MAGIC	= 0x46534348;
+
+	/**
+	 * The version of the snapshot format.
+	 * @since	TFP 1.9
+	 */
+	private static final int		VERSION	= 1;
+
+	/**
+	 * The character set used to encode strings.
+	 * @since	TFP 1.9
+	 */
+	private static final Charset	UTF8	= Charset.forName ("UTF-8");
+
+	/**
+	 * <CODE>Logger</CODE> instance used to record problems.
+	 * @since	TFP 1.9
+	 */
+	private static Logger			logger
+		= Logger.getLogger ("com.handcoded.fpml.schemes.SchemeSnapshot");
+
+	/**
+	 * Ensures no instances can be constructed.
+	 * @since	TFP 1.9
+	 */
+	private SchemeSnapshot ()
+	{ }
+
+	/**
+	 * Provides the modification time and length of a local file.
+	 *
+	 * @param 	file			The <CODE>File</CODE> to examine.
+	 * @return	An array holding the modification time and length or
+	 * 			<CODE>null</CODE> if the file does not exist.
+	 * @since	TFP 1.9
+	 */
+	private static long [] stamp (final File file)
+	{
+		return (file.isFile () ? new long [] { file.lastModified (), file.length () } : null);
+	}
+
+	/**
+	 * Finds the table index for a string, adding it if necessary.
+	 *
+	 * @param 	value			The string to be stored or <CODE>null</CODE>.
+	 * @param 	indexes			The index of each string already stored.
+	 * @param 	strings			The strings stored so far.
+	 * @return	The table index or -1 for <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static int intern (final String value, HashMap<String, Integer> indexes,
+			ArrayList<String> strings)
+	{
+		if (value == null) return (-1);
+
+		Integer		index = indexes.get (value);
+
+		if (index == null) {
+			indexes.put (value, index = strings.size ());
+			strings.add (value);
+		}
+		return (index);
+	}
+
+	/**
+	 * Maps a table index back to its string.
+	 *
+	 * @param 	strings			The string table.
+	 * @param 	index			The table index or -1 for <CODE>null</CODE>.
+	 * @return	The corresponding string.
+	 * @since	TFP 1.9
+	 */
+	private static String string (final String [] strings, int index)
+	{
+		return ((index >= 0) ? strings [index] : null);
+	}
+
+	/**
+	 * Writes a length prefixed UTF-8 string.
+	 *
+	 * @param 	stream			The <CODE>DataOutputStream</CODE> to write to.
+	 * @param 	value			The string to write.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	private static void writeString (DataOutputStream stream, final String value)
+		throws IOException
+	{
+		byte []		bytes = value.getBytes (UTF8);
+
+		stream.writeInt (bytes.length);
+		stream.write (bytes);
+	}
+
+	/**
+	 * Reads a length prefixed UTF-8 string.
+	 *
+	 * @param 	buffer			The <CODE>ByteBuffer</CODE> to read from.
+	 * @param 	bytes			A scratch array used for short strings.
+	 * @return	The string read.
+	 * @since	TFP 1.9
+	 */
+	private static String readString (ByteBuffer buffer, byte [] bytes)
+	{
+		int			length = buffer.getInt ();
+
+		if (length > bytes.length) bytes = new byte [length];
+		buffer.get (bytes, 0, length);
+		return (new String (bytes, 0, length, UTF8));
+	}
+}
\ No newline at end of file
@@ -13,6 +13,8 @@
 
 package com.handcoded.fpml.util;
 
+import java.io.IOException;
+
 import org.w3c.dom.Element;
 
 import com.handcoded.xml.DOM;
@@ -82,14 +84,43 @@ public final class Identifier
 	@Override
 	public String toString ()
 	{
-		synchronized (buffer) {
-			buffer.setLength (0);
-			if (schemeUri != null) buffer.append (schemeUri);
-			buffer.append (':');
-			if (codeValue != null) buffer.append (codeValue);
-			
-			return (buffer.toString ());
-		}
+		return (appendTo (new StringBuilder (length ())).toString ());
+	}
+	
+	/**
+	 * Appends the qualified value (scheme URI, ':' and code value) to a
+	 * <CODE>StringBuilder</CODE>.
+	 * 
+	 * @param 	builder			The <CODE>StringBuilder</CODE> to append to.
+	 * @return	The <CODE>StringBuilder</CODE>.
+	 * @since	TFP 1.9
+	 */
+	public StringBuilder appendTo (StringBuilder builder)
+	{
+		if (schemeUri != null) builder.append (schemeUri);
+		builder.append (':');
+		if (codeValue != null) builder.append (codeValue);
+		
+		return (builder);
+	}
+	
+	/**
+	 * Appends the qualified value to an <CODE>Appendable</CODE> such as a
+	 * <CODE>Writer</CODE>.
+	 * 
+	 * @param 	target			The <CODE>Appendable</CODE> to append to.
+	 * @return	The <CODE>Appendable</CODE>.
+	 * @throws	IOException If an I/O error occurs.
+	 * @since	TFP 1.9
+	 */
+	public Appendable appendTo (Appendable target)
+		throws IOException
+	{
+		if (schemeUri != null) target.append (schemeUri);
+		target.append (':');
+		if (codeValue != null) target.append (codeValue);
+		
+		return (target);
 	}
 	
 	/**
@@ -99,7 +130,8 @@ public final class Identifier
 	@Override
 	public int hashCode ()
 	{
-		return (toString ().hashCode ());
+		return (31 * ((schemeUri != null) ? schemeUri.hashCode () : 0)
+				+ ((codeValue != null) ? codeValue.hashCode () : 0));
 	}
 	
 	/**
@@ -125,12 +157,6 @@ public final class Identifier
 		return (equals (schemeUri, other.schemeUri) && equals (codeValue, other.codeValue));
 	}
 	
-	/**
-	 * A static buffer used to format the string value.
-	 * @since	TFP 1.6
-	 */
-	private static StringBuffer	buffer		= new StringBuffer ();
-	
 	/**
 	 * The qualifying scheme URI.
 	 * @since	TFP 1.6
@@ -143,6 +169,18 @@ public final class Identifier
 	 */
 	private final String		codeValue;
 	
+	/**
+	 * Calculates the length of the qualified value.
+	 * 
+	 * @return	The number of characters in the <CODE>toString</CODE> value.
+	 * @since	TFP 1.9
+	 */
+	private int length ()
+	{
+		return (((schemeUri != null) ? schemeUri.length () : 0) + 1
+				+ ((codeValue != null) ? codeValue.length () : 0));
+	}
+	
 	/**
 	 * Compares to string or null values to determine if they have the same
 	 * value.
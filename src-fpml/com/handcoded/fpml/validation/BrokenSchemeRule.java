@@ -25,6 +25,7 @@ import com.handcoded.validation.Rule;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>BrokenSchemeRule</CODE> class provided the logic to validate FpML
@@ -110,6 +111,16 @@ public class BrokenSchemeRule extends Rule
 		return (result);
 	}	 
 	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeElements (elementNames);
+	}
+	
 	/**
 	 * Validates the data content of a set of elements by locating the scheme
 	 * identified by the scheme attribute.
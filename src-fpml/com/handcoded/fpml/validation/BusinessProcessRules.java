@@ -21,6 +21,7 @@ import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>BusinessProcessRules</CODE> class contains a <CODE>RuleSet</CODE>
@@ -50,6 +51,17 @@ public final class BusinessProcessRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("firstPeriodStartDate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("firstPeriodStartDate");
+				scope.includeType ("FirstPeriodStartDate");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -91,6 +103,17 @@ public final class BusinessProcessRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("firstPeriodStartDate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("firstPeriodStartDate");
+				scope.includeType ("FirstPeriodStartDate");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -28,6 +28,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -131,6 +132,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -186,6 +197,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -240,6 +261,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -305,6 +336,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -358,6 +399,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -412,6 +463,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -465,6 +526,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -515,6 +586,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -568,6 +649,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -613,6 +704,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -661,6 +762,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -710,6 +821,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -759,6 +880,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -808,6 +939,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("referenceInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("referenceInformation");
+				scope.includeType ("ReferenceInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -857,6 +998,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("referenceInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("referenceInformation");
+				scope.includeType ("ReferenceInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -906,6 +1057,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("referenceInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("referenceInformation");
+				scope.includeType ("ReferenceInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -950,6 +1111,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("referenceInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("referenceInformation");
+				scope.includeType ("ReferenceInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -995,6 +1166,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1045,6 +1226,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1091,6 +1282,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 				{
 				boolean		result 	= true;
@@ -1146,6 +1347,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1205,6 +1416,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1260,6 +1481,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1319,6 +1550,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1380,6 +1621,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 					boolean		result 	= true;
@@ -1429,6 +1680,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1506,6 +1767,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1583,6 +1854,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1648,6 +1929,16 @@ public final class CdsRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1715,6 +2006,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1727,9 +2028,7 @@ public final class CdsRules extends FpMLRuleSet
 						Element	events	= XPath.path (context, "protectionTerms", "creditEvents");
 
 						if (events != null) {
-							NodeList	children = events.getChildNodes ();
-							for (int count = 0; count < children.getLength (); ++count) {
-								Node	node = children.item (count);
+							for (Node node = events.getFirstChild (); node != null; node = node.getNextSibling ()) {
 								if (node instanceof Element) {
 									String localName = node.getLocalName();
 
@@ -1778,6 +2077,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1829,6 +2138,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1893,6 +2212,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -1964,6 +2293,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2012,6 +2351,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2059,6 +2408,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2106,6 +2465,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2152,6 +2521,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2199,6 +2578,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2246,6 +2635,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2293,6 +2692,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2340,6 +2749,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("periodicPayment"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("periodicPayment");
+				scope.includeType ("PeriodicPayment");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2392,6 +2811,16 @@ public final class CdsRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "trade", "contract" });
+				scope.includeTypes (new String [] { "Trade", "Contract" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2442,6 +2871,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("periodicPayment"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("periodicPayment");
+				scope.includeType ("PeriodicPayment");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2492,6 +2931,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("deliverableObligations"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("deliverableObligations");
+				scope.includeType ("DeliverableObligations");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2500,9 +2949,7 @@ public final class CdsRules extends FpMLRuleSet
 					Element		context = (Element) list.item (index);
 
 					if (equal (XPath.path (context, "category"), "ReferenceObligationsOnly")) {
-						NodeList	children = context.getChildNodes ();
-						for (int count = 0; count < children.getLength(); ++count) {
-							Node node	= children.item (count);
+						for (Node node = context.getFirstChild (); node != null; node = node.getNextSibling ()) {
 							if ((node instanceof Element) && !node.getLocalName ().equals ("category")) {
 								errorHandler.error ("305", context,
 									"Deliverable obligations category is set to 'Reference " +
@@ -2539,6 +2986,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditEvents"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditEvents");
+				scope.includeType ("CreditEvents");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2580,6 +3037,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("publiclyAvailableInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("publiclyAvailableInformation");
+				scope.includeType ("PubliclyAvailableInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2624,6 +3091,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("cashSettlementTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("cashSettlementTerms");
+				scope.includeType ("CashSettlementTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2674,6 +3151,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("referencePool"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("referencePool");
+				scope.includeType ("ReferencePool");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -2722,6 +3209,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("basketReferenceInformation"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("basketReferenceInformation");
+				scope.includeType ("BasketReferenceInformation");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -2764,6 +3261,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("tranche"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("tranche");
+				scope.includeType ("Tranche");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -2806,6 +3313,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2851,6 +3368,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("generalTerms"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("generalTerms");
+				scope.includeType ("GeneralTerms");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -2919,6 +3446,15 @@ public final class CdsRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+			}
 		};
 
 	/**
@@ -2942,6 +3478,16 @@ public final class CdsRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("creditDefaultSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("creditDefaultSwap");
+				scope.includeType ("CreditDefaultSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
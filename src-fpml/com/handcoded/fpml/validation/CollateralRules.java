@@ -24,6 +24,7 @@ import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -68,6 +69,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("requestMargin"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("requestMargin");
+				scope.includeType ("RequestMargin");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -127,6 +139,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("requestMargin"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("requestMargin");
+				scope.includeType ("RequestMargin");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -187,6 +210,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("markToMarket"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("markToMarket");
+				scope.includeType ("MarkToMarket");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -241,6 +275,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("collateral"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("collateral");
+				scope.includeType ("CollateralBalance");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -295,6 +340,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("requestMargin"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("requestMargin");
+				scope.includeType ("RequestMargin");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -344,6 +400,17 @@ public final class CollateralRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("collateral"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("collateral");
+				scope.includeType ("CollateralBalance");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -401,6 +468,19 @@ public final class CollateralRules extends FpMLRuleSet
 					  & validate (nodeIndex.getElementsByName ("requestSubstitutionRetracted"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"requestSubstitution", "requestSubstitutionRetracted" });
+				scope.includeTypes (new String [] {
+						"RequestSubstitution", "RequestSubstitutionRetracted" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -445,6 +525,17 @@ public final class CollateralRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("interestPeriod"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("interestPeriod");
+				scope.includeType ("InterestPeriod");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -489,6 +580,17 @@ public final class CollateralRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("interestCalculationDetails"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			@Override
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("interestCalculationDetails");
+				scope.includeType ("InterestCalculationDetails");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result  =	true;
@@ -19,6 +19,7 @@ import org.w3c.dom.NodeList;
 
 import com.handcoded.validation.Precondition;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>ContentPrecondition</CODE> checks if the document being processed
@@ -71,6 +72,17 @@ public class ContentPrecondition extends Precondition
 		return (false);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeElements (elements);
+		scope.includeTypes (types);
+	}
+	
 	/**
 	 * A list of element names to check for.
 	 * @since	TFP 1.6
@@ -26,6 +26,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * This class provides datatype validation rules for the DTD based FpML
@@ -59,6 +60,15 @@ public final class DataTypeRules
 				return (validate (nodeIndex.getElementsByName ("hourMinuteTime"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("hourMinuteTime");
+			}
+
 			/**
 			 * Applies validation to each context <CODE>Element</CODE> in the
 			 * provided <CODE>NodeList</CODE>.
@@ -157,6 +167,30 @@ public final class DataTypeRules
 				  & validate (nodeIndex.getElementsByName ("valueDate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"adjustedEarlyTerminationDate", "adjustedEffectiveDate", "adjustedEndDate",
+						"adjustedExerciseDate", "adjustedExerciseFeePaymentDate",
+						"adjustedExtendedTerminationDate", "adjustedFixingDate",
+						"adjustedFxSpotFixingDate", "adjustedPrincipalExchangeDate",
+						"adjustedRelevantSwapEffectiveDate", "adjustedStartDate",
+						"adjustedTerminationDate", "adjustedPaymentDate", "currency1ValueDate",
+						"currency2ValueDate", "expiryDate", "firstNotionalStepDate",
+						"firstPaymentDate", "firstRegularPeriodStartDate", "fixingDate",
+						"lastNotionalStepDate", "lastRegularPaymentDate",
+						"lastRegularPeriodEndDate", "masterAgreementDate", "observationDate",
+						"observationEndDate", "observationStartDate", "resetDate", "stepDate",
+						"premiumSettlementDate", "tradeDate", "unadjustedDate",
+						"unadjustedEndDate", "unadjustedFirstDate", "unadjustedLastDate",
+						"unadjustedPaymentDate", "unadjustedPrincipalExchangeDate",
+						"unadjustedStartDate", "valuationDate", "valueDate" });
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -264,6 +298,26 @@ public final class DataTypeRules
 				  & validate (nodeIndex.getElementsByName ("triggerRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"amount", "averageRateWeightingFactor", "calculatedRate", "discountRate",
+						"feeAmount", "feeRate", "fixedPaymentAmount", "fixedRate",
+						"floatingRateMultiplier", "forwardPoints", "initialRate", "initialValue",
+						"integralMultipleAmount", "integralMultipleExercise",
+						"maximumNotionalAmount", "maximumNumberOfOptions", "minimumNotionalAmount",
+						"minimumNumberOfOptions", "notionalAmount", "notionalStepAmount",
+						"notionalStepRate", "numberOfOptions", "observedFxSpotRate",
+						"observedRate", "optionEntitlement", "percentageOfNotional",
+						"premiumValue", "pricePerOption", "principalExchangeAmount", "rate",
+						"spotPrice", "spotRate", "spread", "stepValue", "strikePrice",
+						"strikeRate", "stubRate", "thresholdRate", "treatedRate", "triggerRate" });
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -333,6 +387,16 @@ public final class DataTypeRules
 				  & validate (nodeIndex.getElementsByName ("periodMultiplier"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"intermediarySequenceNumber", "periodMultiplier" });
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -403,6 +467,16 @@ public final class DataTypeRules
 				  & validate (nodeIndex.getElementsByName ("periodSkip"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"calculationPeriodNumberOfDays", "observationWeight", "periodSkip" });
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -471,6 +545,15 @@ public final class DataTypeRules
 				  	validate (nodeIndex.getElementsByName ("precision"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("precision");
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -549,6 +632,19 @@ public final class DataTypeRules
 				  &	validate (nodeIndex.getElementsByName ("swaptionStraddle"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"automaticExerciseApplicable", "cashflowsMatchParameters",
+						"failureToDeliverApplicable", "fallbackExercise", "finalExchange",
+						"followUpConfirmation", "fraDiscounting", "initialExchange",
+						"intermediateExchange", "swapPremium", "swaptionStraddle" });
+			}
+			
 			/**
 			 * The regular expression used to detect valid instances.
 			 * @since	TFP 1.0
@@ -19,6 +19,7 @@ import org.w3c.dom.NodeList;
 
 import com.handcoded.xml.MutableNodeList;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * An instance of <CODE>ElementContext</CODE> defines the context for a
@@ -29,7 +30,7 @@ import com.handcoded.xml.NodeIndex;
  * @version	$Id$
  * @since	TFP 1.6
  */
-public final class ElementContext implements RuleContext
+public final class ElementContext implements ScopedRuleContext
 {
 	/**
 	 * Constructs an <CODE>ElementContext</CODE> given an array of parent
@@ -115,6 +116,37 @@ public final class ElementContext implements RuleContext
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeElements (elementNames);
+	}
+	
+	/**
+	 * Provides access to the parent element names.
+	 * 
+	 * @return	The parent element names or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	String [] getParentNames ()
+	{
+		return (parentNames);
+	}
+	
+	/**
+	 * Provides access to the context element names.
+	 * 
+	 * @return	The context element names.
+	 * @since	TFP 1.9
+	 */
+	String [] getElementNames ()
+	{
+		return (elementNames);
+	}
+	
 	/**
 	 * A list of the local parent element names corresponding to the
 	 * <CODE>elementNames</CODE>. If the array has a <CODE>null</CODE> value
@@ -24,6 +24,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -104,6 +105,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName("equityAmericanExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityAmericanExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -144,6 +154,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName("equityAmericanExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityAmericanExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -184,6 +203,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityAmericanExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityAmericanExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -224,6 +252,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -264,6 +301,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -304,6 +350,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -344,6 +399,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -385,6 +449,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -425,6 +498,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -466,6 +548,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -507,6 +598,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityBermudaExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityBermudaExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -547,6 +647,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityEuropeanExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityEuropeanExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -587,6 +696,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -627,6 +745,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -667,6 +794,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("equityExercise"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("equityExercise");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -709,6 +845,17 @@ public final class EqdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption",
+						"equityOptionTransactionSupplement" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -757,6 +904,17 @@ public final class EqdRules extends FpMLRuleSet
 						  & validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption",
+						"equityOptionTransactionSupplement" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -805,6 +963,17 @@ public final class EqdRules extends FpMLRuleSet
 					  & validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption",
+						"equityOptionTransactionSupplement" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -854,6 +1023,17 @@ public final class EqdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption",
+						"equityOptionTransactionSupplement" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -903,6 +1083,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("calculationAgent"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationAgent");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -946,6 +1135,16 @@ public final class EqdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("equityForward"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption", "equityForward" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -990,6 +1189,16 @@ public final class EqdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("equityForward"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"equityOption", "brokerEquityOption", "equityForward" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1030,6 +1239,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("schedule"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("schedule");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1069,6 +1287,15 @@ public final class EqdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("brokerEquityOption"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("brokerEquityOption");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1121,6 +1348,19 @@ public final class EqdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 			}
 	
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"brokerEquityOption", "equityOption",
+						"equityOptionTransactionSupplement" });
+				scope.includeTypes (new String [] {
+						"EquityOption", "EquityDerivativeShortFormBase" });
+			}
+	
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1165,6 +1405,17 @@ public final class EqdRules extends FpMLRuleSet
 				& validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElements (new String [] {
+					"brokerEquityOption", "equityOption", "equityOptionTransactionSupplement" });
+			scope.includeTypes (new String [] { "EquityOption", "EquityDerivativeShortFormBase" });
+		}
+
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
@@ -1204,6 +1455,16 @@ public final class EqdRules extends FpMLRuleSet
 			return (validate (nodeIndex.getElementsByName ("equityMultipleExercise"), errorHandler));
 		}
 	
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElement ("equityMultipleExercise");
+			scope.includeType ("EquityMultipleExercise");
+		}
+	
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
@@ -1243,6 +1504,16 @@ public final class EqdRules extends FpMLRuleSet
 			return (validate (nodeIndex.getElementsByName ("equityMultipleExercise"), errorHandler));
 		}
 	
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElement ("equityMultipleExercise");
+			scope.includeType ("EquityMultipleExercise");
+		}
+	
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
@@ -1285,6 +1556,16 @@ public final class EqdRules extends FpMLRuleSet
 			return (validate (nodeIndex.getElementsByName ("equityMultipleExercise"), errorHandler));
 		}
 	
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElement ("equityMultipleExercise");
+			scope.includeType ("EquityMultipleExercise");
+		}
+	
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
@@ -1330,6 +1611,17 @@ public final class EqdRules extends FpMLRuleSet
 				& validate (nodeIndex.getElementsByName ("equityOptionTransactionSupplement"), errorHandler));
 		}
 
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElements (new String [] {
+					"brokerEquityOption", "equityOption", "equityOptionTransactionSupplement" });
+			scope.includeType ("EquityDerivativeBase");
+		}
+
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
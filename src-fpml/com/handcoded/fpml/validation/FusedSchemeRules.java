@@ -0,0 +1,363 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.fpml.validation;
+
+import java.util.Hashtable;
+import java.util.Vector;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.handcoded.fpml.Releases;
+import com.handcoded.fpml.meta.SchemeAccess;
+import com.handcoded.fpml.schemes.SchemeCollection;
+import com.handcoded.meta.Release;
+import com.handcoded.validation.Rule;
+import com.handcoded.validation.RuleFusion;
+import com.handcoded.validation.ValidationErrorHandler;
+import com.handcoded.validation.Validator;
+import com.handcoded.xml.NodeIndex;
+
+/**
+ * The <CODE>FusedSchemeRules</CODE> class performs the checks of a group of
+ * <CODE>SchemeRule</CODE> instances together.
+ * <P>
+ * The element names of all the rules are collected into a single dispatch
+ * table so that the elements with each name are fetched from the
+ * <CODE>NodeIndex</CODE> once and checked against every rule that uses
+ * that name. The release and <CODE>SchemeCollection</CODE> for the document
+ * are resolved once rather than once per rule. Errors are reported with the
+ * same codes and rule names as the individual rules would use.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class FusedSchemeRules extends Validator
+{
+	/**
+	 * The <CODE>RuleFusion</CODE> returned by <CODE>SchemeRule</CODE>
+	 * instances.
+	 * @since	TFP 1.9
+	 */
+	static final RuleFusion		FUSION
+		= new RuleFusion ()
+			{
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				public Validator fuse (final Rule [] rules)
+				{
+					return (new FusedSchemeRules (rules));
+				}
+			};
+
+	/**
+	 * Constructs a <CODE>FusedSchemeRules</CODE> instance for a group of
+	 * <CODE>SchemeRule</CODE> instances.
+	 *
+	 * @param 	rules			The <CODE>SchemeRule</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	FusedSchemeRules (final Rule [] rules)
+	{
+		Vector<String>				found	= new Vector<String> ();
+		Hashtable<String, Vector<Target>> targets = new Hashtable<String, Vector<Target>> ();
+
+		this.rules = new SchemeRule [rules.length];
+		for (int index = 0; index < rules.length; ++index) {
+			SchemeRule	rule = (SchemeRule) rules [index];
+			String []	parentNames  = rule.getElementContext ().getParentNames ();
+			String []	elementNames = rule.getElementContext ().getElementNames ();
+
+			this.rules [index] = rule;
+			for (int name = 0; name < elementNames.length; ++name) {
+				Vector<Target>	list = targets.get (elementNames [name]);
+
+				if (list == null) {
+					targets.put (elementNames [name], list = new Vector<Target> ());
+					found.add (elementNames [name]);
+				}
+				list.add (new Target (index, (parentNames != null) ? parentNames [name] : null));
+			}
+		}
+
+		names	  = found.toArray (new String [found.size ()]);
+		dispatch  = new Target [names.length][];
+		for (int index = 0; index < names.length; ++index) {
+			Vector<Target>	list = targets.get (names [index]);
+
+			dispatch [index] = list.toArray (new Target [list.size ()]);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected boolean validate (NodeIndex nodeIndex, ValidationErrorHandler errorHandler)
+	{
+		boolean		typed  = nodeIndex.hasTypeInformation ();
+		State		state  = new State (rules.length);
+		boolean		result = true;
+
+		if (typed) {
+			for (int rule = 0; rule < rules.length; ++rule) {
+				TypeContext	context = rules [rule].getTypeContext ();
+
+				if (context != null) {
+					NodeList	list = context.getMatchingElements (nodeIndex);
+
+					for (int index = 0; index < list.getLength (); ++index)
+						result &= validate (rule, (Element) list.item (index), state, errorHandler);
+				}
+			}
+		}
+
+		for (int name = 0; name < names.length; ++name) {
+			NodeList	list	= nodeIndex.getElementsByName (names [name]);
+			Target []	targets = dispatch [name];
+
+			for (int index = 0; index < list.getLength (); ++index) {
+				Element		element = (Element) list.item (index);
+
+				for (Target target : targets) {
+					if (typed && (rules [target.rule].getTypeContext () != null)) continue;
+
+					if (target.parentName != null) {
+						Node		parent = element.getParentNode ();
+
+						if ((parent.getNodeType () != Node.ELEMENT_NODE)
+								|| !parent.getLocalName ().equals (target.parentName))
+							continue;
+					}
+					result &= validate (target.rule, element, state, errorHandler);
+				}
+			}
+		}
+		return (result);
+	}
+
+	/**
+	 * A <CODE>Target</CODE> records a rule to be applied to the elements
+	 * with a particular name.
+	 *
+	 * @since	TFP 1.9
+	 */
+	private static final class Target
+	{
+		/**
+		 * Constructs a <CODE>Target</CODE> instance.
+		 *
+		 * @param 	rule			The index of the rule.
+		 * @param 	parentName		The required parent element name or
+		 * 							<CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Target (int rule, final String parentName)
+		{
+			this.rule		= rule;
+			this.parentName	= parentName;
+		}
+
+		/**
+		 * The index of the rule.
+		 * @since	TFP 1.9
+		 */
+		final int			rule;
+
+		/**
+		 * The required parent element name or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		final String		parentName;
+	}
+
+	/**
+	 * A <CODE>Context</CODE> records the release information resolved from
+	 * an element that defines the FpML version.
+	 *
+	 * @since	TFP 1.9
+	 */
+	private static final class Context
+	{
+		/**
+		 * Constructs a <CODE>Context</CODE> by resolving the release for
+		 * a version defining element.
+		 *
+		 * @param 	fpml			The version defining <CODE>Element</CODE> or
+		 * 							<CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Context (final Element fpml)
+		{
+			this.fpml = fpml;
+
+			version = SchemeRule.getVersion (fpml);
+			release = Releases.FPML.getReleaseForVersion (version);
+			schemes = (release != null) ? ((SchemeAccess) release).getSchemeCollection () : null;
+		}
+
+		/**
+		 * The version defining <CODE>Element</CODE> or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		final Element			fpml;
+
+		/**
+		 * The FpML version number or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		final String			version;
+
+		/**
+		 * The corresponding <CODE>Release</CODE> or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		final Release			release;
+
+		/**
+		 * The <CODE>SchemeCollection</CODE> for the release or <CODE>null
+		 * </CODE>.
+		 * @since	TFP 1.9
+		 */
+		final SchemeCollection	schemes;
+	}
+
+	/**
+	 * The <CODE>State</CODE> class records the release information used by
+	 * each rule while a document is being validated.
+	 *
+	 * @since	TFP 1.9
+	 */
+	private static final class State
+	{
+		/**
+		 * Constructs a <CODE>State</CODE> for the given number of rules.
+		 *
+		 * @param 	rules			The number of rules.
+		 * @since	TFP 1.9
+		 */
+		State (int rules)
+		{
+			contexts = new Context [rules];
+			failed	 = new boolean [rules];
+		}
+
+		/**
+		 * The <CODE>Context</CODE> used by each rule (set from the first
+		 * element it examines).
+		 * @since	TFP 1.9
+		 */
+		final Context []		contexts;
+
+		/**
+		 * Set for rules whose release could not be resolved.
+		 * @since	TFP 1.9
+		 */
+		final boolean []		failed;
+
+		/**
+		 * The <CODE>Context</CODE> resolved for each version defining
+		 * element.
+		 * @since	TFP 1.9
+		 */
+		final Hashtable<Element, Context> resolved = new Hashtable<Element, Context> ();
+
+		/**
+		 * The <CODE>Context</CODE> for elements with no version defining
+		 * ancestor.
+		 * @since	TFP 1.9
+		 */
+		Context					orphan	= null;
+	}
+
+	/**
+	 * The rules being executed.
+	 * @since	TFP 1.9
+	 */
+	private final SchemeRule []	rules;
+
+	/**
+	 * The distinct element names used by the rules.
+	 * @since	TFP 1.9
+	 */
+	private final String []		names;
+
+	/**
+	 * The <CODE>Target</CODE> instances for each element name.
+	 * @since	TFP 1.9
+	 */
+	private final Target [][]	dispatch;
+
+	/**
+	 * Applies one of the rules to an element, resolving its release the
+	 * first time the rule is used.
+	 *
+	 * @param 	rule			The index of the rule.
+	 * @param 	element			The <CODE>Element</CODE> to validate.
+	 * @param 	state			The <CODE>State</CODE> for the document.
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> used to
+	 * 							report errors.
+	 * @return	<CODE>true</CODE> if the value is valid.
+	 * @since	TFP 1.9
+	 */
+	private boolean validate (int rule, final Element element, State state,
+			ValidationErrorHandler errorHandler)
+	{
+		if (state.failed [rule]) return (false);
+
+		Context		context = state.contexts [rule];
+		String		name	= rules [rule].getDisplayName ();
+
+		if (context == null) {
+			Element		fpml = SchemeRule.findVersionElement (element);
+
+			if (fpml != null) {
+				if ((context = state.resolved.get (fpml)) == null)
+					state.resolved.put (fpml, context = new Context (fpml));
+			}
+			else {
+				if ((context = state.orphan) == null)
+					state.orphan = context = new Context (null);
+			}
+			state.contexts [rule] = context;
+
+			if (context.version == null)
+				errorHandler.error ("999", element, "", "", "");
+
+			if (context.release == null) {
+				errorHandler.error ("305", null,
+						"The document release is not in the schema set -- Check configuration",
+						name, null);
+				state.failed [rule] = true;
+				return (false);
+			}
+
+			if (context.schemes == null) {
+				errorHandler.error ("305", null,
+						"No schemes data is available for this FpML version -- Check configuration",
+						name, null);
+				state.failed [rule] = true;
+				return (false);
+			}
+		}
+
+		return (SchemeRule.validate (element, rules [rule].getAttributeName (),
+				context.version, context.fpml, context.schemes, name, errorHandler));
+	}
+}
\ No newline at end of file
@@ -23,12 +23,15 @@ import com.handcoded.finance.Date;
 import com.handcoded.finance.DateRoll;
 import com.handcoded.finance.Interval;
 import com.handcoded.finance.Period;
+import com.handcoded.finance.Schedule;
+import com.handcoded.finance.ScheduleGenerator;
 import com.handcoded.validation.Precondition;
 import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -177,6 +180,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -217,6 +230,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -258,6 +281,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -303,6 +336,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -347,6 +390,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -389,6 +442,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("exchangeRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("exchangeRate");
+				scope.includeType ("ExchangeRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -432,6 +495,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAmericanTrigger"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAmericanTrigger");
+				scope.includeTypes (new String [] { "FXAmericanTrigger", "FxAmericanTrigger" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -474,6 +547,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAmericanTrigger"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAmericanTrigger");
+				scope.includeTypes (new String [] { "FXAmericanTrigger", "FxAmericanTrigger" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -517,6 +600,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("touch"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("touch");
+				scope.includeType ("FxTouch");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -561,6 +654,17 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("averageRateObservationSchedule"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("averageRateObservationSchedule");
+				scope.includeTypes (new String [] {
+						"FXAverageRateObservationSchedule", "FxAverageRateObservationSchedule" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -604,6 +708,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("averageRateObservationSchedule"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("averageRateObservationSchedule");
+				scope.includeType ("FxAverageRateObservationSchedule");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -649,6 +763,17 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("averageRateObservationSchedule"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("averageRateObservationSchedule");
+				scope.includeTypes (new String [] {
+						"FXAverageRateObservationSchedule", "FxAverageRateObservationSchedule" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -693,6 +818,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("averageRateObservationSchedule"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("averageRateObservationSchedule");
+				scope.includeType ("FxAverageRateObservationSchedule");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -737,6 +872,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -787,6 +932,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("asian"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("asian");
+				scope.includeType ("FxAsianFeature");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -839,6 +994,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -856,7 +1021,7 @@ public final class FxRules extends FpMLRuleSet
 					
 					if ((start == null) || (end == null) || (freq == null) || (roll == null)) continue;
 					
-					Date [] 	dates	= generateSchedule (toDate (start), toDate (end),
+					Schedule 	dates	= createSchedule (toDate (start), toDate (end),
 							toInterval (freq), DateRoll.forName (toToken (roll)), null);
 					
 					NodeList	nodes	= XPath.paths (context, "observedRates", "observationDate");
@@ -865,15 +1030,7 @@ public final class FxRules extends FpMLRuleSet
 						Element 	observed = (Element) nodes.item (count);
 						Date		date 	 = toDate (observed);
 						
-						boolean		found = false;
-						for (int match = 0; match < dates.length; ++match) {
-							if (equal (date, dates [match])) {
-								found = true;
-								break;
-							}
-						}
-						
-						if (!found) {
+						if (!dates.contains (date)) {
 							errorHandler.error ("305", observed,
 									"Observation date '" + toToken (observed) +
 									"' does not match with the schedule.",
@@ -909,6 +1066,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("asian"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("asian");
+				scope.includeType ("FxAsianFeature");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -926,7 +1093,7 @@ public final class FxRules extends FpMLRuleSet
 					
 					if ((start == null) || (end == null) || (freq == null) || (roll == null)) continue;
 					
-					Date [] 	dates	= generateSchedule (toDate (start), toDate (end),
+					Schedule 	dates	= createSchedule (toDate (start), toDate (end),
 							toInterval (freq), DateRoll.forName (toToken (roll)), null);
 					
 					NodeList	nodes	= XPath.paths (context, "rateObservation", "date");
@@ -935,15 +1102,7 @@ public final class FxRules extends FpMLRuleSet
 						Element 	observed = (Element) nodes.item (count);
 						Date		date 	 = toDate (observed);
 						
-						boolean		found = false;
-						for (int match = 0; match < dates.length; ++match) {
-							if (equal (date, dates [match])) {
-								found = true;
-								break;
-							}
-						}
-						
-						if (!found) {
+						if (!dates.contains (date)) {
 							errorHandler.error ("305", observed,
 									"Observation date '" + toToken (observed) +
 									"' does not match with the schedule.",
@@ -979,6 +1138,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1046,6 +1215,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxBarrier"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxBarrier");
+				scope.includeTypes (new String [] { "FXBarrier", "FxBarrier" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1089,6 +1268,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("barrier"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("barrier");
+				scope.includeType ("FxBarrierFeature");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1132,6 +1321,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxBarrierOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxBarrierOption");
+				scope.includeTypes (new String [] { "FXBarrierOption", "FxBarrierOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1175,6 +1374,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxDigitalOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxDigitalOption");
+				scope.includeTypes (new String [] { "FXDigitalOption", "FxDigitalOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1216,6 +1425,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxEuropeanTrigger"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxEuropeanTrigger");
+				scope.includeTypes (new String [] { "FXEuropeanTrigger", "FxEuropeanTrigger" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1259,6 +1478,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeTypes (new String [] { "FXLeg", "FxLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1308,6 +1537,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeType ("FxSingleLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1366,6 +1605,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeTypes (new String [] { "FXLeg", "FxLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1409,6 +1658,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeType ("FxSingleLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1451,6 +1710,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeTypes (new String [] { "FXLeg", "FxLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1494,6 +1763,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeType ("FxSingleLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1539,6 +1818,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeTypes (new String [] { "FXLeg", "FxLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1581,6 +1870,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSingleLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSingleLeg");
+				scope.includeType ("FxSingleLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1624,6 +1923,16 @@ public final class FxRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("fxBarrierOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "fxSimpleOption", "fxBarrierOption" });
+				scope.includeTypes (new String [] { "FXOptionLeg", "FxOptionLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1671,6 +1980,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxOption");
+				scope.includeType ("FxOption");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1734,6 +2053,16 @@ public final class FxRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("fxBarrierOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "fxSimpleOption", "fxBarrierOption" });
+				scope.includeTypes (new String [] { "FXOptionLeg", "FxOptionLeg" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1775,6 +2104,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxOption");
+				scope.includeType ("FxOption");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1817,6 +2156,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxStrikePrice"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxStrikePrice");
+				scope.includeTypes (new String [] { "FXStrikePrice", "FxStrikePrice" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1860,6 +2209,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSwap");
+				scope.includeTypes (new String [] { "FXSwap", "FxSwap" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1902,6 +2261,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSwap");
+				scope.includeTypes (new String [] { "FXSwap", "FxSwap" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1948,6 +2317,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxSwap"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxSwap");
+				scope.includeType ("FxSwap");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1989,6 +2368,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("quotedCurrencyPair"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("quotedCurrencyPair");
+				scope.includeType ("QuotedCurrencyPair");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2030,6 +2419,16 @@ public final class FxRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("currency2SideRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "currency1SideRate", "currency2SideRate" });
+				scope.includeType ("SideRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2071,6 +2470,16 @@ public final class FxRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("currency2SideRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "currency1SideRate", "currency2SideRate" });
+				scope.includeType ("SideRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2113,6 +2522,16 @@ public final class FxRules extends FpMLRuleSet
 						& validate (nodeIndex.getElementsByName ("currency2SideRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "currency1SideRate", "currency2SideRate" });
+				scope.includeType ("SideRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2158,6 +2577,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("crossRate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("crossRate");
+				scope.includeType ("CrossRate");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2203,6 +2632,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("sideRates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("sideRates");
+				scope.includeType ("SideRates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2246,6 +2685,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("termDeposit"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("termDeposit");
+				scope.includeType ("TermDeposit");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2290,6 +2739,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("termDeposit"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("termDeposit");
+				scope.includeType ("TermDeposit");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2339,6 +2798,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("termDeposit"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("termDeposit");
+				scope.includeType ("TermDeposit");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2380,6 +2849,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("termDeposit"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("termDeposit");
+				scope.includeType ("TermDeposit");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2419,6 +2898,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("termDeposit"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("termDeposit");
+				scope.includeType ("TermDeposit");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2458,6 +2947,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2500,6 +2999,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2542,6 +3051,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("contract");
+				scope.includeType ("Contract");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2584,6 +3103,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2626,6 +3155,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("contract");
+				scope.includeType ("Contract");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2668,6 +3207,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2710,6 +3259,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2752,6 +3311,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("contract");
+				scope.includeType ("Contract");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2794,6 +3363,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2860,6 +3439,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("contract");
+				scope.includeType ("Contract");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2927,6 +3516,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2999,6 +3598,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3109,6 +3718,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("contract"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("contract");
+				scope.includeType ("Contract");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3182,6 +3801,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxBarrier"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxBarrier");
+				scope.includeTypes (new String [] { "FXBarrier", "FxBarrier" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3224,6 +3853,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3275,6 +3914,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3317,6 +3966,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxAverageRateOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxAverageRateOption");
+				scope.includeTypes (new String [] { "FXAverageRateOption", "FxAverageRateOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3365,6 +4024,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxDigitalOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxDigitalOption");
+				scope.includeTypes (new String [] { "FXDigitalOption", "FxDigitalOption" });
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3411,6 +4080,16 @@ public final class FxRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("fxDigitalOption"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxDigitalOption");
+				scope.includeType ("FxDigitalOption");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3472,6 +4151,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("sideRates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("sideRates");
+				scope.includeType ("SideRates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3514,6 +4203,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("sideRates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("sideRates");
+				scope.includeType ("SideRates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3556,6 +4255,16 @@ public final class FxRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("asian"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("asian");
+				scope.includeType ("FxAsianFeature");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3599,6 +4308,16 @@ public final class FxRules extends FpMLRuleSet
 						& validate (nodeIndex.getElementsByName ("farLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "nearLeg", "farLeg" });
+				scope.includeType ("FxSwapLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3643,6 +4362,16 @@ public final class FxRules extends FpMLRuleSet
 						& validate (nodeIndex.getElementsByName ("farLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "nearLeg", "farLeg" });
+				scope.includeType ("FxSwapLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3686,6 +4415,16 @@ public final class FxRules extends FpMLRuleSet
 						& validate (nodeIndex.getElementsByName ("farLeg"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "nearLeg", "farLeg" });
+				scope.includeType ("FxSwapLeg");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3726,6 +4465,16 @@ public final class FxRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3767,6 +4516,16 @@ public final class FxRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("trade"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("trade");
+				scope.includeType ("Trade");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -3826,7 +4585,11 @@ public final class FxRules extends FpMLRuleSet
 	 * @param	calendar	The holiday calendar or <CODE>null</CODE>.
 	 * @return	An array of calculated and adjusted dates.
 	 * @since	TFP 1.2
+	 * @deprecated	Use {@link #createSchedule(Date, Date, Interval, DateRoll, Calendar)}
+	 * 			which returns a <CODE>Schedule</CODE> that can be searched
+	 * 			without comparing every date.
 	 */
+	@Deprecated
 	protected static Date [] generateSchedule (final Date start, final Date end,
 			final Interval frequency, final DateRoll roll, final Calendar calendar)
 	{
@@ -3858,4 +4621,27 @@ public final class FxRules extends FpMLRuleSet
 		found.copyInto (dates  = new Date [found.size ()]);
 		return (dates);
 	}
+	
+	/**
+	 * Generates a <CODE>Schedule</CODE> of dates defined by a start date,
+	 * an end date, an interval, roll convention and a calendar. The dates
+	 * are the same as those returned by <CODE>generateSchedule</CODE>.
+	 * 
+	 * @param	start		The start date.
+	 * @param	end			The end date.
+	 * @param	frequency	The frequency of the schedule (e.g. 6M).
+	 * @param	roll		The date roll convention or <CODE>null</CODE>.
+	 * @param	calendar	The holiday calendar or <CODE>null</CODE>.
+	 * @return	The <CODE>Schedule</CODE> of calculated and adjusted dates
+	 * 			that precede the end date.
+	 * @since	TFP 1.9
+	 */
+	protected static Schedule createSchedule (final Date start, final Date end,
+			final Interval frequency, final DateRoll roll, final Calendar calendar)
+	{
+		if ((frequency.getPeriod () == Period.TERM) || (frequency.getMultiplier () <= 0))
+			return (Schedule.valueOf (generateSchedule (start, end, frequency, roll, calendar)));
+		
+		return (new ScheduleGenerator (frequency, true, roll, calendar).generateBefore (start, end));
+	}
 }
\ No newline at end of file
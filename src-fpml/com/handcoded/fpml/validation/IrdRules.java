@@ -21,12 +21,14 @@ import org.w3c.dom.NodeList;
 import com.handcoded.finance.Date;
 import com.handcoded.finance.Interval;
 import com.handcoded.finance.Period;
+import com.handcoded.finance.ScheduleGenerator;
 import com.handcoded.validation.Precondition;
 import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.Types;
 import com.handcoded.xml.XPath;
 
@@ -173,6 +175,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean result	= true;
@@ -221,6 +233,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -274,6 +296,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -333,6 +365,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -392,6 +434,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -446,6 +498,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -495,6 +557,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -555,6 +627,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -599,6 +681,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -649,6 +741,16 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("capFloorStream"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "swapStream", "capFloorStream" });
+				scope.includeType ("InterestRateStream");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -693,6 +795,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -751,6 +863,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -809,6 +931,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -871,6 +1003,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -915,6 +1057,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -959,6 +1111,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1003,6 +1165,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1047,6 +1219,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1091,6 +1273,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1135,6 +1327,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1179,6 +1381,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1227,6 +1439,16 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("calculationPeriodDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodDates");
+				scope.includeType ("CalculationPeriodDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1271,6 +1493,17 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex, nodeIndex.getElementsByName ("stubCalculationPeriodAmount"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("stubCalculationPeriodAmount");
+				scope.includeType ("StubCalculationPeriodAmount");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1330,6 +1563,17 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex, nodeIndex.getElementsByName ("stubCalculationPeriodAmount"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("stubCalculationPeriodAmount");
+				scope.includeType ("StubCalculationPeriodAmount");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1395,6 +1639,19 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("feeAmountSchedule"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"floatingRateMultiplierSchedule", "spreadSchedule", "fixedRateSchedule",
+						"feeRateSchedule", "capRateSchedule", "floorRateSchedule",
+						"knownAmountSchedule", "notionalStepSchedule", "feeAmountSchedule" });
+				scope.includeType ("Schedule");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1447,6 +1704,19 @@ public final class IrdRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("feeAmountSchedule"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"floatingRateMultiplierSchedule", "spreadSchedule", "fixedRateSchedule",
+						"feeRateSchedule", "capRateSchedule", "floorRateSchedule",
+						"knownAmountSchedule", "feeAmountSchedule" });
+				scope.includeType ("Schedule");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1492,6 +1762,17 @@ public final class IrdRules extends FpMLRuleSet
 					  validate (nodeIndex, nodeIndex.getElementsByName ("businessCentersReference"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("businessCentersReference");
+				scope.includeType ("BusinessCentersReference");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1539,6 +1820,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("mandatoryEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("mandatoryEarlyTermination");
+				scope.includeType ("MandatoryEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1580,6 +1871,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("mandatoryEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("mandatoryEarlyTermination");
+				scope.includeType ("MandatoryEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1631,6 +1932,16 @@ public final class IrdRules extends FpMLRuleSet
 					return (validate (nodeIndex.getElementsByName ("mandatoryEarlyTermination"), errorHandler));
 				}
 
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				protected void declareRequirements (NodeIndexScope scope)
+				{
+					scope.includeElement ("mandatoryEarlyTermination");
+					scope.includeType ("MandatoryEarlyTermination");
+				}
+
 				private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 				{
 					boolean		result = true;
@@ -1678,6 +1989,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("calculation"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculation");
+				scope.includeType ("Calculation");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1725,6 +2046,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("calculationPeriod"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriod");
+				scope.includeType ("CalculationPeriod");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1769,6 +2100,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("calculationPeriod"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriod");
+				scope.includeType ("CalculationPeriod");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -1814,6 +2155,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("discounting"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("discounting");
+				scope.includeType ("Discounting");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1858,6 +2209,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("fra"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fra");
+				scope.includeType ("Fra");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1900,6 +2261,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("paymentCalculationPeriod"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentCalculationPeriod");
+				scope.includeType ("PaymentCalculationPeriod");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1945,6 +2316,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("paymentDates"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentDates");
+				scope.includeType ("PaymentDates");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -1989,6 +2370,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("paymentDates"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentDates");
+				scope.includeType ("PaymentDates");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2037,6 +2428,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("stubCalculationPeriodAmount"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("stubCalculationPeriodAmount");
+				scope.includeType ("StubCalculationPeriodAmount");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2082,6 +2483,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("earlyTerminationEvent"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("earlyTerminationEvent");
+				scope.includeType ("EarlyTerminationEvent");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2125,6 +2536,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("earlyTerminationEvent"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("earlyTerminationEvent");
+				scope.includeType ("EarlyTerminationEvent");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2170,6 +2591,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("earlyTerminationEvent"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("earlyTerminationEvent");
+				scope.includeType ("EarlyTerminationEvent");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2214,6 +2645,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("extensionEvent"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("extensionEvent");
+				scope.includeType ("ExtensionEvent");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2258,6 +2699,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("fxLinkedNotionalAmount"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fxLinkedNotionalAmount");
+				scope.includeType ("FxLinkedNotionalAmount");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2297,6 +2748,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("mandatoryEarlyTerminationAdjustedDates"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("mandatoryEarlyTerminationAdjustedDates");
+				scope.includeType ("MandatoryEarlyTerminationAdjustedDates");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2344,6 +2805,15 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("optionalEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("optionalEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2396,6 +2866,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("optionalEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("optionalEarlyTermination");
+				scope.includeType ("OptionalEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2440,6 +2920,15 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("optionalEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("optionalEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2498,6 +2987,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("optionalEarlyTermination"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("optionalEarlyTermination");
+				scope.includeType ("OptionalEarlyTermination");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2552,6 +3051,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("swaption"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("swaption");
+				scope.includeType ("Swaption");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2610,6 +3119,16 @@ public final class IrdRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("resetFrequency"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("resetFrequency");
+				scope.includeType ("ResetFrequency");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -2691,6 +3210,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("notionalStepSchedule");
+			}
 		};
 
 	/**
@@ -2752,6 +3280,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("fixedRateSchedule");
+			}
 		};
 
 	/**
@@ -2812,6 +3349,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("capRateSchedule");
+			}
 		};
 
 	/**
@@ -2872,6 +3418,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("floorRateSchedule");
+			}
 		};
 
 	/**
@@ -2932,6 +3487,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("knownAmountSchedule");
+			}
 		};
 
 	/**
@@ -2976,6 +3540,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentDates");
+			}
 		};
 
 	/**
@@ -3020,6 +3593,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentDates");
+			}
 		};
 
 	/**
@@ -3058,6 +3640,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodFrequency");
+			}
 		};
 
 	/**
@@ -3095,6 +3686,15 @@ public final class IrdRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationPeriodFrequency");
+			}
 		};
 
 		/**
@@ -3139,6 +3739,15 @@ public final class IrdRules extends FpMLRuleSet
 					}
 					return (result);
 				}
+
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				protected void declareRequirements (NodeIndexScope scope)
+				{
+					scope.includeElement ("resetDates");
+				}
 			};
 
 		/**
@@ -3176,6 +3785,15 @@ public final class IrdRules extends FpMLRuleSet
 					}
 					return (result);
 				}
+
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				protected void declareRequirements (NodeIndexScope scope)
+				{
+					scope.includeElement ("calculationPeriodFrequency");
+				}
 			};
 
 		/**
@@ -3199,6 +3817,16 @@ public final class IrdRules extends FpMLRuleSet
 						validate (nodeIndex.getElementsByName ("notionalStepSchedule"), errorHandler));
 				}
 
+				/**
+				 * {@inheritDoc}
+				 * @since	TFP 1.9
+				 */
+				protected void declareRequirements (NodeIndexScope scope)
+				{
+					scope.includeElement ("notionalStepSchedule");
+					scope.includeType ("NonNegativeSchedule");
+				}
+
 				private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 				{
 					boolean		result = true;
@@ -3342,6 +3970,33 @@ public final class IrdRules extends FpMLRuleSet
 	 * @since	TFP 1.0
 	 */
 	private static boolean isUnadjustedCalculationPeriodDate (Date paymentDate, Date startDate, Date endDate, Interval freq)
+	{
+		if ((freq.getPeriod () == Period.TERM) || (freq.getMultiplier () <= 0))
+			return (stepCalculationPeriodDates (paymentDate, startDate, endDate, freq));
+		
+		if (startDate.compareTo (endDate) > 0) return (false);
+		
+		try {
+			return (new ScheduleGenerator (freq).generate (startDate, endDate).contains (paymentDate));
+		}
+		catch (IllegalArgumentException error) {
+			// A later step may be invalid even though an earlier one matches
+			return (stepCalculationPeriodDates (paymentDate, startDate, endDate, freq));
+		}
+	}
+	
+	/**
+	 * Tests if the payment date falls on a calculated date by stepping
+	 * through each date in turn.
+	 *
+	 * @param 	paymentDate		The payment date.
+	 * @param 	startDate		The calculation period start date.
+	 * @param 	endDate			The calculation period end date.
+	 * @param 	freq			The period frequency.
+	 * @return	<CODE>true</CODE> if the payment date falls on a calculated date.
+	 * @since	TFP 1.9
+	 */
+	private static boolean stepCalculationPeriodDates (Date paymentDate, Date startDate, Date endDate, Interval freq)
 	{
 		Interval	step = new Interval (0, Period.DAY);
 
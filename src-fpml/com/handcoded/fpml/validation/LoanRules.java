@@ -22,6 +22,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 import java.math.BigDecimal;
@@ -69,6 +70,16 @@ public final class LoanRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("loanContract"), errorHandler));
 			}
 		
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("loanContract");
+				scope.includeType ("LoanContract");
+			}
+		
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -115,6 +126,15 @@ public final class LoanRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByType (determineNamespace (nodeIndex), "DrawdownNotice"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeType ("DrawdownNotice");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -165,6 +185,16 @@ public final class LoanRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("currentInterestRatePeriod"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("currentInterestRatePeriod");
+				scope.includeType ("InterestRatePeriod");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -223,6 +253,16 @@ public final class LoanRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("currentInterestRatePeriod"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("currentInterestRatePeriod");
+				scope.includeType ("InterestRatePeriod");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -274,6 +314,16 @@ public final class LoanRules extends FpMLRuleSet
 					  validate (nodeIndex.getElementsByName ("currentInterestRatePeriod"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("currentInterestRatePeriod");
+				scope.includeType ("InterestRatePeriod");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -322,6 +372,16 @@ public final class LoanRules extends FpMLRuleSet
 						  validate (nodeIndex.getElementsByName ("facilityNotice"), errorHandler));					
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("facilityNotice");
+				scope.includeType ("FacilityNotice");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
@@ -18,6 +18,7 @@ import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>MessageRules</CODE> class contains a <CODE>RuleSet</CODE>
@@ -64,6 +65,16 @@ public final class MessageRules extends FpMLRuleSet
 			}
 			return (true);
 		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElements (new String [] { "onBehalfOf", "novation" });
+		}
 	};
 	
 	/**
@@ -13,15 +13,8 @@
 
 package com.handcoded.fpml.validation;
 
-import java.util.Hashtable;
-
-import org.w3c.dom.Attr;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
 import com.handcoded.meta.SchemaRelease;
-import com.handcoded.validation.Precondition;
-import com.handcoded.xml.NodeIndex;
+import com.handcoded.validation.ProfilePrecondition;
 
 /**
  * The <CODE>NamespacePrecondition</CODE> class checks that the FpML root
@@ -31,7 +24,7 @@ import com.handcoded.xml.NodeIndex;
  * @version	$Id$
  * @since	TFP 1.7
  */
-public final class NamespacePrecondition extends Precondition
+public final class NamespacePrecondition extends ProfilePrecondition
 {
 	/**
 	 * Constructs a <CODE>NamespacePrecondition</CODE> instance for the
@@ -54,31 +47,23 @@ public final class NamespacePrecondition extends Precondition
 	 */
 	public NamespacePrecondition (final String namespaceUri)
 	{
+		super (ReleaseProfiler.INSTANCE);
+		
 		this.namespaceUri = namespaceUri;
 	}
 
 	/**
 	 * {@inheritDoc}
-	 * @since	TFP 1.7
+	 * @since	TFP 1.9
 	 */
-	public boolean evaluate (NodeIndex nodeIndex,
-			Hashtable<Precondition, Boolean> cache)
+	@Override
+	public boolean evaluate (final Object profile)
 	{
-		Element		rootElement;
+		ReleaseProfiler.Profile	release = (ReleaseProfiler.Profile) profile;
 		
-		// Find the document element
-		NodeList list = nodeIndex.getElementsByName ("FpML");
-		if (list.getLength () > 0)
-			rootElement = (Element) list.item (0);
-		else {
-			list = nodeIndex.getAttributesByName ("fpmlVersion");
-			if (list.getLength () > 0)
-				rootElement = ((Attr) list.item (0)).getOwnerElement ();
-			else
-				return (false);
-		}
+		if (!release.isFpML ()) return (false);
 		
-		String ns = rootElement.getNamespaceURI ();
+		String ns = release.getNamespaceUri ();
 		return ((ns != null) ? (ns.compareTo (namespaceUri) == 0) : false);
 	}
 
@@ -21,6 +21,7 @@ import com.handcoded.validation.Rule;
 import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -53,6 +54,17 @@ public final class PricingAndRiskRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("coordinate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("coordinate");
+				scope.includeType ("PricingDataPointCoordinate");
+				scope.includeIds ();
+			}
+			
 			public boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -120,6 +132,17 @@ public final class PricingAndRiskRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("paymentCalculationPeriod"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("paymentCalculationPeriod");
+				scope.includeType ("PaymentCalculationPeriod");
+				scope.includeIds ();
+			}
+			
 			public boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
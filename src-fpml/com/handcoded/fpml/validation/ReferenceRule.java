@@ -13,20 +13,28 @@
 
 package com.handcoded.fpml.validation;
 
+import java.util.HashSet;
+
 import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import com.handcoded.validation.Precondition;
 import com.handcoded.validation.Rule;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>ReferenceRule</CODE> class validates an intra-document reference
  * recorded using 'ID' and 'IDREF' based attributes. When possible type
  * information is used to locate possible matching elements otherwise element
  * names are used instead.
+ * <P>
+ * Since TFP 1.9 each reference is resolved with a lookup in the id index held
+ * by the <CODE>NodeIndex</CODE> rather than by scanning every potential
+ * target element.
  * 
  * @author 	BitWise
  * @version	$Id$
@@ -91,17 +99,33 @@ public class ReferenceRule extends Rule
 			
 			return (validate (
 						nodeIndex.getElementsByType (namespace, contextType),
-						nodeIndex.getElementsByType (namespace, targetType), errorHandler));
+						new Targets (nodeIndex, namespace), errorHandler));
 		}
 	
 		return (validate (
 					nodeIndex.getElementsByName (contextElements),
-					nodeIndex.getElementsByName (targetElements), errorHandler));
+					new Targets (nodeIndex, null), errorHandler));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeElements (contextElements);
+		scope.includeType (contextType);
+		scope.includeIds ();
 	}
 	
 	/**
 	 * Checks the elements in context <CODE>NodeList</CODE> to see if they
 	 * reference elements in the target <CODE>NodeList</CODE>.
+	 * <P>
+	 * When called from <CODE>validate (NodeIndex, ...)</CODE> the targets are
+	 * resolved through the id index of the <CODE>NodeIndex</CODE>, otherwise
+	 * the ids of the target elements are collected into a set first.
 	 *  
 	 * @param 	contexts		A <CODE>NodeList</CODE> of context <CODE>Element</CODE> instances.
 	 * @param 	targets			A <CODE>NodeList</CODE> of target <CODE>Element</CODE> instances.
@@ -112,6 +136,17 @@ public class ReferenceRule extends Rule
 	protected boolean validate (NodeList contexts, NodeList targets, ValidationErrorHandler errorHandler)
 	{
 		boolean		result = true;
+		Targets		indexed	= (targets instanceof Targets) ? (Targets) targets : null;
+		HashSet<String>	ids	= null;
+		
+		if (indexed == null) {
+			ids = new HashSet<String> ();
+			for (int count = 0; count < targets.getLength (); ++count) {
+				Attr		id = ((Element) targets.item (count)).getAttributeNode ("id");
+				
+				if (id != null) ids.add (id.getValue ());
+			}
+		}
 		
 		for (int index = 0; index < contexts.getLength (); ++index) {
 			Element 	context	= (Element) contexts.item (index);
@@ -119,35 +154,123 @@ public class ReferenceRule extends Rule
 			
 			if (href == null) continue;
 			
-			String		hrefValue = href.getValue ();
-			boolean		found	= false;
-			
-			for (int count = 0; count < targets.getLength (); ++count) {
-				Element		target = (Element) targets.item (count);
-				Attr		id	   = target.getAttributeNode ("id");
-				
-				if (id == null)  continue;
-				
-				if (id.getValue ().equals (hrefValue)) {
-					found = true;
-					break;
-				}
+			if ((indexed != null) ? !indexed.contains (href.getValue ()) : !ids.contains (href.getValue ())) {
+				report (context, href.getValue (), errorHandler);
+				result = false;
 			}
-			
-			if (found) continue;
-			
-			errorHandler.error ("305", context,
-					"The @" + referenceAttribute + " attribute of a '" + contextType
-					+ "' element should match with an @id attribute on a '" + targetType
-					+ "' element.",
-					getDisplayName (), hrefValue);
-			
-			result = false;
 		}
 		
 		return (result);
 	}
 	
+	/**
+	 * Reports a reference that does not match any target element.
+	 * 
+	 * @param 	context			The context <CODE>Element</CODE>.
+	 * @param 	hrefValue		The unmatched reference value.
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> used to report errors.
+	 * @since	TFP 1.9
+	 */
+	private void report (Element context, final String hrefValue, ValidationErrorHandler errorHandler)
+	{
+		errorHandler.error ("305", context,
+				"The @" + referenceAttribute + " attribute of a '" + contextType
+				+ "' element should match with an @id attribute on a '" + targetType
+				+ "' element.",
+				getDisplayName (), hrefValue);
+	}
+	
+	/**
+	 * The <CODE>Targets</CODE> class is the <CODE>NodeList</CODE> of target
+	 * elements passed to <CODE>validate (NodeList, NodeList, ...)</CODE> by
+	 * <CODE>validate (NodeIndex, ...)</CODE>. References are resolved through
+	 * the id index of the <CODE>NodeIndex</CODE> and the list itself is only
+	 * built if it is accessed.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private final class Targets implements NodeList
+	{
+		/**
+		 * Constructs a <CODE>Targets</CODE> instance.
+		 * 
+		 * @param 	nodeIndex		The <CODE>NodeIndex</CODE> of the document.
+		 * @param 	namespace		The namespace of the target type or
+		 * 							<CODE>null</CODE> to match element names.
+		 * @since	TFP 1.9
+		 */
+		Targets (final NodeIndex nodeIndex, final String namespace)
+		{
+			this.nodeIndex = nodeIndex;
+			this.namespace = namespace;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		public Node item (int index)
+		{
+			return (elements ().item (index));
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		public int getLength ()
+		{
+			return (elements ().getLength ());
+		}
+		
+		/**
+		 * Determines if a target element has the given id value.
+		 * 
+		 * @param 	id				The id value to look for.
+		 * @return	<CODE>true</CODE> if a matching target element exists.
+		 * @since	TFP 1.9
+		 */
+		boolean contains (final String id)
+		{
+			return (((namespace != null) ? nodeIndex.getElementById (id, namespace, targetType)
+					: nodeIndex.getElementById (id, targetElements)) != null);
+		}
+		
+		/**
+		 * Provides the target elements, finding them the first time they
+		 * are needed.
+		 * 
+		 * @return	A <CODE>NodeList</CODE> of the target elements.
+		 * @since	TFP 1.9
+		 */
+		private NodeList elements ()
+		{
+			if (elements == null)
+				elements = (namespace != null) ? nodeIndex.getElementsByType (namespace, targetType)
+						: nodeIndex.getElementsByName (targetElements);
+			
+			return (elements);
+		}
+		
+		/**
+		 * The <CODE>NodeIndex</CODE> of the document.
+		 * @since	TFP 1.9
+		 */
+		private final NodeIndex		nodeIndex;
+		
+		/**
+		 * The namespace of the target type or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		private final String		namespace;
+		
+		/**
+		 * The target elements or <CODE>null</CODE> until they are needed.
+		 * @since	TFP 1.9
+		 */
+		private NodeList			elements	= null;
+	}
+	
 	/**
 	 * Contains the name of context element's schema type.
 	 * @since	TFP 1.2
@@ -22,6 +22,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.XPath;
 
 /**
@@ -114,6 +115,17 @@ public final class ReferenceRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("firstPeriodStartDate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("firstPeriodStartDate");
+				scope.includeType ("FirstPeriodStartDate");
+				scope.includeIds ();
+			}
+			
 			private boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -326,6 +338,17 @@ public final class ReferenceRules extends FpMLRuleSet
 				return (validate (nodeIndex, nodeIndex.getElementsByName ("coordinate"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("coordinate");
+				scope.includeType ("PricingDataPointCoordinate");
+				scope.includeIds ();
+			}
+			
 			public boolean validate (NodeIndex nodeIndex, NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -685,6 +708,16 @@ public final class ReferenceRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("mandatoryEarlyTermination"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("mandatoryEarlyTermination");
+				scope.includeType ("MandatoryEarlyTermination");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result	= true;
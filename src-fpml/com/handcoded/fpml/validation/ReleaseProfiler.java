@@ -0,0 +1,203 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+package com.handcoded.fpml.validation;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.handcoded.fpml.util.Version;
+import com.handcoded.validation.Profiler;
+import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
+
+/**
+ * The <CODE>ReleaseProfiler</CODE> determines the FpML version number and
+ * namespace of a document from its <CODE>FpML</CODE> root element or from
+ * the element carrying its <CODE>fpmlVersion</CODE> attribute.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+final class ReleaseProfiler implements Profiler
+{
+	/**
+	 * The single shared <CODE>ReleaseProfiler</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	static final ReleaseProfiler	INSTANCE	= new ReleaseProfiler ();
+
+	/**
+	 * The <CODE>Profile</CODE> class records the version number and
+	 * namespace URI of a document.
+	 *
+	 * @since	TFP 1.9
+	 */
+	static final class Profile
+	{
+		/**
+		 * Constructs a <CODE>Profile</CODE> instance.
+		 *
+		 * @param 	version			The version number text or <CODE>null</CODE>
+		 * 							if the document is not FpML.
+		 * @param 	namespaceUri	The namespace URI of the root element.
+		 * @since	TFP 1.9
+		 */
+		Profile (final String version, final String namespaceUri)
+		{
+			this.version	  = version;
+			this.namespaceUri = namespaceUri;
+		}
+
+		/**
+		 * Determines if the document was recognised as FpML.
+		 *
+		 * @return	<CODE>true</CODE> if a version number was found.
+		 * @since	TFP 1.9
+		 */
+		boolean isFpML ()
+		{
+			return (version != null);
+		}
+
+		/**
+		 * Provides the document's version number.
+		 *
+		 * @return	The parsed <CODE>Version</CODE>.
+		 * @since	TFP 1.9
+		 */
+		Version getVersion ()
+		{
+			return (Version.parse (version));
+		}
+
+		/**
+		 * Provides the namespace URI of the root element.
+		 *
+		 * @return	The namespace URI or <CODE>null</CODE>.
+		 * @since	TFP 1.9
+		 */
+		String getNamespaceUri ()
+		{
+			return (namespaceUri);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public boolean equals (final Object other)
+		{
+			if (other instanceof Profile) {
+				Profile		that = (Profile) other;
+
+				return (same (version, that.version) && same (namespaceUri, that.namespaceUri));
+			}
+			return (false);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public int hashCode ()
+		{
+			return (((version != null) ? version.hashCode () : 0) * 31
+					+ ((namespaceUri != null) ? namespaceUri.hashCode () : 0));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		@Override
+		public String toString ()
+		{
+			return ("version=" + version + " namespaceUri=" + namespaceUri);
+		}
+
+		/**
+		 * The version number text.
+		 * @since	TFP 1.9
+		 */
+		private final String	version;
+
+		/**
+		 * The namespace URI of the root element.
+		 * @since	TFP 1.9
+		 */
+		private final String	namespaceUri;
+
+		/**
+		 * Compares two strings either of which may be <CODE>null</CODE>.
+		 *
+		 * @param 	lhs				The first string.
+		 * @param 	rhs				The second string.
+		 * @return	<CODE>true</CODE> if the strings are equal.
+		 * @since	TFP 1.9
+		 */
+		private static boolean same (final String lhs, final String rhs)
+		{
+			return ((lhs != null) ? lhs.equals (rhs) : (rhs == null));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public Object profile (final NodeIndex nodeIndex)
+	{
+		NodeList list = nodeIndex.getElementsByName ("FpML");
+		if (list.getLength () > 0) {
+			Element		root = (Element) list.item (0);
+
+			return (new Profile (root.getAttribute ("version"), root.getNamespaceURI ()));
+		}
+
+		list = nodeIndex.getAttributesByName ("fpmlVersion");
+		if (list.getLength () > 0) {
+			Attr		attr = (Attr) list.item (0);
+
+			return (new Profile (attr.getValue (), attr.getOwnerElement ().getNamespaceURI ()));
+		}
+		return (NOT_FPML);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeElement ("FpML");
+		scope.includeAttribute ("fpmlVersion");
+	}
+
+	/**
+	 * The <CODE>Profile</CODE> of a document that is not FpML.
+	 * @since	TFP 1.9
+	 */
+	private static final Profile	NOT_FPML	= new Profile (null, null);
+
+	/**
+	 * Ensures that only the shared instance is created.
+	 * @since	TFP 1.9
+	 */
+	private ReleaseProfiler ()
+	{ }
+}
\ No newline at end of file
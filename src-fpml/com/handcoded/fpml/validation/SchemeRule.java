@@ -24,9 +24,11 @@ import com.handcoded.meta.Release;
 import com.handcoded.meta.Specification;
 import com.handcoded.validation.Precondition;
 import com.handcoded.validation.Rule;
+import com.handcoded.validation.RuleFusion;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * The <CODE>SchemeRule</CODE> class provides the logic to attempt the 
@@ -90,6 +92,35 @@ public class SchemeRule extends Rule
 		return (validate (elementContext.getMatchingElements (nodeIndex), errorHandler));
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected void declareRequirements (NodeIndexScope scope)
+	{
+		declareRequirements (elementContext, scope);
+		if (typeContext != null) declareRequirements (typeContext, scope);
+	}
+	
+	/**
+	 * Adds the requirements of a <CODE>RuleContext</CODE> to a
+	 * <CODE>NodeIndexScope</CODE>. A context that does not implement
+	 * <CODE>ScopedRuleContext</CODE> may query anything so the complete
+	 * index is requested.
+	 * 
+	 * @param 	context			The <CODE>RuleContext</CODE>.
+	 * @param 	scope			The <CODE>NodeIndexScope</CODE> to extend.
+	 * @since	TFP 1.9
+	 */
+	private static void declareRequirements (final RuleContext context, NodeIndexScope scope)
+	{
+		if (context instanceof ScopedRuleContext)
+			((ScopedRuleContext) context).declareRequirements (scope);
+		else
+			scope.includeAll ();
+	}
+	
 	/**
 	 * Performs the validation of all the elements in the provided <CODE>NodeList
 	 * </CODE>. 
@@ -100,21 +131,8 @@ public class SchemeRule extends Rule
 		boolean		result 	= true;
 		
 		if (list.getLength () > 0) {
-			Element fpml	= DOM.getParent ((Element) list.item(0));
-			String version	= null;
-			
-			// Find the FpML root node
-			while (fpml != null) {
-				if (fpml.getLocalName().equals("FpML")) {
-					version = fpml.getAttribute ("version");
-					break;
-				}
-				if (fpml.getAttributeNode("fpmlVersion") != null) {
-					version = fpml.getAttribute ("fpmlVersion");
-					break;
-				}
-				fpml = DOM.getParent (fpml);
-			}
+			Element fpml	= findVersionElement ((Element) list.item (0));
+			String version	= getVersion (fpml);
 			
 			if (version == null)
 				errorHandler.error ("999", list.item (0), "", "", "");
@@ -135,53 +153,154 @@ public class SchemeRule extends Rule
 				return (false);				
 			}
 		
-			for (int index = 0; index < list.getLength (); ++index) {
-				Element	context = (Element) list.item (index);
-	
-				// If there is no local override then look for a default on the FpML
-				// element in pre 3-0 versions.
-				String uri = context.getAttribute (attributeName);
-				if (((uri == null) || (uri.length () == 0)) && (version != null)) {
-					String [] components = version.split ("-");
-					if ((components.length > 1) && (components [0].compareTo ("4") < 0)) {
-						SchemeAccess provider
-							= (SchemeAccess) Specification.releaseForDocument (context.getOwnerDocument ());
+			for (int index = 0; index < list.getLength (); ++index)
+				result &= validate ((Element) list.item (index), attributeName,
+						version, fpml, schemes, getDisplayName (), errorHandler);
+		}
+		return (result);
+	}
 	
-						String name = provider.getSchemeDefaults ().getDefaultAttributeForScheme (attributeName);
-						if (name != null) uri = fpml.getAttribute (name);
-					}
-				}
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Plain <CODE>SchemeRule</CODE> instances are fused so that all the
+	 * scheme values in a document are checked in a single pass. Subclasses
+	 * are executed individually in case they change the validation logic.
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected RuleFusion getFusion ()
+	{
+		return ((getClass () == SchemeRule.class) ? FusedSchemeRules.FUSION : null);
+	}
 	
-				if ((uri == null) || (uri.length () == 0)) {
-					errorHandler.error ("305", context,
-						"A qualifying scheme URI has not been defined for this element",
-						getDisplayName (), context.getLocalName ());
+	/**
+	 * Provides access to the <CODE>ElementContext</CODE>.
+	 * 
+	 * @return	The element name based context.
+	 * @since	TFP 1.9
+	 */
+	final ElementContext getElementContext ()
+	{
+		return (elementContext);
+	}
 	
-					result = false;
-					continue;
-				}
+	/**
+	 * Provides access to the <CODE>TypeContext</CODE>.
+	 * 
+	 * @return	The type name based context or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	final TypeContext getTypeContext ()
+	{
+		return (typeContext);
+	}
 	
-				Scheme scheme = schemes.findSchemeForUri (uri);
-				if (scheme == null) {
-					errorHandler.error ("305", context,
-						"An unrecognized scheme URI has been used as a qualifier",
-						getDisplayName (), uri);
+	/**
+	 * Provides access to the name of the attribute containing the scheme URI.
+	 * 
+	 * @return	The attribute name.
+	 * @since	TFP 1.9
+	 */
+	final String getAttributeName ()
+	{
+		return (attributeName);
+	}
 	
-					result = false;
-					continue;
-				}
-				
-				String value = DOM.getInnerText (context).trim ();
-				if (scheme.isValid (value)) continue;
+	/**
+	 * Finds the closest ancestor of an element that defines the document's
+	 * FpML version number.
+	 * 
+	 * @param 	context			The <CODE>Element</CODE> to start from.
+	 * @return	The <CODE>FpML</CODE> element or the element with an <CODE>
+	 * 			fpmlVersion</CODE> attribute, or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	static Element findVersionElement (final Element context)
+	{
+		Element		fpml = DOM.getParent (context);
+		
+		while (fpml != null) {
+			if (fpml.getLocalName ().equals ("FpML") || (fpml.getAttributeNode ("fpmlVersion") != null))
+				break;
+			fpml = DOM.getParent (fpml);
+		}
+		return (fpml);
+	}
 	
-				errorHandler.error ("305", context,
-					"The code value '" + value + "' is not valid in scheme '" + scheme.getUri () + "'",
-					getDisplayName (), value);
+	/**
+	 * Extracts the FpML version number from an element located by <CODE>
+	 * findVersionElement</CODE>.
+	 * 
+	 * @param 	fpml			The version defining <CODE>Element</CODE> or
+	 * 							<CODE>null</CODE>.
+	 * @return	The version number or <CODE>null</CODE>.
+	 * @since	TFP 1.9
+	 */
+	static String getVersion (final Element fpml)
+	{
+		if (fpml == null) return (null);
+		
+		return (fpml.getAttribute (fpml.getLocalName ().equals ("FpML") ? "version" : "fpmlVersion"));
+	}
 	
-				result = false;
+	/**
+	 * Validates the scheme value held in a single element.
+	 * 
+	 * @param 	context			The <CODE>Element</CODE> to validate.
+	 * @param 	attributeName	The name of attribute containing any overriding URI.
+	 * @param 	version			The document's FpML version number.
+	 * @param 	fpml			The version defining <CODE>Element</CODE>.
+	 * @param 	schemes			The <CODE>SchemeCollection</CODE> for the release.
+	 * @param 	ruleName		The name used to report errors.
+	 * @param 	errorHandler	The <CODE>ValidationErrorHandler</CODE> used to
+	 * 							report errors.
+	 * @return	<CODE>true</CODE> if the value is valid.
+	 * @since	TFP 1.9
+	 */
+	static boolean validate (final Element context, final String attributeName,
+			final String version, final Element fpml, final SchemeCollection schemes,
+			final String ruleName, ValidationErrorHandler errorHandler)
+	{
+		// If there is no local override then look for a default on the FpML
+		// element in pre 3-0 versions.
+		String uri = context.getAttribute (attributeName);
+		if (((uri == null) || (uri.length () == 0)) && (version != null)) {
+			String [] components = version.split ("-");
+			if ((components.length > 1) && (components [0].compareTo ("4") < 0)) {
+				SchemeAccess provider
+					= (SchemeAccess) Specification.releaseForDocument (context.getOwnerDocument ());
+
+				String name = provider.getSchemeDefaults ().getDefaultAttributeForScheme (attributeName);
+				if (name != null) uri = fpml.getAttribute (name);
 			}
 		}
-		return (result);
+
+		if ((uri == null) || (uri.length () == 0)) {
+			errorHandler.error ("305", context,
+				"A qualifying scheme URI has not been defined for this element",
+				ruleName, context.getLocalName ());
+
+			return (false);
+		}
+
+		Scheme scheme = schemes.findSchemeForUri (uri);
+		if (scheme == null) {
+			errorHandler.error ("305", context,
+				"An unrecognized scheme URI has been used as a qualifier",
+				ruleName, uri);
+
+			return (false);
+		}
+		
+		String value = DOM.getInnerText (context).trim ();
+		if (scheme.isValid (value)) return (true);
+
+		errorHandler.error ("305", context,
+			"The code value '" + value + "' is not valid in scheme '" + scheme.getUri () + "'",
+			ruleName, value);
+
+		return (false);
 	}
 	
 	/**
@@ -0,0 +1,39 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package com.handcoded.fpml.validation;
+
+import com.handcoded.xml.NodeIndexScope;
+
+/**
+ * The <CODE>ScopedRuleContext</CODE> interface is implemented by a
+ * <CODE>RuleContext</CODE> that can describe which parts of a document it
+ * queries, allowing a partial <CODE>NodeIndex</CODE> to be used. Rules must
+ * treat any other <CODE>RuleContext</CODE> as requiring a complete index.
+ * 
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public interface ScopedRuleContext extends RuleContext
+{
+	/**
+	 * Adds the element names and types used to find the matching elements
+	 * to a <CODE>NodeIndexScope</CODE>.
+	 * 
+	 * @param 	scope			The <CODE>NodeIndexScope</CODE> to extend.
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope);
+}
\ No newline at end of file
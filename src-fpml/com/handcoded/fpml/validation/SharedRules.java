@@ -28,6 +28,7 @@ import com.handcoded.validation.RuleSet;
 import com.handcoded.validation.ValidationErrorHandler;
 import com.handcoded.xml.DOM;
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 import com.handcoded.xml.Types;
 import com.handcoded.xml.XPath;
 
@@ -147,6 +148,18 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("resetDatesAdjustments"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"dateAdjustments", "calculationPeriodDatesAdjustments",
+						"paymentDatesAdjustments", "resetDatesAdjustments" });
+				scope.includeType ("BusinessDayAdjustments");
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)			
 			{
 				boolean		result = true;
@@ -205,6 +218,20 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("varyingNotionalFixingDates"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"cashSettlementValuationDate", "feePaymentDate", "fixingDateOffset",
+						"fixingDates", "initialFixingDate", "paymentDaysOffset",
+						"rateCutOffDaysOffset", "relativeDate",
+						"varyingNotionalInterimExchangePaymentDates",
+						"varyingNotionalFixingDates" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -255,6 +282,20 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("varyingNotionalFixingDates"), errorHandler));
 			}
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"cashSettlementValuationDate", "feePaymentDate", "fixingDateOffset",
+						"fixingDates", "initialFixingDate", "paymentDaysOffset",
+						"rateCutOffDaysOffset", "relativeDate",
+						"varyingNotionalInterimExchangePaymentDates",
+						"varyingNotionalFixingDates" });
+			}
+
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result		= true;
@@ -302,6 +343,18 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("varyingNotionalInterimExchangePaymentDates"), errorHandler));
 			}
 			 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"relativeDate", "fixingDateOffset", "initialFixingDate", "fixingDates",
+						"cashSettlementValuationDate", "varyingNotionalFixingDates",
+						"varyingNotionalInterimExchangePaymentDates" });
+			}
+			 
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result 	= true;
@@ -359,6 +412,15 @@ public final class SharedRules extends FpMLRuleSet
 
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("payerPartyReference");
+			}
 		};
 		
 	/**
@@ -393,6 +455,15 @@ public final class SharedRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("americanExercise");
+			}
 		};
 		
 	/**
@@ -412,6 +483,15 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("bermudaExercise"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("bermudaExercise");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean		result = true;
@@ -458,6 +538,15 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("businessDateRange"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] { "scheduleBounds", "businessDateRange" });
+			}
+			
 			/**
 			 * Validate all of the elements identified by the given
 			 * <CODE>NodeList</CODE>.
@@ -512,6 +601,15 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("businessDateRange"), errorHandler));
 			} 
 
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("businessDateRange");
+			}
+
 			/**
 			 * Validate all of the elements identified by the given
 			 * <CODE>NodeList</CODE>.
@@ -591,6 +689,15 @@ public final class SharedRules extends FpMLRuleSet
 
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationAgent");
+			}
 		};
 
 	/**
@@ -656,6 +763,15 @@ public final class SharedRules extends FpMLRuleSet
 
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("businessDateRange");
+			}
 		};
 		
 	/**
@@ -699,6 +815,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("buyerPartyReference");
+				scope.includeIds ();
+			}
 		};
 		
 	/**
@@ -733,6 +859,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("buyerPartyReference");
+				scope.includeIds ();
+			}
 		};
 			
 	/**
@@ -776,6 +912,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("sellerPartyReference");
+				scope.includeIds ();
+			}
 		};
 		
 	/**
@@ -810,6 +956,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("sellerPartyReference");
+				scope.includeIds ();
+			}
 		};
 			
 	/**
@@ -853,6 +1009,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationAgentPartyReference");
+				scope.includeIds ();
+			}
 		};
 
 	/**
@@ -887,6 +1053,16 @@ public final class SharedRules extends FpMLRuleSet
 				
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationAgentPartyReference");
+				scope.includeIds ();
+			}
 		};
 
 	/**
@@ -918,6 +1094,20 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("relativeDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"gracePeriod", "paymentDaysOffset", "rateCutOffDaysOffset", "relativeDate",
+						"fixingDateOffset", "initialFixingDate", "fixingDates",
+						"cashSettlementValuationDate", "varyingNotionalFixingDates",
+						"varyingNotionalInterimExchangePaymentDates", "feePaymentDate",
+						"relativeDates" });
+			}
+			
 			/**
 			 * Validate all of the elements identified by the given
 			 * <CODE>NodeList</CODE>.
@@ -996,6 +1186,16 @@ public final class SharedRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("tradeSide");
+				scope.includeIds ();
+			}
 		};
 
 	/**
@@ -1030,6 +1230,16 @@ public final class SharedRules extends FpMLRuleSet
 				}
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("tradeSide");
+				scope.includeIds ();
+			}
 		};
 		
 	/**
@@ -1048,6 +1258,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("party"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("party");
+				scope.includeType ("Party");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1110,6 +1330,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("account"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("account");
+				scope.includeType ("Account");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1172,6 +1402,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("account"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("account");
+				scope.includeType ("Account");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1224,6 +1464,18 @@ public final class SharedRules extends FpMLRuleSet
 					& validate (nodeIndex.getElementsByName ("pricingDates"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"adjustableDates", "calculationPeriods", "fixingDates", "fxFixingSchedule",
+						"fxObservationDates", "paymentDates", "periods", "pricingDates" });
+				scope.includeType ("AdjustableDates");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1269,6 +1521,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("businessCenters"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("businessCenters");
+				scope.includeType ("BusinessCenters");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1313,6 +1575,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("calculationAgent"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("calculationAgent");
+				scope.includeType ("CalculationAgent");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1356,6 +1628,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("cashSettlementReferenceBanks"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("cashSettlementReferenceBanks");
+				scope.includeType ("CashSettlementReferenceBanks");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1400,6 +1682,16 @@ public final class SharedRules extends FpMLRuleSet
 				return (validate (nodeIndex.getElementsByName ("routingIds"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("routingIds");
+				scope.includeType ("RoutingIds");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1453,6 +1745,19 @@ public final class SharedRules extends FpMLRuleSet
 						& validate (nodeIndex.getElementsByName ("feeAmountSchedule"), errorHandler));
 			}
 			
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElements (new String [] {
+						"floatingRateMultiplierSchedule", "spreadSchedule", "fixedRateSchedule",
+						"feeRateSchedule", "capRateSchedule", "floorRateSchedule",
+						"knownAmountSchedule", "notionalStepSchedule", "feeAmountSchedule" });
+				scope.includeType ("Schedule");
+			}
+			
 			private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 			{
 				boolean			result	= true;
@@ -1497,6 +1802,16 @@ public final class SharedRules extends FpMLRuleSet
 			return (validate (nodeIndex.getElementsByName ("bond"), errorHandler));
 		}
 		
+		/**
+		 * {@inheritDoc}
+		 * @since	TFP 1.9
+		 */
+		protected void declareRequirements (NodeIndexScope scope)
+		{
+			scope.includeElement ("bond");
+			scope.includeType ("Bond");
+		}
+		
 		private boolean validate (NodeList list, ValidationErrorHandler errorHandler)
 		{
 			boolean		result	= true;
@@ -1554,6 +1869,15 @@ public final class SharedRules extends FpMLRuleSet
 
 				return (result);
 			}
+
+			/**
+			 * {@inheritDoc}
+			 * @since	TFP 1.9
+			 */
+			protected void declareRequirements (NodeIndexScope scope)
+			{
+				scope.includeElement ("buyerPartyReference");
+			}
 		};
 		
 	/**
@@ -16,6 +16,7 @@ package com.handcoded.fpml.validation;
 import org.w3c.dom.NodeList;
 
 import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.NodeIndexScope;
 
 /**
  * An instance of <CODE>TypeContext</CODE> defines the context for a
@@ -25,7 +26,7 @@ import com.handcoded.xml.NodeIndex;
  * @version	$Id$
  * @since	TFP 1.6
  */
-public final class TypeContext implements RuleContext
+public final class TypeContext implements ScopedRuleContext
 {
 	/**
 	 * Constructs a <CODE>TypeContext</CODE> for a given type name.
@@ -47,6 +48,15 @@ public final class TypeContext implements RuleContext
 		return (nodeIndex.getElementsByType (FpMLRuleSet.determineNamespace (nodeIndex), typeName));
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	public void declareRequirements (NodeIndexScope scope)
+	{
+		scope.includeType (typeName);
+	}
+	
 	/**
 	 * The name of the type to find instances of.
 	 * @since	TFP 1.6
@@ -13,16 +13,9 @@
 
 package com.handcoded.fpml.validation;
 
-import java.util.Hashtable;
-
-import org.w3c.dom.Attr;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
 import com.handcoded.fpml.util.Version;
 import com.handcoded.meta.Release;
-import com.handcoded.validation.Precondition;
-import com.handcoded.xml.NodeIndex;
+import com.handcoded.validation.ProfilePrecondition;
 
 /**
  * The <CODE>VersionPrecondition</CODE> class checks that the FpML root
@@ -32,7 +25,7 @@ import com.handcoded.xml.NodeIndex;
  * @version	$Id$
  * @since	TFP 1.0
  */
-public final class VersionPrecondition extends Precondition
+public final class VersionPrecondition extends ProfilePrecondition
 {
 	/**
 	 * Constructs a <CODE>VersionPrecondition</CODE> that detects a specific
@@ -56,29 +49,22 @@ public final class VersionPrecondition extends Precondition
 	 */
 	public VersionPrecondition (final String version)
 	{
+		super (ReleaseProfiler.INSTANCE);
 		targetVersion = Version.parse (version);
 	}
 
 	/**
 	 * {@inheritDoc}
-	 * @since	TFP 1.0
+	 * @since	TFP 1.9
 	 */
 	@Override
-	public boolean evaluate (final NodeIndex nodeIndex, Hashtable<Precondition, Boolean> cache)
+	public boolean evaluate (final Object profile)
 	{
-		Version 		version;
+		ReleaseProfiler.Profile	release = (ReleaseProfiler.Profile) profile;
+		
+		if (!release.isFpML ()) return (false);
 		
-		// Find the document version
-		NodeList list = nodeIndex.getElementsByName ("FpML");
-		if (list.getLength () > 0)
-			version = Version.parse (((Element) list.item (0)).getAttribute ("version"));
-		else {
-			list = nodeIndex.getAttributesByName ("fpmlVersion");
-			if (list.getLength () > 0)
-				version = Version.parse (((Attr) list.item (0)).getValue ());
-			else
-				return (false);
-		}
+		Version 		version = release.getVersion ();
 		
 		return (version.equals (targetVersion));
 	}
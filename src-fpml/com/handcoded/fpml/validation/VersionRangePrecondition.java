@@ -13,16 +13,9 @@
 
 package com.handcoded.fpml.validation;
 
-import java.util.Hashtable;
-
-import org.w3c.dom.Attr;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
 import com.handcoded.fpml.util.Version;
 import com.handcoded.meta.Release;
-import com.handcoded.validation.Precondition;
-import com.handcoded.xml.NodeIndex;
+import com.handcoded.validation.ProfilePrecondition;
 
 /**
  * A <CODE>VersionRangePrecondition</CODE> instance tests if the FpML version
@@ -33,7 +26,7 @@ import com.handcoded.xml.NodeIndex;
  * @version	$Id$
  * @since	TFP 1.5
  */
-public class VersionRangePrecondition extends Precondition
+public class VersionRangePrecondition extends ProfilePrecondition
 {
 	/**
 	 * Constructs a <CODE>VersionRangePrecondition</CODE> using the two
@@ -60,30 +53,24 @@ public class VersionRangePrecondition extends Precondition
 	 */
 	public VersionRangePrecondition (final String minimum, final String maximum)
 	{
+		super (ReleaseProfiler.INSTANCE);
+		
 		this.minimum = (minimum != null) ? Version.parse (minimum) : null;
 		this.maximum = (maximum != null) ? Version.parse (maximum) : null;
 	}
 	
 	/**
 	 * {@inheritDoc}
-	 * @since	TFP 1.5
+	 * @since	TFP 1.9
 	 */
 	@Override
-	public boolean evaluate (final NodeIndex nodeIndex, Hashtable<Precondition, Boolean> cache)
+	public boolean evaluate (final Object profile)
 	{
-		Version 		version;
+		ReleaseProfiler.Profile	release = (ReleaseProfiler.Profile) profile;
+		
+		if (!release.isFpML ()) return (false);
 		
-		// Find the document version
-		NodeList list = nodeIndex.getElementsByName ("FpML");
-		if (list.getLength () > 0)
-			version = Version.parse (((Element) list.item (0)).getAttribute ("version"));
-		else {
-			list = nodeIndex.getAttributesByName ("fpmlVersion");
-			if (list.getLength () > 0)
-				version = Version.parse (((Attr) list.item (0)).getValue ());
-			else
-				return (false);
-		}
+		Version 		version = release.getVersion ();
 		
 //		System.err.print ("Range (Doc=" + version
 //				+ " Min=" + ((minimum != null) ? minimum.toString () : "*")
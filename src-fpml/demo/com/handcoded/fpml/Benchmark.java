@@ -0,0 +1,528 @@
+// Copyright (C),2015 HandCoded Software Ltd.
+// All rights reserved.
+//
+// This software is licensed in accordance with the terms of the 'Open Source
+// License (OSL) Version 3.0'. Please see 'license.txt' for the details.
+//
+// HANDCODED SOFTWARE LTD MAKES NO REPRESENTATIONS OR WARRANTIES ABOUT THE
+// SUITABILITY OF THE SOFTWARE, EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT
+// LIMITED TO THE IMPLIED WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+// PARTICULAR PURPOSE, OR NON-INFRINGEMENT. HANDCODED SOFTWARE LTD SHALL NOT BE
+// LIABLE FOR ANY DAMAGES SUFFERED BY LICENSEE AS A RESULT OF USING, MODIFYING
+// OR DISTRIBUTING THIS SOFTWARE OR ITS DERIVATIVES.
+
+
+package demo.com.handcoded.fpml;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import com.handcoded.fpml.DefaultHelper;
+import com.handcoded.fpml.FpMLUtility;
+import com.handcoded.fpml.validation.CdsRules;
+import com.handcoded.fpml.validation.FxRules;
+import com.handcoded.fpml.validation.IrdRules;
+import com.handcoded.fpml.validation.ReferenceRules;
+import com.handcoded.fpml.validation.SchemeRules;
+import com.handcoded.framework.Option;
+import com.handcoded.meta.Conversion;
+import com.handcoded.meta.DirectConversion;
+import com.handcoded.meta.Release;
+import com.handcoded.meta.Specification;
+import com.handcoded.validation.RuleSet;
+import com.handcoded.validation.ValidationErrorHandler;
+import com.handcoded.xml.NodeIndex;
+import com.handcoded.xml.XmlUtility;
+
+/**
+ * This application measures the throughput of the main processing stages
+ * of the toolkit against a set of sample FpML documents, for example a mix
+ * of FpML 4.x and 5.x examples.
+ * <P>
+ * The stages measured are schema validating parsing, <CODE>NodeIndex</CODE>
+ * construction, release detection, the execution of each major rule family
+ * (including the construction of the <CODE>NodeIndex</CODE> each family
+ * requires) and each direct conversion hop available from the samples'
+ * releases.
+ * <P>
+ * Each benchmark is run for a number of warm up iterations, whose results
+ * are discarded, followed by a number of measured iterations. Each
+ * iteration processes every applicable sample repeatedly for a fixed period.
+ * The average time per operation is reported together with its standard
+ * deviation across the measured iterations and, when the JVM supports it,
+ * the number of bytes allocated per operation.
+ *
+ * @author	BitWise
+ * @version	$Id$
+ * @since	TFP 1.9
+ */
+public final class Benchmark extends Application
+{
+	/**
+	 * Creates an application instance and invokes its <CODE>run</CODE>
+	 * method passing the command line arguments.
+	 * 
+	 * @param 	arguments		The command line arguments
+	 * @since	TFP 1.9
+	 */
+	public static void main (String [] arguments)
+	{   
+		new Benchmark ().run (arguments);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected void startUp ()
+	{
+		super.startUp ();
+		
+		warmup	   = count (warmupOption, warmup, 0);
+		iterations = count (iterationsOption, iterations, 1);
+		period	   = count (timeOption, (int)(period / 1000000), 1) * 1000000L;
+		
+		if (getArguments ().length == 0) {
+			logger.severe ("No files are present on the command line");
+			System.exit (1);
+		}
+		
+		XmlUtility.getDefaultSchemaSet ().getSchema ();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected void execute ()
+	{
+		String []	arguments = findFiles (getArguments ());
+		
+		try {
+			for (String argument : arguments) {
+				File		file  = new File (argument);
+				byte []		bytes = Files.readAllBytes (file.toPath ());
+				Document	document = parse (bytes, file);
+				
+				if (document == null) {
+					logger.warning ("Skipping unparsable sample " + argument);
+					continue;
+				}
+				sources.add (bytes);
+				files.add (file);
+				documents.add (document);
+			}
+			
+			stream.println ("== " + documents.size () + " samples, " + warmup + " warm up and "
+					+ iterations + " measured iterations of " + (period / 1000000) + " ms");
+			stream.println (String.format ("%-40s %12s %12s %12s %14s",
+					"Benchmark", "Ops", "ns/op", "+/- ns/op", "bytes/op"));
+			
+			for (Case task : cases ()) {
+				if (!onlyOption.isPresent () || (task.name.indexOf (onlyOption.getValue ()) >= 0))
+					measure (task);
+			}
+		}
+		catch (Exception error) {
+			logger.log (Level.SEVERE, "Unexpected exception during processing", error);
+		}
+		
+		setFinished (true);
+	}
+	
+	/**
+	 * {@inheritDoc} 
+	 * @since	TFP 1.9
+	 */
+	@Override
+	protected String describeArguments ()
+	{
+		return (" files or directories ...");
+	}
+	
+	/**
+	 * A <CODE>Case</CODE> is a single benchmark that performs one operation
+	 * on each of a number of inputs.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private static abstract class Case
+	{
+		/**
+		 * Constructs a <CODE>Case</CODE> with the given name.
+		 * 
+		 * @param 	name			The name of the benchmark.
+		 * @param 	size			The number of inputs.
+		 * @since	TFP 1.9
+		 */
+		Case (final String name, int size)
+		{
+			this.name = name;
+			this.size = size;
+		}
+		
+		/**
+		 * Performs the operation on one input.
+		 * 
+		 * @param 	index			The index of the input.
+		 * @return	The result of the operation, which is retained so that
+		 * 			the work cannot be optimised away.
+		 * @throws	Exception If the operation fails.
+		 * @since	TFP 1.9
+		 */
+		abstract Object run (int index)
+			throws Exception;
+		
+		/**
+		 * The name of the benchmark.
+		 * @since	TFP 1.9
+		 */
+		final String			name;
+		
+		/**
+		 * The number of inputs.
+		 * @since	TFP 1.9
+		 */
+		final int				size;
+	}
+	
+	/**
+	 * A <CODE>Logger</CODE> instance used to report serious errors.
+	 * @since	TFP 1.9
+	 */
+	private static Logger	logger
+		= Logger.getLogger ("demo.com.handcoded.fpml.Benchmark");
+
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-warmup count</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			warmupOption
+		= new Option ("-warmup", "Number of warm up iterations (default 5)", "count");
+	
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-iterations count</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			iterationsOption
+		= new Option ("-iterations", "Number of measured iterations (default 10)", "count");
+	
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-time ms</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			timeOption
+		= new Option ("-time", "Duration of each iteration (default 1000)", "ms");
+	
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-only name</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			onlyOption
+		= new Option ("-only", "Only run benchmarks whose name contains text", "text");
+	
+	/**
+	 * The <CODE>PrintStream</CODE> instance to output to.
+	 * @since	TFP 1.9
+	 */
+	private PrintStream		stream = System.out;
+	
+	/**
+	 * The number of warm up iterations.
+	 * @since	TFP 1.9
+	 */
+	private int				warmup = 5;
+	
+	/**
+	 * The number of measured iterations.
+	 * @since	TFP 1.9
+	 */
+	private int				iterations = 10;
+	
+	/**
+	 * The duration of each iteration in nanoseconds.
+	 * @since	TFP 1.9
+	 */
+	private long			period = 1000000000L;
+	
+	/**
+	 * The content of each sample.
+	 * @since	TFP 1.9
+	 */
+	private ArrayList<byte []>	sources = new ArrayList<byte []> ();
+	
+	/**
+	 * The <CODE>File</CODE> each sample was read from.
+	 * @since	TFP 1.9
+	 */
+	private ArrayList<File>		files = new ArrayList<File> ();
+	
+	/**
+	 * The parsed form of each sample.
+	 * @since	TFP 1.9
+	 */
+	private ArrayList<Document>	documents = new ArrayList<Document> ();
+	
+	/**
+	 * Retains the result of the last operation of each iteration.
+	 * @since	TFP 1.9
+	 */
+	private volatile Object	sink = null;
+	
+	/**
+	 * Discards the validation errors raised while benchmarking rules.
+	 * @since	TFP 1.9
+	 */
+	private static final ValidationErrorHandler	IGNORE
+		= new ValidationErrorHandler ()
+			{
+				public void error (String code, org.w3c.dom.Node context, String description,
+						String ruleName, String additionalData)
+				{ }
+			};
+	
+	/**
+	 * Constructs a <CODE>Benchmark</CODE> instance.
+	 * @since	TFP 1.9
+	 */
+	private Benchmark ()
+	{ }
+	
+	/**
+	 * Reads a positive count from a command line option.
+	 * 
+	 * @param 	option			The <CODE>Option</CODE> to read.
+	 * @param 	value			The default value.
+	 * @param 	minimum			The smallest acceptable value.
+	 * @return	The value of the option or the default.
+	 * @since	TFP 1.9
+	 */
+	private static int count (Option option, int value, int minimum)
+	{
+		if (option.isPresent ()) {
+			value = Integer.parseInt (option.getValue ());
+			if (value < minimum) {
+				logger.severe ("The " + option + " value must be >= " + minimum);
+				System.exit (1);
+			}
+		}
+		return (value);
+	}
+	
+	/**
+	 * Parses a sample held in memory with schema validation.
+	 * 
+	 * @param 	bytes			The content of the sample.
+	 * @param 	file			The <CODE>File</CODE> it was read from.
+	 * @return	The parsed <CODE>Document</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private static Document parse (final byte [] bytes, File file)
+	{
+		InputSource		source = new InputSource (new ByteArrayInputStream (bytes));
+		
+		source.setSystemId (file.toURI ().toString ());
+		return (FpMLUtility.parse (false, source, null));
+	}
+	
+	/**
+	 * Creates the benchmarks to be run against the samples.
+	 * 
+	 * @return	The list of <CODE>Case</CODE> instances.
+	 * @since	TFP 1.9
+	 */
+	private ArrayList<Case> cases ()
+	{
+		ArrayList<Case>		result = new ArrayList<Case> ();
+		int					count  = documents.size ();
+		
+		result.add (new Case ("XmlUtility.validatingParse", count)
+			{
+				Object run (int index)
+				{
+					return (parse (sources.get (index), files.get (index)));
+				}
+			});
+		
+		result.add (new Case ("NodeIndex", count)
+			{
+				Object run (int index)
+				{
+					return (new NodeIndex (documents.get (index)));
+				}
+			});
+		
+		result.add (new Case ("Specification.releaseForDocument", count)
+			{
+				Object run (int index)
+				{
+					return (Specification.releaseForDocument (documents.get (index)));
+				}
+			});
+		
+		LinkedHashMap<String, RuleSet>	families = new LinkedHashMap<String, RuleSet> ();
+		
+		families.put ("SchemeRules", SchemeRules.getRules ());
+		families.put ("FxRules", FxRules.getRules ());
+		families.put ("IrdRules", IrdRules.getRules ());
+		families.put ("CdsRules", CdsRules.getRules ());
+		families.put ("ReferenceRules", ReferenceRules.getRules ());
+		
+		for (String name : families.keySet ()) {
+			final RuleSet	rules = families.get (name);
+			
+			result.add (new Case (name, count)
+				{
+					Object run (int index)
+					{
+						return (rules.validate (documents.get (index), IGNORE));
+					}
+				});
+		}
+		
+		// Group the samples by each direct conversion available from their release
+		LinkedHashMap<String, ArrayList<Document>> hops = new LinkedHashMap<String, ArrayList<Document>> ();
+		LinkedHashMap<String, Conversion> conversions = new LinkedHashMap<String, Conversion> ();
+		
+		for (Document document : documents) {
+			Release		source = Specification.releaseForDocument (document);
+			
+			if (source == null) continue;
+			
+			for (Enumeration<Release> cursor = source.getSpecification ().releases (); cursor.hasMoreElements ();) {
+				Conversion	conversion = Conversion.conversionFor (source, cursor.nextElement ());
+				
+				if (conversion instanceof DirectConversion) {
+					String		name = "Conversion " + conversion;
+					
+					if (!hops.containsKey (name)) {
+						hops.put (name, new ArrayList<Document> ());
+						conversions.put (name, conversion);
+					}
+					hops.get (name).add (document);
+				}
+			}
+		}
+		
+		for (String name : hops.keySet ()) {
+			final Conversion			conversion = conversions.get (name);
+			final ArrayList<Document>	inputs	   = hops.get (name);
+			
+			result.add (new Case (name, inputs.size ())
+				{
+					Object run (int index)
+						throws Exception
+					{
+						return (conversion.convert (inputs.get (index), new DefaultHelper ()));
+					}
+				});
+		}
+		return (result);
+	}
+	
+	/**
+	 * Runs the warm up and measured iterations of a benchmark and reports
+	 * the results.
+	 * 
+	 * @param 	task			The <CODE>Case</CODE> to measure.
+	 * @throws	Exception If the benchmark fails.
+	 * @since	TFP 1.9
+	 */
+	private void measure (Case task)
+		throws Exception
+	{
+		if (task.size == 0) return;
+		
+		long []		sample = new long [3];
+		double []	times  = new double [iterations];
+		long		ops	   = 0;
+		long		bytes  = 0;
+		
+		for (int iteration = 0; iteration < warmup; ++iteration)
+			iterate (task, sample);
+		
+		System.gc ();
+		for (int iteration = 0; iteration < iterations; ++iteration) {
+			iterate (task, sample);
+			times [iteration] = (double) sample [1] / sample [0];
+			ops	  += sample [0];
+			bytes += sample [2];
+		}
+		
+		double		mean	 = 0.0;
+		double		variance = 0.0;
+		
+		for (double time : times) mean += time / iterations;
+		for (double time : times) variance += (time - mean) * (time - mean) / Math.max (1, iterations - 1);
+		
+		stream.println (String.format ("%-40s %12d %12.0f %12.0f %14s", task.name, ops, mean,
+				Math.sqrt (variance), (bytes >= 0) ? String.format ("%.0f", (double) bytes / ops) : "n/a"));
+	}
+	
+	/**
+	 * Performs a single iteration of a benchmark, repeatedly processing
+	 * all of its inputs until the iteration period has elapsed.
+	 * 
+	 * @param 	task			The <CODE>Case</CODE> to run.
+	 * @param 	sample			Filled with the number of operations, the
+	 * 							elapsed time in nanoseconds and the bytes
+	 * 							allocated (or -1 if unknown).
+	 * @throws	Exception If the benchmark fails.
+	 * @since	TFP 1.9
+	 */
+	private void iterate (Case task, long [] sample)
+		throws Exception
+	{
+		long		allocated = allocatedBytes ();
+		long		start	  = System.nanoTime ();
+		long		elapsed;
+		long		ops		  = 0;
+		Object		result	  = null;
+		
+		do {
+			for (int index = 0; index < task.size; ++index)
+				result = task.run (index);
+			
+			ops += task.size;
+		} while ((elapsed = System.nanoTime () - start) < period);
+		
+		sink = result;
+		
+		sample [0] = ops;
+		sample [1] = elapsed;
+		sample [2] = (allocated >= 0) ? allocatedBytes () - allocated : -1;
+	}
+	
+	/**
+	 * Determines the number of bytes allocated so far by the current thread
+	 * if the JVM supports it.
+	 * 
+	 * @return	The number of bytes allocated or -1 if unknown.
+	 * @since	TFP 1.9
+	 */
+	private static long allocatedBytes ()
+	{
+		java.lang.management.ThreadMXBean	bean = ManagementFactory.getThreadMXBean ();
+		
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean	extended = (com.sun.management.ThreadMXBean) bean;
+			
+			if (extended.isThreadAllocatedMemorySupported () && extended.isThreadAllocatedMemoryEnabled ())
+				return (extended.getThreadAllocatedBytes (Thread.currentThread ().getId ()));
+		}
+		return (-1);
+	}
+}
\ No newline at end of file
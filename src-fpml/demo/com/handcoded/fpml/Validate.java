@@ -15,6 +15,7 @@ package demo.com.handcoded.fpml;
 
 import java.io.File;
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,10 +24,15 @@ import org.w3c.dom.Node;
 import org.xml.sax.SAXParseException;
 
 import com.handcoded.fpml.FpMLUtility;
+import com.handcoded.fpml.ValidationService;
 import com.handcoded.fpml.validation.AllRules;
 import com.handcoded.fpml.validation.FpMLRules;
 import com.handcoded.framework.Option;
+import com.handcoded.validation.LatencyHistogram;
 import com.handcoded.validation.RuleSet;
+import com.handcoded.validation.RuleStatistics;
+import com.handcoded.validation.ValidationError;
+import com.handcoded.validation.ValidationErrorSet;
 import com.handcoded.xml.XPath;
 import com.handcoded.xml.XmlUtility;
 
@@ -80,6 +86,14 @@ public final class Validate extends Application
 		}
 		random = randomOption.isPresent ();
 
+		if (threadsOption.isPresent ()) {
+			threads = Integer.parseInt (threadsOption.getValue ());
+			if (threads <= 0) {
+				logger.severe ("The thread count must be >= 1");
+				System.exit (1);
+			}
+		}
+
 		if (getArguments ().length == 0) {
 			logger.severe ("No files are present on the command line");
 			System.exit (1);
@@ -121,12 +135,36 @@ public final class Validate extends Application
 		ValidationErrorHandler	validationErrorHandler = new ValidationErrorHandler ();
 		boolean					schemaOnly = schemaOnlyOption.isPresent();
 		int						count = 0;
+		RuleStatistics			statistics = null;
+		
+		if (statisticsOption.isPresent ()) {
+			rules.setStatistics (statistics = new RuleStatistics ());
+			statistics.register ("Validate");
+		}
 		
 		arguments = findFiles (arguments);
 		
 		try {
 			long start = System.currentTimeMillis();
 	
+			if (threadsOption.isPresent () && !noValidationOption.isPresent ()) {
+				ArrayList<File>	files = new ArrayList<File> ();
+				
+				while (repeat-- > 0) {
+					for (int index = 0; index < arguments.length; ++index) {
+						int		which = random ? (int)(Math.random () * arguments.length ) : index;
+						
+						files.add (new File (arguments [which]));
+					}
+				}
+				
+				ValidationService service = new ValidationService (threads, 4 * threads, rules.freeze (), schemaOnly);
+				
+				service.validate (files.iterator (), new ResultHandler ());
+				service.shutdown ();
+				count = files.size ();
+			}
+			
 			while (repeat-- > 0) {
 				for (int index = 0; index < arguments.length; ++index) {
 					int		which = random ? (int)(Math.random () * arguments.length ) : index;
@@ -165,6 +203,26 @@ public final class Validate extends Application
 				stream.println ("== " + ((1000.0 * count) / (end - start))
 					+ " files/sec checking " + rules.size () + " rules");
 			}
+			
+			if (statistics != null) {
+				rules.setStatistics (null);
+				
+				if (reportOption.isPresent ()) {
+					for (RuleStatistics.Entry entry : statistics.getEntries ()) {
+						LatencyHistogram latency = entry.getLatency ();
+						
+						stream.println ("\t<rule name=\"" + entry.getName ()
+								+ "\" invoked=\"" + entry.getInvocations ()
+								+ "\" applied=\"" + entry.getApplications ()
+								+ "\" errors=\"" + entry.getErrors ()
+								+ "\" totalTime=\"" + latency.getTotal ()
+								+ "\" p99Time=\"" + latency.getValueAtPercentile (99.0)
+								+ "\" maxTime=\"" + latency.getMax () + "\"/>");
+					}
+				}
+				else
+					statistics.dump (stream);
+			}
 		}
 		catch (Exception error) {
 			logger.log (Level.SEVERE, "Unexpected exception during processing", error);
@@ -242,6 +300,55 @@ public final class Validate extends Application
 		}
 	}
 	
+	/**
+	 * The <CODE>ResultHandler</CODE> reports the errors captured for each
+	 * document processed by a <CODE>ValidationService</CODE>.
+	 * 
+	 * @since	TFP 1.9
+	 */
+	private class ResultHandler implements ValidationService.ResultHandler
+	{
+		public void handle (ValidationService.Result result)
+		{
+			File file = (File) result.getSource ();
+			
+			if (reportOption.isPresent ())
+				stream.println ("\t<file name=\"" + file.getName () + "\">");
+			else
+				stream.println (">> " + file.getPath ());
+			
+			ValidationErrorSet errors = result.getErrors ();
+			
+			for (int index = 0; index < errors.count (); ++index) {
+				ValidationError error = errors.getItem (index);
+				
+				if (reportOption.isPresent ()) {
+					if (error.isLexical ())
+						stream.println ("\t\t<syntaxError>" + error.getDescription () + "</syntaxError>");
+					else
+						stream.println ("\t\t<validationError rule=\"" + error.getRuleName ()
+								+ "\" context=\"" + error.getContext ()
+								+ "\"" + ((error.getAdditionalData () != null) ? (" additionalData=\"" + error.getAdditionalData () + "\"") : "")
+								+ ">" + error.getDescription () + "</validationError>");
+				}
+				else {
+					if (error.isLexical ())
+						stream.println (error.getDescription ());
+					else if (error.getAdditionalData () != null)
+						stream.println (error.getRuleName () + " " + error.getContext () + " " + error.getDescription () + " [" + error.getAdditionalData () + "]");
+					else
+						stream.println (error.getRuleName () + " " + error.getContext () + " " + error.getDescription ());
+				}
+			}
+			
+			if (result.getException () != null)
+				logger.log (Level.SEVERE, "Unexpected exception during processing", result.getException ());
+			
+			if (reportOption.isPresent ())
+				stream.println ("\t</file>");
+		}
+	}
+	
 	/**
 	 * A <CODE>Logger</CODE> instance used to report serious errors.
 	 * @since	TFP 1.0
@@ -299,6 +406,20 @@ public final class Validate extends Application
 	private Option			noValidationOption
 		= new Option ("-noValidation", "Don't perform XML validation");
 	
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-threads count</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			threadsOption
+		= new Option ("-threads", "Validate files in parallel using worker threads", "count");
+	
+	/**
+	 * The <CODE>Option</CODE> instance used to detect <CODE>-statistics</CODE>
+	 * @since	TFP 1.9
+	 */
+	private Option			statisticsOption
+		= new Option ("-statistics", "Collect and report per rule execution statistics");
+	
 	/**
 	 * The <CODE>PrintStream</CODE> instance to output to.
 	 * @since	TFP 1.6
@@ -316,6 +437,12 @@ public final class Validate extends Application
 	 * @since	TFP 1.0
 	 */
 	private boolean			random = false;
+	
+	/**
+	 * The number of worker threads to use with <CODE>-threads</CODE>.
+	 * @since	TFP 1.9
+	 */
+	private int				threads = 1;
 
 	/**
 	 * Constructs a <CODE>Validate</CODE> instance.